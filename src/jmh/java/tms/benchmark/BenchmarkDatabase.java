@@ -0,0 +1,104 @@
+package tms.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import tms.dao.TaskDAOImpl;
+import tms.model.TagDictionary;
+import tms.util.DatabaseConnection;
+import tms.util.DatabaseSeeder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded PostgreSQL instance shared by the benchmarks of one JVM.
+ * <p>
+ * The first call to {@link #start()} launches a throwaway server, applies
+ * {@code db/tms_schema.sql} and points the application's configuration at it
+ * through system properties, so {@link DatabaseConnection} and the DAOs run
+ * unchanged against it. Nothing outside the JVM's temporary directory is
+ * touched and no network access is needed.
+ */
+public final class BenchmarkDatabase {
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    private static EmbeddedPostgres postgres;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Starts the embedded server and loads the schema, once per JVM.
+     *
+     * @throws IOException if the server cannot be started
+     * @throws SQLException if the schema cannot be applied
+     */
+    public static void start() throws IOException, SQLException {
+        LOCK.lock();
+        try {
+            if (postgres != null) {
+                return;
+            }
+            postgres = EmbeddedPostgres.builder().start();
+            String url = postgres.getJdbcUrl("postgres", "postgres");
+            try (Connection conn = postgres.getPostgresDatabase().getConnection();
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute(schema());
+            }
+            System.setProperty("db.url", url);
+            System.setProperty("db.username", "postgres");
+            System.setProperty("db.password", "postgres");
+            Runtime.getRuntime().addShutdownHook(new Thread(BenchmarkDatabase::stop));
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Removes all tasks and tags and restarts the id sequences. The tag
+     * dictionary is cleared too, as restarted tag ids will name other tags.
+     *
+     * @throws SQLException if the tables cannot be truncated
+     */
+    public static void reset() throws SQLException {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE task_tags, task_reminders, tags, tasks RESTART IDENTITY CASCADE");
+        }
+        TagDictionary.getInstance().clear();
+    }
+
+    /**
+     * Inserts tasks from {@link DatabaseSeeder} through the bulk path.
+     *
+     * @param count the number of tasks
+     * @param seed the random seed, so runs are reproducible
+     */
+    public static void seed(int count, long seed) {
+        new DatabaseSeeder(seed).seed(new TaskDAOImpl(), count, 10_000);
+        DatabaseSeeder.analyze();
+    }
+
+    private static String schema() throws IOException {
+        try (InputStream in = BenchmarkDatabase.class.getClassLoader().getResourceAsStream("db/tms_schema.sql")) {
+            if (in == null) {
+                throw new IOException("db/tms_schema.sql not found on the classpath");
+            }
+            String sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            // The embedded binaries ship without contrib extensions; the schema does not use them
+            return sql.replaceAll("(?m)^CREATE EXTENSION.*$", "");
+        }
+    }
+
+    private static void stop() {
+        DatabaseConnection.shutdown();
+        try {
+            postgres.close();
+        } catch (IOException e) {
+            System.err.println("Failed to stop embedded PostgreSQL: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tms.benchmark;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import tms.controller.TaskApiServlet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+
+/**
+ * Embedded Tomcat serving the JSON task API over an embedded PostgreSQL
+ * database, as the target for {@link tms.util.LoadGenerator}.
+ * <p>
+ * The same server runs with either of Tomcat's two execution models, so the
+ * two can be compared under identical load: {@code platform} uses the
+ * connector's pool of {@code maxThreads} platform threads, {@code virtual}
+ * sets the connector's {@code useVirtualThreads} attribute so every request
+ * runs on a new virtual thread (Java 21 or later). An optional per-request
+ * delay stands in for a slow downstream call, which is where the request
+ * thread cap shows.
+ * <p>
+ * Usage, with the {@code benchmarks} profile on the classpath:
+ * <pre>
+ * java -cp ... tms.benchmark.LoadTestServer &lt;platform|virtual&gt; [port=8080] [tasks=100000] [delayMs=0] [maxThreads=200]
+ * </pre>
+ * The API is then served at {@code http://localhost:<port>/api/tasks}.
+ */
+public final class LoadTestServer {
+
+    private LoadTestServer() {}
+
+    public static void main(String[] args) throws IOException, SQLException, LifecycleException {
+        if (args.length < 1 || !(args[0].equals("platform") || args[0].equals("virtual"))) {
+            System.err.println("Usage: LoadTestServer <platform|virtual> [port=8080] [tasks=100000] [delayMs=0] [maxThreads=200]");
+            System.exit(2);
+        }
+        boolean virtual = args[0].equals("virtual");
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int tasks = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        long delayMs = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        int maxThreads = args.length > 4 ? Integer.parseInt(args[4]) : 200;
+
+        if (virtual && Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21 or later; this JVM is " + Runtime.version());
+            System.exit(1);
+        }
+
+        BenchmarkDatabase.start();
+        BenchmarkDatabase.seed(tasks, 42L);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tms-tomcat").toString());
+        Connector connector = new Connector();
+        connector.setPort(port);
+        connector.setProperty("maxThreads", Integer.toString(maxThreads));
+        connector.setProperty("acceptCount", "1000");
+        if (virtual && !connector.setProperty("useVirtualThreads", "true")) {
+            throw new IllegalStateException("This Tomcat version does not support useVirtualThreads");
+        }
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "TaskApiServlet", new DelayedServlet(new TaskApiServlet(), delayMs));
+        context.addServletMappingDecoded("/api/tasks", "TaskApiServlet");
+        context.addServletMappingDecoded("/api/tasks/*", "TaskApiServlet");
+        tomcat.start();
+
+        System.out.printf("Serving %d tasks at http://localhost:%d/api/tasks on %s threads (maxThreads=%d, delayMs=%d)%n",
+                tasks, port, virtual ? "virtual" : "platform", maxThreads, delayMs);
+        tomcat.getServer().await();
+    }
+
+    /**
+     * Blocks the request thread for a fixed time before handing the request to
+     * the wrapped servlet, like a call to a slow downstream service would.
+     */
+    private static final class DelayedServlet extends HttpServlet {
+        private final HttpServlet delegate;
+        private final long delayMs;
+
+        DelayedServlet(HttpServlet delegate, long delayMs) {
+            this.delegate = delegate;
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public void init() throws ServletException {
+            delegate.init(getServletConfig());
+        }
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response)
+                throws ServletException, IOException {
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    return;
+                }
+            }
+            delegate.service(request, response);
+        }
+
+        @Override
+        public void destroy() {
+            delegate.destroy();
+        }
+    }
+}
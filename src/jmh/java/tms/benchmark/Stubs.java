@@ -0,0 +1,39 @@
+package tms.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Minimal interface stubs for benchmarking code that reads from JDBC or servlet
+ * objects, so the measured time is the code under test rather than I/O.
+ */
+public final class Stubs {
+
+    private Stubs() {}
+
+    /**
+     * Creates a stub whose methods are answered by a handler.
+     *
+     * @param type the interface to implement
+     * @param handler receives the method name and arguments and returns the result
+     * @param <T> the interface type
+     * @return the stub
+     */
+    public static <T> T of(Class<T> type, BiFunction<String, Object[], Object> handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.apply(method.getName(), args)));
+    }
+
+    /**
+     * Creates a stub answering {@code getParameter(name)} from a map, as used by servlets.
+     *
+     * @param type the request interface
+     * @param parameters the request parameters
+     * @param <T> the interface type
+     * @return the stub
+     */
+    public static <T> T withParameters(Class<T> type, Map<String, String> parameters) {
+        return of(type, (method, args) -> method.equals("getParameter") ? parameters.get((String) args[0]) : null);
+    }
+}
@@ -0,0 +1,52 @@
+package tms.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tms.benchmark.Stubs;
+import tms.model.Task;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TaskServlet#mapParamToTask(Task, HttpServletRequest)} for a
+ * typical form submission, read from a stub request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapParamToTaskBenchmark {
+
+    private TaskServlet servlet;
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        servlet = new TaskServlet();
+        request = Stubs.withParameters(HttpServletRequest.class, Map.of(
+                "id", "17",
+                "title", "Review code changes",
+                "description", "Review pull requests from development team",
+                "dueDate", "2030-03-01",
+                "priority", "MEDIUM",
+                "status", "IN_PROGRESS",
+                "tags", "development, review , backend"));
+    }
+
+    @Benchmark
+    public Task mapParamToTask() {
+        return servlet.mapParamToTask(new Task(), request);
+    }
+}
@@ -0,0 +1,51 @@
+package tms.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tms.benchmark.BenchmarkDatabase;
+import tms.model.Task;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link TaskDAOImpl#getTasks()}, including the query,
+ * driver decoding and mapping, for tables of 1k, 10k and 100k tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetTasksBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private TaskDAOImpl dao;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        BenchmarkDatabase.start();
+        BenchmarkDatabase.reset();
+        BenchmarkDatabase.seed(rows, 42);
+        dao = new TaskDAOImpl();
+    }
+
+    @Benchmark
+    public List<Task> getTasks() {
+        return dao.getTasks();
+    }
+}
@@ -0,0 +1,90 @@
+package tms.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tms.benchmark.BenchmarkDatabase;
+import tms.model.Task;
+import tms.util.DatabaseConnection;
+import tms.util.DatabaseSeeder;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of replacing every tag of a task with {@link TaskDAOImpl#saveTags},
+ * committed, for several tag-set sizes. Each invocation swaps between two
+ * disjoint tag sets, so every call deletes and inserts {@code tagCount} links.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveTagsBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int tagCount;
+
+    private TaskDAOImpl dao;
+    private Connection conn;
+    private Long taskId;
+    private List<String> current;
+    private List<String> next;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        BenchmarkDatabase.start();
+        BenchmarkDatabase.reset();
+        dao = new TaskDAOImpl();
+
+        Task task = new DatabaseSeeder(1).nextTask();
+        task.setTags(new ArrayList<>());
+        taskId = dao.save(task).getId();
+
+        current = new ArrayList<>();
+        next = new ArrayList<>();
+        for (int i = 0; i < tagCount; i++) {
+            next.add("even-" + i);
+        }
+        conn = DatabaseConnection.getInstance().getConnection();
+        conn.setAutoCommit(false);
+    }
+
+    @Benchmark
+    public void saveTags() throws SQLException {
+        dao.saveTags(conn, taskId, current, next);
+        conn.commit();
+        List<String> previous = current;
+        current = next;
+        next = previous.isEmpty() ? alternate(current) : previous;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conn.rollback();
+        conn.close();
+    }
+
+    private static List<String> alternate(List<String> tags) {
+        List<String> other = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            other.add(tag.replace("even-", "odd-"));
+        }
+        return other;
+    }
+}
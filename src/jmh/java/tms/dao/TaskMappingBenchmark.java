@@ -0,0 +1,64 @@
+package tms.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tms.benchmark.Stubs;
+import tms.model.TagDictionary;
+import tms.model.Task;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TaskDAOImpl#mapResultToTask(ResultSet)} for one row, measured
+ * against a stub result set so that no driver decoding or I/O is included.
+ * The tag ids are registered in the {@link TagDictionary} up front, as they
+ * would be on a warmed-up node.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    private TaskDAOImpl dao;
+    private ResultSet row;
+
+    @Setup
+    public void setUp() {
+        dao = new TaskDAOImpl();
+        TagDictionary.getInstance().putAll(Map.of(3, "bugfix", 1, "development", 7, "urgent"));
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", 42L);
+        columns.put("title", "Fix critical bug");
+        columns.put("description", "Resolve production issue reported by client");
+        columns.put("priority", "CRITICAL");
+        columns.put("due_date", Date.valueOf("2030-01-15"));
+        columns.put("status", "IN_PROGRESS");
+        columns.put("version", 3L);
+        columns.put("tag_ids", "7,1,3");
+        row = Stubs.of(ResultSet.class, (method, args) -> {
+            Object value = columns.get((String) args[0]);
+            return method.equals("getLong") ? (Object) ((Long) value).longValue() : value;
+        });
+    }
+
+    @Benchmark
+    public Task mapResultToTask() throws SQLException {
+        return dao.mapResultToTask(row);
+    }
+}
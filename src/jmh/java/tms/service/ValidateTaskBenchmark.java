@@ -0,0 +1,52 @@
+package tms.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tms.model.Task;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link TaskServiceImpl#validateTask(Task)} for a valid task, the path
+ * every create, update and imported row takes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateTaskBenchmark {
+
+    private TaskServiceImpl service;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        service = new TaskServiceImpl(null);
+        task = new Task();
+        task.setTitle("Prepare presentation");
+        task.setDescription("Create slides for client meeting");
+        task.setPriority("MEDIUM");
+        task.setDueDate(Date.valueOf(LocalDate.now().plusDays(10)));
+        task.setStatus(Task.Status.PENDING);
+        task.setTags(List.of("meeting", "documentation"));
+    }
+
+    @Benchmark
+    public Task validateTask() {
+        service.validateTask(task);
+        return task;
+    }
+}
@@ -2,12 +2,15 @@ package tms.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Provides static access to database configuration properties loaded from
  * the application.properties file. This class initializes the properties
  * during class loading and makes them available through static getter methods.
+ * Any property can be overridden with a JVM system property of the same name.
  * <p>
  * The configuration file must contain the following properties:
  * <ul>
@@ -16,6 +19,67 @@ import java.util.Properties;
  *   <li>db.password - The database password</li>
  *   <li>db.driver - The JDBC driver class name</li>
  * </ul>
+ * Connection pool settings are optional and fall back to the defaults
+ * documented on the corresponding getters:
+ * <ul>
+ *   <li>db.pool.minSize - Connections kept open while the pool is idle</li>
+ *   <li>db.pool.maxSize - Upper bound on open connections</li>
+ *   <li>db.pool.acquireTimeoutMs - How long a caller waits for a free connection</li>
+ *   <li>db.pool.idleTimeoutMs - Idle time after which surplus connections are closed</li>
+ *   <li>db.pool.validationIntervalMs - Idle time after which a connection is validated on borrow</li>
+ *   <li>db.pool.validationTimeoutSeconds - Timeout for a single validation check</li>
+ *   <li>db.pool.leakDetectionThresholdMs - Borrow duration reported as a possible leak (0 disables)</li>
+ *   <li>db.pool.housekeepingIntervalMs - Period of the eviction and leak detection sweep</li>
+ * </ul>
+ * Paginated listings read their bounds from:
+ * <ul>
+ *   <li>db.page.defaultSize - Page size used when the client does not ask for one</li>
+ *   <li>db.page.maxSize - Largest page size a client may request</li>
+ * </ul>
+ * Bulk imports and exports read their tuning from:
+ * <ul>
+ *   <li>db.import.chunkSize - Rows written and committed per COPY batch</li>
+ *   <li>db.import.maxReportedErrors - Row errors listed in an import report</li>
+ *   <li>db.export.fetchSize - Rows fetched per round trip while streaming an export</li>
+ * </ul>
+ * The optional read cache is configured with:
+ * <ul>
+ *   <li>db.cache.enabled - Whether task reads go through the in-process cache</li>
+ *   <li>db.cache.maxEntries - Tasks cached by id</li>
+ *   <li>db.cache.listMaxEntries - Listing and query results cached</li>
+ *   <li>db.cache.ttlSeconds - Age after which a cached entry is reloaded</li>
+ *   <li>db.notify.enabled - Whether caches follow the database's change notifications</li>
+ * </ul>
+ * Metrics are configured with:
+ * <ul>
+ *   <li>app.metrics.enabled - Whether requests and DAO calls are timed for JMX and /metrics</li>
+ * </ul>
+ * Background jobs are configured with:
+ * <ul>
+ *   <li>app.scheduler.enabled - Whether this node takes part in running the scheduled jobs</li>
+ *   <li>app.scheduler.jitterSeconds - Random delay added to every run so nodes do not start together</li>
+ *   <li>app.scheduler.batchSize - Tasks changed per statement by a sweep</li>
+ *   <li>app.scheduler.overdue.intervalMinutes - Period of the overdue task sweep</li>
+ *   <li>app.scheduler.overdue.transitions - Status moves applied to overdue tasks, as FROM:TO pairs (empty disables)</li>
+ *   <li>app.scheduler.reminder.intervalMinutes - Period of the due-date reminder sweep</li>
+ *   <li>app.scheduler.reminder.daysAhead - Days before their due date that open tasks are reminded of (negative disables)</li>
+ *   <li>app.scheduler.cleanup.intervalMinutes - Period of the completed task cleanup</li>
+ *   <li>app.scheduler.cleanup.deleteCompletedAfterDays - Days after their due date that completed tasks are deleted (0 disables)</li>
+ *   <li>app.scheduler.archive.intervalMinutes - Period of the archival of closed tasks</li>
+ *   <li>app.scheduler.archive.afterDays - Days after their due date that completed and failed tasks are archived (0 disables)</li>
+ * </ul>
+ * Logging is configured with:
+ * <ul>
+ *   <li>log.level - Level of the {@code tms} loggers; {@code log.level.<logger>} overrides it per logger</li>
+ *   <li>log.console.enabled - Whether records are written to the console</li>
+ *   <li>log.file.enabled - Whether records are written to rolling log files</li>
+ *   <li>log.file.pattern - {@link java.util.logging.FileHandler} file name pattern</li>
+ *   <li>log.file.limitBytes - Size at which the current log file is rolled</li>
+ *   <li>log.file.count - Number of log files kept</li>
+ *   <li>log.async.bufferSize - Records buffered for the background log writer</li>
+ *   <li>log.async.overflow - BLOCK or DROP when that buffer is full</li>
+ *   <li>log.async.batchSize - Records written between two flushes</li>
+ * </ul>
  *
  * @throws RuntimeException if:
  *                         <ul>
@@ -44,7 +108,7 @@ public class DatabaseConfig {
      * @return The JDBC connection URL as specified in the properties file
      */
     public static String getDbUrl() {
-        return properties.getProperty("db.url");
+        return get("db.url");
     }
 
     /**
@@ -53,7 +117,7 @@ public class DatabaseConfig {
      * @return The database username as specified in the properties file
      */
     public static String getDbUsername() {
-        return properties.getProperty("db.username");
+        return get("db.username");
     }
 
     /**
@@ -62,7 +126,7 @@ public class DatabaseConfig {
      * @return The database password as specified in the properties file
      */
     public static String getDbPassword() {
-        return properties.getProperty("db.password");
+        return get("db.password");
     }
 
     /**
@@ -71,6 +135,447 @@ public class DatabaseConfig {
      * @return The fully qualified JDBC driver class name as specified in the properties file
      */
     public static String getDbDriver() {
-        return properties.getProperty("db.driver");
+        return get("db.driver");
+    }
+
+    /**
+     * Retrieves the minimum number of pooled connections kept open.
+     *
+     * @return the configured minimum pool size, 2 by default
+     */
+    public static int getPoolMinSize() {
+        return getInt("db.pool.minSize", 2);
+    }
+
+    /**
+     * Retrieves the maximum number of pooled connections.
+     * Should be sized against the servlet container's request thread count.
+     *
+     * @return the configured maximum pool size, 10 by default
+     */
+    public static int getPoolMaxSize() {
+        return getInt("db.pool.maxSize", 10);
+    }
+
+    /**
+     * Retrieves how long a caller may wait for a free connection before failing.
+     *
+     * @return the acquire timeout in milliseconds, 5000 by default
+     */
+    public static long getPoolAcquireTimeoutMs() {
+        return getLong("db.pool.acquireTimeoutMs", 5_000L);
+    }
+
+    /**
+     * Retrieves how long a connection above the minimum may stay idle before it is closed.
+     *
+     * @return the idle timeout in milliseconds, 600000 by default
+     */
+    public static long getPoolIdleTimeoutMs() {
+        return getLong("db.pool.idleTimeoutMs", 600_000L);
+    }
+
+    /**
+     * Retrieves the idle time after which a connection is validated before being handed out.
+     * Connections returned more recently than this are trusted without a round-trip.
+     *
+     * @return the validation interval in milliseconds, 500 by default
+     */
+    public static long getPoolValidationIntervalMs() {
+        return getLong("db.pool.validationIntervalMs", 500L);
+    }
+
+    /**
+     * Retrieves the timeout applied to a single connection validation check.
+     *
+     * @return the validation timeout in seconds, 2 by default
+     */
+    public static int getPoolValidationTimeoutSeconds() {
+        return getInt("db.pool.validationTimeoutSeconds", 2);
+    }
+
+    /**
+     * Retrieves how long a connection may stay borrowed before it is reported as a possible leak.
+     *
+     * @return the leak detection threshold in milliseconds, 60000 by default; 0 disables detection
+     */
+    public static long getPoolLeakDetectionThresholdMs() {
+        return getLong("db.pool.leakDetectionThresholdMs", 60_000L);
+    }
+
+    /**
+     * Retrieves the period of the pool's background eviction and leak detection sweep.
+     *
+     * @return the housekeeping interval in milliseconds, 30000 by default
+     */
+    public static long getPoolHousekeepingIntervalMs() {
+        return getLong("db.pool.housekeepingIntervalMs", 30_000L);
+    }
+
+    /**
+     * Retrieves the page size used when a listing request does not specify one.
+     *
+     * @return the default page size, 50 by default
+     */
+    public static int getPageDefaultSize() {
+        return getInt("db.page.defaultSize", 50);
+    }
+
+    /**
+     * Retrieves the upper bound on the page size of a listing request.
+     *
+     * @return the maximum page size, 200 by default
+     */
+    public static int getPageMaxSize() {
+        return getInt("db.page.maxSize", 200);
+    }
+
+    /**
+     * Retrieves the number of rows ingested and committed together during a bulk import.
+     *
+     * @return the import chunk size, 10000 by default
+     */
+    public static int getImportChunkSize() {
+        return getInt("db.import.chunkSize", 10_000);
+    }
+
+    /**
+     * Retrieves how many row-level errors an import report lists before truncating.
+     *
+     * @return the maximum number of reported errors, 1000 by default
+     */
+    public static int getImportMaxReportedErrors() {
+        return getInt("db.import.maxReportedErrors", 1_000);
+    }
+
+    /**
+     * Retrieves how many rows an export cursor fetches per round trip.
+     *
+     * @return the export fetch size, 1000 by default
+     */
+    public static int getExportFetchSize() {
+        return getInt("db.export.fetchSize", 1_000);
+    }
+
+    /**
+     * Indicates whether task reads are served through the in-process cache.
+     *
+     * @return true if caching is enabled, false by default
+     */
+    public static boolean isCacheEnabled() {
+        return Boolean.parseBoolean(get("db.cache.enabled", "false").trim());
+    }
+
+    /**
+     * Retrieves the number of tasks the cache keeps by id.
+     *
+     * @return the per-id cache capacity, 10000 by default
+     */
+    public static int getCacheMaxEntries() {
+        return getInt("db.cache.maxEntries", 10_000);
+    }
+
+    /**
+     * Retrieves the number of listing and query results the cache keeps.
+     *
+     * @return the result cache capacity, 256 by default
+     */
+    public static int getCacheListMaxEntries() {
+        return getInt("db.cache.listMaxEntries", 256);
+    }
+
+    /**
+     * Retrieves how long a cached entry is served before it is reloaded.
+     *
+     * @return the time to live in seconds, 60 by default
+     */
+    public static int getCacheTtlSeconds() {
+        return getInt("db.cache.ttlSeconds", 60);
+    }
+
+    /**
+     * Indicates whether caches subscribe to the database's task change notifications,
+     * which keeps several application nodes coherent.
+     *
+     * @return true if change notifications are used, true by default
+     */
+    public static boolean isNotifyEnabled() {
+        return Boolean.parseBoolean(get("db.notify.enabled", "true").trim());
+    }
+
+    /**
+     * Indicates whether requests, DAO calls and the connection pool are instrumented
+     * and published through JMX and the {@code /metrics} endpoint.
+     *
+     * @return true if metrics are collected, true by default
+     */
+    public static boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(get("app.metrics.enabled", "true").trim());
+    }
+
+    /**
+     * Indicates whether this node runs the scheduled jobs. Nodes with the scheduler
+     * enabled elect one of them per run through a database lock.
+     *
+     * @return true if the scheduler is started, false by default
+     */
+    public static boolean isSchedulerEnabled() {
+        return Boolean.parseBoolean(get("app.scheduler.enabled", "false").trim());
+    }
+
+    /**
+     * Retrieves the upper bound of the random delay added to every scheduled run.
+     *
+     * @return the jitter in seconds, 30 by default
+     */
+    public static long getSchedulerJitterSeconds() {
+        return getLong("app.scheduler.jitterSeconds", 30);
+    }
+
+    /**
+     * Retrieves how many tasks a scheduled sweep changes per statement.
+     *
+     * @return the batch size, 500 by default
+     */
+    public static int getSchedulerBatchSize() {
+        return getInt("app.scheduler.batchSize", 500);
+    }
+
+    /**
+     * Retrieves the period of the overdue task sweep.
+     *
+     * @return the interval in minutes, 15 by default
+     */
+    public static long getOverdueIntervalMinutes() {
+        return getLong("app.scheduler.overdue.intervalMinutes", 15);
+    }
+
+    /**
+     * Retrieves the status moves applied to tasks past their due date.
+     *
+     * @return comma separated FROM:TO status pairs, "PENDING:FAILED" by default
+     */
+    public static String getOverdueTransitions() {
+        return get("app.scheduler.overdue.transitions", "PENDING:FAILED").trim();
+    }
+
+    /**
+     * Retrieves the period of the due-date reminder sweep.
+     *
+     * @return the interval in minutes, 60 by default
+     */
+    public static long getReminderIntervalMinutes() {
+        return getLong("app.scheduler.reminder.intervalMinutes", 60);
+    }
+
+    /**
+     * Retrieves how many days before their due date open tasks are reminded of.
+     *
+     * @return the look-ahead in days, 1 by default; negative disables reminders
+     */
+    public static int getReminderDaysAhead() {
+        return getInt("app.scheduler.reminder.daysAhead", 1);
+    }
+
+    /**
+     * Retrieves the period of the completed task cleanup.
+     *
+     * @return the interval in minutes, 60 by default
+     */
+    public static long getCleanupIntervalMinutes() {
+        return getLong("app.scheduler.cleanup.intervalMinutes", 60);
+    }
+
+    /**
+     * Retrieves how many days after their due date completed tasks are deleted.
+     *
+     * @return the retention in days, 90 by default; 0 keeps completed tasks
+     */
+    public static int getCleanupDeleteCompletedAfterDays() {
+        return getInt("app.scheduler.cleanup.deleteCompletedAfterDays", 90);
+    }
+
+    /**
+     * Retrieves the period of the archival of closed tasks.
+     *
+     * @return the interval in minutes, 60 by default
+     */
+    public static long getArchiveIntervalMinutes() {
+        return getLong("app.scheduler.archive.intervalMinutes", 60);
+    }
+
+    /**
+     * Retrieves how many days after their due date completed and failed tasks are archived.
+     *
+     * @return the age in days, 30 by default; 0 keeps closed tasks in the active partition
+     */
+    public static int getArchiveAfterDays() {
+        return getInt("app.scheduler.archive.afterDays", 30);
+    }
+
+    /**
+     * Retrieves the level of the application's {@code tms} loggers.
+     *
+     * @return a {@link java.util.logging.Level} name or number, INFO by default
+     */
+    public static String getLogLevel() {
+        return get("log.level", "INFO").trim();
+    }
+
+    /**
+     * Retrieves per-logger level overrides, set as {@code log.level.<logger name>=<level>}.
+     *
+     * @return the levels keyed by logger name, in no particular order
+     */
+    public static Map<String, String> getLogLevelOverrides() {
+        String prefix = "log.level.";
+        Map<String, String> levels = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                levels.put(key.substring(prefix.length()), properties.getProperty(key).trim());
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                levels.put(key.substring(prefix.length()), System.getProperty(key).trim());
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Indicates whether log records are written to the console.
+     *
+     * @return true if console logging is enabled, true by default
+     */
+    public static boolean isLogConsoleEnabled() {
+        return Boolean.parseBoolean(get("log.console.enabled", "true").trim());
+    }
+
+    /**
+     * Indicates whether log records are written to rolling files.
+     *
+     * @return true if file logging is enabled, true by default
+     */
+    public static boolean isLogFileEnabled() {
+        return Boolean.parseBoolean(get("log.file.enabled", "true").trim());
+    }
+
+    /**
+     * Retrieves the log file name pattern, relative to the server's working directory.
+     *
+     * @return the {@link java.util.logging.FileHandler} pattern, "tms-app.%g.log" by default
+     */
+    public static String getLogFilePattern() {
+        return get("log.file.pattern", "tms-app.%g.log").trim();
+    }
+
+    /**
+     * Retrieves the size at which the current log file is rolled over.
+     *
+     * @return the limit in bytes, 10485760 by default
+     */
+    public static int getLogFileLimitBytes() {
+        return getInt("log.file.limitBytes", 10 * 1024 * 1024);
+    }
+
+    /**
+     * Retrieves the number of rolled log files kept.
+     *
+     * @return the file count, 5 by default
+     */
+    public static int getLogFileCount() {
+        return getInt("log.file.count", 5);
+    }
+
+    /**
+     * Retrieves the number of records the background log writer buffers.
+     *
+     * @return the buffer capacity, 8192 by default
+     */
+    public static int getLogBufferSize() {
+        return getInt("log.async.bufferSize", 8_192);
+    }
+
+    /**
+     * Retrieves what a logging thread does when the log buffer is full.
+     *
+     * @return "BLOCK" to wait for space or "DROP" to discard the record, BLOCK by default
+     */
+    public static String getLogOverflowPolicy() {
+        return get("log.async.overflow", "BLOCK").trim();
+    }
+
+    /**
+     * Retrieves the number of records the log writer publishes between two flushes.
+     *
+     * @return the batch size, 256 by default
+     */
+    public static int getLogBatchSize() {
+        return getInt("log.async.batchSize", 256);
+    }
+
+    /**
+     * Reads a property. A JVM system property of the same name, e.g. {@code -Ddb.url=...},
+     * takes precedence over the value in application.properties.
+     *
+     * @param key the property name
+     * @return the value, or null if it is not set
+     */
+    private static String get(String key) {
+        String value = System.getProperty(key);
+        return value != null ? value : properties.getProperty(key);
+    }
+
+    /**
+     * Reads a property, falling back to a default when it is not set.
+     *
+     * @param key the property name
+     * @param defaultValue the value used when the property is absent
+     * @return the value
+     */
+    private static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Reads an optional integer property.
+     *
+     * @param key the property name
+     * @param defaultValue the value used when the property is absent or blank
+     * @return the parsed value
+     * @throws RuntimeException if the property is present but not a valid integer
+     */
+    private static int getInt(String key, int defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("Invalid integer value for " + key + ": " + value, ex);
+        }
+    }
+
+    /**
+     * Reads an optional long property.
+     *
+     * @param key the property name
+     * @param defaultValue the value used when the property is absent or blank
+     * @return the parsed value
+     * @throws RuntimeException if the property is present but not a valid long
+     */
+    private static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("Invalid long value for " + key + ": " + value, ex);
+        }
     }
 }
\ No newline at end of file
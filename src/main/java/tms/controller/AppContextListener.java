@@ -0,0 +1,81 @@
+package tms.controller;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import tms.config.DatabaseConfig;
+import tms.dao.CachingTaskDAO;
+import tms.dao.TaskDAOFactory;
+import tms.service.TaskScheduler;
+import tms.util.DatabaseConnection;
+import tms.util.DatabaseNotificationListener;
+import tms.util.logging.LogConfigurator;
+import tms.util.metrics.MetricsRegistry;
+
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application lifecycle hook.
+ * Warms up the database connection pool and the task DAO, including its tag
+ * index, when the web application starts, starts the task scheduler if
+ * enabled, and releases them when the application is undeployed.
+ */
+@WebListener
+public class AppContextListener implements ServletContextListener {
+    private static final Logger LOGGER = Logger.getLogger(AppContextListener.class.getName());
+
+    /**
+     * Configures logging, then starts the connection pool so its minimum
+     * connections are open before the first request, and creates the task DAO
+     * so the tag index is loaded before the first suggestion is requested.
+     * The task scheduler is started when {@code app.scheduler.enabled} is set;
+     * an invalid scheduler configuration is logged and leaves it stopped.
+     * A failure is logged and retried lazily on the first request instead of failing deployment.
+     *
+     * @param sce the servlet context event
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        LogConfigurator.configure();
+        try {
+            DatabaseConnection.getInstance();
+            TaskDAOFactory.getTaskDAO();
+            LOGGER.info("Application started");
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool could not be started at deployment", e);
+        }
+        if (DatabaseConfig.isSchedulerEnabled()) {
+            try {
+                TaskScheduler.start();
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.SEVERE, "Task scheduler not started: invalid configuration", e);
+            }
+        }
+    }
+
+    /**
+     * Logs the final task cache statistics, if caching is enabled, stops the
+     * task scheduler and the notification listener, closes the connection pool and unregisters the
+     * application's metrics from JMX. Logging is shut down last, after its
+     * queued records are written.
+     *
+     * @param sce the servlet context event
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        CachingTaskDAO cache = TaskDAOFactory.getCache();
+        if (cache != null) {
+            LOGGER.info(() -> "Task cache " + cache.getByIdStats());
+            LOGGER.info(() -> "Task cache " + cache.getResultStats());
+        }
+        TaskScheduler.shutdown();
+        DatabaseNotificationListener.shutdown();
+        DatabaseConnection.shutdown();
+        MetricsRegistry.getInstance().clear();
+        LOGGER.info("Application stopped");
+        LogConfigurator.shutdown();
+    }
+}
@@ -0,0 +1,36 @@
+package tms.controller;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import tms.util.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Exposes the application's metrics in the Prometheus text format.
+ * Request, view render and DAO timers, connection pool and cache figures are
+ * read from {@link MetricsRegistry} at scrape time; nothing is buffered between scrapes.
+ */
+@WebServlet(name = "MetricsServlet", urlPatterns = {"/metrics"})
+public class MetricsServlet extends HttpServlet {
+
+    /**
+     * Writes every registered metric.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain; version=0.0.4");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-store");
+        Writer out = response.getWriter();
+        MetricsRegistry.getInstance().writePrometheus(out);
+        out.flush();
+    }
+}
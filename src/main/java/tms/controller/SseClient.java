@@ -0,0 +1,167 @@
+package tms.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One connected Server-Sent Events client.
+ * <p>
+ * Frames are queued and written with non-blocking servlet I/O: a frame is only
+ * written while {@link ServletOutputStream#isReady()} reports that the
+ * container can accept it, and the container calls {@link #onWritePossible()}
+ * once a blocked connection drains. No thread ever waits on a slow client.
+ * A client whose backlog exceeds a fixed number of bytes is disconnected;
+ * the browser's EventSource reconnects and reloads the board.
+ */
+final class SseClient implements WriteListener, AsyncListener {
+    private static final Logger LOGGER = Logger.getLogger(SseClient.class.getName());
+    private static final int MAX_BACKLOG_BYTES = 1024 * 1024;
+
+    private final AsyncContext context;
+    private final ServletOutputStream out;
+    private final Consumer<SseClient> onClose;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<byte[]> queue = new ArrayDeque<>();
+    private int queuedBytes;
+    private boolean closed;
+
+    /**
+     * Attaches to an async request and registers for write and lifecycle callbacks.
+     *
+     * @param context the started async context
+     * @param onClose invoked once when the client goes away
+     * @throws IOException if the response stream cannot be obtained
+     */
+    SseClient(AsyncContext context, Consumer<SseClient> onClose) throws IOException {
+        this.context = context;
+        this.out = context.getResponse().getOutputStream();
+        this.onClose = onClose;
+        context.addListener(this);
+        out.setWriteListener(this);
+    }
+
+    /**
+     * Queues a frame and writes as much of the queue as the connection accepts.
+     *
+     * @param frame the encoded SSE frame
+     * @return false if the client is closed or was dropped for falling behind
+     */
+    boolean send(byte[] frame) {
+        lock.lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (queuedBytes + frame.length > MAX_BACKLOG_BYTES) {
+                LOGGER.warning("Disconnecting slow event stream client");
+                closeLocked(true);
+                return false;
+            }
+            queue.add(frame);
+            queuedBytes += frame.length;
+            drain();
+            return !closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        lock.lock();
+        try {
+            drain();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        LOGGER.log(Level.FINE, "Event stream write failed", t);
+        close(true);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close(false);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close(true);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    /**
+     * Ends the stream.
+     */
+    void close() {
+        close(true);
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the connection would block.
+     * Must be called with the lock held.
+     */
+    private void drain() {
+        try {
+            while (!closed && out.isReady()) {
+                byte[] frame = queue.poll();
+                if (frame == null) {
+                    out.flush();
+                    return;
+                }
+                queuedBytes -= frame.length;
+                out.write(frame);
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.log(Level.FINE, "Event stream client disconnected", e);
+            closeLocked(true);
+        }
+    }
+
+    private void close(boolean complete) {
+        lock.lock();
+        try {
+            closeLocked(complete);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeLocked(boolean complete) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        queuedBytes = 0;
+        onClose.accept(this);
+        if (complete) {
+            try {
+                context.complete();
+            } catch (IllegalStateException e) {
+                LOGGER.log(Level.FINEST, "Async context already completed", e);
+            }
+        }
+    }
+}
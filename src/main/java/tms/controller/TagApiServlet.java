@@ -0,0 +1,70 @@
+package tms.controller;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import tms.service.TaskService;
+import tms.service.TaskServiceImpl;
+import tms.util.io.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Tag suggestions for type-ahead.
+ * <p>
+ * {@code GET /api/tags?prefix=..&limit=..} answers the most used existing tags
+ * starting with the prefix, ignoring case, as {@code [{"name":"...","count":n},...]}.
+ * Suggestions come from the in-memory tag index, so a keystroke never reaches
+ * the database; {@code limit} defaults to 10.
+ */
+@WebServlet(name = "TagApiServlet", urlPatterns = {"/api/tags"})
+public class TagApiServlet extends HttpServlet {
+    private static final Logger LOGGER = Logger.getLogger(TagApiServlet.class.getName());
+    private static final int DEFAULT_LIMIT = 10;
+
+    private TaskService taskService;
+
+    /**
+     * Initializes the servlet and its dependencies.
+     * @throws ServletException if initialization fails
+     */
+    @Override
+    public void init() throws ServletException {
+        taskService = new TaskServiceImpl();
+        LOGGER.info("TagApiServlet initialized successfully");
+    }
+
+    /**
+     * Writes the suggestions for the requested prefix.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int limit = DEFAULT_LIMIT;
+        String limitParam = request.getParameter("limit");
+        if (limitParam != null && !limitParam.isBlank()) {
+            try {
+                limit = Integer.parseInt(limitParam.trim());
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid limit: " + limitParam);
+                return;
+            }
+        }
+        Map<String, Long> suggestions = taskService.suggestTags(request.getParameter("prefix"), limit);
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        Writer out = response.getWriter();
+        TaskJson.writeTagSuggestions(new JsonWriter(out), suggestions);
+        out.flush();
+    }
+}
@@ -0,0 +1,331 @@
+package tms.controller;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tms.dao.TaskQuery;
+import tms.exception.DataAccessException;
+import tms.exception.ConflictException;
+import tms.exception.ValidationException;
+import tms.model.Page;
+import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.model.TaskStats;
+import tms.service.TaskService;
+import tms.service.TaskServiceImpl;
+import tms.util.io.HashingWriter;
+import tms.util.io.JsonReader;
+import tms.util.io.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * JSON resource API for tasks.
+ * <ul>
+ *   <li>{@code GET /api/tasks} - one page of tasks; accepts the filter parameters of
+ *       {@link TaskQueryParams} plus {@code cursor} and {@code size}. With {@code search}
+ *       and no {@code sort}, results are ordered by relevance</li>
+ *   <li>{@code GET /api/tasks/{id}} - one task</li>
+ *   <li>{@code GET /api/tasks/counts} - task counts per status, priority and most used tags;
+ *       accepts the filter parameters of {@link TaskQueryParams}</li>
+ *   <li>{@code GET /api/tasks/stats} - counts by status and priority, overdue counts and
+ *       most used tags over all active tasks, read from the summary tables</li>
+ *   <li>{@code POST /api/tasks} - creates a task from a JSON body; answers 201 with the task</li>
+ *   <li>{@code PUT /api/tasks/{id}} - replaces the fields given in the JSON body</li>
+ *   <li>{@code DELETE /api/tasks/{id}} - deletes a task; answers 204</li>
+ * </ul>
+ * GET responses carry an ETag, and a request whose {@code If-None-Match} matches it
+ * gets 304 Not Modified with no body. For a page of tasks the ETag is checked before
+ * the page is loaded: it fingerprints the ids and versions of the tasks the page would
+ * hold, read with a key-only query, so an unchanged page costs neither the tag lookups
+ * nor the serialization. A single task's ETag is its version; counts and stats are
+ * small aggregates whose ETag hashes the serialized document.
+ * Errors are returned as {@code {"error":"..."}}.
+ */
+@WebServlet(name = "TaskApiServlet", urlPatterns = {"/api/tasks", "/api/tasks/*"})
+public class TaskApiServlet extends HttpServlet {
+    private static final Logger LOGGER = Logger.getLogger(TaskApiServlet.class.getName());
+    private static final String JSON = "application/json";
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final String COUNTS_PATH = "/counts";
+    private static final String STATS_PATH = "/stats";
+
+    private TaskService taskService;
+
+    /**
+     * Initializes the servlet and its dependencies.
+     * @throws ServletException if initialization fails
+     */
+    @Override
+    public void init() throws ServletException {
+        taskService = new TaskServiceImpl();
+        LOGGER.info("TaskApiServlet initialized successfully");
+    }
+
+    /**
+     * Dispatches to the resource handlers and maps failures to JSON error responses.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            if ("PATCH".equals(request.getMethod())) {
+                doPatch(request, response);
+            } else {
+                super.service(request, response);
+            }
+        } catch (ValidationException | IllegalArgumentException e) {
+            sendError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (ConflictException e) {
+            sendError(response, e.getCurrent() == null
+                    ? HttpServletResponse.SC_NOT_FOUND : HttpServletResponse.SC_CONFLICT, e.getMessage());
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.SEVERE, "API request failed: " + request.getMethod() + " " + request.getRequestURI(), e);
+            sendError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Database error");
+        }
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (COUNTS_PATH.equals(request.getPathInfo())) {
+            TaskCounts counts = taskService.getTaskCounts(TaskQueryParams.fromRequest(request).build());
+            writeWithETag(request, response, json -> TaskJson.write(json, counts));
+            return;
+        }
+        if (STATS_PATH.equals(request.getPathInfo())) {
+            TaskStats stats = taskService.getTaskStats();
+            writeWithETag(request, response, json -> TaskJson.write(json, stats));
+            return;
+        }
+        Long id = parseId(request);
+        if (id != null) {
+            Task task = taskService.getTask(id);
+            if (task == null) {
+                sendError(response, HttpServletResponse.SC_NOT_FOUND, "Task " + id + " not found");
+                return;
+            }
+            if (!notModified(request, response, "\"" + task.getId() + "-" + task.getVersion() + "\"")) {
+                write(response, json -> TaskJson.write(json, task));
+            }
+            return;
+        }
+
+        TaskQuery query = TaskQueryParams.fromRequest(request).build();
+        String cursor = request.getParameter("cursor");
+        int size = parseSize(request);
+        boolean ranked = query.getSearchText() != null && query.getSorts().isEmpty();
+        String etag = "\"" + taskService.getTaskPageVersion(query, cursor, size, ranked) + "\"";
+        if (notModified(request, response, etag)) {
+            return;
+        }
+        Page<Task> page = ranked
+                ? taskService.searchTasks(query, cursor, size)
+                : taskService.findTaskPage(query, cursor, size);
+        write(response, json -> TaskJson.write(json, page));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (parseId(request) != null) {
+            sendError(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "POST a new task to /api/tasks");
+            return;
+        }
+        Task task = TaskJson.read(readBody(request), new Task());
+        taskService.createTask(task);
+        LOGGER.info(() -> "Created task " + task.getId() + " through the API");
+
+        response.setStatus(HttpServletResponse.SC_CREATED);
+        response.setHeader("Location", request.getContextPath() + "/api/tasks/" + task.getId());
+        write(response, json -> TaskJson.write(json, task));
+    }
+
+    @Override
+    protected void doPut(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long id = parseId(request);
+        if (id == null) {
+            sendError(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "PUT requires a task id");
+            return;
+        }
+        Map<String, Object> body = readBody(request);
+        Task task = taskService.getTask(id);
+        if (task == null) {
+            sendError(response, HttpServletResponse.SC_NOT_FOUND, "Task " + id + " not found");
+            return;
+        }
+        taskService.updateTask(TaskJson.read(body, task));
+        write(response, json -> TaskJson.write(json, task));
+    }
+
+    /**
+     * Changes only the fields given in the JSON body, without reading the task
+     * first, and responds with the task as stored afterwards. A {@code version}
+     * in the body makes the change conditional.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    protected void doPatch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long id = parseId(request);
+        if (id == null) {
+            sendError(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "PATCH requires a task id");
+            return;
+        }
+        Task task = taskService.patchTask(TaskJson.readPatch(readBody(request), id));
+        write(response, json -> TaskJson.write(json, task));
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long id = parseId(request);
+        if (id == null) {
+            sendError(response, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "DELETE requires a task id");
+            return;
+        }
+        if (taskService.getTask(id) == null) {
+            sendError(response, HttpServletResponse.SC_NOT_FOUND, "Task " + id + " not found");
+            return;
+        }
+        taskService.deleteTask(id);
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    /**
+     * Produces a JSON document on a {@link JsonWriter}.
+     */
+    @FunctionalInterface
+    private interface JsonBody {
+        void writeTo(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Serializes the body once, fingerprints it with a {@link HashingWriter}, answers
+     * 304 if the client already holds that version, and otherwise sends the serialized text.
+     */
+    private void writeWithETag(HttpServletRequest request, HttpServletResponse response, JsonBody body)
+            throws IOException {
+        StringWriter buffer = new StringWriter(1024);
+        body.writeTo(new JsonWriter(buffer));
+        String json = buffer.toString();
+        HashingWriter hash = new HashingWriter();
+        hash.write(json);
+        if (notModified(request, response, "\"" + hash.getHash() + "\"")) {
+            return;
+        }
+        Writer writer = open(response);
+        writer.write(json);
+        writer.flush();
+    }
+
+    /**
+     * Sets the validator headers and answers 304 if the client already holds that version.
+     *
+     * @return true if a 304 was sent and nothing more should be written
+     */
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "no-cache");
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void write(HttpServletResponse response, JsonBody body) throws IOException {
+        Writer writer = open(response);
+        body.writeTo(new JsonWriter(writer));
+        writer.flush();
+    }
+
+    private static Writer open(HttpServletResponse response) throws IOException {
+        response.setContentType(JSON);
+        response.setCharacterEncoding("UTF-8");
+        return new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 8192);
+    }
+
+    private static void sendError(HttpServletResponse response, int status, String message) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.reset();
+        response.setStatus(status);
+        write(response, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    /**
+     * Reads and parses a JSON object request body of bounded size.
+     */
+    private static Map<String, Object> readBody(HttpServletRequest request) throws IOException {
+        try (InputStream in = request.getInputStream()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new IllegalArgumentException("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+            }
+            if (bytes.length == 0) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            return JsonReader.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Extracts the id from {@code /api/tasks/{id}}.
+     *
+     * @return the id, or null for the collection resource
+     * @throws IllegalArgumentException if the path segment is not a number
+     */
+    private static Long parseId(HttpServletRequest request) {
+        String path = request.getPathInfo();
+        if (path == null || path.equals("/")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(path.substring(1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid task id: " + path.substring(1));
+        }
+    }
+
+    private static int parseSize(HttpServletRequest request) {
+        String size = request.getParameter("size");
+        if (size == null || size.isBlank()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+    }
+}
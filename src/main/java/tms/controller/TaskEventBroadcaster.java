@@ -0,0 +1,185 @@
+package tms.controller;
+
+import tms.dao.TaskChangeEvent;
+import tms.model.Task;
+import tms.service.TaskService;
+import tms.util.DatabaseNotificationListener;
+import tms.util.io.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Turns database task change notifications into Server-Sent Events for every
+ * connected {@link SseClient}.
+ * <p>
+ * Notifications are handled on a single worker thread so the notification
+ * listener is never blocked by database reads. For inserts and updates the
+ * changed tasks are read once, in one statement, and the same encoded frame
+ * is sent to every client. Events are:
+ * <ul>
+ *   <li>{@code created} / {@code updated} - data is the full task as JSON</li>
+ *   <li>{@code deleted} - data is {@code {"id":...}}</li>
+ *   <li>{@code reload} - too many tasks changed to list; clients should reload the board</li>
+ *   <li>{@code reminder} - the task, as JSON, is due soon; sent once per task and due date by the scheduler</li>
+ * </ul>
+ * A comment line is sent periodically so idle connections stay open through
+ * proxies and dead clients are detected.
+ */
+final class TaskEventBroadcaster implements DatabaseNotificationListener.Subscriber {
+    private static final Logger LOGGER = Logger.getLogger(TaskEventBroadcaster.class.getName());
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final TaskService taskService;
+    private final Set<SseClient> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventId = new AtomicLong();
+    private final ScheduledExecutorService worker;
+
+    /**
+     * Creates a broadcaster and subscribes it to task change notifications.
+     *
+     * @param taskService used to read changed tasks
+     */
+    TaskEventBroadcaster(TaskService taskService) {
+        this.taskService = taskService;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tms-task-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleAtFixedRate(() -> broadcast(HEARTBEAT), HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        DatabaseNotificationListener.getInstance().subscribe(TaskChangeEvent.CHANNEL, this);
+        DatabaseNotificationListener.getInstance().subscribe(TaskChangeEvent.REMINDER_CHANNEL, this);
+    }
+
+    /**
+     * Registers a connected client.
+     *
+     * @param client the client
+     */
+    void add(SseClient client) {
+        clients.add(client);
+        LOGGER.fine(() -> "Event stream client connected; " + clients.size() + " connected");
+    }
+
+    /**
+     * Unregisters a client.
+     *
+     * @param client the client
+     */
+    void remove(SseClient client) {
+        if (clients.remove(client)) {
+            LOGGER.fine(() -> "Event stream client disconnected; " + clients.size() + " connected");
+        }
+    }
+
+    /**
+     * Gets the number of connected clients.
+     * @return the client count
+     */
+    int getClientCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void onNotification(String channel, String payload) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        worker.execute(() -> handle(payload));
+    }
+
+    @Override
+    public void onReconnect(String channel) {
+        // Missed reminders are not replayed; only missed changes make the board stale
+        if (TaskChangeEvent.CHANNEL.equals(channel)) {
+            worker.execute(() -> broadcast(frame("reload", "{}")));
+        }
+    }
+
+    /**
+     * Unsubscribes, stops the worker and closes every client stream.
+     */
+    void close() {
+        DatabaseNotificationListener.getInstance().unsubscribe(TaskChangeEvent.CHANNEL, this);
+        DatabaseNotificationListener.getInstance().unsubscribe(TaskChangeEvent.REMINDER_CHANNEL, this);
+        worker.shutdownNow();
+        for (SseClient client : clients) {
+            client.close();
+        }
+        clients.clear();
+    }
+
+    private void handle(String payload) {
+        try {
+            TaskChangeEvent event = TaskChangeEvent.parse(payload);
+            if (event.isAllTasks()) {
+                broadcast(frame("reload", "{}"));
+                return;
+            }
+            if (event.getOperation() == TaskChangeEvent.Operation.DELETE) {
+                for (Long id : event.getTaskIds()) {
+                    broadcast(frame("deleted", "{\"id\":" + id + "}"));
+                }
+                return;
+            }
+
+            if (event.getOperation() == TaskChangeEvent.Operation.REMINDER) {
+                for (Task task : taskService.getTasks(event.getTaskIds())) {
+                    broadcast(frame("reminder", toJson(task)));
+                }
+                return;
+            }
+
+            String type = event.getOperation() == TaskChangeEvent.Operation.INSERT ? "created" : "updated";
+            List<Task> tasks = taskService.getTasks(event.getTaskIds());
+            Set<Long> found = new HashSet<>();
+            for (Task task : tasks) {
+                found.add(task.getId());
+                broadcast(frame(type, toJson(task)));
+            }
+            // Tag rows of a task deleted in the same transaction arrive as TAGS changes
+            for (Long id : event.getTaskIds()) {
+                if (!found.contains(id) && event.getOperation() != TaskChangeEvent.Operation.TAGS) {
+                    broadcast(frame("deleted", "{\"id\":" + id + "}"));
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to publish task change " + payload, e);
+        }
+    }
+
+    private void broadcast(byte[] frame) {
+        for (SseClient client : clients) {
+            if (!client.send(frame)) {
+                remove(client);
+            }
+        }
+    }
+
+    private byte[] frame(String event, String data) {
+        String text = "id: " + eventId.incrementAndGet() + "\nevent: " + event + "\ndata: " + data + "\n\n";
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes a task on a single line, as required for an SSE data field.
+     */
+    private static String toJson(Task task) throws IOException {
+        StringWriter buffer = new StringWriter(256);
+        TaskJson.write(new JsonWriter(buffer), task);
+        return buffer.toString();
+    }
+}
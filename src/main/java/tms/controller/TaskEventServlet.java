@@ -0,0 +1,82 @@
+package tms.controller;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tms.config.DatabaseConfig;
+import tms.service.TaskServiceImpl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+/**
+ * Server-Sent Events endpoint streaming live task changes to the board.
+ * <p>
+ * Each GET starts an async request that never times out; the container thread
+ * returns immediately and all further output is written with non-blocking
+ * I/O by {@link SseClient}. Events come from the database's change
+ * notifications, so a client sees changes made on any application node.
+ * Requires {@code db.notify.enabled}; otherwise the endpoint answers 503.
+ */
+@WebServlet(name = "TaskEventServlet", urlPatterns = {"/tasks/events"}, asyncSupported = true)
+public class TaskEventServlet extends HttpServlet {
+    private static final Logger LOGGER = Logger.getLogger(TaskEventServlet.class.getName());
+    private static final byte[] PREAMBLE = "retry: 3000\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private TaskEventBroadcaster broadcaster;
+
+    /**
+     * Initializes the servlet and subscribes to task change notifications.
+     * @throws ServletException if initialization fails
+     */
+    @Override
+    public void init() throws ServletException {
+        if (DatabaseConfig.isNotifyEnabled()) {
+            broadcaster = new TaskEventBroadcaster(new TaskServiceImpl());
+            LOGGER.info("TaskEventServlet initialized successfully");
+        } else {
+            LOGGER.info("TaskEventServlet disabled: db.notify.enabled is false");
+        }
+    }
+
+    /**
+     * Opens an event stream.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (broadcaster == null) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Live updates are disabled");
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(0);
+        SseClient client = new SseClient(context, broadcaster::remove);
+        broadcaster.add(client);
+        client.send(PREAMBLE);
+    }
+
+    /**
+     * Closes every open stream.
+     */
+    @Override
+    public void destroy() {
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package tms.controller;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tms.dao.TaskConsumer;
+import tms.dao.TaskQuery;
+import tms.model.Task;
+import tms.service.TaskService;
+import tms.service.TaskServiceImpl;
+import tms.util.io.CsvWriter;
+import tms.util.io.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servlet for bulk task exports.
+ * <p>
+ * Streams every task matching the filter parameters of {@link TaskQueryParams}
+ * as CSV ({@code format=csv}, the default) or JSON lines ({@code format=jsonl}).
+ * Rows are written to the response as they are read from a database cursor,
+ * so memory use does not depend on the number of tasks exported. The output
+ * is gzip-compressed when the client sends {@code Accept-Encoding: gzip}, or
+ * delivered as a {@code .gz} file when {@code gzip=true} is given.
+ * CSV output uses the same columns the import endpoint accepts.
+ */
+@WebServlet(name = "TaskExportServlet", urlPatterns = {"/tasks/export"})
+public class TaskExportServlet extends HttpServlet {
+    private static final Logger LOGGER = Logger.getLogger(TaskExportServlet.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private TaskService taskService;
+
+    /**
+     * Initializes the servlet and its dependencies.
+     * @throws ServletException if initialization fails
+     */
+    @Override
+    public void init() throws ServletException {
+        taskService = new TaskServiceImpl();
+        LOGGER.info("TaskExportServlet initialized successfully");
+    }
+
+    /**
+     * Streams the matching tasks.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String format = request.getParameter("format");
+        format = format == null ? "csv" : format.trim().toLowerCase(Locale.ROOT);
+        if (!format.equals("csv") && !format.equals("jsonl")) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+
+        TaskQuery query;
+        try {
+            query = TaskQueryParams.fromRequest(request).build();
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid filter: " + e.getMessage());
+            return;
+        }
+
+        boolean gzipFile = "true".equalsIgnoreCase(request.getParameter("gzip"));
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        boolean gzipEncoding = !gzipFile && acceptEncoding != null
+                && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        String fileName = "tasks." + format + (gzipFile ? ".gz" : "");
+        if (gzipFile) {
+            response.setContentType("application/gzip");
+        } else {
+            response.setContentType(format.equals("csv") ? "text/csv" : "application/x-ndjson");
+            response.setCharacterEncoding("UTF-8");
+        }
+        if (gzipEncoding) {
+            response.setHeader("Content-Encoding", "gzip");
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+
+        long start = System.nanoTime();
+        OutputStream out = response.getOutputStream();
+        if (gzipFile || gzipEncoding) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            long count = format.equals("csv") ? exportCsv(query, writer) : exportJsonLines(query, writer);
+            LOGGER.info(() -> "Exported " + count + " tasks as " + fileName + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Export aborted; the client probably disconnected", e);
+        }
+    }
+
+    /**
+     * Writes the tasks as CSV with a header row.
+     *
+     * @param query the criteria
+     * @param writer the destination
+     * @return the number of tasks written
+     * @throws IOException if writing fails
+     */
+    private long exportCsv(TaskQuery query, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.field("id").field("title").field("description").field("priority")
+                .field("due_date").field("status").field("tags").endRecord();
+        TaskConsumer row = task -> csv.field(task.getId())
+                .field(task.getTitle())
+                .field(task.getDescription())
+                .field(task.getPriority())
+                .field(task.getDueDate() == null ? null : task.getDueDate().toString())
+                .field(task.getStatus().name())
+                .field(String.join(",", task.getTags()))
+                .endRecord();
+        return taskService.exportTasks(query, row);
+    }
+
+    /**
+     * Writes the tasks as JSON lines, one object per task.
+     *
+     * @param query the criteria
+     * @param writer the destination
+     * @return the number of tasks written
+     * @throws IOException if writing fails
+     */
+    private long exportJsonLines(TaskQuery query, Writer writer) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        TaskConsumer row = task -> {
+            json.beginObject()
+                    .name("id").value(task.getId())
+                    .name("title").value(task.getTitle())
+                    .name("description").value(task.getDescription())
+                    .name("priority").value(task.getPriority())
+                    .name("due_date").value(task.getDueDate() == null ? null : task.getDueDate().toString())
+                    .name("status").value(task.getStatus().name())
+                    .name("tags").beginArray();
+            for (String tag : task.getTags()) {
+                json.value(tag);
+            }
+            json.endArray().endObject().newline();
+        };
+        return taskService.exportTasks(query, row);
+    }
+}
@@ -0,0 +1,127 @@
+package tms.controller;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tms.service.ImportReport;
+import tms.service.TaskService;
+import tms.service.TaskServiceImpl;
+import tms.util.io.CsvRecordReader;
+import tms.util.io.JsonLinesRecordReader;
+import tms.util.io.JsonWriter;
+import tms.util.io.RecordReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Servlet for bulk task imports.
+ * <p>
+ * Accepts a POST whose body is CSV with a header row or JSON lines, chosen by
+ * the {@code format} parameter ({@code csv} or {@code jsonl}) or, failing that,
+ * by the request content type. The body is parsed as it arrives and never
+ * buffered as a whole. The response is a JSON import report.
+ */
+@WebServlet(name = "TaskImportServlet", urlPatterns = {"/tasks/import"})
+public class TaskImportServlet extends HttpServlet {
+    private static final Logger LOGGER = Logger.getLogger(TaskImportServlet.class.getName());
+
+    private TaskService taskService;
+
+    /**
+     * Initializes the servlet and its dependencies.
+     * @throws ServletException if initialization fails
+     */
+    @Override
+    public void init() throws ServletException {
+        taskService = new TaskServiceImpl();
+        LOGGER.info("TaskImportServlet initialized successfully");
+    }
+
+    /**
+     * Imports the tasks in the request body.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String format = resolveFormat(request);
+        if (format == null) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "Specify format=csv or format=jsonl, or send text/csv or application/x-ndjson");
+            return;
+        }
+
+        BufferedReader body = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        ImportReport report;
+        try (RecordReader reader = "csv".equals(format) ? new CsvRecordReader(body) : new JsonLinesRecordReader(body)) {
+            report = taskService.importTasks(reader);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Import aborted: unreadable input", e);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Import aborted: " + e.getMessage()
+                    + ". Chunks committed before this point were kept.");
+            return;
+        }
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        JsonWriter json = new JsonWriter(response.getWriter());
+        json.beginObject()
+                .name("rowsRead").value(report.getRowsRead())
+                .name("imported").value(report.getImported())
+                .name("rejected").value(report.getRejected())
+                .name("chunksCommitted").value(report.getChunksCommitted())
+                .name("chunksFailed").value(report.getChunksFailed())
+                .name("elapsedMillis").value(report.getElapsedMillis())
+                .name("errorsTruncated").value(report.isErrorsTruncated())
+                .name("errors").beginArray();
+        for (ImportReport.RowError error : report.getErrors()) {
+            json.beginObject()
+                    .name("row").value(error.getRow())
+                    .name("message").value(error.getMessage())
+                    .endObject();
+        }
+        json.endArray().endObject().flush();
+    }
+
+    /**
+     * Determines the body format from the request.
+     *
+     * @param request the request
+     * @return "csv", "jsonl", or null if the format is unknown
+     */
+    private static String resolveFormat(HttpServletRequest request) {
+        String format = request.getParameter("format");
+        if (format != null) {
+            format = format.trim().toLowerCase(Locale.ROOT);
+            if (format.equals("ndjson") || format.equals("json")) {
+                return "jsonl";
+            }
+            return format.equals("csv") || format.equals("jsonl") ? format : null;
+        }
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return null;
+        }
+        contentType = contentType.toLowerCase(Locale.ROOT);
+        if (contentType.startsWith("text/csv")) {
+            return "csv";
+        }
+        if (contentType.startsWith("application/x-ndjson") || contentType.startsWith("application/jsonl")
+                || contentType.startsWith("application/json")) {
+            return "jsonl";
+        }
+        return null;
+    }
+}
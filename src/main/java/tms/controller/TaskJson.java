@@ -0,0 +1,217 @@
+package tms.controller;
+
+import tms.dao.TaskPatch;
+import tms.model.Page;
+import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.model.TaskStats;
+import tms.util.io.JsonWriter;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * JSON representation of tasks shared by the REST API and the event stream.
+ * Tasks are written token by token to a {@link JsonWriter}, so responses are
+ * streamed without building intermediate strings.
+ */
+final class TaskJson {
+
+    private TaskJson() {}
+
+    /**
+     * Writes one task as a JSON object.
+     *
+     * @param json the destination
+     * @param task the task
+     * @throws IOException if writing fails
+     */
+    static void write(JsonWriter json, Task task) throws IOException {
+        json.beginObject()
+                .name("id").value(task.getId())
+                .name("version").value(task.getVersion())
+                .name("title").value(task.getTitle())
+                .name("description").value(task.getDescription())
+                .name("priority").value(task.getPriority())
+                .name("dueDate").value(task.getDueDate() == null ? null : task.getDueDate().toString())
+                .name("status").value(task.getStatus() == null ? null : task.getStatus().name())
+                .name("tags").beginArray();
+        if (task.getTags() != null) {
+            for (String tag : task.getTags()) {
+                json.value(tag);
+            }
+        }
+        json.endArray().endObject();
+    }
+
+    /**
+     * Writes a page of tasks as {@code {"items":[...],"nextCursor":...}}.
+     *
+     * @param json the destination
+     * @param page the page
+     * @throws IOException if writing fails
+     */
+    static void write(JsonWriter json, Page<Task> page) throws IOException {
+        json.beginObject().name("items").beginArray();
+        for (Task task : page.getItems()) {
+            write(json, task);
+        }
+        json.endArray().name("nextCursor").value(page.getNextCursor()).endObject();
+    }
+
+    /**
+     * Writes task counts as {@code {"total":n,"status":{...},"priority":{...},"tags":{...}}}.
+     *
+     * @param json the destination
+     * @param counts the counts
+     * @throws IOException if writing fails
+     */
+    static void write(JsonWriter json, TaskCounts counts) throws IOException {
+        json.beginObject().name("total").value(counts.getTotal());
+        writeCounts(json.name("status"), counts.getByStatus());
+        writeCounts(json.name("priority"), counts.getByPriority());
+        writeCounts(json.name("tags"), counts.getByTag());
+        json.endObject();
+    }
+
+    /**
+     * Writes dashboard statistics as {@code {"total":n,"overdue":n,"statusPriority":{"PENDING":{...},...},
+     * "overdueByPriority":{...},"tags":{...}}}.
+     *
+     * @param json the destination
+     * @param stats the statistics
+     * @throws IOException if writing fails
+     */
+    static void write(JsonWriter json, TaskStats stats) throws IOException {
+        json.beginObject()
+                .name("total").value(stats.getTotal())
+                .name("overdue").value(stats.getOverdue())
+                .name("statusPriority").beginObject();
+        for (Map.Entry<String, Map<String, Long>> entry : stats.getByStatusAndPriority().entrySet()) {
+            writeCounts(json.name(entry.getKey()), entry.getValue());
+        }
+        json.endObject();
+        writeCounts(json.name("overdueByPriority"), stats.getOverdueByPriority());
+        writeCounts(json.name("tags"), stats.getTopTags());
+        json.endObject();
+    }
+
+    /**
+     * Writes tag suggestions as {@code [{"name":"...","count":n},...]}.
+     *
+     * @param json the destination
+     * @param suggestions task counts keyed by tag name, in the order to write them
+     * @throws IOException if writing fails
+     */
+    static void writeTagSuggestions(JsonWriter json, Map<String, Long> suggestions) throws IOException {
+        json.beginArray();
+        for (Map.Entry<String, Long> entry : suggestions.entrySet()) {
+            json.beginObject().name("name").value(entry.getKey()).name("count").value(entry.getValue()).endObject();
+        }
+        json.endArray();
+    }
+
+    private static void writeCounts(JsonWriter json, Map<String, Long> counts) throws IOException {
+        json.beginObject();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+    }
+
+    /**
+     * Copies the fields present in a parsed JSON object onto a task.
+     * Absent fields are left unchanged, so the same method serves creation and updates.
+     * A {@code version} makes an update conditional on the task not having changed since.
+     *
+     * @param fields the parsed object
+     * @param task the task to modify
+     * @return the task
+     * @throws IllegalArgumentException if a field has the wrong type or format
+     */
+    static Task read(Map<String, Object> fields, Task task) {
+        if (fields.containsKey("version")) {
+            Object version = fields.get("version");
+            if (version != null && !(version instanceof Long)) {
+                throw new IllegalArgumentException("version must be an integer");
+            }
+            task.setVersion((Long) version);
+        }
+        if (fields.containsKey("title")) {
+            task.setTitle(string(fields, "title"));
+        }
+        if (fields.containsKey("description")) {
+            task.setDescription(string(fields, "description"));
+        }
+        if (fields.containsKey("priority")) {
+            String priority = string(fields, "priority");
+            task.setPriority(priority == null ? null : priority.toUpperCase(Locale.ROOT));
+        }
+        if (fields.containsKey("dueDate")) {
+            String dueDate = string(fields, "dueDate");
+            try {
+                task.setDueDate(dueDate == null ? null : Date.valueOf(dueDate));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("dueDate must be formatted yyyy-MM-dd");
+            }
+        }
+        if (fields.containsKey("status")) {
+            String status = string(fields, "status");
+            try {
+                task.setStatus(status == null ? null : Task.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status: " + status);
+            }
+        }
+        if (fields.containsKey("tags")) {
+            Object value = fields.get("tags");
+            List<String> tags = new ArrayList<>();
+            if (value instanceof List) {
+                for (Object tag : (List<?>) value) {
+                    if (!(tag instanceof String)) {
+                        throw new IllegalArgumentException("tags must be an array of strings");
+                    }
+                    tags.add((String) tag);
+                }
+            } else if (value != null) {
+                throw new IllegalArgumentException("tags must be an array of strings");
+            }
+            task.setTags(tags);
+        }
+        return task;
+    }
+
+    /**
+     * Builds a patch from the fields present in a parsed JSON object.
+     * Absent or null fields are left unchanged; {@code "tags":[]} removes all tags.
+     *
+     * @param fields the parsed object
+     * @param id the id of the task to change
+     * @return the patch
+     * @throws IllegalArgumentException if a field has the wrong type or format
+     */
+    static TaskPatch readPatch(Map<String, Object> fields, Long id) {
+        Task changes = read(fields, new Task());
+        return TaskPatch.builder(id)
+                .version(changes.getVersion())
+                .title(changes.getTitle())
+                .description(changes.getDescription())
+                .priority(changes.getPriority())
+                .dueDate(changes.getDueDate())
+                .status(changes.getStatus())
+                .tags(fields.get("tags") == null ? null : changes.getTags())
+                .build();
+    }
+
+    private static String string(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(name + " must be a string");
+        }
+        return (String) value;
+    }
+}
@@ -0,0 +1,106 @@
+package tms.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import tms.dao.TaskQuery;
+import tms.model.Task;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Translates request parameters into a {@link TaskQuery}.
+ * <p>
+ * Recognised parameters, all optional and combinable:
+ * <ul>
+ *   <li>{@code id} - repeatable or comma separated, matches any of the given task ids</li>
+ *   <li>{@code status} - repeatable, matches any of the given statuses</li>
+ *   <li>{@code priority} - repeatable, matches any of the given priorities</li>
+ *   <li>{@code tag} - repeatable or comma separated; {@code tagMode=all} requires every tag,
+ *       otherwise any tag matches</li>
+ *   <li>{@code dueFrom} / {@code dueTo} - inclusive due-date range as yyyy-MM-dd</li>
+ *   <li>{@code q} - case-insensitive title prefix</li>
+ *   <li>{@code search} - words the title or description must contain; the last word may be partial</li>
+ *   <li>{@code archived} - {@code true} also matches tasks moved to the archive partition</li>
+ *   <li>{@code sort} - repeatable {@code field[:asc|desc]} terms, e.g. {@code due_date:desc}</li>
+ * </ul>
+ */
+final class TaskQueryParams {
+
+    private TaskQueryParams() {}
+
+    /**
+     * Builds a query from the request parameters.
+     *
+     * @param request the request carrying the parameters
+     * @return the query builder, so callers can add a limit or further criteria
+     * @throws IllegalArgumentException if a parameter value is invalid
+     */
+    static TaskQuery.Builder fromRequest(HttpServletRequest request) {
+        TaskQuery.Builder builder = TaskQuery.builder();
+
+        List<Long> ids = new ArrayList<>();
+        for (String id : values(request, "id")) {
+            ids.add(Long.valueOf(id));
+        }
+        builder.ids(ids);
+
+        for (String status : values(request, "status")) {
+            builder.status(Task.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+        }
+        builder.priority(values(request, "priority").toArray(new String[0]));
+
+        List<String> tags = values(request, "tag");
+        if ("all".equalsIgnoreCase(request.getParameter("tagMode"))) {
+            builder.allTags(tags);
+        } else {
+            builder.anyTags(tags);
+        }
+
+        String dueFrom = request.getParameter("dueFrom");
+        if (dueFrom != null && !dueFrom.isBlank()) {
+            builder.dueFrom(Date.valueOf(dueFrom.trim()));
+        }
+        String dueTo = request.getParameter("dueTo");
+        if (dueTo != null && !dueTo.isBlank()) {
+            builder.dueTo(Date.valueOf(dueTo.trim()));
+        }
+
+        builder.titlePrefix(request.getParameter("q"));
+        builder.search(request.getParameter("search"));
+        builder.includeArchived(Boolean.parseBoolean(request.getParameter("archived")));
+
+        for (String sort : values(request, "sort")) {
+            String[] parts = sort.split(":", 2);
+            TaskQuery.SortField field = TaskQuery.SortField.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            boolean ascending = parts.length < 2 || !"desc".equalsIgnoreCase(parts[1].trim());
+            builder.sortBy(field, ascending);
+        }
+        return builder;
+    }
+
+    /**
+     * Collects every non-blank value of a repeatable, comma-separable parameter.
+     *
+     * @param request the request
+     * @param name the parameter name
+     * @return the trimmed values in request order
+     */
+    private static List<String> values(HttpServletRequest request, String name) {
+        List<String> values = new ArrayList<>();
+        String[] raw = request.getParameterValues(name);
+        if (raw == null) {
+            return values;
+        }
+        for (String value : raw) {
+            for (String part : value.split("\\s*,\\s*")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim());
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -4,7 +4,10 @@ import java.io.IOException;
 import java.sql.Date;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.logging.*;
 
 import jakarta.servlet.RequestDispatcher;
@@ -14,54 +17,36 @@ import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import tms.config.DatabaseConfig;
+import tms.dao.TaskPatch;
+import tms.dao.TaskQuery;
+import tms.exception.ConflictException;
+import tms.exception.ValidationException;
+import tms.model.Page;
 import tms.model.Task;
 import tms.service.TaskService;
 import tms.service.TaskServiceImpl;
-import tms.util.logging.ColorConsoleFormatter;
+import tms.util.metrics.MetricsRegistry;
+import tms.util.metrics.Timer;
 
 /**
  * Servlet controller for managing task operations in the Task Management System.
  * Handles all CRUD operations for tasks including listing, creating, updating,
- * deleting, filtering and sorting tasks.
+ * deleting, filtering, searching and sorting tasks.
  */
 @WebServlet(name = "TaskServlet", urlPatterns = {"/tasks", "/tasks/*"})
 public class TaskServlet extends HttpServlet {
     private static final Logger LOGGER = Logger.getLogger(TaskServlet.class.getName());
 
-    static {
-        configureLogging();
-    }
-
-    /**
-     * Configures logging format, console coloring, and file logging.
-     */
-    private static void configureLogging() {
-        try {
-            System.setProperty("java.util.logging.SimpleFormatter.format\n",
-                    "%1$tY-%m-%d %1$tH:%1$tM:%1$tS.%1$tL %4$s [%2$s] %5$s%6$s%n");
-
-            Logger appLogger = Logger.getLogger("gtp.ems");
-            appLogger.setUseParentHandlers(false); // Don't inherit root handlers
-
-            ConsoleHandler consoleHandler = new ConsoleHandler();
-            consoleHandler.setLevel(Level.ALL);
-            consoleHandler.setFormatter(new ColorConsoleFormatter());
-            appLogger.addHandler(consoleHandler);
-
-            FileHandler fileHandler = new FileHandler("ems-app.log", false);
-            fileHandler.setLevel(Level.ALL);
-            fileHandler.setFormatter(new SimpleFormatter());
-            appLogger.addHandler(fileHandler);
-
-            appLogger.setLevel(Level.ALL);
-
-        } catch (IOException e) {
-            System.err.println("Failed to configure logging: " + e.getMessage());
-        }
-    }
+    private static final String[] GET_ACTIONS = {"list", "new", "edit", "delete", "filter", "search", "sort"};
+    private static final String[] POST_ACTIONS = {"list", "create", "update", "status", "bulkStatus", "bulkDelete"};
+    private static final String[] VIEWS = {"list", "form"};
 
     private TaskService taskService;
     private SimpleDateFormat dateFormatter;
+    private Map<String, Timer> getTimers = Collections.emptyMap();
+    private Map<String, Timer> postTimers = Collections.emptyMap();
+    private Map<String, Timer> renderTimers = Collections.emptyMap();
 
     /**
      * Initializes the servlet and its dependencies.
@@ -72,6 +57,9 @@ public class TaskServlet extends HttpServlet {
         try {
             taskService = new TaskServiceImpl();
             dateFormatter = new SimpleDateFormat("yyyy-MM-dd");
+            if (DatabaseConfig.isMetricsEnabled()) {
+                createTimers();
+            }
             LOGGER.info("TaskServlet initialized successfully");
         } catch (Exception e) {
             LOGGER.severe("Failed to initialize TaskServlet: " + e.getMessage());
@@ -95,6 +83,8 @@ public class TaskServlet extends HttpServlet {
         String finalAction = action;
         LOGGER.fine(() -> "Processing GET request with action: " + finalAction);
 
+        Timer timer = timerFor(getTimers, action);
+        long start = System.nanoTime();
         try {
             switch (action) {
                 case "new":
@@ -109,13 +99,22 @@ public class TaskServlet extends HttpServlet {
                 case "filter":
                     filterTasks(request, response);
                     break;
+                case "search":
+                    searchTasks(request, response);
+                    break;
                 case "sort":
                     sortTasks(request, response);
                     break;
                 default:
                     listTasks(request, response);
             }
+            if (timer != null) {
+                timer.record(System.nanoTime() - start);
+            }
         } catch (Exception ex) {
+            if (timer != null) {
+                timer.recordError(System.nanoTime() - start);
+            }
             LOGGER.log(Level.SEVERE, "Error processing GET request for action: " + action, ex);
             throw new ServletException(ex);
         }
@@ -135,6 +134,8 @@ public class TaskServlet extends HttpServlet {
         String finalAction = action;
         LOGGER.fine(() -> "Processing POST request with action: " + finalAction);
 
+        Timer timer = timerFor(postTimers, action);
+        long start = System.nanoTime();
         try {
             switch (action) {
                 case "create":
@@ -143,17 +144,89 @@ public class TaskServlet extends HttpServlet {
                 case "update":
                     updateTask(request, response);
                     break;
+                case "status":
+                    updateStatus(request, response);
+                    break;
+                case "bulkStatus":
+                    bulkUpdateStatus(request, response);
+                    break;
+                case "bulkDelete":
+                    bulkDelete(request, response);
+                    break;
                 default:
                     listTasks(request, response);
             }
+            if (timer != null) {
+                timer.record(System.nanoTime() - start);
+            }
         } catch (Exception ex) {
+            if (timer != null) {
+                timer.recordError(System.nanoTime() - start);
+            }
             LOGGER.log(Level.SEVERE, "Error processing POST request for action: " + action, ex);
             throw new ServletException(ex);
         }
     }
 
     /**
-     * Displays the list of all tasks.
+     * Resolves the request and view timers once, so handling a request only
+     * reads a map. Unknown actions are served by the list view and timed as "list",
+     * which keeps the number of label values bounded.
+     */
+    private void createTimers() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        getTimers = new HashMap<>();
+        for (String action : GET_ACTIONS) {
+            getTimers.put(action, metrics.timer("tms_http_request", "Time to handle a task page request",
+                    "method", "GET", "action", action));
+        }
+        postTimers = new HashMap<>();
+        for (String action : POST_ACTIONS) {
+            postTimers.put(action, metrics.timer("tms_http_request", "Time to handle a task page request",
+                    "method", "POST", "action", action));
+        }
+        renderTimers = new HashMap<>();
+        for (String view : VIEWS) {
+            renderTimers.put(view, metrics.timer("tms_jsp_render", "Time to render a task JSP view", "view", view));
+        }
+    }
+
+    private static Timer timerFor(Map<String, Timer> timers, String action) {
+        Timer timer = timers.get(action);
+        return timer != null ? timer : timers.get("list");
+    }
+
+    /**
+     * Forwards to a task view, timing the render separately from the request.
+     *
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @param view the view name, e.g. "list" for {@code /WEB-INF/jsp/task/list.jsp}
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    private void render(HttpServletRequest request, HttpServletResponse response, String view)
+            throws ServletException, IOException {
+        RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/" + view + ".jsp");
+        Timer timer = renderTimers.get(view);
+        if (timer == null) {
+            dispatcher.forward(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            dispatcher.forward(request, response);
+            timer.record(System.nanoTime() - start);
+        } catch (ServletException | IOException | RuntimeException e) {
+            timer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * Displays one page of tasks.
+     * The page is selected by the optional {@code cursor} and {@code size} parameters;
+     * a malformed cursor is rejected with 400 Bad Request.
      * @param request the HttpServletRequest object
      * @param response the HttpServletResponse object
      * @throws ServletException if a servlet-specific error occurs
@@ -162,13 +235,15 @@ public class TaskServlet extends HttpServlet {
     public void listTasks(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            LOGGER.fine("Listing all tasks");
-            List<Task> tasks = taskService.getAllTasks();
-            request.setAttribute("tasks", tasks);
+            LOGGER.fine("Listing tasks");
+            Page<Task> page = taskService.getTaskPage(null, request.getParameter("cursor"), parsePageSize(request));
+            setPageAttributes(request, page, null);
 
-            RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/list.jsp");
-            dispatcher.forward(request, response);
+            render(request, response, "list");
             LOGGER.fine("Successfully listed tasks");
+        } catch (ValidationException e) {
+            LOGGER.warning(() -> "Rejecting invalid page request: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error listing tasks", e);
             throw e;
@@ -184,8 +259,7 @@ public class TaskServlet extends HttpServlet {
      */
     public void showNewForm(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
-        RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/form.jsp");
-        dispatcher.forward(request, response);
+        render(request, response, "form");
     }
 
     /**
@@ -216,8 +290,7 @@ public class TaskServlet extends HttpServlet {
                 request.setAttribute("tagsString", tagsString);
             }
 
-            RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/form.jsp");
-            dispatcher.forward(request, response);
+            render(request, response, "form");
             LOGGER.fine(() -> "Edit form displayed successfully for task ID: " + id);
         } catch (NumberFormatException e) {
             LOGGER.warning("Invalid task ID format: " + request.getParameter("id"));
@@ -269,27 +342,42 @@ public class TaskServlet extends HttpServlet {
     }
 
     /**
-     * Updates an existing task.
+     * Updates an existing task. The form carries every field and the version
+     * it was rendered from, so the task is written without reading it first.
+     * If someone else changed the task in the meantime, the form is shown
+     * again with the stored values and an error.
      * @param request the HttpServletRequest object
      * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
      * @throws IOException if an I/O error occurs
      */
     public void updateTask(HttpServletRequest request, HttpServletResponse response)
-            throws IOException {
+            throws ServletException, IOException {
         try {
             Long id = Long.parseLong(request.getParameter("id"));
             LOGGER.fine(() -> "Updating task with ID: " + id);
 
-            Task task = taskService.getTask(id);
-            if (task == null) {
-                LOGGER.warning(() -> "Task not found for update with ID: " + id);
+            Task task = mapParamToTask(new Task(), request);
+            taskService.updateTask(task);
+            LOGGER.info(() -> "Successfully updated task with ID: " + id + " and title: " + task.getTitle());
+            response.sendRedirect("tasks");
+        } catch (ConflictException e) {
+            Task current = e.getCurrent();
+            if (current == null) {
+                LOGGER.warning(() -> "Task not found for update with ID: " + request.getParameter("id"));
                 response.sendRedirect("tasks");
                 return;
             }
-
-            taskService.updateTask(mapParamToTask(task, request));
-            LOGGER.info(() -> "Successfully updated task with ID: " + id + " and title: " + task.getTitle());
-            response.sendRedirect("tasks");
+            LOGGER.warning(() -> "Update conflict for task ID: " + current.getId()
+                    + ", now at version " + current.getVersion());
+            request.setAttribute("error", "This task was changed by someone else while you were editing it. "
+                    + "Review the current values below and save your changes again.");
+            request.setAttribute("task", current);
+            request.setAttribute("isNew", false);
+            if (current.getTags() != null && !current.getTags().isEmpty()) {
+                request.setAttribute("tagsString", String.join(",", current.getTags()));
+            }
+            render(request, response, "form");
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating task", e);
             throw e;
@@ -297,7 +385,126 @@ public class TaskServlet extends HttpServlet {
     }
 
     /**
-     * Filters tasks by status.
+     * Changes the status of a task from the board. Only the status column is
+     * written, in one statement, without reading the task first. A version
+     * parameter makes the change conditional on the task being unchanged.
+     * A task that no longer exists is answered with 404, and a version
+     * mismatch with 409, instead of returning to the board as if it had moved.
+     * A missing or malformed id, status or version is answered with 400.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    public void updateStatus(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        TaskPatch patch;
+        try {
+            String versionParam = request.getParameter("version");
+            patch = TaskPatch.builder(Long.parseLong(request.getParameter("id")))
+                    .status(Task.Status.valueOf(request.getParameter("status")))
+                    .version(versionParam == null || versionParam.isEmpty() ? null : Long.parseLong(versionParam))
+                    .build();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            LOGGER.warning(() -> "Invalid status change: id=" + request.getParameter("id")
+                    + ", status=" + request.getParameter("status") + ", version=" + request.getParameter("version"));
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid id, status or version");
+            return;
+        }
+        Long id = patch.getId();
+        Task.Status status = patch.getStatus();
+        try {
+            LOGGER.fine(() -> "Changing status of task ID: " + id + " to " + status);
+
+            taskService.patchTask(patch);
+            LOGGER.info(() -> "Successfully changed status of task ID: " + id + " to " + status);
+        } catch (ConflictException e) {
+            LOGGER.warning(() -> "Status change rejected: " + e.getMessage());
+            if (e.getCurrent() == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "Task " + id + " no longer exists");
+            } else {
+                response.sendError(HttpServletResponse.SC_CONFLICT, "Task " + id
+                        + " was changed by someone else while you were viewing it. Reload the board and try again.");
+            }
+            return;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error changing task status", e);
+            throw e;
+        }
+        response.sendRedirect("tasks");
+    }
+
+    /**
+     * Sets the status given as {@code newStatus} on every task selected by
+     * the filter parameters, e.g. repeated {@code id}s or a status and due-date
+     * range, with one statement. Invalid or missing criteria are rejected with
+     * 400 Bad Request.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    public void bulkUpdateStatus(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        TaskQuery query = parseBulkQuery(request, response);
+        if (query == null) {
+            return;
+        }
+        Task.Status status;
+        try {
+            status = Task.Status.valueOf(String.valueOf(request.getParameter("newStatus")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown newStatus: " + request.getParameter("newStatus"));
+            return;
+        }
+        try {
+            int updated = taskService.updateStatusWhere(query, status);
+            LOGGER.info(() -> "Bulk status change to " + status + " updated " + updated + " tasks");
+            response.sendRedirect("tasks");
+        } catch (ValidationException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes every task selected by the filter parameters with one statement.
+     * Invalid or missing criteria are rejected with 400 Bad Request.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws IOException if an I/O error occurs
+     */
+    public void bulkDelete(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        TaskQuery query = parseBulkQuery(request, response);
+        if (query == null) {
+            return;
+        }
+        try {
+            int deleted = taskService.deleteTasksWhere(query);
+            LOGGER.info(() -> "Bulk delete removed " + deleted + " tasks");
+            response.sendRedirect("tasks");
+        } catch (ValidationException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the criteria of a bulk action, answering 400 Bad Request if they are invalid.
+     * @return the query, or null if the response has been sent
+     */
+    private TaskQuery parseBulkQuery(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        try {
+            return TaskQueryParams.fromRequest(request).build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(() -> "Rejecting invalid bulk criteria: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid criteria: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Filters tasks by any combination of status, priority, tags, due-date range
+     * and title prefix, optionally sorted; see {@link TaskQueryParams} for the parameters.
+     * Invalid criteria are rejected with 400 Bad Request.
      * @param request the HttpServletRequest object
      * @param response the HttpServletResponse object
      * @throws ServletException if a servlet-specific error occurs
@@ -305,59 +512,152 @@ public class TaskServlet extends HttpServlet {
      */
     public void filterTasks(HttpServletRequest request, HttpServletResponse response)
             throws ServletException, IOException {
+        TaskQuery query;
         try {
-            Task.Status status = Task.Status.valueOf(request.getParameter("status"));
-            LOGGER.fine(() -> "Filtering tasks by status: " + status);
+            query = TaskQueryParams.fromRequest(request).build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(() -> "Rejecting invalid filter: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid filter: " + e.getMessage());
+            return;
+        }
 
-            List<Task> tasks = taskService.getTasksByStatus(status);
-            request.setAttribute("tasks", tasks);
+        try {
+            LOGGER.fine(() -> "Filtering tasks by statuses " + query.getStatuses());
 
-            RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/list.jsp");
-            dispatcher.forward(request, response);
-            LOGGER.fine(() -> "Successfully filtered tasks by status: " + status);
+            Page<Task> page = taskService.findTaskPage(query, request.getParameter("cursor"), parsePageSize(request));
+            setPageAttributes(request, page, query);
+
+            render(request, response, "list");
+            LOGGER.fine("Successfully filtered tasks");
+        } catch (ValidationException e) {
+            LOGGER.warning(() -> "Rejecting invalid page request: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error filtering tasks", e);
             throw e;
         }
     }
 
+    /**
+     * Searches task titles and descriptions for the words of the {@code search}
+     * parameter, most relevant first; the other filter parameters of
+     * {@link TaskQueryParams} narrow the results. Without search text the
+     * unfiltered list is shown. Invalid criteria are rejected with 400 Bad Request.
+     * @param request the HttpServletRequest object
+     * @param response the HttpServletResponse object
+     * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
+     */
+    public void searchTasks(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        TaskQuery query;
+        try {
+            query = TaskQueryParams.fromRequest(request).build();
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(() -> "Rejecting invalid search: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid search: " + e.getMessage());
+            return;
+        }
+        if (query.getSearchText() == null) {
+            response.sendRedirect("tasks");
+            return;
+        }
+
+        try {
+            LOGGER.fine(() -> "Searching tasks for '" + query.getSearchText() + "'");
+
+            Page<Task> page = taskService.searchTasks(query, request.getParameter("cursor"), parsePageSize(request));
+            setPageAttributes(request, page, query);
+
+            render(request, response, "list");
+            LOGGER.fine("Successfully searched tasks");
+        } catch (ValidationException e) {
+            LOGGER.warning(() -> "Rejecting invalid page request: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error searching tasks", e);
+            throw e;
+        }
+    }
+
     /**
      * Sorts tasks by due date in ascending or descending order.
+     * A malformed cursor is rejected with 400 Bad Request.
      * @param request the HttpServletRequest object
      * @param response the HttpServletResponse object
      * @throws ServletException if a servlet-specific error occurs
+     * @throws IOException if an I/O error occurs
      */
     public void sortTasks(HttpServletRequest request, HttpServletResponse response)
-            throws ServletException {
+            throws ServletException, IOException {
         try {
             boolean ascending = "asc".equalsIgnoreCase(request.getParameter("order"));
             LOGGER.fine(() -> "Sorting tasks by due date (" + (ascending ? "ascending" : "descending") + ")");
 
-            List<Task> tasks = taskService.getAllTasksSortedByDueDate(ascending);
-            request.setAttribute("tasks", tasks);
-            request.setAttribute("sortedTasks", tasks);
+            Page<Task> page = taskService.getTaskPageSortedByDueDate(
+                    ascending, request.getParameter("cursor"), parsePageSize(request));
+            setPageAttributes(request, page, null);
+            request.setAttribute("sortedTasks", page.getItems());
 
-            RequestDispatcher dispatcher = request.getRequestDispatcher("/WEB-INF/jsp/task/list.jsp");
-            dispatcher.forward(request, response);
+            render(request, response, "list");
             LOGGER.fine("Successfully sorted tasks by due date");
+        } catch (ValidationException e) {
+            LOGGER.warning(() -> "Rejecting invalid page request: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error sorting tasks", e);
             throw new ServletException("Sorting failed", e);
         }
     }
 
+    /**
+     * Exposes a page of tasks to the list view, split into board columns, along
+     * with the column counts of every task matching the query, not just this page.
+     * @param request the HttpServletRequest object
+     * @param page the page to render
+     * @param query the criteria the page was selected by, or null for all tasks
+     */
+    private void setPageAttributes(HttpServletRequest request, Page<Task> page, TaskQuery query) {
+        request.setAttribute("tasks", page.getItems());
+        request.setAttribute("tasksByStatus", taskService.groupByStatus(page.getItems()));
+        request.setAttribute("counts", taskService.getTaskCounts(query));
+        request.setAttribute("nextCursor", page.getNextCursor());
+    }
+
+    /**
+     * Reads the requested page size.
+     * @param request the HttpServletRequest containing parameters
+     * @return the requested size, or 0 to use the configured default
+     */
+    private int parsePageSize(HttpServletRequest request) {
+        String sizeParam = request.getParameter("size");
+        if (sizeParam == null || sizeParam.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(sizeParam);
+        } catch (NumberFormatException e) {
+            LOGGER.warning(() -> "Ignoring invalid page size: " + sizeParam);
+            return 0;
+        }
+    }
+
     /**
      * Maps request parameters to a Task object.
      * @param task the Task object to populate
      * @param request the HttpServletRequest containing parameters
      * @return the populated Task object
      */
-    private Task mapParamToTask(Task task, HttpServletRequest request) {
+    Task mapParamToTask(Task task, HttpServletRequest request) {
         try {
             String idParam = request.getParameter("id");
             if (idParam != null && !idParam.isEmpty()) {
                 task.setId(Long.parseLong(idParam));
             }
+            String versionParam = request.getParameter("version");
+            if (versionParam != null && !versionParam.isEmpty()) {
+                task.setVersion(Long.parseLong(versionParam));
+            }
 
             task.setTitle(request.getParameter("title"));
             task.setDescription(request.getParameter("description"));
@@ -0,0 +1,288 @@
+package tms.dao;
+
+import tms.model.Page;
+import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.util.cache.BoundedCache;
+import tms.util.cache.CacheStats;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Read-through caching decorator for a {@link TaskDAO}.
+ * <p>
+ * Tasks looked up by id and the results of listings and queries are kept in
+ * two {@link BoundedCache}s. Every write through this DAO drops the affected
+ * task and all cached results, since any write can change which tasks a
+ * listing contains. Entries also expire after a TTL, which bounds staleness
+ * caused by writes made outside this process; with change notifications
+ * enabled, {@link #onTaskChange(TaskChangeEvent)} applies those writes as
+ * soon as the database announces them.
+ * <p>
+ * {@link #findById(Long)} returns a private copy on every call. Listings and
+ * pages are shared between callers and returned as unmodifiable lists; the
+ * tasks in them must be treated as read-only. Streaming exports and bulk
+ * writes pass straight through to the delegate.
+ */
+public class CachingTaskDAO implements TaskDAO {
+    private static final Logger LOGGER = Logger.getLogger(CachingTaskDAO.class.getName());
+
+    private final TaskDAO delegate;
+    private final BoundedCache<Long, Task> byId;
+    private final BoundedCache<List<Object>, Object> results;
+
+    /**
+     * Wraps a DAO with caches of the given bounds.
+     *
+     * @param delegate the DAO that reads and writes the database
+     * @param maxEntries the number of tasks cached by id
+     * @param listMaxEntries the number of listing and query results cached
+     * @param ttlMillis how long an entry is served before it is reloaded
+     */
+    public CachingTaskDAO(TaskDAO delegate, int maxEntries, int listMaxEntries, long ttlMillis) {
+        this.delegate = delegate;
+        this.byId = new BoundedCache<>("tasks.byId", maxEntries, ttlMillis);
+        this.results = new BoundedCache<>("tasks.results", listMaxEntries, ttlMillis);
+    }
+
+    /**
+     * Gets the statistics of the per-id cache.
+     * @return a snapshot of the per-id cache statistics
+     */
+    public CacheStats getByIdStats() {
+        return byId.getStats();
+    }
+
+    /**
+     * Gets the statistics of the listing and query result cache.
+     * @return a snapshot of the result cache statistics
+     */
+    public CacheStats getResultStats() {
+        return results.getStats();
+    }
+
+    /**
+     * Drops every cached entry, e.g. after the database was changed by another process.
+     */
+    public void invalidateAll() {
+        byId.invalidateAll();
+        results.invalidateAll();
+    }
+
+    /**
+     * Drops a single task and all cached results.
+     *
+     * @param id the changed task's id
+     */
+    public void invalidate(Long id) {
+        byId.invalidate(id);
+        results.invalidateAll();
+    }
+
+    /**
+     * Applies a change announced by another node, or by this one, through the database.
+     *
+     * @param event the change
+     */
+    public void onTaskChange(TaskChangeEvent event) {
+        if (event.isAllTasks()) {
+            invalidateAll();
+            return;
+        }
+        for (Long id : event.getTaskIds()) {
+            byId.invalidate(id);
+        }
+        results.invalidateAll();
+    }
+
+    @Override
+    public Task save(Task task) {
+        Task saved = delegate.save(task);
+        results.invalidateAll();
+        return saved;
+    }
+
+    @Override
+    public int saveAll(List<Task> tasks) {
+        int saved = delegate.saveAll(tasks);
+        results.invalidateAll();
+        return saved;
+    }
+
+    @Override
+    public Task findById(Long id) {
+        Task task = byId.get(id, () -> delegate.findById(id));
+        return task == null ? null : new Task(task);
+    }
+
+    /**
+     * Always reads from the database: callers ask for tasks by id when reacting
+     * to change notifications, which may arrive before this cache has been invalidated.
+     */
+    @Override
+    public List<Task> findByIds(Collection<Long> ids) {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        return cachedList(key("all"), delegate::getTasks);
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status) {
+        return cachedList(key("status", status), () -> delegate.findByStatus(status));
+    }
+
+    @Override
+    public List<Task> findAllSortedByDueDate(boolean ascending) {
+        return cachedList(key("dueDate", ascending), () -> delegate.findAllSortedByDueDate(ascending));
+    }
+
+    @Override
+    public Page<Task> findPage(Task.Status status, String cursor, int limit) {
+        return cachedPage(key("page", status, cursor, limit), () -> delegate.findPage(status, cursor, limit));
+    }
+
+    @Override
+    public Page<Task> findPageSortedByDueDate(boolean ascending, String cursor, int limit) {
+        return cachedPage(key("dueDatePage", ascending, cursor, limit),
+                () -> delegate.findPageSortedByDueDate(ascending, cursor, limit));
+    }
+
+    @Override
+    public List<Task> findByQuery(TaskQuery query) {
+        return cachedList(key("query", query), () -> delegate.findByQuery(query));
+    }
+
+    @Override
+    public long streamByQuery(TaskQuery query, int fetchSize, TaskConsumer consumer) throws IOException {
+        return delegate.streamByQuery(query, fetchSize, consumer);
+    }
+
+    @Override
+    public Page<Task> findPageByQuery(TaskQuery query, String cursor, int limit) {
+        return cachedPage(key("queryPage", query, cursor, limit),
+                () -> delegate.findPageByQuery(query, cursor, limit));
+    }
+
+    /**
+     * Not cached: type-ahead searches are mostly distinct, and caching them would
+     * evict listings that are actually reused.
+     */
+    @Override
+    public Page<Task> search(TaskQuery query, String cursor, int limit) {
+        return delegate.search(query, cursor, limit);
+    }
+
+    @Override
+    public String fingerprintPage(TaskQuery query, String cursor, int limit, boolean ranked) {
+        return (String) results.get(key("fingerprint", query, cursor, limit, ranked), () -> {
+            LOGGER.finest(() -> "Result cache miss for fingerprint of " + query);
+            return delegate.fingerprintPage(query, cursor, limit, ranked);
+        });
+    }
+
+    @Override
+    public TaskCounts countByQuery(TaskQuery query, int tagLimit) {
+        return (TaskCounts) results.get(key("counts", query, tagLimit), () -> {
+            LOGGER.finest(() -> "Result cache miss for counts of " + query);
+            return delegate.countByQuery(query, tagLimit);
+        });
+    }
+
+    @Override
+    public boolean update(Task task) {
+        try {
+            return delegate.update(task);
+        } finally {
+            invalidate(task.getId());
+        }
+    }
+
+    @Override
+    public Task patch(TaskPatch patch) {
+        try {
+            return delegate.patch(patch);
+        } finally {
+            invalidate(patch.getId());
+        }
+    }
+
+    @Override
+    public int updateStatusByQuery(TaskQuery query, Task.Status status) {
+        try {
+            return delegate.updateStatusByQuery(query, status);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public int deleteByQuery(TaskQuery query) {
+        try {
+            return delegate.deleteByQuery(query);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public SweepBatch moveOverdue(Task.Status from, Task.Status to, Date before, PageCursor after, int limit) {
+        try {
+            return delegate.moveOverdue(from, to, before, after, limit);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public SweepBatch remindDue(Collection<Task.Status> statuses, Date from, Date to, PageCursor after, int limit) {
+        return delegate.remindDue(statuses, from, to, after, limit);
+    }
+
+    @Override
+    public SweepBatch archive(Collection<Task.Status> statuses, Date before, PageCursor after, int limit) {
+        try {
+            return delegate.archive(statuses, before, after, limit);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        try {
+            delegate.delete(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Task> cachedList(List<Object> key, Supplier<List<Task>> loader) {
+        return (List<Task>) results.get(key, () -> {
+            LOGGER.finest(() -> "Result cache miss for " + key);
+            return Collections.unmodifiableList(loader.get());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Page<Task> cachedPage(List<Object> key, Supplier<Page<Task>> loader) {
+        return (Page<Task>) results.get(key, () -> {
+            LOGGER.finest(() -> "Result cache miss for " + key);
+            return loader.get();
+        });
+    }
+
+    private static List<Object> key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+}
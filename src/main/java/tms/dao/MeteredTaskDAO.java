@@ -0,0 +1,388 @@
+package tms.dao;
+
+import tms.model.Page;
+import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.util.metrics.MetricsRegistry;
+import tms.util.metrics.Timer;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Timing decorator for a {@link TaskDAO}.
+ * <p>
+ * Every call is recorded in a per-method {@link Timer} of the
+ * {@value #METRIC} family, together with the number of rows it returned or
+ * wrote and whether it failed. Timers are resolved once at construction, so a
+ * call costs two {@code System.nanoTime()} reads and a few non-blocking
+ * counter updates. Wrapped directly around {@link TaskDAOImpl}, beneath any
+ * cache, the timers measure database work: query execution, transfer and
+ * mapping of the rows.
+ */
+public class MeteredTaskDAO implements TaskDAO {
+    /** Metric family of the DAO timers. */
+    static final String METRIC = "tms_dao_call";
+
+    private final TaskDAO delegate;
+    private final Timer saveTimer;
+    private final Timer saveAllTimer;
+    private final Timer findByIdTimer;
+    private final Timer findByIdsTimer;
+    private final Timer getTasksTimer;
+    private final Timer findByStatusTimer;
+    private final Timer findAllSortedByDueDateTimer;
+    private final Timer findPageTimer;
+    private final Timer findPageSortedByDueDateTimer;
+    private final Timer findByQueryTimer;
+    private final Timer streamByQueryTimer;
+    private final Timer findPageByQueryTimer;
+    private final Timer searchTimer;
+    private final Timer fingerprintPageTimer;
+    private final Timer countByQueryTimer;
+    private final Timer updateTimer;
+    private final Timer patchTimer;
+    private final Timer updateStatusByQueryTimer;
+    private final Timer deleteByQueryTimer;
+    private final Timer moveOverdueTimer;
+    private final Timer remindDueTimer;
+    private final Timer archiveTimer;
+    private final Timer deleteTimer;
+
+    /**
+     * Wraps a DAO, registering its timers with the shared {@link MetricsRegistry}.
+     *
+     * @param delegate the DAO to time
+     */
+    public MeteredTaskDAO(TaskDAO delegate) {
+        this.delegate = delegate;
+        this.saveTimer = timer("save");
+        this.saveAllTimer = timer("saveAll");
+        this.findByIdTimer = timer("findById");
+        this.findByIdsTimer = timer("findByIds");
+        this.getTasksTimer = timer("getTasks");
+        this.findByStatusTimer = timer("findByStatus");
+        this.findAllSortedByDueDateTimer = timer("findAllSortedByDueDate");
+        this.findPageTimer = timer("findPage");
+        this.findPageSortedByDueDateTimer = timer("findPageSortedByDueDate");
+        this.findByQueryTimer = timer("findByQuery");
+        this.streamByQueryTimer = timer("streamByQuery");
+        this.findPageByQueryTimer = timer("findPageByQuery");
+        this.searchTimer = timer("search");
+        this.fingerprintPageTimer = timer("fingerprintPage");
+        this.countByQueryTimer = timer("countByQuery");
+        this.updateTimer = timer("update");
+        this.patchTimer = timer("patch");
+        this.updateStatusByQueryTimer = timer("updateStatusByQuery");
+        this.deleteByQueryTimer = timer("deleteByQuery");
+        this.moveOverdueTimer = timer("moveOverdue");
+        this.remindDueTimer = timer("remindDue");
+        this.archiveTimer = timer("archive");
+        this.deleteTimer = timer("delete");
+    }
+
+    private static Timer timer(String method) {
+        return MetricsRegistry.getInstance().rowTimer(METRIC,
+                "Time spent in task DAO calls, including query execution and row mapping", "method", method);
+    }
+
+    @Override
+    public Task save(Task task) {
+        long start = System.nanoTime();
+        try {
+            Task saved = delegate.save(task);
+            saveTimer.record(System.nanoTime() - start, 1);
+            return saved;
+        } catch (RuntimeException e) {
+            saveTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int saveAll(List<Task> tasks) {
+        long start = System.nanoTime();
+        try {
+            int saved = delegate.saveAll(tasks);
+            saveAllTimer.record(System.nanoTime() - start, saved);
+            return saved;
+        } catch (RuntimeException e) {
+            saveAllTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Task findById(Long id) {
+        long start = System.nanoTime();
+        try {
+            Task task = delegate.findById(id);
+            findByIdTimer.record(System.nanoTime() - start, task == null ? 0 : 1);
+            return task;
+        } catch (RuntimeException e) {
+            findByIdTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> findByIds(Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            List<Task> tasks = delegate.findByIds(ids);
+            findByIdsTimer.record(System.nanoTime() - start, tasks.size());
+            return tasks;
+        } catch (RuntimeException e) {
+            findByIdsTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> getTasks() {
+        long start = System.nanoTime();
+        try {
+            List<Task> tasks = delegate.getTasks();
+            getTasksTimer.record(System.nanoTime() - start, tasks.size());
+            return tasks;
+        } catch (RuntimeException e) {
+            getTasksTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.Status status) {
+        long start = System.nanoTime();
+        try {
+            List<Task> tasks = delegate.findByStatus(status);
+            findByStatusTimer.record(System.nanoTime() - start, tasks.size());
+            return tasks;
+        } catch (RuntimeException e) {
+            findByStatusTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> findAllSortedByDueDate(boolean ascending) {
+        long start = System.nanoTime();
+        try {
+            List<Task> tasks = delegate.findAllSortedByDueDate(ascending);
+            findAllSortedByDueDateTimer.record(System.nanoTime() - start, tasks.size());
+            return tasks;
+        } catch (RuntimeException e) {
+            findAllSortedByDueDateTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Task> findPage(Task.Status status, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Task> page = delegate.findPage(status, cursor, limit);
+            findPageTimer.record(System.nanoTime() - start, page.getItems().size());
+            return page;
+        } catch (RuntimeException e) {
+            findPageTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Task> findPageSortedByDueDate(boolean ascending, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Task> page = delegate.findPageSortedByDueDate(ascending, cursor, limit);
+            findPageSortedByDueDateTimer.record(System.nanoTime() - start, page.getItems().size());
+            return page;
+        } catch (RuntimeException e) {
+            findPageSortedByDueDateTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Task> findByQuery(TaskQuery query) {
+        long start = System.nanoTime();
+        try {
+            List<Task> tasks = delegate.findByQuery(query);
+            findByQueryTimer.record(System.nanoTime() - start, tasks.size());
+            return tasks;
+        } catch (RuntimeException e) {
+            findByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long streamByQuery(TaskQuery query, int fetchSize, TaskConsumer consumer) throws IOException {
+        long start = System.nanoTime();
+        try {
+            long streamed = delegate.streamByQuery(query, fetchSize, consumer);
+            streamByQueryTimer.record(System.nanoTime() - start, streamed);
+            return streamed;
+        } catch (IOException | RuntimeException e) {
+            streamByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Task> findPageByQuery(TaskQuery query, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Task> page = delegate.findPageByQuery(query, cursor, limit);
+            findPageByQueryTimer.record(System.nanoTime() - start, page.getItems().size());
+            return page;
+        } catch (RuntimeException e) {
+            findPageByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Task> search(TaskQuery query, String cursor, int limit) {
+        long start = System.nanoTime();
+        try {
+            Page<Task> page = delegate.search(query, cursor, limit);
+            searchTimer.record(System.nanoTime() - start, page.getItems().size());
+            return page;
+        } catch (RuntimeException e) {
+            searchTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String fingerprintPage(TaskQuery query, String cursor, int limit, boolean ranked) {
+        long start = System.nanoTime();
+        try {
+            String fingerprint = delegate.fingerprintPage(query, cursor, limit, ranked);
+            fingerprintPageTimer.record(System.nanoTime() - start);
+            return fingerprint;
+        } catch (RuntimeException e) {
+            fingerprintPageTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public TaskCounts countByQuery(TaskQuery query, int tagLimit) {
+        long start = System.nanoTime();
+        try {
+            TaskCounts counts = delegate.countByQuery(query, tagLimit);
+            countByQueryTimer.record(System.nanoTime() - start, counts.getTotal());
+            return counts;
+        } catch (RuntimeException e) {
+            countByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean update(Task task) {
+        long start = System.nanoTime();
+        try {
+            boolean updated = delegate.update(task);
+            updateTimer.record(System.nanoTime() - start, updated ? 1 : 0);
+            return updated;
+        } catch (RuntimeException e) {
+            updateTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Task patch(TaskPatch patch) {
+        long start = System.nanoTime();
+        try {
+            Task task = delegate.patch(patch);
+            patchTimer.record(System.nanoTime() - start, task == null ? 0 : 1);
+            return task;
+        } catch (RuntimeException e) {
+            patchTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int updateStatusByQuery(TaskQuery query, Task.Status status) {
+        long start = System.nanoTime();
+        try {
+            int updated = delegate.updateStatusByQuery(query, status);
+            updateStatusByQueryTimer.record(System.nanoTime() - start, updated);
+            return updated;
+        } catch (RuntimeException e) {
+            updateStatusByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int deleteByQuery(TaskQuery query) {
+        long start = System.nanoTime();
+        try {
+            int deleted = delegate.deleteByQuery(query);
+            deleteByQueryTimer.record(System.nanoTime() - start, deleted);
+            return deleted;
+        } catch (RuntimeException e) {
+            deleteByQueryTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public SweepBatch moveOverdue(Task.Status from, Task.Status to, Date before, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        try {
+            SweepBatch batch = delegate.moveOverdue(from, to, before, after, limit);
+            moveOverdueTimer.record(System.nanoTime() - start, batch.getTaskIds().size());
+            return batch;
+        } catch (RuntimeException e) {
+            moveOverdueTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public SweepBatch remindDue(Collection<Task.Status> statuses, Date from, Date to, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        try {
+            SweepBatch batch = delegate.remindDue(statuses, from, to, after, limit);
+            remindDueTimer.record(System.nanoTime() - start, batch.getTaskIds().size());
+            return batch;
+        } catch (RuntimeException e) {
+            remindDueTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public SweepBatch archive(Collection<Task.Status> statuses, Date before, PageCursor after, int limit) {
+        long start = System.nanoTime();
+        try {
+            SweepBatch batch = delegate.archive(statuses, before, after, limit);
+            archiveTimer.record(System.nanoTime() - start, batch.getTaskIds().size());
+            return batch;
+        } catch (RuntimeException e) {
+            archiveTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        long start = System.nanoTime();
+        try {
+            delegate.delete(id);
+            deleteTimer.record(System.nanoTime() - start, 1);
+        } catch (RuntimeException e) {
+            deleteTimer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
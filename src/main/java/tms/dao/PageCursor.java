@@ -0,0 +1,122 @@
+package tms.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor.
+ * Holds the sort key of the last row of a page (its id, and its due date when
+ * the listing is ordered by due date or its search rank for search results)
+ * so the next page can seek directly past it instead of skipping rows with OFFSET.
+ * <p>
+ * Cursors are serialized as URL-safe Base64 so they can be passed around as
+ * request parameters without clients depending on their structure.
+ */
+public final class PageCursor {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Date dueDate;
+    private final Float rank;
+    private final long id;
+
+    private PageCursor(Date dueDate, Float rank, long id) {
+        this.dueDate = dueDate;
+        this.rank = rank;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor positioned after the given id.
+     *
+     * @param id the id of the last row returned
+     * @return the cursor
+     */
+    public static PageCursor afterId(long id) {
+        return new PageCursor(null, null, id);
+    }
+
+    /**
+     * Creates a cursor positioned after the given (due date, id) key.
+     *
+     * @param dueDate the due date of the last row returned
+     * @param id the id of the last row returned
+     * @return the cursor
+     */
+    public static PageCursor afterDueDate(Date dueDate, long id) {
+        return new PageCursor(dueDate, null, id);
+    }
+
+    /**
+     * Creates a cursor positioned after the given (search rank, id) key.
+     *
+     * @param rank the search rank of the last row returned
+     * @param id the id of the last row returned
+     * @return the cursor
+     */
+    public static PageCursor afterRank(float rank, long id) {
+        return new PageCursor(null, rank, id);
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param token the encoded cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length == 2 && "i".equals(parts[0])) {
+                return afterId(Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && "d".equals(parts[0])) {
+                return afterDueDate(Date.valueOf(parts[1]), Long.parseLong(parts[2]));
+            }
+            if (parts.length == 3 && "r".equals(parts[0])) {
+                return afterRank(Float.parseFloat(parts[1]), Long.parseLong(parts[2]));
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Malformed page cursor: " + token, ex);
+        }
+        throw new IllegalArgumentException("Malformed page cursor: " + token);
+    }
+
+    /**
+     * Encodes this cursor as an opaque URL-safe token.
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = dueDate != null ? "d:" + dueDate + ":" + id
+                : rank != null ? "r:" + rank + ":" + id
+                : "i:" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the due date component of the key.
+     * @return the due date, or null for id-ordered cursors
+     */
+    public Date getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Gets the search rank component of the key.
+     * @return the rank, or null for cursors of other listings
+     */
+    public Float getRank() {
+        return rank;
+    }
+
+    /**
+     * Gets the id component of the key.
+     * @return the id of the last row returned
+     */
+    public long getId() {
+        return id;
+    }
+}
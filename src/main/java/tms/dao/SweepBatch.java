@@ -0,0 +1,49 @@
+package tms.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one batch of a scheduled sweep over tasks in due date order.
+ * Holds the tasks the batch changed and where the next batch starts, so a
+ * sweep visits each task once however many batches it takes.
+ */
+public final class SweepBatch {
+    private final List<Long> taskIds;
+    private final PageCursor next;
+
+    /**
+     * Constructs a batch outcome.
+     *
+     * @param taskIds the ids of the tasks the batch changed
+     * @param next the position after the last task visited, or null if no tasks are left
+     */
+    public SweepBatch(List<Long> taskIds, PageCursor next) {
+        this.taskIds = Collections.unmodifiableList(taskIds);
+        this.next = next;
+    }
+
+    /**
+     * Gets the tasks the batch changed.
+     * @return an unmodifiable list of task ids
+     */
+    public List<Long> getTaskIds() {
+        return taskIds;
+    }
+
+    /**
+     * Gets the position the next batch continues from.
+     * @return a due date cursor, or null if the sweep is complete
+     */
+    public PageCursor getNext() {
+        return next;
+    }
+
+    /**
+     * Indicates that no batch follows this one.
+     * @return true if the sweep is complete
+     */
+    public boolean isLast() {
+        return next == null;
+    }
+}
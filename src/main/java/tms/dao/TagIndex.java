@@ -0,0 +1,222 @@
+package tms.dao;
+
+import tms.exception.DataAccessException;
+import tms.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * In-memory prefix index over the tag vocabulary, for type-ahead suggestions.
+ * <p>
+ * Tag names are held in an array sorted by their lower-cased form, so the tags
+ * starting with a prefix form one contiguous range found by binary search; the
+ * range is scanned for the most used tags. Usage counts live in a parallel
+ * {@link AtomicLongArray}. Lookups read an immutable snapshot without locking
+ * and never touch the database.
+ * <p>
+ * The index is loaded from {@code tags} and {@code tag_stats} and kept current
+ * through {@link TagUsageListener} with the tag changes made by this node.
+ * Count changes update the snapshot in place; a tag not yet in the index
+ * triggers a copy of the arrays with the new names merged in, which is rare
+ * once the vocabulary has settled. Writers are serialized by a lock. Changes
+ * made by other nodes appear after the next {@link #load()}.
+ */
+public class TagIndex implements TagUsageListener {
+    private static final Logger LOGGER = Logger.getLogger(TagIndex.class.getName());
+
+    private static final String LOAD_SQL = "SELECT tg.name, s.task_count FROM tags tg "
+            + "JOIN tag_stats s ON s.tag_id = tg.id WHERE s.task_count > 0";
+
+    /** Orders names case-insensitively, then exactly, so names differing only in case stay distinct. */
+    private static final Comparator<String> ORDER =
+            Comparator.comparing((String name) -> name.toLowerCase(Locale.ROOT)).thenComparing(name -> name);
+
+    private static final class Snapshot {
+        final String[] keys;
+        final String[] names;
+        final AtomicLongArray counts;
+
+        Snapshot(String[] names, long[] counts) {
+            this.names = names;
+            this.keys = new String[names.length];
+            for (int i = 0; i < names.length; i++) {
+                keys[i] = names[i].toLowerCase(Locale.ROOT);
+            }
+            this.counts = new AtomicLongArray(counts);
+        }
+
+        int indexOf(String name) {
+            return Arrays.binarySearch(names, name, ORDER);
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new long[0]);
+
+    /**
+     * Replaces the index with the current tag usage from the database.
+     * Tags no task carries are left out.
+     *
+     * @throws DataAccessException if database access fails
+     */
+    public void load() {
+        Map<String, Long> usage = new LinkedHashMap<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(LOAD_SQL)) {
+            while (rs.next()) {
+                usage.put(rs.getString(1), rs.getLong(2));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to load tag index", e);
+        }
+        replace(usage);
+        LOGGER.info(() -> "Tag index loaded with " + usage.size() + " tags");
+    }
+
+    /**
+     * Replaces the index with the given usage counts.
+     *
+     * @param usage the number of tasks per tag name
+     */
+    public void replace(Map<String, Long> usage) {
+        String[] names = usage.keySet().toArray(new String[0]);
+        Arrays.sort(names, ORDER);
+        long[] counts = new long[names.length];
+        for (int i = 0; i < names.length; i++) {
+            counts[i] = usage.get(names[i]);
+        }
+        writeLock.lock();
+        try {
+            snapshot = new Snapshot(names, counts);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Applies usage changes, adding tags not yet indexed.
+     *
+     * @param deltas the change in task count per tag name
+     */
+    @Override
+    public void onTagUsageChanged(Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Snapshot current = snapshot;
+            List<String> added = new ArrayList<>();
+            for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+                int index = current.indexOf(delta.getKey());
+                if (index >= 0) {
+                    current.counts.addAndGet(index, delta.getValue());
+                } else if (delta.getValue() > 0) {
+                    added.add(delta.getKey());
+                }
+            }
+            if (!added.isEmpty()) {
+                snapshot = merge(current, added, deltas);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Suggests the most used tags starting with a prefix, ignoring case.
+     *
+     * @param prefix the typed prefix; blank matches every tag
+     * @param limit the maximum number of suggestions
+     * @return task counts keyed by tag name, most used first, then alphabetically
+     */
+    public Map<String, Long> suggest(String prefix, int limit) {
+        if (limit <= 0) {
+            return new LinkedHashMap<>();
+        }
+        Snapshot current = snapshot;
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        int from = lowerBound(current.keys, key);
+
+        // Best candidates so far, kept sorted by descending count; the range is sorted by name,
+        // so ties are already in alphabetical order when they arrive
+        int[] best = new int[limit];
+        long[] bestCounts = new long[best.length];
+        int size = 0;
+        for (int i = from; i < current.keys.length && current.keys[i].startsWith(key); i++) {
+            long count = current.counts.get(i);
+            if (count <= 0 || (size == best.length && count <= bestCounts[size - 1])) {
+                continue;
+            }
+            int pos = size == best.length ? size - 1 : size++;
+            while (pos > 0 && bestCounts[pos - 1] < count) {
+                best[pos] = best[pos - 1];
+                bestCounts[pos] = bestCounts[pos - 1];
+                pos--;
+            }
+            best[pos] = i;
+            bestCounts[pos] = count;
+        }
+
+        Map<String, Long> suggestions = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            suggestions.put(current.names[best[i]], bestCounts[i]);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Gets the number of indexed tags, including any whose count dropped to zero since the last load.
+     * @return the vocabulary size
+     */
+    public int size() {
+        return snapshot.names.length;
+    }
+
+    private static Snapshot merge(Snapshot current, List<String> added, Map<String, Integer> deltas) {
+        added.sort(ORDER);
+        int total = current.names.length + added.size();
+        String[] names = new String[total];
+        long[] counts = new long[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j == added.size() || (i < current.names.length && ORDER.compare(current.names[i], added.get(j)) < 0)) {
+                names[k] = current.names[i];
+                counts[k] = current.counts.get(i++);
+            } else {
+                names[k] = added.get(j);
+                counts[k] = deltas.get(added.get(j++));
+            }
+        }
+        return new Snapshot(names, counts);
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,16 @@
+package tms.dao;
+
+import java.util.Map;
+
+/**
+ * Receives changes in how many tasks carry each tag.
+ * {@link TaskDAOImpl} reports them after the transaction that made them has committed.
+ */
+@FunctionalInterface
+public interface TagUsageListener {
+    /**
+     * Called after tags were linked to or unlinked from tasks.
+     * @param deltas The change in task count per tag name; positive for links, negative for unlinks.
+     */
+    void onTagUsageChanged(Map<String, Integer> deltas);
+}
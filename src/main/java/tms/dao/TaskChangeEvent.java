@@ -0,0 +1,96 @@
+package tms.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change to one or more tasks, as announced by the database triggers on the
+ * {@value #CHANNEL} notification channel.
+ * Payloads have the form {@code OPERATION:id,id,...}, or {@code OPERATION:*}
+ * when too many tasks changed to list them.
+ */
+public final class TaskChangeEvent {
+    /** Notification channel the task triggers publish on. */
+    public static final String CHANNEL = "task_changes";
+
+    /**
+     * Notification channel the scheduler announces due-date reminders on, as
+     * {@code REMINDER:id,id,...}. It is separate from {@link #CHANNEL} so caches do
+     * not treat reminders as changes.
+     */
+    public static final String REMINDER_CHANNEL = "task_reminders";
+
+    /**
+     * Kind of change. {@code TAGS} means the tag assignments of the tasks changed;
+     * {@code REMINDER} means the tasks are due soon and is only sent on {@link #REMINDER_CHANNEL}.
+     */
+    public enum Operation {
+        INSERT, UPDATE, DELETE, TAGS, REMINDER
+    }
+
+    private final Operation operation;
+    private final List<Long> taskIds;
+
+    private TaskChangeEvent(Operation operation, List<Long> taskIds) {
+        this.operation = operation;
+        this.taskIds = taskIds;
+    }
+
+    /**
+     * Parses a notification payload.
+     *
+     * @param payload the payload
+     * @return the event
+     * @throws IllegalArgumentException if the payload is malformed
+     */
+    public static TaskChangeEvent parse(String payload) {
+        int colon = payload.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Malformed task change payload: " + payload);
+        }
+        Operation operation = Operation.valueOf(payload.substring(0, colon));
+        String ids = payload.substring(colon + 1);
+        if (ids.equals("*")) {
+            return new TaskChangeEvent(operation, null);
+        }
+        List<Long> taskIds = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            try {
+                taskIds.add(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed task id in change payload: " + id);
+            }
+        }
+        return new TaskChangeEvent(operation, Collections.unmodifiableList(taskIds));
+    }
+
+    /**
+     * Gets the kind of change.
+     * @return the operation
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Indicates that the affected tasks were not listed individually.
+     * @return true if any task may have changed
+     */
+    public boolean isAllTasks() {
+        return taskIds == null;
+    }
+
+    /**
+     * Gets the ids of the affected tasks.
+     * @return the task ids, empty if {@link #isAllTasks()} is true
+     */
+    public List<Long> getTaskIds() {
+        return taskIds == null ? Collections.emptyList() : taskIds;
+    }
+
+    @Override
+    public String toString() {
+        return operation + ":" + (taskIds == null ? "*" : taskIds.toString());
+    }
+}
@@ -0,0 +1,21 @@
+package tms.dao;
+
+import tms.model.Task;
+
+import java.io.IOException;
+
+/**
+ * Receives tasks one at a time while a query result is streamed.
+ * Unlike {@link java.util.function.Consumer} it may fail with an
+ * {@link IOException}, which stops the stream and is passed on to the caller.
+ */
+@FunctionalInterface
+public interface TaskConsumer {
+    /**
+     * Handles one task. The task is not retained by the caller.
+     *
+     * @param task the current task
+     * @throws IOException if the task cannot be written
+     */
+    void accept(Task task) throws IOException;
+}
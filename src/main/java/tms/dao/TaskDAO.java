@@ -1,7 +1,12 @@
 package tms.dao;
 
+import tms.model.Page;
 import tms.model.Task;
+import tms.model.TaskCounts;
 
+import java.io.IOException;
+import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +21,15 @@ public interface TaskDAO {
      */
     Task save(Task task);
 
+    /**
+     * Persists a batch of already validated tasks, including their tags, in one
+     * transaction using bulk ingestion rather than per-row statements.
+     * Either every task of the batch is stored or none is.
+     * @param tasks The tasks to store.
+     * @return The number of tasks stored.
+     */
+    int saveAll(List<Task> tasks);
+
     /**
      * Retrieves a task by its unique identifier.
      * @param id The ID of the task to find.
@@ -23,6 +37,14 @@ public interface TaskDAO {
      */
     Task findById(Long id);
 
+    /**
+     * Retrieves several active tasks by their identifiers in one round trip.
+     * Archived tasks are left out, as for tasks that no longer exist.
+     * @param ids The IDs of the tasks to find.
+     * @return The active tasks among them, ordered by id.
+     */
+    List<Task> findByIds(Collection<Long> ids);
+
     /**
      * Retrieves all tasks from the database.
      * @return List of all tasks.
@@ -44,10 +66,165 @@ public interface TaskDAO {
     List<Task> findAllSortedByDueDate(boolean ascending);
 
     /**
-     * Updates an existing task in the database.
+     * Retrieves one page of tasks ordered by id, optionally restricted to a status.
+     * Seeks past the cursor instead of scanning skipped rows, so the cost of a
+     * page depends on its size and not on its position or the table size.
+     * @param status The status to filter by, or null for all tasks.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The page of tasks with the cursor for the following page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    Page<Task> findPage(Task.Status status, String cursor, int limit);
+
+    /**
+     * Retrieves one page of tasks ordered by due date, with id as tie-breaker.
+     * @param ascending True for ascending order, false for descending.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The page of tasks with the cursor for the following page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    Page<Task> findPageSortedByDueDate(boolean ascending, String cursor, int limit);
+
+    /**
+     * Finds tasks matching a combination of criteria, compiled into a single statement.
+     * @param query The criteria, ordering and limit to apply.
+     * @return List of matching tasks in the requested order.
+     */
+    List<Task> findByQuery(TaskQuery query);
+
+    /**
+     * Streams every task matching the criteria to a consumer through a server-side
+     * cursor, so only one fetch of rows is held in memory regardless of result size.
+     * @param query The criteria, ordering and limit to apply.
+     * @param fetchSize The number of rows fetched per round trip.
+     * @param consumer Receives each task in order.
+     * @return The number of tasks streamed.
+     * @throws IOException if the consumer fails; the cursor is closed before it propagates.
+     */
+    long streamByQuery(TaskQuery query, int fetchSize, TaskConsumer consumer) throws IOException;
+
+    /**
+     * Retrieves one page of tasks matching the criteria; the query's own limit is ignored.
+     * Only queries ordered by id or by due date alone (see {@link TaskQuery#isSeekable()})
+     * can be continued with a cursor; other orderings return just the first page.
+     * @param query The criteria and ordering to apply.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The page of tasks with the cursor for the following page.
+     * @throws IllegalArgumentException if the cursor is malformed or the ordering cannot be paginated.
+     */
+    Page<Task> findPageByQuery(TaskQuery query, String cursor, int limit);
+
+    /**
+     * Retrieves one page of tasks matching the query's search text and other criteria,
+     * most relevant first. Matches are found through the full-text index; the query's
+     * own ordering and limit are ignored.
+     * @param query The criteria; must include search text.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks to return.
+     * @return The page of tasks with the cursor for the following page.
+     * @throws IllegalArgumentException if the query has no search text or the cursor is malformed.
+     */
+    Page<Task> search(TaskQuery query, String cursor, int limit);
+
+    /**
+     * Fingerprints the page that {@link #findPageByQuery} or, if ranked, {@link #search}
+     * would return for the same arguments, from the ids and versions of its tasks alone.
+     * The fingerprint changes whenever the page's content or next cursor would, and
+     * costs one key-only query instead of loading and serializing the tasks.
+     * @param query The criteria and ordering to apply.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of tasks on the page.
+     * @param ranked True to fingerprint the ranked search, false the plain listing.
+     * @return An opaque fingerprint of the page.
+     * @throws IllegalArgumentException under the same conditions as the page query.
+     */
+    String fingerprintPage(TaskQuery query, String cursor, int limit, boolean ranked);
+
+    /**
+     * Counts the tasks matching the criteria per status, per priority and per tag
+     * in a single aggregate query; the query's ordering and limit are ignored.
+     * @param query The criteria to apply.
+     * @param tagLimit The number of most used tags to report.
+     * @return The counts.
+     */
+    TaskCounts countByQuery(TaskQuery query, int tagLimit);
+
+    /**
+     * Updates an existing task in the database in a single conditional statement.
+     * If the task carries a version, the update only applies while that is still
+     * the stored version; on success the task receives its new version.
      * @param task The task with updated values.
+     * @return true if the task was updated, false if it does not exist or its version is stale.
+     */
+    boolean update(Task task);
+
+    /**
+     * Writes only the fields set on a patch, in a single statement unless it also replaces tags.
+     * @param patch The changes, optionally conditional on a version.
+     * @return The task as stored after the change, or null if it does not exist or its version is stale.
+     */
+    Task patch(TaskPatch patch);
+
+    /**
+     * Sets the status of every task matching the query's criteria in a single statement.
+     * Ordering and limit of the query are ignored; {@link TaskQuery.Builder#ids} selects tasks by id.
+     * @param query The criteria.
+     * @param status The new status.
+     * @return The number of tasks whose status changed.
+     */
+    int updateStatusByQuery(TaskQuery query, Task.Status status);
+
+    /**
+     * Deletes every task matching the query's criteria in a single statement.
+     * Ordering and limit of the query are ignored; {@link TaskQuery.Builder#ids} selects tasks by id.
+     * @param query The criteria.
+     * @return The number of deleted tasks.
+     */
+    int deleteByQuery(TaskQuery query);
+
+    /**
+     * Moves the next batch of overdue tasks from one status to another in a single statement.
+     * Tasks are visited in (due date, id) order along the due date index, starting after the
+     * given position. Tasks locked by a concurrent write are skipped and left for the next sweep.
+     * @param from The status the tasks have.
+     * @param to The status to move them to.
+     * @param before Tasks due before this date are overdue.
+     * @param after The position the previous batch ended at, or null to start with the earliest due date.
+     * @param limit The maximum number of tasks to move.
+     * @return The moved tasks and the position the next batch starts from.
+     */
+    SweepBatch moveOverdue(Task.Status from, Task.Status to, Date before, PageCursor after, int limit);
+
+    /**
+     * Records due-date reminders for the next batch of tasks due within a date range,
+     * skipping tasks already reminded of their current due date, and announces the
+     * reminded tasks on {@link TaskChangeEvent#REMINDER_CHANNEL} when the batch commits.
+     * Tasks are visited in (due date, id) order along the due date index.
+     * @param statuses The statuses of the tasks to remind of.
+     * @param from The earliest due date, inclusive.
+     * @param to The latest due date, inclusive.
+     * @param after The position the previous batch ended at, or null to start with the earliest due date.
+     * @param limit The maximum number of tasks to visit.
+     * @return The reminded tasks and the position the next batch starts from.
+     */
+    SweepBatch remindDue(Collection<Task.Status> statuses, Date from, Date to, PageCursor after, int limit);
+
+    /**
+     * Moves the next batch of tasks due before a date into the archive partition in a single statement.
+     * Archived tasks keep their id, fields and tags but are left out of queries unless
+     * {@link TaskQuery.Builder#includeArchived(boolean)} is set. Tasks are visited in
+     * (due date, id) order along the due date index; tasks locked by a concurrent write
+     * are skipped and left for the next sweep.
+     * @param statuses The statuses of the tasks to archive.
+     * @param before Tasks due before this date are archived.
+     * @param after The position the previous batch ended at, or null to start with the earliest due date.
+     * @param limit The maximum number of tasks to archive.
+     * @return The archived tasks and the position the next batch starts from.
      */
-    void update(Task task);
+    SweepBatch archive(Collection<Task.Status> statuses, Date before, PageCursor after, int limit);
 
     /**
      * Deletes a task from the database.
@@ -0,0 +1,165 @@
+package tms.dao;
+
+import tms.config.DatabaseConfig;
+import tms.exception.DataAccessException;
+import tms.util.DatabaseNotificationListener;
+import tms.util.cache.CacheStats;
+import tms.util.metrics.MetricsRegistry;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Provides the application-wide {@link TaskDAO}.
+ * All services share one instance so that, when caching is enabled through
+ * {@code db.cache.enabled}, every reader sees the invalidations of every writer.
+ * With {@code db.notify.enabled} the cache also follows changes made on other
+ * nodes through the database's {@value TaskChangeEvent#CHANNEL} notifications.
+ * With {@code app.metrics.enabled} the database DAO is wrapped in a
+ * {@link MeteredTaskDAO}, beneath the cache, so its timers measure database work only.
+ * The database DAO keeps the shared {@link TagIndex} current with every tag change it commits.
+ */
+public final class TaskDAOFactory {
+    private static final Logger LOGGER = Logger.getLogger(TaskDAOFactory.class.getName());
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+
+    private static volatile TaskDAO instance;
+    private static volatile TagIndex tagIndex;
+
+    private TaskDAOFactory() {}
+
+    /**
+     * Gets the shared DAO, creating it on first use.
+     * @return a {@link CachingTaskDAO} around the database DAO if caching is enabled,
+     *         otherwise the database DAO itself
+     */
+    public static TaskDAO getTaskDAO() {
+        TaskDAO dao = instance;
+        if (dao == null) {
+            INIT_LOCK.lock();
+            try {
+                dao = instance;
+                if (dao == null) {
+                    dao = create();
+                    instance = dao;
+                }
+            } finally {
+                INIT_LOCK.unlock();
+            }
+        }
+        return dao;
+    }
+
+    /**
+     * Gets the shared tag index, creating the DAO that maintains it on first use.
+     * @return the tag index
+     */
+    public static TagIndex getTagIndex() {
+        getTaskDAO();
+        return tagIndex;
+    }
+
+    /**
+     * Gets the shared DAO's cache, if caching is enabled.
+     * @return the caching decorator, or null if caching is disabled
+     */
+    public static CachingTaskDAO getCache() {
+        TaskDAO dao = getTaskDAO();
+        return dao instanceof CachingTaskDAO ? (CachingTaskDAO) dao : null;
+    }
+
+    private static TaskDAO create() {
+        tagIndex = createTagIndex();
+        TaskDAO dao = new TaskDAOImpl(tagIndex);
+        if (DatabaseConfig.isMetricsEnabled()) {
+            dao = new MeteredTaskDAO(dao);
+        }
+        if (!DatabaseConfig.isCacheEnabled()) {
+            LOGGER.info("Task cache disabled");
+            return dao;
+        }
+        LOGGER.info(() -> "Task cache enabled: " + DatabaseConfig.getCacheMaxEntries() + " tasks, "
+                + DatabaseConfig.getCacheListMaxEntries() + " results, TTL "
+                + DatabaseConfig.getCacheTtlSeconds() + "s");
+        CachingTaskDAO cache = new CachingTaskDAO(dao, DatabaseConfig.getCacheMaxEntries(),
+                DatabaseConfig.getCacheListMaxEntries(), DatabaseConfig.getCacheTtlSeconds() * 1000L);
+        if (DatabaseConfig.isNotifyEnabled()) {
+            subscribe(cache);
+        }
+        if (DatabaseConfig.isMetricsEnabled()) {
+            registerMetrics(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Creates the tag index and loads it. A failed load leaves the index empty
+     * rather than failing DAO creation; it fills as tags are written.
+     *
+     * @return the tag index
+     */
+    private static TagIndex createTagIndex() {
+        TagIndex index = new TagIndex();
+        try {
+            index.load();
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.WARNING, "Tag index could not be loaded; suggestions start empty", e);
+        }
+        if (DatabaseConfig.isMetricsEnabled()) {
+            MetricsRegistry.getInstance().gauge("tms_tag_index_entries", "Tags held by the tag suggestion index",
+                    index::size);
+        }
+        return index;
+    }
+
+    /**
+     * Publishes the hit, miss and eviction counters of both caches.
+     *
+     * @param cache the cache to publish
+     */
+    private static void registerMetrics(CachingTaskDAO cache) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        registerMetrics(metrics, "byId", cache::getByIdStats);
+        registerMetrics(metrics, "results", cache::getResultStats);
+    }
+
+    private static void registerMetrics(MetricsRegistry metrics, String name, Supplier<CacheStats> stats) {
+        metrics.gauge("tms_cache_entries", "Entries held by a task cache", () -> stats.get().getSize(), "cache", name);
+        metrics.counter("tms_cache_hits_total", "Task cache lookups served from memory",
+                () -> stats.get().getHits(), "cache", name);
+        metrics.counter("tms_cache_misses_total", "Task cache lookups that loaded from the database",
+                () -> stats.get().getMisses(), "cache", name);
+        metrics.counter("tms_cache_evictions_total", "Task cache entries evicted to stay within bounds",
+                () -> stats.get().getEvictions(), "cache", name);
+    }
+
+    /**
+     * Keeps the cache coherent with writes made by other nodes.
+     * After a listener reconnect the whole cache is dropped, because
+     * notifications sent while it was down were lost.
+     *
+     * @param cache the cache to invalidate on change notifications
+     */
+    private static void subscribe(CachingTaskDAO cache) {
+        DatabaseNotificationListener.getInstance().subscribe(TaskChangeEvent.CHANNEL,
+                new DatabaseNotificationListener.Subscriber() {
+                    @Override
+                    public void onNotification(String channel, String payload) {
+                        try {
+                            cache.onTaskChange(TaskChangeEvent.parse(payload));
+                        } catch (IllegalArgumentException e) {
+                            LOGGER.warning(() -> "Ignoring task change notification: " + e.getMessage());
+                            cache.invalidateAll();
+                        }
+                    }
+
+                    @Override
+                    public void onReconnect(String channel) {
+                        cache.invalidateAll();
+                    }
+                });
+        LOGGER.info("Task cache subscribed to change notifications");
+    }
+}
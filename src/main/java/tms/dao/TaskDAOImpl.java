@@ -1,10 +1,20 @@
 package tms.dao;
 
 import tms.exception.DataAccessException;
+import tms.model.Page;
+import tms.model.TagDictionary;
 import tms.model.Task;
+import tms.model.TaskCounts;
 import tms.util.DatabaseConnection;
+import tms.util.io.HashingWriter;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.sql.Date;
 import java.util.*;
 import java.util.logging.*;
 
@@ -16,6 +26,27 @@ import java.util.logging.*;
 public class TaskDAOImpl implements TaskDAO {
     private static final Logger LOGGER = Logger.getLogger(TaskDAOImpl.class.getName());
 
+    private static final int[] NO_TAGS = new int[0];
+    private static final int TAG_RESOLVE_ROUNDS = 3;
+
+    private final TagUsageListener tagListener;
+
+    /**
+     * Constructs a DAO that does not report tag usage changes.
+     */
+    public TaskDAOImpl() {
+        this(deltas -> { });
+    }
+
+    /**
+     * Constructs a DAO that reports tag usage changes after each committed write.
+     *
+     * @param tagListener receives the change in task count per tag name
+     */
+    public TaskDAOImpl(TagUsageListener tagListener) {
+        this.tagListener = tagListener;
+    }
+
     /**
      * Saves a new task to the database including its tags.
      * Performs the operation within a transaction.
@@ -33,33 +64,36 @@ public class TaskDAOImpl implements TaskDAO {
             conn.setAutoCommit(false);
 
             String taskSql = "INSERT INTO tasks (title, description, priority, due_date, status) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement taskStmt = conn.prepareStatement(taskSql, Statement.RETURN_GENERATED_KEYS);
-
-            taskStmt.setString(1, task.getTitle());
-            taskStmt.setString(2, task.getDescription());
-            taskStmt.setString(3, task.getPriority());
-            taskStmt.setDate(4, new java.sql.Date(task.getDueDate().getTime()));
-            taskStmt.setString(5, task.getStatus().name());
+            try (PreparedStatement taskStmt = conn.prepareStatement(taskSql, new String[]{"id", "version"})) {
+                taskStmt.setString(1, task.getTitle());
+                taskStmt.setString(2, task.getDescription());
+                taskStmt.setString(3, task.getPriority());
+                taskStmt.setDate(4, new java.sql.Date(task.getDueDate().getTime()));
+                taskStmt.setString(5, task.getStatus().name());
 
-            int affectedRows = taskStmt.executeUpdate();
-            if (affectedRows == 0) {
-                LOGGER.warning("No rows affected when saving task");
-                throw new SQLException("Creating task failed");
-            }
+                int affectedRows = taskStmt.executeUpdate();
+                if (affectedRows == 0) {
+                    LOGGER.warning("No rows affected when saving task");
+                    throw new SQLException("Creating task failed");
+                }
 
-            try (ResultSet generatedKeys = taskStmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    task.setId(generatedKeys.getLong(1));
-                    LOGGER.fine(() -> "Generated task ID: " + task.getId());
+                try (ResultSet generatedKeys = taskStmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        task.setId(generatedKeys.getLong(1));
+                        task.setVersion(generatedKeys.getLong(2));
+                        LOGGER.fine(() -> "Generated task ID: " + task.getId());
+                    }
                 }
             }
 
+            Map<String, Integer> tagDeltas = Collections.emptyMap();
             if (task.getTags() != null && !task.getTags().isEmpty()) {
                 LOGGER.fine(() -> "Saving " + task.getTags().size() + " tags for task ID: " + task.getId());
-                saveTags(conn, task.getId(), task.getTags());
+                tagDeltas = saveTags(conn, task.getId(), Collections.emptyList(), task.getTags());
             }
 
             conn.commit();
+            tagListener.onTagUsageChanged(tagDeltas);
             LOGGER.info(() -> "Successfully saved task ID: " + task.getId() + " with title: " + task.getTitle());
             return task;
         } catch (SQLException e) {
@@ -81,46 +115,376 @@ public class TaskDAOImpl implements TaskDAO {
                 } catch (SQLException e) {
                     LOGGER.log(Level.WARNING, "Failed to reset auto-commit", e);
                 }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to release connection", e);
+                }
             }
         }
     }
 
     /**
-     * Saves tags for a task and creates the task-tag relationships.
+     * Stores a batch of tasks through PostgreSQL {@code COPY}.
+     * Ids are drawn from the tasks sequence up front and the chunk's tag names
+     * are resolved to ids in one statement, so both {@code tasks} and
+     * {@code task_tags} are filled by a {@code COPY} straight into the table.
+     * Rows are encoded into a small buffer that is flushed to the server as it
+     * fills, so the chunk is never held a second time as CSV text.
+     *
+     * @param tasks the validated tasks to store
+     * @return the number of tasks stored
+     * @throws DataAccessException if database access fails; the whole batch is rolled back
+     */
+    @Override
+    public int saveAll(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        LOGGER.fine(() -> "Bulk saving " + tasks.size() + " tasks");
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+
+            long[] ids = allocateTaskIds(conn, tasks.size());
+            List<Set<String>> tagsByTask = new ArrayList<>(tasks.size());
+            Set<String> names = new LinkedHashSet<>();
+            for (Task task : tasks) {
+                Set<String> tags = normalizeTags(task.getTags());
+                tagsByTask.add(tags);
+                names.addAll(tags);
+            }
+            Map<String, Long> tagIds = names.isEmpty() ? Collections.emptyMap() : resolveTagIds(conn, names);
+
+            CopyManager copyApi = conn.unwrap(PGConnection.class).getCopyAPI();
+            long copied;
+            try (CopyBuffer rows = new CopyBuffer(copyApi.copyIn(
+                    "COPY tasks (id, title, description, priority, due_date, status) FROM STDIN (FORMAT csv)"))) {
+                for (int i = 0; i < ids.length; i++) {
+                    Task task = tasks.get(i);
+                    rows.append(ids[i]).append(',');
+                    rows.appendQuoted(task.getTitle()).append(',');
+                    rows.appendQuoted(task.getDescription()).append(',');
+                    rows.appendQuoted(task.getPriority()).append(',');
+                    rows.append(new Date(task.getDueDate().getTime()).toString()).append(',');
+                    rows.append(task.getStatus().name()).endRow();
+                }
+                copied = rows.finish();
+            }
+
+            Map<String, Integer> tagDeltas = new HashMap<>();
+            if (!tagIds.isEmpty()) {
+                try (CopyBuffer links = new CopyBuffer(copyApi.copyIn(
+                        "COPY task_tags (task_id, tag_id) FROM STDIN (FORMAT csv)"))) {
+                    for (int i = 0; i < ids.length; i++) {
+                        for (String tag : tagsByTask.get(i)) {
+                            links.append(ids[i]).append(',').append(tagIds.get(tag)).endRow();
+                            tagDeltas.merge(tag, 1, Integer::sum);
+                        }
+                    }
+                    links.finish();
+                }
+            }
+
+            conn.commit();
+            tagListener.onTagUsageChanged(tagDeltas);
+            LOGGER.fine(() -> "Bulk saved " + copied + " tasks");
+            return (int) copied;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to bulk save tasks", e);
+            if (conn != null) {
+                try {
+                    LOGGER.fine("Attempting to rollback transaction");
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.SEVERE, "Failed to rollback transaction", ex);
+                    throw new DataAccessException("Failed to rollback transaction", ex);
+                }
+            }
+            throw new DataAccessException("Failed to bulk save tasks", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to reset auto-commit", e);
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to release connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws ids for a batch of new tasks from the tasks sequence in one round trip.
+     *
+     * @param conn the connection to query on
+     * @param count the number of ids needed
+     * @return the ids, in the order they were drawn
+     * @throws SQLException if database access fails
+     */
+    private static long[] allocateTaskIds(Connection conn, int count) throws SQLException {
+        long[] ids = new long[count];
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT nextval('tasks_id_seq') FROM generate_series(1, ?)")) {
+            stmt.setInt(1, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int n = 0;
+                while (rs.next()) {
+                    ids[n++] = rs.getLong(1);
+                }
+                if (n != count) {
+                    throw new SQLException("Expected " + count + " task ids but got " + n);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Creates the tags not yet known and looks up the ids of all of them, usually
+     * in one statement. The CTE's inserted rows are not visible to the outer SELECT
+     * on {@code tags}, so the two halves of the UNION never overlap.
+     * <p>
+     * A name committed by another transaction after the statement's snapshot was
+     * taken is skipped by the insert and not yet visible to the SELECT. The names
+     * left over are therefore resolved again by a new statement, which reads a
+     * newer snapshot, for up to {@value #TAG_RESOLVE_ROUNDS} rounds.
+     *
+     * @param conn the connection to query on
+     * @param names the tag names
+     * @return the tag ids keyed by name
+     * @throws SQLException if database access fails, or names are still unresolved after the last round
+     */
+    private static Map<String, Long> resolveTagIds(Connection conn, Set<String> names) throws SQLException {
+        String sql = "WITH created AS (INSERT INTO tags (name) SELECT unnest(?::varchar[]) "
+                + "ON CONFLICT (name) DO NOTHING RETURNING id, name) "
+                + "SELECT id, name FROM created UNION ALL SELECT id, name FROM tags WHERE name = ANY(?)";
+        Map<String, Long> ids = new HashMap<>();
+        Set<String> pending = names;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int round = 1; round <= TAG_RESOLVE_ROUNDS && !pending.isEmpty(); round++) {
+                Array array = conn.createArrayOf("varchar", pending.toArray());
+                stmt.setArray(1, array);
+                stmt.setArray(2, array);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString(2), rs.getLong(1));
+                    }
+                }
+                Set<String> missing = new LinkedHashSet<>(pending);
+                missing.removeAll(ids.keySet());
+                if (!missing.isEmpty()) {
+                    LOGGER.fine(() -> missing.size() + " tags were created concurrently; resolving them again");
+                }
+                pending = missing;
+            }
+        }
+        if (!pending.isEmpty()) {
+            throw new SQLException("Could not resolve tags " + pending + " after " + TAG_RESOLVE_ROUNDS + " rounds");
+        }
+        return ids;
+    }
+
+    /**
+     * Encodes CSV rows for a running {@code COPY ... FROM STDIN (FORMAT csv)} and
+     * hands them to the server in blocks of about {@value #FLUSH_CHARS} characters.
+     * Closing without {@link #finish()} cancels the copy.
+     */
+    private static final class CopyBuffer implements AutoCloseable {
+        private static final int FLUSH_CHARS = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final StringBuilder pending = new StringBuilder(FLUSH_CHARS + 1024);
+
+        CopyBuffer(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        CopyBuffer append(String value) {
+            pending.append(value);
+            return this;
+        }
+
+        CopyBuffer append(char c) {
+            pending.append(c);
+            return this;
+        }
+
+        CopyBuffer append(long value) {
+            pending.append(value);
+            return this;
+        }
+
+        /**
+         * Appends a value as a quoted CSV field. Null is written as an unquoted
+         * empty field, which COPY reads as NULL.
+         */
+        CopyBuffer appendQuoted(String value) {
+            if (value == null) {
+                return this;
+            }
+            pending.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    pending.append('"');
+                }
+                pending.append(c);
+            }
+            pending.append('"');
+            return this;
+        }
+
+        void endRow() throws SQLException {
+            pending.append('\n');
+            if (pending.length() >= FLUSH_CHARS) {
+                flush();
+            }
+        }
+
+        /**
+         * Sends the remaining rows and completes the copy.
+         * @return the number of rows copied
+         */
+        long finish() throws SQLException {
+            flush();
+            return copyIn.endCopy();
+        }
+
+        private void flush() throws SQLException {
+            if (pending.length() > 0) {
+                byte[] bytes = pending.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                pending.setLength(0);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Brings a task's tag links in line with the desired tag set using a constant
+     * number of statements, independent of the number of tags:
+     * <ol>
+     *   <li>one DELETE for links that are no longer wanted</li>
+     *   <li>one multi-row INSERT for tag names not yet in {@code tags}</li>
+     *   <li>one multi-row INSERT for the new links</li>
+     * </ol>
+     * Tag names are bound as arrays and expanded server-side with {@code unnest}/{@code ANY}.
+     * Statements whose input is empty are skipped, so an unchanged tag set does not
+     * touch the tag tables at all.
      *
      * @param conn the database connection to use
      * @param taskId the ID of the task
-     * @param tags the list of tags to save
+     * @param currentTags the tags currently linked to the task
+     * @param desiredTags the tags the task should end up with
+     * @return the change in task count per tag name, to report once the transaction commits
      * @throws SQLException if database access fails
      */
-    private void saveTags(Connection conn, Long taskId, List<String> tags) throws SQLException {
-        LOGGER.finest(() -> "Starting saveTags for task ID: " + taskId);
+    Map<String, Integer> saveTags(Connection conn, Long taskId, Collection<String> currentTags,
+                                  Collection<String> desiredTags) throws SQLException {
+        Set<String> desired = normalizeTags(desiredTags);
+        Set<String> current = normalizeTags(currentTags);
 
-        String deleteSql = "DELETE FROM task_tags WHERE task_id = ?";
-        try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
-            deleteStmt.setLong(1, taskId);
-            int deleted = deleteStmt.executeUpdate();
-            LOGGER.finest(() -> "Deleted " + deleted + " existing tag relationships for task ID: " + taskId);
-        }
+        Set<String> removed = new LinkedHashSet<>(current);
+        removed.removeAll(desired);
+        Set<String> added = new LinkedHashSet<>(desired);
+        added.removeAll(current);
 
-        String insertTagSql = "INSERT INTO tags (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
-        String insertTaskTagSql = "INSERT INTO task_tags (task_id, tag_id) VALUES (?, (SELECT id FROM tags WHERE name = ?))";
+        if (removed.isEmpty() && added.isEmpty()) {
+            LOGGER.finest(() -> "Tags unchanged for task ID: " + taskId);
+            return Collections.emptyMap();
+        }
 
-        try (PreparedStatement tagStmt = conn.prepareStatement(insertTagSql);
-             PreparedStatement taskTagStmt = conn.prepareStatement(insertTaskTagSql)) {
+        if (!removed.isEmpty()) {
+            String deleteSql = "DELETE FROM task_tags tt USING tags tg " +
+                    "WHERE tt.task_id = ? AND tt.tag_id = tg.id AND tg.name = ANY(?)";
+            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteSql)) {
+                deleteStmt.setLong(1, taskId);
+                deleteStmt.setArray(2, conn.createArrayOf("varchar", removed.toArray()));
+                int deleted = deleteStmt.executeUpdate();
+                LOGGER.finest(() -> "Unlinked " + deleted + " tags from task ID: " + taskId);
+            }
+        }
 
-            for (String tagName : tags) {
-                LOGGER.finest(() -> "Processing tag: " + tagName + " for task ID: " + taskId);
+        if (!added.isEmpty()) {
+            Array names = conn.createArrayOf("varchar", added.toArray());
 
-                tagStmt.setString(1, tagName);
+            String insertTagSql = "INSERT INTO tags (name) SELECT unnest(?::varchar[]) ON CONFLICT (name) DO NOTHING";
+            try (PreparedStatement tagStmt = conn.prepareStatement(insertTagSql)) {
+                tagStmt.setArray(1, names);
                 tagStmt.executeUpdate();
+            }
 
+            String insertTaskTagSql = "INSERT INTO task_tags (task_id, tag_id) " +
+                    "SELECT ?, id FROM tags WHERE name = ANY(?) ON CONFLICT DO NOTHING";
+            try (PreparedStatement taskTagStmt = conn.prepareStatement(insertTaskTagSql)) {
                 taskTagStmt.setLong(1, taskId);
-                taskTagStmt.setString(2, tagName);
-                taskTagStmt.executeUpdate();
+                taskTagStmt.setArray(2, names);
+                int linked = taskTagStmt.executeUpdate();
+                LOGGER.finest(() -> "Linked " + linked + " tags to task ID: " + taskId);
+            }
+        }
+        LOGGER.fine(() -> "Saved tags for task ID: " + taskId + " (+" + added.size() + ", -" + removed.size() + ")");
+
+        Map<String, Integer> deltas = new HashMap<>();
+        added.forEach(tag -> deltas.put(tag, 1));
+        removed.forEach(tag -> deltas.put(tag, -1));
+        return deltas;
+    }
+
+    /**
+     * Trims tag names and drops blanks and duplicates, keeping first-seen order.
+     *
+     * @param tags the raw tag names, may be null
+     * @return the normalised set of tag names
+     */
+    private static Set<String> normalizeTags(Collection<String> tags) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    normalized.add(tag.trim());
+                }
             }
-            LOGGER.fine(() -> "Successfully saved " + tags.size() + " tags for task ID: " + taskId);
         }
+        return normalized;
+    }
+
+    /**
+     * Adjusts the tag changes of an update for archiving, as only active tasks
+     * count towards tag usage: the tags of an archived task count for nothing,
+     * and a reopened task adds back every tag it carried before the update.
+     *
+     * @param archived whether the task is archived after the update
+     * @param wasArchived whether the task was archived before the update
+     * @param currentTags the tags the task carried before the update
+     * @param tagDeltas the tag changes made by the update
+     * @return the change in task count per tag name
+     */
+    static Map<String, Integer> activeTagDeltas(boolean archived, boolean wasArchived,
+                                                Collection<String> currentTags, Map<String, Integer> tagDeltas) {
+        if (archived) {
+            return Collections.emptyMap();
+        }
+        if (!wasArchived) {
+            return tagDeltas;
+        }
+        Map<String, Integer> deltas = new HashMap<>(tagDeltas);
+        for (String tag : normalizeTags(currentTags)) {
+            deltas.merge(tag, 1, Integer::sum);
+        }
+        return deltas;
     }
 
     /**
@@ -133,12 +497,7 @@ public class TaskDAOImpl implements TaskDAO {
     @Override
     public Task findById(Long id) {
         LOGGER.fine(() -> "Finding task by ID: " + id);
-        String sql = "SELECT t.*, array_agg(tg.name) as tags " +
-                "FROM tasks t " +
-                "LEFT JOIN task_tags tt ON t.id = tt.task_id " +
-                "LEFT JOIN tags tg ON tt.tag_id = tg.id " +
-                "WHERE t.id = ? " +
-                "GROUP BY t.id";
+        String sql = TaskQueryCompiler.TASK_SELECT + " WHERE t.id = ?";
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -159,6 +518,39 @@ public class TaskDAOImpl implements TaskDAO {
         }
     }
 
+    /**
+     * Finds several active tasks by id in a single statement, binding the ids as one array.
+     * Change notifications use it, so archived tasks are reported as gone from the board.
+     *
+     * @param ids the ids to look up
+     * @return the active tasks found, ordered by id
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public List<Task> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LOGGER.fine(() -> "Finding " + ids.size() + " tasks by ID");
+        String sql = TaskQueryCompiler.TASK_SELECT + " WHERE t.archived = FALSE AND t.id = ANY(?) ORDER BY t.id";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setArray(1, conn.createArrayOf("bigint", ids.toArray(new Long[0])));
+            List<Task> tasks = new ArrayList<>(ids.size());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tasks.add(mapResultToTask(rs));
+                }
+            }
+            return tasks;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to find tasks by ID", e);
+            throw new DataAccessException("Failed to find tasks by id", e);
+        }
+    }
+
     /**
      * Retrieves all tasks from the database including their tags.
      *
@@ -168,13 +560,7 @@ public class TaskDAOImpl implements TaskDAO {
     @Override
     public List<Task> getTasks() {
         LOGGER.fine("Retrieving all tasks");
-        String sql = "SELECT t.*, array_agg(tg.name) as tags " +
-                "FROM tasks t " +
-                "LEFT JOIN task_tags tt ON t.id = tt.task_id " +
-                "LEFT JOIN tags tg ON tt.tag_id = tg.id " +
-                "GROUP BY t.id";
-
-        return getTasksByQuery(sql);
+        return findByQuery(TaskQuery.builder().build());
     }
 
     /**
@@ -187,107 +573,336 @@ public class TaskDAOImpl implements TaskDAO {
     @Override
     public List<Task> findByStatus(Task.Status status) {
         LOGGER.fine(() -> "Finding tasks by status: " + status);
-        String sql = "SELECT t.*, array_agg(tg.name) as tags " +
-                "FROM tasks t " +
-                "LEFT JOIN task_tags tt ON t.id = tt.task_id " +
-                "LEFT JOIN tags tg ON tt.tag_id = tg.id " +
-                "WHERE t.status = ? " +
-                "GROUP BY t.id";
+        return findByQuery(TaskQuery.builder().status(status).build());
+    }
 
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * Retrieves all tasks sorted by due date including their tags.
+     *
+     * @param ascending true for ascending order, false for descending
+     * @return list of tasks sorted by due date
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public List<Task> findAllSortedByDueDate(boolean ascending) {
+        LOGGER.fine(() -> "Finding all tasks sorted by due date (" + (ascending ? "ASC" : "DESC") + ")");
+        return findByQuery(TaskQuery.builder().sortBy(TaskQuery.SortField.DUE_DATE, ascending).build());
+    }
 
-            stmt.setString(1, status.name());
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * Finds tasks matching the query criteria in a single statement.
+     *
+     * @param query the criteria to match
+     * @return list of matching tasks in the requested order
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public List<Task> findByQuery(TaskQuery query) {
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(query, null, query.getLimit());
+        LOGGER.finest(() -> "Executing query: " + compiled.getSql());
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
 
+            compiled.bind(stmt, conn);
             List<Task> tasks = new ArrayList<>();
-            while (rs.next()) {
-                tasks.add(mapResultToTask(rs));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tasks.add(mapResultToTask(rs));
+                }
             }
-            LOGGER.fine(() -> "Found " + tasks.size() + " tasks with status: " + status);
+            LOGGER.fine(() -> "Retrieved " + tasks.size() + " tasks from query");
             return tasks;
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to find tasks by status: " + status, e);
-            throw new DataAccessException("Failed to find tasks by status:" + status, e);
+            LOGGER.log(Level.SEVERE, "Failed to get tasks by query", e);
+            throw new DataAccessException("Failed to get tasks", e);
         }
     }
 
     /**
-     * Retrieves all tasks sorted by due date including their tags.
+     * Streams tasks matching the query through a server-side cursor.
+     * The PostgreSQL driver only honours the fetch size with auto-commit off,
+     * so the statement runs in a read-only transaction for the length of the stream.
+     *
+     * @param query the criteria to apply
+     * @param fetchSize the number of rows fetched per round trip
+     * @param consumer receives each task
+     * @return the number of tasks streamed
+     * @throws IOException if the consumer fails
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public long streamByQuery(TaskQuery query, int fetchSize, TaskConsumer consumer) throws IOException {
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(query, null, query.getLimit());
+        LOGGER.finest(() -> "Streaming query: " + compiled.getSql());
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            long count = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(compiled.getSql(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(fetchSize);
+                compiled.bind(stmt, conn);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        consumer.accept(mapResultToTask(rs));
+                        count++;
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+            long streamed = count;
+            LOGGER.fine(() -> "Streamed " + streamed + " tasks");
+            return streamed;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to stream tasks", e);
+            throw new DataAccessException("Failed to stream tasks", e);
+        }
+    }
+
+    /**
+     * Retrieves one page of tasks ordered by id, seeking on the primary key.
+     *
+     * @param status the status to filter by, or null for all tasks
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks
+     * @throws DataAccessException if database access fails
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Override
+    public Page<Task> findPage(Task.Status status, String cursor, int limit) {
+        return findPageByQuery(TaskQuery.builder().status(status).build(), cursor, limit);
+    }
+
+    /**
+     * Retrieves one page of tasks ordered by due date, seeking on (due_date, id).
      *
      * @param ascending true for ascending order, false for descending
-     * @return list of tasks sorted by due date
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks
      * @throws DataAccessException if database access fails
+     * @throws IllegalArgumentException if the cursor is malformed or not a due-date cursor
      */
     @Override
-    public List<Task> findAllSortedByDueDate(boolean ascending) {
-        LOGGER.fine(() -> "Finding all tasks sorted by due date (" + (ascending ? "ASC" : "DESC") + ")");
-        String sql = "SELECT t.*, array_agg(tg.name) as tags " +
-                "FROM tasks t " +
-                "LEFT JOIN task_tags tt ON t.id = tt.task_id " +
-                "LEFT JOIN tags tg ON tt.tag_id = tg.id " +
-                "GROUP BY t.id " +
-                "ORDER BY t.due_date " + (ascending ? "ASC" : "DESC");
+    public Page<Task> findPageSortedByDueDate(boolean ascending, String cursor, int limit) {
+        TaskQuery query = TaskQuery.builder().sortBy(TaskQuery.SortField.DUE_DATE, ascending).build();
+        return findPageByQuery(query, cursor, limit);
+    }
+
+    /**
+     * Retrieves one page of tasks matching the query, seeking past the cursor.
+     * Fetches one row beyond the page size to detect whether another page follows.
+     * Orderings that cannot be seeked yield a single page without a next cursor.
+     *
+     * @param query the criteria
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks
+     * @throws DataAccessException if database access fails
+     * @throws IllegalArgumentException if the cursor is malformed or the ordering is not seekable
+     */
+    @Override
+    public Page<Task> findPageByQuery(TaskQuery query, String cursor, int limit) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(query, after, limit + 1);
+        boolean byDueDate = TaskQueryCompiler.isSortedByDueDate(query);
+        LOGGER.fine(() -> "Finding task page (after=" + (after == null ? "-" : after.getId())
+                + ", limit=" + limit + ")");
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
 
-            ResultSet rs = stmt.executeQuery();
-            List<Task> tasks = new ArrayList<>();
+            compiled.bind(stmt, conn);
+            List<Task> tasks = new ArrayList<>(Math.min(limit, 256));
+            boolean hasMore = false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tasks.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    tasks.add(mapResultToTask(rs));
+                }
+            }
 
-            while (rs.next()) {
-                tasks.add(mapResultToTask(rs));
+            String nextCursor = null;
+            if (hasMore && query.isSeekable()) {
+                Task last = tasks.get(tasks.size() - 1);
+                nextCursor = (byDueDate
+                        ? PageCursor.afterDueDate(last.getDueDate(), last.getId())
+                        : PageCursor.afterId(last.getId())).encode();
             }
-            LOGGER.fine(() -> "Found " + tasks.size() + " sorted tasks");
-            return tasks;
+            LOGGER.fine(() -> "Retrieved page of " + tasks.size() + " tasks");
+            return new Page<>(tasks, nextCursor);
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to sort tasks", e);
-            throw new DataAccessException("Failed to sort tasks", e);
+            LOGGER.log(Level.SEVERE, "Failed to find task page", e);
+            throw new DataAccessException("Failed to find task page", e);
         }
     }
 
     /**
-     * Helper method to execute a query and return tasks.
+     * Retrieves one page of search results, seeking past the cursor on (rank, id).
+     * Fetches one row beyond the page size to detect whether another page follows.
      *
-     * @param sql the SQL query to execute
-     * @return list of tasks from the query result
+     * @param query the criteria, including search text
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of tasks to return
+     * @return the page of tasks
      * @throws DataAccessException if database access fails
+     * @throws IllegalArgumentException if the query has no search text or the cursor is malformed
      */
-    private List<Task> getTasksByQuery(String sql) {
-        LOGGER.finest(() -> "Executing query: " + sql);
+    @Override
+    public Page<Task> search(TaskQuery query, String cursor, int limit) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSearch(query, after, limit + 1);
+        LOGGER.fine(() -> "Searching tasks for '" + query.getSearchText() + "'");
+
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
 
-            ResultSet rs = stmt.executeQuery();
-            List<Task> tasks = new ArrayList<>();
+            compiled.bind(stmt, conn);
+            List<Task> tasks = new ArrayList<>(Math.min(limit, 256));
+            float lastRank = 0;
+            boolean hasMore = false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tasks.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    tasks.add(mapResultToTask(rs));
+                    lastRank = rs.getFloat("rank");
+                }
+            }
 
-            while (rs.next()) {
-                tasks.add(mapResultToTask(rs));
+            String nextCursor = hasMore
+                    ? PageCursor.afterRank(lastRank, tasks.get(tasks.size() - 1).getId()).encode()
+                    : null;
+            LOGGER.fine(() -> "Found " + tasks.size() + " tasks");
+            return new Page<>(tasks, nextCursor);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to search tasks", e);
+            throw new DataAccessException("Failed to search tasks", e);
+        }
+    }
+
+    /**
+     * Fingerprints a page by hashing the id and version (and rank, if ranked) of each
+     * row the page query would read, including the look-ahead row that decides
+     * whether a next cursor is returned.
+     *
+     * @param query the criteria
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param limit the maximum number of tasks on the page
+     * @param ranked true for a search page, false for a plain listing
+     * @return the fingerprint
+     * @throws DataAccessException if database access fails
+     * @throws IllegalArgumentException if the cursor is malformed or does not fit the ordering
+     */
+    @Override
+    public String fingerprintPage(TaskQuery query, String cursor, int limit, boolean ranked) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileFingerprint(query, after, limit + 1, ranked);
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
+
+            compiled.bind(stmt, conn);
+            HashingWriter hash = new HashingWriter();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String row = rs.getLong("id") + ":" + rs.getLong("version")
+                            + (ranked ? ":" + rs.getFloat("rank") : "") + ";";
+                    hash.write(row, 0, row.length());
+                }
             }
-            LOGGER.fine(() -> "Retrieved " + tasks.size() + " tasks from query");
-            return tasks;
+            return hash.getHash();
         } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Failed to get tasks by query", e);
-            throw new DataAccessException("Failed to get tasks", e);
+            LOGGER.log(Level.SEVERE, "Failed to fingerprint task page", e);
+            throw new DataAccessException("Failed to fingerprint task page", e);
+        }
+    }
+
+    /**
+     * Counts matching tasks per status, priority and tag with one aggregate query.
+     *
+     * @param query the criteria to match
+     * @param tagLimit the number of most used tags to report
+     * @return the counts
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public TaskCounts countByQuery(TaskQuery query, int tagLimit) {
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileCounts(query, tagLimit);
+        LOGGER.fine("Counting tasks by status, priority and tag");
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
+
+            compiled.bind(stmt, conn);
+            Map<String, Long> byStatus = new HashMap<>();
+            Map<String, Long> byPriority = new HashMap<>();
+            Map<String, Long> byTag = new LinkedHashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long count = rs.getLong("n");
+                    String status = rs.getString("status");
+                    String priority = rs.getString("priority");
+                    if (status != null) {
+                        byStatus.put(status, count);
+                    } else if (priority != null) {
+                        byPriority.put(priority, count);
+                    } else {
+                        byTag.put(rs.getString("tag"), count);
+                    }
+                }
+            }
+            return new TaskCounts(byStatus, byPriority, byTag);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to count tasks", e);
+            throw new DataAccessException("Failed to count tasks", e);
         }
     }
 
     /**
      * Updates an existing task including its tags.
-     * Performs the operation within a transaction.
+     * Performs the operation within a transaction. The row is only written
+     * while its version matches the task's, which is checked by the UPDATE
+     * itself, so no lock is held between reading a task and saving it.
+     * An archived task set back to an open status is reopened, moving it
+     * back to the active partition. The table is then joined to itself so the
+     * UPDATE can tell whether the task was archived before.
      *
-     * @param task the task with updated information
+     * @param task the task with updated information; receives the new version
+     * @return true if the task was updated, false if it does not exist or its version is stale
      * @throws DataAccessException if database access fails or operation fails
      */
     @Override
-    public void update(Task task) {
+    public boolean update(Task task) {
         LOGGER.fine(() -> "Updating task ID: " + task.getId());
         Connection conn = null;
         try {
             conn = DatabaseConnection.getInstance().getConnection();
             conn.setAutoCommit(false);
 
-            String taskSql = "UPDATE tasks SET title = ?, description = ?, priority = ?, due_date = ?, status = ? WHERE id = ?";
+            // The new version, the archived state and the current tag names come back with
+            // the UPDATE so tag changes can be diffed without a separate read.
+            boolean reopen = TaskQueryCompiler.isOpen(task.getStatus());
+            String taskSql = "UPDATE tasks t SET title = ?, description = ?, priority = ?, due_date = ?, status = ?, " +
+                    (reopen ? "archived = FALSE, " : "") +
+                    "version = t.version + 1 " +
+                    (reopen ? "FROM tasks o WHERE o.id = t.id AND o.archived = t.archived AND " : "WHERE ") +
+                    "t.id = ?" + (task.getVersion() != null ? " AND t.version = ? " : " ") +
+                    "RETURNING t.version, t.archived, " + (reopen ? "o" : "t") + ".archived AS was_archived, " +
+                    "ARRAY(SELECT tg.name FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id " +
+                    "WHERE tt.task_id = t.id) AS current_tags";
+            List<String> currentTags = null;
+            boolean archived = false;
+            boolean wasArchived = false;
             try (PreparedStatement taskStmt = conn.prepareStatement(taskSql)) {
                 taskStmt.setString(1, task.getTitle());
                 taskStmt.setString(2, task.getDescription());
@@ -295,17 +910,35 @@ public class TaskDAOImpl implements TaskDAO {
                 taskStmt.setDate(4, new java.sql.Date(task.getDueDate().getTime()));
                 taskStmt.setString(5, task.getStatus().name());
                 taskStmt.setLong(6, task.getId());
-                int updated = taskStmt.executeUpdate();
-                LOGGER.fine(() -> "Updated " + updated + " task records for ID: " + task.getId() + ", title: " + task.getTitle());
+                if (task.getVersion() != null) {
+                    taskStmt.setLong(7, task.getVersion());
+                }
+                try (ResultSet rs = taskStmt.executeQuery()) {
+                    if (rs.next()) {
+                        task.setVersion(rs.getLong("version"));
+                        archived = rs.getBoolean("archived");
+                        wasArchived = rs.getBoolean("was_archived");
+                        currentTags = Arrays.asList((String[]) rs.getArray("current_tags").getArray());
+                    }
+                }
             }
+            if (currentTags == null) {
+                conn.rollback();
+                LOGGER.fine(() -> "No task ID: " + task.getId() + " at version " + task.getVersion() + " to update");
+                return false;
+            }
+            LOGGER.fine(() -> "Updated task ID: " + task.getId() + " to version " + task.getVersion());
 
+            Map<String, Integer> tagDeltas = Collections.emptyMap();
             if (task.getTags() != null) {
                 LOGGER.fine(() -> "Updating " + task.getTags().size() + " tags for task ID: " + task.getId());
-                saveTags(conn, task.getId(), task.getTags());
+                tagDeltas = saveTags(conn, task.getId(), currentTags, task.getTags());
             }
 
             conn.commit();
+            tagListener.onTagUsageChanged(activeTagDeltas(archived, wasArchived, currentTags, tagDeltas));
             LOGGER.info(() -> "Successfully updated task ID: " + task.getId());
+            return true;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Failed to update task ID: " + task.getId(), e);
             if (conn != null) {
@@ -325,13 +958,408 @@ public class TaskDAOImpl implements TaskDAO {
                 } catch (SQLException e) {
                     LOGGER.log(Level.WARNING, "Failed to reset auto-commit", e);
                 }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to release connection", e);
+                }
             }
         }
     }
 
+    /**
+     * Applies a patch with one UPDATE that sets only the changed columns and
+     * returns the updated row. A patch without tags runs as that single
+     * statement; one with tags adds the tag diff in the same transaction.
+     *
+     * @param patch the changes
+     * @return the updated task, or null if it does not exist or its version is stale
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public Task patch(TaskPatch patch) {
+        LOGGER.fine(() -> "Patching task: " + patch);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compilePatch(patch);
+        boolean withTags = patch.getTags() != null;
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(!withTags);
+
+            Task task = null;
+            List<String> currentTags = null;
+            boolean archived = false;
+            boolean wasArchived = false;
+            try (PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
+                compiled.bind(stmt, conn);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        task = mapResultToTask(rs);
+                        archived = rs.getBoolean("archived");
+                        wasArchived = rs.getBoolean("was_archived");
+                        if (archived != wasArchived || withTags) {
+                            currentTags = Arrays.asList((String[]) rs.getArray("current_tags").getArray());
+                        }
+                    }
+                }
+            }
+            if (task == null) {
+                if (withTags) {
+                    conn.rollback();
+                }
+                LOGGER.fine(() -> "No task ID: " + patch.getId() + " at version " + patch.getVersion() + " to patch");
+                return null;
+            }
+
+            Map<String, Integer> tagDeltas = Collections.emptyMap();
+            if (withTags) {
+                tagDeltas = saveTags(conn, patch.getId(), currentTags, patch.getTags());
+                conn.commit();
+                List<String> tags = new ArrayList<>(normalizeTags(patch.getTags()));
+                Collections.sort(tags);
+                task.setTags(tags);
+            }
+            tagListener.onTagUsageChanged(activeTagDeltas(archived, wasArchived, currentTags, tagDeltas));
+            Task patched = task;
+            LOGGER.info(() -> "Successfully patched task ID: " + patched.getId() + " to version " + patched.getVersion());
+            return task;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to patch task ID: " + patch.getId(), e);
+            if (conn != null && withTags) {
+                try {
+                    LOGGER.fine("Attempting to rollback transaction");
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.SEVERE, "Failed to rollback transaction", ex);
+                    throw new DataAccessException("Failed to rollback transaction", ex);
+                }
+            }
+            throw new DataAccessException("Failed to patch task", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to reset auto-commit", e);
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to release connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the status of every matching task with one UPDATE, which also
+     * reports the tags of the archived tasks it reopened so tag usage can be
+     * updated without reading the tasks first.
+     *
+     * @param query the criteria
+     * @param status the new status
+     * @return the number of tasks whose status changed
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public int updateStatusByQuery(TaskQuery query, Task.Status status) {
+        LOGGER.fine(() -> "Setting status " + status + " on tasks matching " + query);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileBulkStatus(query, status);
+        Map<String, Integer> tagDeltas = new HashMap<>();
+        int updated;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
+            compiled.bind(stmt, conn);
+            updated = readTagCounts(stmt, 1, tagDeltas);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to set status " + status + " on tasks", e);
+            throw new DataAccessException("Failed to update task statuses", e);
+        }
+        tagListener.onTagUsageChanged(tagDeltas);
+        LOGGER.info(() -> "Set status " + status + " on " + updated + " tasks");
+        return updated;
+    }
+
+    /**
+     * Deletes every matching task with one statement, which also reports how
+     * many of them carried each tag so tag usage can be updated without
+     * reading the tasks first.
+     *
+     * @param query the criteria
+     * @return the number of deleted tasks
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public int deleteByQuery(TaskQuery query) {
+        LOGGER.fine(() -> "Deleting tasks matching " + query);
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileBulkDelete(query);
+        Map<String, Integer> tagDeltas = new HashMap<>();
+        int deleted;
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(compiled.getSql())) {
+            compiled.bind(stmt, conn);
+            deleted = readTagCounts(stmt, -1, tagDeltas);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to delete tasks", e);
+            throw new DataAccessException("Failed to delete tasks", e);
+        }
+        tagListener.onTagUsageChanged(tagDeltas);
+        LOGGER.info(() -> "Deleted " + deleted + " tasks");
+        return deleted;
+    }
+
+    /**
+     * Reads the rows of a bulk statement: the one with a null {@code tag} holds
+     * the number of tasks affected, the others how many of them carry each tag.
+     *
+     * @param stmt the bound bulk statement
+     * @param sign 1 if the tasks now count towards tag usage, -1 if they no longer do
+     * @param tagDeltas receives the change in task count per tag name
+     * @return the number of tasks affected
+     */
+    private static int readTagCounts(PreparedStatement stmt, int sign, Map<String, Integer> tagDeltas)
+            throws SQLException {
+        int affected = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                String tag = rs.getString("tag");
+                if (tag == null) {
+                    affected = rs.getInt("n");
+                } else {
+                    tagDeltas.put(tag, sign * rs.getInt("n"));
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Moves a batch of overdue tasks with one UPDATE over the rows picked, in
+     * due date order, from the due date index. The picked rows are locked with
+     * SKIP LOCKED so the sweep never waits for a user's edit.
+     *
+     * @param from the status the tasks have
+     * @param to the status to move them to
+     * @param before tasks due before this date are overdue
+     * @param after the position the previous batch ended at, or null for the start
+     * @param limit the maximum number of tasks to move
+     * @return the moved tasks and the position of the next batch
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public SweepBatch moveOverdue(Task.Status from, Task.Status to, Date before, PageCursor after, int limit) {
+        String sql = "WITH due AS (SELECT id FROM tasks WHERE archived = FALSE AND status = ? AND due_date < ?"
+                + (after == null ? "" : " AND (due_date, id) > (?, ?)")
+                + " ORDER BY due_date, id LIMIT ? FOR UPDATE SKIP LOCKED) "
+                + "UPDATE tasks t SET status = ?, version = t.version + 1 FROM due WHERE t.id = due.id "
+                + "RETURNING t.id, t.due_date";
+
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            stmt.setString(i++, from.name());
+            stmt.setDate(i++, before);
+            if (after != null) {
+                stmt.setDate(i++, after.getDueDate());
+                stmt.setLong(i++, after.getId());
+            }
+            stmt.setInt(i++, limit);
+            stmt.setString(i, to.name());
+
+            SweepBatch batch = readSweep(stmt, null, limit, null);
+            LOGGER.fine(() -> "Moved " + batch.getTaskIds().size() + " overdue tasks from " + from + " to " + to);
+            return batch;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to move overdue tasks from " + from + " to " + to, e);
+            throw new DataAccessException("Failed to move overdue tasks", e);
+        }
+    }
+
+    /**
+     * Records a batch of reminders with one statement: the tasks due in the
+     * range are picked from the due date index and upserted into
+     * {@code task_reminders}, where a row already holding the same due date is
+     * left alone. The reminded ids are announced in the same transaction, so
+     * the notification is sent only if the reminders were recorded.
+     *
+     * @param statuses the statuses of the tasks to remind of
+     * @param from the earliest due date, inclusive
+     * @param to the latest due date, inclusive
+     * @param after the position the previous batch ended at, or null for the start
+     * @param limit the maximum number of tasks to visit
+     * @return the reminded tasks and the position of the next batch
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public SweepBatch remindDue(Collection<Task.Status> statuses, Date from, Date to, PageCursor after, int limit) {
+        String sql = "WITH due AS (SELECT id, due_date FROM tasks "
+                + "WHERE archived = FALSE AND status = ANY(?) AND due_date BETWEEN ? AND ?"
+                + (after == null ? "" : " AND (due_date, id) > (?, ?)")
+                + " ORDER BY due_date, id LIMIT ?), "
+                + "sent AS (INSERT INTO task_reminders (task_id, due_date) SELECT id, due_date FROM due "
+                + "ON CONFLICT (task_id) DO UPDATE SET due_date = EXCLUDED.due_date, sent_at = CURRENT_TIMESTAMP "
+                + "WHERE task_reminders.due_date <> EXCLUDED.due_date RETURNING task_id) "
+                + "SELECT due.id, due.due_date, sent.task_id IS NOT NULL AS sent "
+                + "FROM due LEFT JOIN sent ON sent.task_id = due.id ORDER BY due.due_date, due.id";
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+
+            SweepBatch batch;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                String[] names = new String[statuses.size()];
+                int n = 0;
+                for (Task.Status status : statuses) {
+                    names[n++] = status.name();
+                }
+                int i = 1;
+                stmt.setArray(i++, conn.createArrayOf("varchar", names));
+                stmt.setDate(i++, from);
+                stmt.setDate(i++, to);
+                if (after != null) {
+                    stmt.setDate(i++, after.getDueDate());
+                    stmt.setLong(i++, after.getId());
+                }
+                stmt.setInt(i, limit);
+                batch = readSweep(stmt, "sent", limit, null);
+            }
+            if (!batch.getTaskIds().isEmpty()) {
+                StringBuilder payload = new StringBuilder(TaskChangeEvent.Operation.REMINDER.name()).append(':');
+                for (Long id : batch.getTaskIds()) {
+                    payload.append(id).append(',');
+                }
+                payload.setLength(payload.length() - 1);
+                try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+                    stmt.setString(1, TaskChangeEvent.REMINDER_CHANNEL);
+                    stmt.setString(2, payload.toString());
+                    stmt.execute();
+                }
+            }
+            conn.commit();
+            LOGGER.fine(() -> "Recorded " + batch.getTaskIds().size() + " due date reminders");
+            return batch;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to record due date reminders", e);
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    LOGGER.log(Level.SEVERE, "Failed to rollback transaction", ex);
+                }
+            }
+            throw new DataAccessException("Failed to record due date reminders", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to reset auto-commit", e);
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    LOGGER.log(Level.WARNING, "Failed to release connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archives a batch of tasks with one UPDATE of the partition key, which
+     * PostgreSQL carries out by moving the rows from {@code tasks_active} to
+     * {@code tasks_archive}. Rows are picked in due date order from the active
+     * partition's due date index and locked with SKIP LOCKED, like the overdue sweep.
+     * Tag links stay in place, and the version is not changed as no field is.
+     * The tags of the archived tasks are returned by the same statement, as
+     * archived tasks no longer count towards tag usage.
+     *
+     * @param statuses the statuses of the tasks to archive
+     * @param before tasks due before this date are archived
+     * @param after the position the previous batch ended at, or null for the start
+     * @param limit the maximum number of tasks to archive
+     * @return the archived tasks and the position of the next batch
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public SweepBatch archive(Collection<Task.Status> statuses, Date before, PageCursor after, int limit) {
+        String sql = "WITH due AS (SELECT id FROM tasks WHERE archived = FALSE AND status = ANY(?) AND due_date < ?"
+                + (after == null ? "" : " AND (due_date, id) > (?, ?)")
+                + " ORDER BY due_date, id LIMIT ? FOR UPDATE SKIP LOCKED) "
+                + "UPDATE tasks t SET archived = TRUE FROM due WHERE t.id = due.id AND t.archived = FALSE "
+                + "RETURNING t.id, t.due_date, ARRAY(SELECT tg.name FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id "
+                + "WHERE tt.task_id = t.id) AS tags";
+
+        Map<String, Integer> tagDeltas = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            String[] names = new String[statuses.size()];
+            int n = 0;
+            for (Task.Status status : statuses) {
+                names[n++] = status.name();
+            }
+            int i = 1;
+            stmt.setArray(i++, conn.createArrayOf("varchar", names));
+            stmt.setDate(i++, before);
+            if (after != null) {
+                stmt.setDate(i++, after.getDueDate());
+                stmt.setLong(i++, after.getId());
+            }
+            stmt.setInt(i, limit);
+
+            SweepBatch batch = readSweep(stmt, null, limit, tagDeltas);
+            tagListener.onTagUsageChanged(tagDeltas);
+            LOGGER.fine(() -> "Archived " + batch.getTaskIds().size() + " tasks due before " + before);
+            return batch;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to archive tasks due before " + before, e);
+            throw new DataAccessException("Failed to archive tasks", e);
+        }
+    }
+
+    /**
+     * Reads the (id, due_date) rows of a sweep batch. The next batch starts after
+     * the greatest key visited; a batch with fewer rows than the limit was the last.
+     *
+     * @param stmt the bound batch statement
+     * @param flag a boolean column telling whether a row was changed, or null if all were
+     * @param limit the batch size the statement was bound with
+     * @param removedTags if not null, receives one task less for each name in the {@code tags} column
+     */
+    private static SweepBatch readSweep(PreparedStatement stmt, String flag, int limit,
+                                        Map<String, Integer> removedTags) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        int visited = 0;
+        Date lastDue = null;
+        long lastId = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                visited++;
+                long id = rs.getLong("id");
+                Date due = rs.getDate("due_date");
+                if (flag == null || rs.getBoolean(flag)) {
+                    ids.add(id);
+                }
+                if (removedTags != null) {
+                    for (String tag : (String[]) rs.getArray("tags").getArray()) {
+                        removedTags.merge(tag, -1, Integer::sum);
+                    }
+                }
+                if (lastDue == null || due.compareTo(lastDue) > 0 || (due.equals(lastDue) && id > lastId)) {
+                    lastDue = due;
+                    lastId = id;
+                }
+            }
+        }
+        return new SweepBatch(ids, visited < limit ? null : PageCursor.afterDueDate(lastDue, lastId));
+    }
+
     /**
      * Deletes a task by its ID.
-     * Uses ON DELETE CASCADE for related task_tags records.
+     * Related task_tags records are removed by a trigger; the unlinked tag
+     * names are returned by the same statement, read before the trigger runs.
+     * An archived task no longer counts towards tag usage, so its tags are left out.
      *
      * @param id the ID of the task to delete
      * @throws DataAccessException if database access fails
@@ -339,14 +1367,26 @@ public class TaskDAOImpl implements TaskDAO {
     @Override
     public void delete(Long id) {
         LOGGER.fine(() -> "Deleting task ID: " + id);
-        String sql = "DELETE FROM tasks WHERE id = ?";
+        String sql = "DELETE FROM tasks WHERE id = ? " +
+                "RETURNING CASE WHEN archived THEN '{}' ELSE ARRAY(SELECT tg.name FROM task_tags tt " +
+                "JOIN tags tg ON tt.tag_id = tg.id WHERE tt.task_id = tasks.id) END AS tags";
 
         try (Connection conn = DatabaseConnection.getInstance().getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setLong(1, id);
-            int deleted = stmt.executeUpdate();
-            if (deleted > 0) {
+            String[] unlinked = null;
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    unlinked = (String[]) rs.getArray("tags").getArray();
+                }
+            }
+            if (unlinked != null) {
+                Map<String, Integer> tagDeltas = new HashMap<>();
+                for (String tag : unlinked) {
+                    tagDeltas.put(tag, -1);
+                }
+                tagListener.onTagUsageChanged(tagDeltas);
                 LOGGER.info(() -> "Successfully deleted task ID: " + id);
             } else {
                 LOGGER.warning(() -> "No task found to delete with ID: " + id);
@@ -358,13 +1398,15 @@ public class TaskDAOImpl implements TaskDAO {
     }
 
     /**
-     * Maps a database ResultSet to a Task object.
+     * Maps a database ResultSet to a Task object. Tags are kept as ids and
+     * resolved through the {@link TagDictionary}; ids it does not know yet
+     * are looked up on the connection of the result set.
      *
      * @param rs the ResultSet containing task data
      * @return the populated Task object
      * @throws SQLException if database access fails
      */
-    private Task mapResultToTask(ResultSet rs) throws SQLException {
+    Task mapResultToTask(ResultSet rs) throws SQLException {
         Task task = new Task();
         task.setId(rs.getLong("id"));
         task.setTitle(rs.getString("title"));
@@ -372,20 +1414,109 @@ public class TaskDAOImpl implements TaskDAO {
         task.setPriority(rs.getString("priority"));
         task.setDueDate(rs.getDate("due_date"));
         task.setStatus(Task.Status.valueOf(rs.getString("status")));
+        task.setVersion(rs.getLong("version"));
 
-        Array tagsArray = rs.getArray("tags");
-        if (tagsArray != null) {
-            String[] tagNames = (String[]) tagsArray.getArray();
-            if (tagNames != null && tagNames.length > 0) {
-                task.setTags(Arrays.asList(tagNames));
-            } else {
-                task.setTags(Collections.emptyList());
-            }
-        } else {
-            task.setTags(Collections.emptyList());
+        int[] tagIds = parseTagIds(rs.getString("tag_ids"));
+        if (!TagDictionary.getInstance().containsAll(tagIds)) {
+            loadTagNames(rs.getStatement().getConnection(), tagIds);
         }
+        task.setTagIds(orderByName(tagIds));
 
         LOGGER.finest(() -> "Mapped ResultSet to Task: " + task.getId());
         return task;
     }
+
+    /**
+     * Parses the comma-separated tag ids produced by {@link TaskQueryCompiler#tagIdsOf(String)}.
+     *
+     * @param value the ids, empty or null if the task has no tags
+     * @return the ids
+     * @throws SQLException if an id does not fit in an int
+     */
+    static int[] parseTagIds(String value) throws SQLException {
+        if (value == null || value.isEmpty()) {
+            return NO_TAGS;
+        }
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == ',') {
+                count++;
+            }
+        }
+        int[] ids = new int[count];
+        int index = 0;
+        long id = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == ',') {
+                ids[index++] = (int) id;
+                id = 0;
+            } else {
+                id = id * 10 + (value.charAt(i) - '0');
+                if (id > Integer.MAX_VALUE) {
+                    throw new SQLException("Tag id out of range in: " + value);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Adds the names of unknown tag ids to the {@link TagDictionary}. An empty
+     * dictionary is filled with the whole vocabulary in one query, so a fresh
+     * node does not look tags up row by row.
+     *
+     * @param conn the connection to query on
+     * @param tagIds the ids needed
+     * @throws SQLException if database access fails
+     */
+    private static void loadTagNames(Connection conn, int[] tagIds) throws SQLException {
+        TagDictionary dictionary = TagDictionary.getInstance();
+        boolean loadAll = dictionary.size() == 0;
+        String sql = loadAll ? "SELECT id, name FROM tags" : "SELECT id, name FROM tags WHERE id = ANY(?)";
+        Map<Integer, String> names = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            if (!loadAll) {
+                Integer[] missing = new Integer[tagIds.length];
+                for (int i = 0; i < tagIds.length; i++) {
+                    missing[i] = tagIds[i];
+                }
+                stmt.setArray(1, conn.createArrayOf("int4", missing));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    names.put(Math.toIntExact(rs.getLong(1)), rs.getString(2));
+                }
+            }
+        } catch (ArithmeticException e) {
+            throw new SQLException("Tag id out of range", e);
+        }
+        dictionary.putAll(names);
+        LOGGER.fine(() -> "Tag dictionary loaded " + names.size() + " names, now " + dictionary.size());
+    }
+
+    /**
+     * Sorts tag ids by name in place, as tags are displayed alphabetically.
+     * Ids of tags deleted since the row was read are dropped.
+     *
+     * @param tagIds the ids, all looked up in the dictionary
+     * @return the sorted ids
+     */
+    private static int[] orderByName(int[] tagIds) {
+        TagDictionary dictionary = TagDictionary.getInstance();
+        int known = 0;
+        for (int i = 0; i < tagIds.length; i++) {
+            int id = tagIds[i];
+            String name = dictionary.nameOf(id);
+            if (name == null) {
+                continue;
+            }
+            int pos = known++;
+            while (pos > 0 && dictionary.nameOf(tagIds[pos - 1]).compareTo(name) > 0) {
+                tagIds[pos] = tagIds[pos - 1];
+                pos--;
+            }
+            tagIds[pos] = id;
+        }
+        return known == tagIds.length ? tagIds : Arrays.copyOf(tagIds, known);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,221 @@
+package tms.dao;
+
+import tms.model.Task;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable set of field changes to one task.
+ * Only the fields set on the builder are written by {@link TaskDAO#patch(TaskPatch)};
+ * every other column, and the tags unless given, are left untouched, so a
+ * status change does not rewrite the title, description or tag links.
+ * Instances are created through {@link #builder(Long)}.
+ */
+public final class TaskPatch {
+    private final Long id;
+    private final Long version;
+    private final String title;
+    private final String description;
+    private final String priority;
+    private final Date dueDate;
+    private final Task.Status status;
+    private final List<String> tags;
+
+    private TaskPatch(Builder builder) {
+        this.id = builder.id;
+        this.version = builder.version;
+        this.title = builder.title;
+        this.description = builder.description;
+        this.priority = builder.priority;
+        this.dueDate = builder.dueDate;
+        this.status = builder.status;
+        this.tags = builder.tags == null ? null : Collections.unmodifiableList(new ArrayList<>(builder.tags));
+    }
+
+    /**
+     * Starts a patch of the given task that changes nothing yet.
+     * @param id the id of the task to change
+     * @return a new builder
+     */
+    public static Builder builder(Long id) {
+        return new Builder(id);
+    }
+
+    /**
+     * Gets the id of the task to change.
+     * @return the task id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the version the changes are based on.
+     * @return the expected version, or null to apply the patch unconditionally
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the new title.
+     * @return the title, or null if unchanged
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the new description.
+     * @return the description, or null if unchanged
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the new priority.
+     * @return the priority, or null if unchanged
+     */
+    public String getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets the new due date.
+     * @return the due date, or null if unchanged
+     */
+    public Date getDueDate() {
+        return dueDate;
+    }
+
+    /**
+     * Gets the new status.
+     * @return the status, or null if unchanged
+     */
+    public Task.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the new tags, replacing all current ones.
+     * @return an unmodifiable list of tag names, or null if unchanged
+     */
+    public List<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Checks whether the patch changes anything.
+     * @return true if no field is set
+     */
+    public boolean isEmpty() {
+        return title == null && description == null && priority == null
+                && dueDate == null && status == null && tags == null;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPatch{id=" + id + ", version=" + version + ", title=" + title + ", priority=" + priority
+                + ", dueDate=" + dueDate + ", status=" + status + ", tags=" + tags + "}";
+    }
+
+    /**
+     * Collects the fields of a {@link TaskPatch}. Fields left unset, or set to null, are not changed.
+     */
+    public static final class Builder {
+        private final Long id;
+        private Long version;
+        private String title;
+        private String description;
+        private String priority;
+        private Date dueDate;
+        private Task.Status status;
+        private List<String> tags;
+
+        private Builder(Long id) {
+            this.id = id;
+        }
+
+        /**
+         * Makes the patch conditional on the task still being at the given version.
+         * @param version the version the changes are based on
+         * @return this builder
+         */
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Sets the new title.
+         * @param title the title
+         * @return this builder
+         */
+        public Builder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        /**
+         * Sets the new description.
+         * @param description the description
+         * @return this builder
+         */
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Sets the new priority.
+         * @param priority the priority
+         * @return this builder
+         */
+        public Builder priority(String priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sets the new due date.
+         * @param dueDate the due date
+         * @return this builder
+         */
+        public Builder dueDate(Date dueDate) {
+            this.dueDate = dueDate;
+            return this;
+        }
+
+        /**
+         * Sets the new status.
+         * @param status the status
+         * @return this builder
+         */
+        public Builder status(Task.Status status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Replaces the tags of the task.
+         * @param tags the tag names; empty removes all tags
+         * @return this builder
+         */
+        public Builder tags(List<String> tags) {
+            this.tags = tags;
+            return this;
+        }
+
+        /**
+         * Creates the patch.
+         * @return the immutable patch
+         */
+        public TaskPatch build() {
+            return new TaskPatch(this);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package tms.dao;
+
+import tms.model.Task;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of criteria for selecting tasks.
+ * All criteria are optional and combined with AND; {@link TaskDAO#findByQuery(TaskQuery)}
+ * compiles them into a single parameterized statement. Instances are created
+ * through {@link #builder()}.
+ * <p>
+ * Search text matches words of the title and description through the full-text
+ * index; the last word also matches as a prefix, so partially typed text finds
+ * results. {@link TaskDAO#search(TaskQuery, String, int)} orders matches by relevance.
+ * <p>
+ * Archived tasks are left out unless {@link Builder#includeArchived(boolean)}
+ * is set, so queries only read the active partition of {@code tasks}.
+ */
+public final class TaskQuery {
+
+    /**
+     * Columns a query can be ordered by. The task id is always appended as a
+     * final tie-breaker so orderings are total and stable across pages.
+     */
+    public enum SortField {
+        ID, DUE_DATE, PRIORITY, STATUS, TITLE, CREATED_AT
+    }
+
+    /**
+     * One ordering term of a query.
+     */
+    public static final class Sort {
+        private final SortField field;
+        private final boolean ascending;
+
+        /**
+         * Constructs an ordering term.
+         *
+         * @param field the column to order by
+         * @param ascending true for ascending order, false for descending
+         */
+        public Sort(SortField field, boolean ascending) {
+            if (field == null) {
+                throw new IllegalArgumentException("Sort field is required");
+            }
+            this.field = field;
+            this.ascending = ascending;
+        }
+
+        /**
+         * Gets the column to order by.
+         * @return the sort field
+         */
+        public SortField getField() {
+            return field;
+        }
+
+        /**
+         * Indicates the sort direction.
+         * @return true for ascending order
+         */
+        public boolean isAscending() {
+            return ascending;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Sort)) {
+                return false;
+            }
+            Sort other = (Sort) o;
+            return field == other.field && ascending == other.ascending;
+        }
+
+        @Override
+        public int hashCode() {
+            return field.hashCode() * 31 + (ascending ? 1 : 0);
+        }
+    }
+
+    private final Set<Long> ids;
+    private final Set<Task.Status> statuses;
+    private final Set<String> priorities;
+    private final Set<String> anyTags;
+    private final Set<String> allTags;
+    private final Date dueFrom;
+    private final Date dueTo;
+    private final String titlePrefix;
+    private final List<String> searchWords;
+    private final List<Sort> sorts;
+    private final int limit;
+    private final boolean includeArchived;
+
+    private TaskQuery(Builder builder) {
+        this.ids = Collections.unmodifiableSet(new LinkedHashSet<>(builder.ids));
+        this.statuses = Collections.unmodifiableSet(EnumSet.copyOf(builder.statuses));
+        this.priorities = Collections.unmodifiableSet(new LinkedHashSet<>(builder.priorities));
+        this.anyTags = Collections.unmodifiableSet(new LinkedHashSet<>(builder.anyTags));
+        this.allTags = Collections.unmodifiableSet(new LinkedHashSet<>(builder.allTags));
+        this.dueFrom = builder.dueFrom;
+        this.dueTo = builder.dueTo;
+        this.titlePrefix = builder.titlePrefix;
+        this.searchWords = Collections.unmodifiableList(new ArrayList<>(builder.searchWords));
+        this.sorts = Collections.unmodifiableList(new ArrayList<>(builder.sorts));
+        this.limit = builder.limit;
+        this.includeArchived = builder.includeArchived;
+    }
+
+    /**
+     * Starts a new query with no criteria, which matches every task.
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the ids a task must have one of.
+     * @return the accepted ids, empty for any id
+     */
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * Gets the statuses a task must have one of.
+     * @return the accepted statuses, empty for any status
+     */
+    public Set<Task.Status> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Gets the priorities a task must have one of.
+     * @return the accepted priorities, empty for any priority
+     */
+    public Set<String> getPriorities() {
+        return priorities;
+    }
+
+    /**
+     * Gets the tags of which a task must carry at least one.
+     * @return the tag names, empty for no constraint
+     */
+    public Set<String> getAnyTags() {
+        return anyTags;
+    }
+
+    /**
+     * Gets the tags a task must carry all of.
+     * @return the tag names, empty for no constraint
+     */
+    public Set<String> getAllTags() {
+        return allTags;
+    }
+
+    /**
+     * Gets the inclusive lower bound on the due date.
+     * @return the earliest due date, or null for no bound
+     */
+    public Date getDueFrom() {
+        return dueFrom;
+    }
+
+    /**
+     * Gets the inclusive upper bound on the due date.
+     * @return the latest due date, or null for no bound
+     */
+    public Date getDueTo() {
+        return dueTo;
+    }
+
+    /**
+     * Gets the case-insensitive prefix the title must start with.
+     * @return the lower-cased prefix, or null for no constraint
+     */
+    public String getTitlePrefix() {
+        return titlePrefix;
+    }
+
+    /**
+     * Gets the words the title or description must contain.
+     * @return the lower-cased words in the order typed, empty for no search
+     */
+    public List<String> getSearchWords() {
+        return searchWords;
+    }
+
+    /**
+     * Gets the search text as normalized by the builder.
+     * @return the search words separated by single spaces, or null for no search
+     */
+    public String getSearchText() {
+        return searchWords.isEmpty() ? null : String.join(" ", searchWords);
+    }
+
+    /**
+     * Gets the ordering terms, applied before the id tie-breaker.
+     * @return the sorts, empty for id order
+     */
+    public List<Sort> getSorts() {
+        return sorts;
+    }
+
+    /**
+     * Gets the maximum number of tasks to return.
+     * @return the limit, or 0 for no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Indicates whether archived tasks are selected too.
+     * @return true if the archive is searched as well as the active tasks
+     */
+    public boolean isIncludeArchived() {
+        return includeArchived;
+    }
+
+    /**
+     * Indicates whether the query has no criteria and therefore matches every active task,
+     * the set the summary tables count.
+     * @return true if no id, status, priority, tag, due date, title or search criterion is set
+     *         and archived tasks are not included
+     */
+    public boolean isUnfiltered() {
+        return !includeArchived && !hasCriteria();
+    }
+
+    /**
+     * Indicates whether the query narrows the selected tasks. Including archived
+     * tasks widens the selection rather than narrowing it, so it is not a criterion.
+     * @return true if an id, status, priority, tag, due date, title or search criterion is set
+     */
+    public boolean hasCriteria() {
+        return !ids.isEmpty() || !statuses.isEmpty() || !priorities.isEmpty() || !anyTags.isEmpty() || !allTags.isEmpty()
+                || dueFrom != null || dueTo != null || titlePrefix != null || !searchWords.isEmpty();
+    }
+
+    /**
+     * Indicates whether results can be paginated with a keyset cursor, which
+     * requires ordering by id alone or by due date alone.
+     * @return true if the ordering supports cursor pagination
+     */
+    public boolean isSeekable() {
+        return sorts.isEmpty() || (sorts.size() == 1
+                && (sorts.get(0).getField() == SortField.ID || sorts.get(0).getField() == SortField.DUE_DATE));
+    }
+
+    /**
+     * Two queries are equal when they select the same tasks in the same order,
+     * which makes queries usable as cache keys.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TaskQuery)) {
+            return false;
+        }
+        TaskQuery other = (TaskQuery) o;
+        return limit == other.limit
+                && includeArchived == other.includeArchived
+                && ids.equals(other.ids)
+                && statuses.equals(other.statuses)
+                && priorities.equals(other.priorities)
+                && anyTags.equals(other.anyTags)
+                && allTags.equals(other.allTags)
+                && Objects.equals(dueFrom, other.dueFrom)
+                && Objects.equals(dueTo, other.dueTo)
+                && Objects.equals(titlePrefix, other.titlePrefix)
+                && searchWords.equals(other.searchWords)
+                && sorts.equals(other.sorts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ids, statuses, priorities, anyTags, allTags, dueFrom, dueTo, titlePrefix, searchWords,
+                sorts, limit, includeArchived);
+    }
+
+    /**
+     * Fluent builder for {@link TaskQuery}.
+     */
+    public static final class Builder {
+        private static final int MAX_SEARCH_WORDS = 16;
+        private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final Set<Task.Status> statuses = EnumSet.noneOf(Task.Status.class);
+        private final Set<String> priorities = new LinkedHashSet<>();
+        private final Set<String> anyTags = new LinkedHashSet<>();
+        private final Set<String> allTags = new LinkedHashSet<>();
+        private Date dueFrom;
+        private Date dueTo;
+        private String titlePrefix;
+        private final List<String> searchWords = new ArrayList<>();
+        private final List<Sort> sorts = new ArrayList<>();
+        private int limit;
+        private boolean includeArchived;
+
+        private Builder() {}
+
+        /**
+         * Restricts the query to the tasks with the given ids.
+         * @param ids the accepted ids; may be called repeatedly
+         * @return this builder
+         */
+        public Builder ids(Collection<Long> ids) {
+            for (Long id : ids) {
+                if (id != null) {
+                    this.ids.add(id);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks with one of the given statuses.
+         * @param statuses the accepted statuses; may be called repeatedly
+         * @return this builder
+         */
+        public Builder status(Task.Status... statuses) {
+            for (Task.Status status : statuses) {
+                if (status != null) {
+                    this.statuses.add(status);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks with one of the given priorities.
+         * @param priorities the accepted priorities; may be called repeatedly
+         * @return this builder
+         */
+        public Builder priority(String... priorities) {
+            for (String priority : priorities) {
+                if (priority != null && !priority.isBlank()) {
+                    this.priorities.add(priority.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks carrying at least one of the given tags.
+         * @param tags the tag names
+         * @return this builder
+         */
+        public Builder anyTags(Collection<String> tags) {
+            addTags(anyTags, tags);
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks carrying every one of the given tags.
+         * @param tags the tag names
+         * @return this builder
+         */
+        public Builder allTags(Collection<String> tags) {
+            addTags(allTags, tags);
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks due on or after the given date.
+         * @param from the earliest due date, or null for no bound
+         * @return this builder
+         */
+        public Builder dueFrom(Date from) {
+            this.dueFrom = from;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks due on or before the given date.
+         * @param to the latest due date, or null for no bound
+         * @return this builder
+         */
+        public Builder dueTo(Date to) {
+            this.dueTo = to;
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks whose title starts with the given text, ignoring case.
+         * @param prefix the title prefix, or null/blank for no constraint
+         * @return this builder
+         */
+        public Builder titlePrefix(String prefix) {
+            this.titlePrefix = prefix == null || prefix.isBlank() ? null : prefix.toLowerCase(Locale.ROOT);
+            return this;
+        }
+
+        /**
+         * Restricts the query to tasks whose title or description contains the words
+         * of the given text. Punctuation separates words and is otherwise ignored.
+         * @param text the search text, or null/blank for no constraint
+         * @return this builder
+         * @throws IllegalArgumentException if the text has no letters or digits,
+         *                                  or more than 16 words
+         */
+        public Builder search(String text) {
+            searchWords.clear();
+            if (text == null || text.isBlank()) {
+                return this;
+            }
+            for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    searchWords.add(word);
+                }
+            }
+            if (searchWords.isEmpty()) {
+                throw new IllegalArgumentException("Search text has no words: " + text);
+            }
+            if (searchWords.size() > MAX_SEARCH_WORDS) {
+                throw new IllegalArgumentException("Search text has more than " + MAX_SEARCH_WORDS + " words");
+            }
+            return this;
+        }
+
+        /**
+         * Appends an ordering term. Terms apply in the order they are added.
+         * @param field the column to order by
+         * @param ascending true for ascending order
+         * @return this builder
+         */
+        public Builder sortBy(SortField field, boolean ascending) {
+            this.sorts.add(new Sort(field, ascending));
+            return this;
+        }
+
+        /**
+         * Caps the number of tasks returned.
+         * @param limit the maximum number of tasks, or 0 for no limit
+         * @return this builder
+         */
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Selects archived tasks as well as active ones.
+         * @param includeArchived true to also read the archive partition
+         * @return this builder
+         */
+        public Builder includeArchived(boolean includeArchived) {
+            this.includeArchived = includeArchived;
+            return this;
+        }
+
+        /**
+         * Builds the immutable query.
+         * @return the query
+         */
+        public TaskQuery build() {
+            if (dueFrom != null && dueTo != null && dueFrom.after(dueTo)) {
+                throw new IllegalArgumentException("Due date range is empty: " + dueFrom + " > " + dueTo);
+            }
+            return new TaskQuery(this);
+        }
+
+        private static void addTags(Set<String> target, Collection<String> tags) {
+            if (tags == null) {
+                return;
+            }
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    target.add(tag.trim());
+                }
+            }
+        }
+    }
+}
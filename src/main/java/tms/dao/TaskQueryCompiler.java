@@ -0,0 +1,710 @@
+package tms.dao;
+
+import tms.model.Task;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles a {@link TaskQuery} into a single parameterized SQL statement.
+ * <p>
+ * Set-valued criteria are bound as one array parameter ({@code = ANY(?)}), so
+ * the statement text depends only on which criteria are present and how the
+ * result is ordered, never on the values themselves. That shape is used as
+ * a cache key: repeated queries of the same shape reuse the same SQL string,
+ * which lets the driver reuse its server-side prepared statement.
+ * <p>
+ * Predicates are written so the planner can use the task indexes:
+ * status and due-date filters hit {@code idx_task_status} and
+ * {@code idx_task_due_date}, and title prefixes become a range scan on
+ * {@code idx_task_title_prefix} rather than a pattern match. Search text is
+ * matched against the generated {@code search_vector} column, which
+ * {@code idx_task_search} indexes. Unless archived tasks are asked for, every
+ * query is restricted to {@code archived = FALSE}, a constant the planner uses to
+ * prune the archive partition, so only the active partition and its indexes are read.
+ * <p>
+ * A {@link TaskPatch} compiles the same way into an UPDATE that sets only the
+ * columns the patch changes, and bulk status changes and deletes apply the
+ * criteria of a query to every matching task in one statement. Writes that set
+ * an open status also clear {@code archived}, so reopening an archived task
+ * moves it back to the active partition.
+ */
+final class TaskQueryCompiler {
+    /**
+     * Task columns read by every query. Listed explicitly so the search vector,
+     * which is only needed inside the database, is never transferred.
+     */
+    static final String TASK_COLUMNS =
+            "t.id, t.title, t.description, t.priority, t.due_date, t.status, t.created_at, t.updated_at, t.version";
+
+    /**
+     * Projection shared by all compiled queries. Tags are collected per row with
+     * a correlated subquery so LIMIT applies to tasks before any tag rows are read.
+     */
+    static final String TASK_SELECT = "SELECT " + TASK_COLUMNS + ", " + tagIdsOf("t") + " AS tag_ids FROM tasks t";
+
+    /**
+     * Projection of the key-only variants behind {@link #compileFingerprint}: just
+     * what identifies a task and its state, read without touching tags.
+     */
+    private static final String KEY_SELECT = "SELECT t.id, t.version FROM tasks t";
+
+    /** Text search configuration; must match the one {@code search_vector} is generated with. */
+    private static final String SEARCH_CONFIG = "english";
+
+    /** Shortest last word that is also matched as a prefix; shorter ones match whole words only. */
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int MAX_CACHED_SHAPES = 512;
+    private static final Map<String, String> SQL_CACHE = new ConcurrentHashMap<>();
+
+    private static final int STATUS = 1;
+    private static final int PRIORITY = 1 << 1;
+    private static final int ANY_TAGS = 1 << 2;
+    private static final int ALL_TAGS = 1 << 3;
+    private static final int DUE_FROM = 1 << 4;
+    private static final int DUE_TO = 1 << 5;
+    private static final int PREFIX_FROM = 1 << 6;
+    private static final int PREFIX_TO = 1 << 7;
+    private static final int SEEK = 1 << 8;
+    private static final int LIMIT = 1 << 9;
+    private static final int SEARCH = 1 << 10;
+    private static final int IDS = 1 << 11;
+    private static final int WITH_ARCHIVED = 1 << 12;
+
+    private TaskQueryCompiler() {}
+
+    /**
+     * A compiled statement together with its bind values.
+     */
+    static final class CompiledQuery {
+        private final String sql;
+        private final List<Object> params;
+
+        private CompiledQuery(String sql, List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        /**
+         * Gets the SQL text, shared by all queries of the same shape.
+         * @return the SQL text
+         */
+        String getSql() {
+            return sql;
+        }
+
+        /**
+         * Binds the parameter values to a statement prepared from {@link #getSql()}.
+         *
+         * @param stmt the prepared statement
+         * @param conn the connection the statement belongs to, used to create arrays
+         * @throws SQLException if binding fails
+         */
+        void bind(PreparedStatement stmt, Connection conn) throws SQLException {
+            int index = 1;
+            for (Object param : params) {
+                if (param instanceof String[]) {
+                    Array array = conn.createArrayOf("varchar", (String[]) param);
+                    stmt.setArray(index++, array);
+                } else if (param instanceof Long[]) {
+                    stmt.setArray(index++, conn.createArrayOf("bigint", (Long[]) param));
+                } else if (param instanceof Date) {
+                    stmt.setDate(index++, (Date) param);
+                } else if (param instanceof Long) {
+                    stmt.setLong(index++, (Long) param);
+                } else if (param instanceof Integer) {
+                    stmt.setInt(index++, (Integer) param);
+                } else if (param instanceof Float) {
+                    stmt.setFloat(index++, (Float) param);
+                } else {
+                    stmt.setString(index++, (String) param);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles a SELECT for the query.
+     *
+     * @param query the criteria
+     * @param after keyset position to resume after, or null to start at the beginning
+     * @param limit maximum rows to fetch, or 0 for no limit
+     * @return the compiled statement
+     * @throws IllegalArgumentException if a cursor is given for a non-seekable ordering,
+     *                                  or the cursor does not match the ordering
+     */
+    static CompiledQuery compileSelect(TaskQuery query, PageCursor after, int limit) {
+        return compileSelect(query, after, limit, false);
+    }
+
+    /**
+     * Compiles the key-only counterpart of a page query: the same criteria, ordering,
+     * cursor and limit as {@link #compileSelect} or, if ranked, {@link #compileSearch},
+     * returning only {@code id} and {@code version} (and {@code rank} when ranked) of
+     * the rows the page query would return, in the same order. Reading these is enough
+     * to tell whether the page has changed, without loading tags or serializing tasks.
+     *
+     * @param query the criteria
+     * @param after keyset position to resume after, or null to start at the beginning
+     * @param limit maximum rows to fetch
+     * @param ranked true to mirror the ranked search, false to mirror the plain listing
+     * @return the compiled statement
+     * @throws IllegalArgumentException under the same conditions as the page query
+     */
+    static CompiledQuery compileFingerprint(TaskQuery query, PageCursor after, int limit, boolean ranked) {
+        return ranked ? compileSearch(query, after, limit, true) : compileSelect(query, after, limit, true);
+    }
+
+    private static CompiledQuery compileSelect(TaskQuery query, PageCursor after, int limit, boolean keysOnly) {
+        boolean seekByDueDate = isSortedByDueDate(query);
+        if (after != null) {
+            if (!query.isSeekable()) {
+                throw new IllegalArgumentException("Cursor pagination requires ordering by id or due date only");
+            }
+            if (seekByDueDate && after.getDueDate() == null) {
+                throw new IllegalArgumentException("Cursor does not belong to a due-date ordered listing");
+            }
+            if (after.getRank() != null) {
+                throw new IllegalArgumentException("Cursor belongs to a search listing");
+            }
+        }
+
+        List<Object> params = new ArrayList<>();
+        int shape = bindCriteria(query, params);
+        if (after != null) {
+            shape |= SEEK;
+            if (seekByDueDate) {
+                params.add(after.getDueDate());
+            }
+            params.add(after.getId());
+        }
+        if (limit > 0) {
+            shape |= LIMIT;
+            params.add(limit);
+        }
+
+        String key = (keysOnly ? "keys|" : "") + shape + "|" + sortKey(query);
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            sql = buildSelect(query, shape, keysOnly ? KEY_SELECT : TASK_SELECT);
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Compiles the ranked search behind {@link TaskDAO#search(TaskQuery, String, int)}.
+     * Matching tasks are ranked with {@code ts_rank}, title words weighing more than
+     * description words, and ordered by rank, then id; the rank is returned in
+     * {@code rank} and pages seek on (rank, id). Tags are read only for the rows
+     * returned. The query's own ordering and limit are ignored.
+     *
+     * @param query the criteria, including search text
+     * @param after keyset position to resume after, or null to start at the beginning
+     * @param limit maximum rows to fetch
+     * @return the compiled statement
+     * @throws IllegalArgumentException if the query has no search text or the
+     *                                  cursor does not belong to a search listing
+     */
+    static CompiledQuery compileSearch(TaskQuery query, PageCursor after, int limit) {
+        return compileSearch(query, after, limit, false);
+    }
+
+    private static CompiledQuery compileSearch(TaskQuery query, PageCursor after, int limit, boolean keysOnly) {
+        if (query.getSearchWords().isEmpty()) {
+            throw new IllegalArgumentException("Search requires search text");
+        }
+        if (after != null && after.getRank() == null) {
+            throw new IllegalArgumentException("Cursor does not belong to a search listing");
+        }
+
+        List<Object> params = new ArrayList<>();
+        params.add(toTsQuery(query.getSearchWords()));
+        int shape = bindCriteria(query, params);
+        if (after != null) {
+            shape |= SEEK;
+            params.add(after.getRank());
+            params.add(after.getRank());
+            params.add(after.getId());
+        }
+        params.add(limit);
+
+        String key = (keysOnly ? "searchKeys|" : "search|") + shape;
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            List<String> conditions = new ArrayList<>();
+            appendWhere(shape, conditions);
+            sql = (keysOnly ? "SELECT m.id, m.version, m.rank FROM (" : "SELECT m.*, " + tagIdsOf("m") + " AS tag_ids FROM (")
+                    + "SELECT " + (keysOnly ? "t.id, t.version" : TASK_COLUMNS) + ", "
+                    + "ts_rank(t.search_vector, to_tsquery('" + SEARCH_CONFIG + "', ?)) AS rank "
+                    + "FROM tasks t WHERE " + String.join(" AND ", conditions) + ") m"
+                    + ((shape & SEEK) != 0 ? " WHERE m.rank < ? OR (m.rank = ? AND m.id > ?)" : "")
+                    + " ORDER BY m.rank DESC, m.id ASC LIMIT ?";
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Compiles the aggregate behind {@link TaskDAO#countByQuery(TaskQuery, int)}.
+     * Status and priority counts come from one pass over the matching tasks with
+     * {@code GROUPING SETS}; tag counts are appended to the same result. Rows carry
+     * exactly one non-null key column: {@code status}, {@code priority} or {@code tag},
+     * and the count in {@code n}. Ordering and limit of the query are ignored.
+     *
+     * @param query the criteria
+     * @param tagLimit the number of most used tags to count
+     * @return the compiled statement
+     */
+    static CompiledQuery compileCounts(TaskQuery query, int tagLimit) {
+        List<Object> params = new ArrayList<>();
+        int shape = bindCriteria(query, params);
+        params.add(tagLimit);
+
+        String key = "counts|" + shape;
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            List<String> conditions = new ArrayList<>();
+            appendWhere(shape, conditions);
+            sql = "WITH matched AS (SELECT t.id, t.status, t.priority FROM tasks t"
+                    + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) + ") "
+                    + "SELECT status, priority, NULL AS tag, count(*) AS n FROM matched "
+                    + "GROUP BY GROUPING SETS ((status), (priority)) "
+                    + "UNION ALL "
+                    + "(SELECT NULL, NULL, tg.name, count(*) FROM matched m "
+                    + "JOIN task_tags tt ON tt.task_id = m.id JOIN tags tg ON tg.id = tt.tag_id "
+                    + "GROUP BY tg.name ORDER BY count(*) DESC, tg.name LIMIT ?)";
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Compiles a patch into one UPDATE that writes only the changed columns and
+     * increments the version, conditional on the expected version if the patch
+     * has one. The statement returns the updated task in the columns of
+     * {@link #TASK_SELECT}, followed by whether the task is {@code archived} and
+     * whether it {@code was_archived} before the update. If the patch replaces
+     * the tags or can reopen the task it also returns the current tag names as
+     * {@code current_tags}, read before any tag change.
+     * A patch to an open status also reopens the task if it is archived; the
+     * table is then joined to itself so the row as it was before the update
+     * can be returned.
+     *
+     * @param patch the changes
+     * @return the compiled statement
+     */
+    static CompiledQuery compilePatch(TaskPatch patch) {
+        List<Object> params = new ArrayList<>();
+        List<String> assignments = new ArrayList<>();
+        int shape = 0;
+        Object[] values = {patch.getTitle(), patch.getDescription(), patch.getPriority(), patch.getDueDate(),
+                patch.getStatus() == null ? null : patch.getStatus().name()};
+        String[] columns = {"title", "description", "priority", "due_date", "status"};
+        for (int i = 0; i < columns.length; i++) {
+            if (values[i] != null) {
+                shape |= 1 << i;
+                assignments.add(columns[i] + " = ?");
+                params.add(values[i]);
+            }
+        }
+        boolean reopen = isOpen(patch.getStatus());
+        if (reopen) {
+            shape |= 1 << (columns.length + 2);
+            assignments.add("archived = FALSE");
+        }
+        assignments.add("version = t.version + 1");
+        params.add(patch.getId());
+        if (patch.getVersion() != null) {
+            shape |= 1 << columns.length;
+            params.add(patch.getVersion());
+        }
+        if (patch.getTags() != null) {
+            shape |= 1 << (columns.length + 1);
+        }
+
+        String key = "patch|" + shape;
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            sql = "UPDATE tasks t SET " + String.join(", ", assignments)
+                    + (reopen ? " FROM tasks o WHERE o.id = t.id AND o.archived = t.archived AND" : " WHERE")
+                    + " t.id = ?" + (patch.getVersion() != null ? " AND t.version = ?" : "")
+                    + " RETURNING " + TASK_COLUMNS + ", " + tagIdsOf("t") + " AS tag_ids, t.archived, "
+                    + (reopen ? "o" : "t") + ".archived AS was_archived"
+                    + (patch.getTags() != null || reopen
+                        ? ", ARRAY(SELECT tg.name FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id "
+                            + "WHERE tt.task_id = t.id) AS current_tags"
+                        : "");
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Compiles an UPDATE setting the status of every task matching the query's
+     * criteria. Tasks already in that status are left alone, so the affected
+     * count is the number of tasks actually changed. Ordering and limit are ignored.
+     * If the query includes archived tasks and the status is open, matching
+     * archived tasks are reopened.
+     * <p>
+     * The statement returns rows like {@link #compileBulkDelete}: one with a
+     * null {@code tag} and the number of changed tasks in {@code n}, plus one
+     * per tag carried by reopened tasks with the number of them carrying it.
+     * Reopened tasks are told apart by joining the table to itself, which
+     * yields the rows as they were before the update.
+     *
+     * @param query the criteria
+     * @param status the new status
+     * @return the compiled statement
+     */
+    static CompiledQuery compileBulkStatus(TaskQuery query, Task.Status status) {
+        List<Object> params = new ArrayList<>();
+        params.add(status.name());
+        int shape = bindCriteria(query, params);
+        params.add(status.name());
+
+        boolean reopen = (shape & WITH_ARCHIVED) != 0 && isOpen(status);
+        String key = "bulkStatus|" + shape + (reopen ? "|reopen" : "");
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            List<String> conditions = new ArrayList<>();
+            if (reopen) {
+                conditions.add("o.id = t.id AND o.archived = t.archived");
+            }
+            appendWhere(shape, conditions);
+            conditions.add("t.status <> ?");
+            sql = "WITH changed AS (UPDATE tasks t SET status = ?, " + (reopen ? "archived = FALSE, " : "")
+                    + "version = t.version + 1" + (reopen ? " FROM tasks o" : "")
+                    + " WHERE " + String.join(" AND ", conditions)
+                    + " RETURNING t.id" + (reopen ? ", o.archived AS reopened" : "") + ") "
+                    + "SELECT NULL AS tag, count(*) AS n FROM changed"
+                    + (reopen
+                        ? " UNION ALL SELECT tg.name, count(*) FROM changed c "
+                            + "JOIN task_tags tt ON tt.task_id = c.id JOIN tags tg ON tg.id = tt.tag_id "
+                            + "WHERE c.reopened GROUP BY tg.name"
+                        : "");
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Compiles a DELETE of every task matching the query's criteria. The
+     * statement returns one row with a null {@code tag} and the number of
+     * deleted tasks in {@code n}, plus one row per tag the deleted active tasks
+     * carried with the number of them carrying it; archived tasks no longer
+     * count towards tag usage. Tag links are read in the same statement, before
+     * the trigger removes them. Ordering and limit are ignored.
+     *
+     * @param query the criteria
+     * @return the compiled statement
+     */
+    static CompiledQuery compileBulkDelete(TaskQuery query) {
+        List<Object> params = new ArrayList<>();
+        int shape = bindCriteria(query, params);
+
+        String key = "bulkDelete|" + shape;
+        String sql = SQL_CACHE.get(key);
+        if (sql == null) {
+            List<String> conditions = new ArrayList<>();
+            appendWhere(shape, conditions);
+            sql = "WITH deleted AS (DELETE FROM tasks t"
+                    + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                    + " RETURNING t.id, t.archived) "
+                    + "SELECT NULL AS tag, count(*) AS n FROM deleted "
+                    + "UNION ALL "
+                    + "SELECT tg.name, count(*) FROM deleted d "
+                    + "JOIN task_tags tt ON tt.task_id = d.id JOIN tags tg ON tg.id = tt.tag_id "
+                    + "WHERE NOT d.archived GROUP BY tg.name";
+            if (SQL_CACHE.size() < MAX_CACHED_SHAPES) {
+                SQL_CACHE.putIfAbsent(key, sql);
+            }
+        }
+        return new CompiledQuery(sql, params);
+    }
+
+    /**
+     * Indicates whether a status is an open one, which an archived task cannot keep.
+     *
+     * @param status the status, or null
+     * @return true for {@code PENDING} and {@code IN_PROGRESS}
+     */
+    static boolean isOpen(Task.Status status) {
+        return status == Task.Status.PENDING || status == Task.Status.IN_PROGRESS;
+    }
+
+    /**
+     * Indicates whether the query's primary ordering is the due date.
+     *
+     * @param query the criteria
+     * @return true if the first sort term is the due date
+     */
+    static boolean isSortedByDueDate(TaskQuery query) {
+        return !query.getSorts().isEmpty()
+                && query.getSorts().get(0).getField() == TaskQuery.SortField.DUE_DATE;
+    }
+
+    /**
+     * Collects the bind values of the filter criteria, in the order
+     * {@link #appendWhere} emits their placeholders.
+     *
+     * @param query the criteria
+     * @param params receives the bind values
+     * @return the shape bits of the criteria present
+     */
+    private static int bindCriteria(TaskQuery query, List<Object> params) {
+        int shape = query.isIncludeArchived() ? WITH_ARCHIVED : 0;
+        if (!query.getIds().isEmpty()) {
+            shape |= IDS;
+            params.add(query.getIds().toArray(new Long[0]));
+        }
+        if (!query.getStatuses().isEmpty()) {
+            shape |= STATUS;
+            params.add(query.getStatuses().stream().map(Task.Status::name).toArray(String[]::new));
+        }
+        if (!query.getPriorities().isEmpty()) {
+            shape |= PRIORITY;
+            params.add(query.getPriorities().toArray(new String[0]));
+        }
+        if (query.getDueFrom() != null) {
+            shape |= DUE_FROM;
+            params.add(query.getDueFrom());
+        }
+        if (query.getDueTo() != null) {
+            shape |= DUE_TO;
+            params.add(query.getDueTo());
+        }
+        if (query.getTitlePrefix() != null) {
+            shape |= PREFIX_FROM;
+            params.add(query.getTitlePrefix());
+            String upper = prefixUpperBound(query.getTitlePrefix());
+            if (upper != null) {
+                shape |= PREFIX_TO;
+                params.add(upper);
+            }
+        }
+        if (!query.getAnyTags().isEmpty()) {
+            shape |= ANY_TAGS;
+            params.add(query.getAnyTags().toArray(new String[0]));
+        }
+        if (!query.getAllTags().isEmpty()) {
+            shape |= ALL_TAGS;
+            params.add(query.getAllTags().toArray(new String[0]));
+            params.add(query.getAllTags().size());
+        }
+        if (!query.getSearchWords().isEmpty()) {
+            shape |= SEARCH;
+            params.add(toTsQuery(query.getSearchWords()));
+        }
+        return shape;
+    }
+
+    /**
+     * Builds the SELECT text for a shape.
+     *
+     * @param query a query of the shape, used for its ordering
+     * @param shape the shape bits
+     * @param projection the SELECT ... FROM clause
+     * @return the SQL text
+     */
+    private static String buildSelect(TaskQuery query, int shape, String projection) {
+        StringBuilder sql = new StringBuilder(512).append(projection);
+        List<String> conditions = new ArrayList<>();
+        appendWhere(shape, conditions);
+
+        boolean seekByDueDate = isSortedByDueDate(query);
+        boolean ascending = query.getSorts().isEmpty() || query.getSorts().get(0).isAscending();
+        if ((shape & SEEK) != 0) {
+            String op = ascending ? ">" : "<";
+            conditions.add(seekByDueDate ? "(t.due_date, t.id) " + op + " (?, ?)" : "t.id " + op + " ?");
+        }
+
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        appendOrderBy(query, sql);
+        if ((shape & LIMIT) != 0) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Appends the filter predicates of a shape, in the order {@link #bindCriteria} binds them.
+     *
+     * @param shape the shape bits
+     * @param conditions receives the predicates
+     */
+    static void appendWhere(int shape, List<String> conditions) {
+        if ((shape & WITH_ARCHIVED) == 0) {
+            conditions.add("t.archived = FALSE");
+        }
+        if ((shape & IDS) != 0) {
+            conditions.add("t.id = ANY(?)");
+        }
+        if ((shape & STATUS) != 0) {
+            conditions.add("t.status = ANY(?)");
+        }
+        if ((shape & PRIORITY) != 0) {
+            conditions.add("t.priority = ANY(?)");
+        }
+        if ((shape & DUE_FROM) != 0) {
+            conditions.add("t.due_date >= ?");
+        }
+        if ((shape & DUE_TO) != 0) {
+            conditions.add("t.due_date <= ?");
+        }
+        if ((shape & PREFIX_FROM) != 0) {
+            conditions.add("lower(t.title) ~>=~ ?");
+        }
+        if ((shape & PREFIX_TO) != 0) {
+            conditions.add("lower(t.title) ~<~ ?");
+        }
+        if ((shape & ANY_TAGS) != 0) {
+            conditions.add("EXISTS (SELECT 1 FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id " +
+                    "WHERE tt.task_id = t.id AND tg.name = ANY(?))");
+        }
+        if ((shape & ALL_TAGS) != 0) {
+            conditions.add("(SELECT count(*) FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id " +
+                    "WHERE tt.task_id = t.id AND tg.name = ANY(?)) = ?");
+        }
+        if ((shape & SEARCH) != 0) {
+            conditions.add("t.search_vector @@ to_tsquery('" + SEARCH_CONFIG + "', ?)");
+        }
+    }
+
+    /**
+     * Builds a {@code to_tsquery} expression requiring every word, the last one
+     * as a prefix. Words contain only letters and digits (see
+     * {@link TaskQuery.Builder#search(String)}), so they need no quoting.
+     *
+     * @param words the search words
+     * @return the tsquery text
+     */
+    static String toTsQuery(List<String> words) {
+        StringBuilder tsQuery = new StringBuilder();
+        for (String word : words) {
+            if (tsQuery.length() > 0) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(word);
+        }
+        if (words.get(words.size() - 1).length() >= MIN_PREFIX_LENGTH) {
+            tsQuery.append(":*");
+        }
+        return tsQuery.toString();
+    }
+
+    /**
+     * Builds the tag id subquery for the task table aliased as given. Ids are
+     * read from the {@code task_tags} primary key alone, without joining
+     * {@code tags}, and returned as one comma-separated text value so the
+     * driver decodes a single string per row instead of an array of names.
+     *
+     * @param alias the alias of the row providing {@code id}
+     * @return the expression yielding the tag ids, empty if the task has none
+     */
+    static String tagIdsOf(String alias) {
+        return "array_to_string(ARRAY(SELECT tt.tag_id FROM task_tags tt "
+                + "WHERE tt.task_id = " + alias + ".id), ',')";
+    }
+
+    /**
+     * Appends the ORDER BY clause. The id tie-breaker follows the primary
+     * direction for seekable orderings so the keyset comparison stays valid.
+     *
+     * @param query the criteria
+     * @param sql the statement being built
+     */
+    private static void appendOrderBy(TaskQuery query, StringBuilder sql) {
+        sql.append(" ORDER BY ");
+        boolean idDescending = false;
+        for (TaskQuery.Sort sort : query.getSorts()) {
+            if (sort.getField() == TaskQuery.SortField.ID) {
+                idDescending = !sort.isAscending();
+                break;
+            }
+            sql.append(sortExpression(sort.getField())).append(sort.isAscending() ? " ASC, " : " DESC, ");
+        }
+        if (query.isSeekable() && !query.getSorts().isEmpty()) {
+            idDescending = !query.getSorts().get(0).isAscending();
+        }
+        sql.append("t.id ").append(idDescending ? "DESC" : "ASC");
+    }
+
+    /**
+     * Maps a sort field to its SQL expression.
+     *
+     * @param field the sort field
+     * @return the expression to order by
+     */
+    private static String sortExpression(TaskQuery.SortField field) {
+        switch (field) {
+            case DUE_DATE:
+                return "t.due_date";
+            case PRIORITY:
+                return "CASE t.priority WHEN 'CRITICAL' THEN 4 WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 ELSE 1 END";
+            case STATUS:
+                return "t.status";
+            case TITLE:
+                return "lower(t.title)";
+            case CREATED_AT:
+                return "t.created_at";
+            default:
+                return "t.id";
+        }
+    }
+
+    /**
+     * Builds the part of the cache key describing the ordering.
+     *
+     * @param query the criteria
+     * @return the ordering key
+     */
+    private static String sortKey(TaskQuery query) {
+        StringBuilder key = new StringBuilder();
+        for (TaskQuery.Sort sort : query.getSorts()) {
+            key.append(sort.getField().ordinal()).append(sort.isAscending() ? '+' : '-');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Computes the smallest string greater than every string starting with the prefix,
+     * by incrementing its last code point. Comparison under {@code text_pattern_ops}
+     * is byte-wise on UTF-8, which preserves code point order.
+     *
+     * @param prefix the prefix
+     * @return the exclusive upper bound, or null if the prefix has no successor
+     */
+    private static String prefixUpperBound(String prefix) {
+        int last = prefix.codePointBefore(prefix.length());
+        if (last == Character.MAX_CODE_POINT) {
+            return null;
+        }
+        int next = last + 1;
+        if (next >= Character.MIN_SURROGATE && next <= Character.MAX_SURROGATE) {
+            next = Character.MAX_SURROGATE + 1;
+        }
+        String head = prefix.substring(0, prefix.length() - Character.charCount(last));
+        return head + new String(Character.toChars(next));
+    }
+}
@@ -0,0 +1,23 @@
+package tms.dao;
+
+import tms.model.TaskStats;
+
+/**
+ * Data Access Object interface for the task summary tables.
+ * The summaries are maintained by database triggers on every write, so reads
+ * cost the number of summary buckets rather than the number of tasks.
+ */
+public interface TaskStatsDAO {
+    /**
+     * Reads counts by status and priority, overdue counts and tag popularity.
+     * @param tagLimit The number of most used tags to include.
+     * @return The statistics.
+     */
+    TaskStats getStats(int tagLimit);
+
+    /**
+     * Recomputes the summary tables from the task tables, for databases whose
+     * tasks predate the summary triggers. Writers are blocked while it runs.
+     */
+    void rebuild();
+}
@@ -0,0 +1,145 @@
+package tms.dao;
+
+import tms.exception.DataAccessException;
+import tms.model.TaskStats;
+import tms.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of the TaskStatsDAO interface over the {@code task_stats} and
+ * {@code tag_stats} tables. Status and priority totals sum the due date buckets
+ * of {@code task_stats}; overdue counts sum the buckets already past due.
+ * Both tables count active tasks only, like the board.
+ */
+public class TaskStatsDAOImpl implements TaskStatsDAO {
+    private static final Logger LOGGER = Logger.getLogger(TaskStatsDAOImpl.class.getName());
+
+    private static final String STATS_SQL =
+            "SELECT status, priority, sum(task_count) AS n, "
+                    + "sum(task_count) FILTER (WHERE due_date < CURRENT_DATE "
+                    + "AND status IN ('PENDING', 'IN_PROGRESS')) AS overdue "
+                    + "FROM task_stats GROUP BY status, priority";
+
+    private static final String TOP_TAGS_SQL =
+            "SELECT tg.name, s.task_count FROM tag_stats s JOIN tags tg ON tg.id = s.tag_id "
+                    + "ORDER BY s.task_count DESC, tg.name LIMIT ?";
+
+    private static final String[] REBUILD_SQL = {
+            "LOCK TABLE tasks, task_tags IN SHARE MODE",
+            "DELETE FROM task_stats",
+            "DELETE FROM tag_stats",
+            "INSERT INTO task_stats (status, priority, due_date, task_count) "
+                    + "SELECT status, priority, due_date, count(*) FROM tasks WHERE archived = FALSE "
+                    + "GROUP BY status, priority, due_date",
+            "INSERT INTO tag_stats (tag_id, task_count) "
+                    + "SELECT tt.tag_id, count(*) FROM task_tags tt "
+                    + "JOIN tasks t ON t.id = tt.task_id AND t.archived = FALSE GROUP BY tt.tag_id"
+    };
+
+    /**
+     * Reads the statistics in one transaction, so the counts and tags are consistent.
+     *
+     * @param tagLimit the number of most used tags to include
+     * @return the statistics
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public TaskStats getStats(int tagLimit) {
+        LOGGER.fine("Reading task statistics");
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+
+            Map<String, Map<String, Long>> byStatusAndPriority = new HashMap<>();
+            Map<String, Long> overdueByPriority = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(STATS_SQL)) {
+                while (rs.next()) {
+                    String priority = rs.getString("priority");
+                    byStatusAndPriority.computeIfAbsent(rs.getString("status"), k -> new HashMap<>())
+                            .put(priority, rs.getLong("n"));
+                    overdueByPriority.merge(priority, rs.getLong("overdue"), Long::sum);
+                }
+            }
+
+            Map<String, Long> topTags = new LinkedHashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(TOP_TAGS_SQL)) {
+                stmt.setInt(1, tagLimit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        topTags.put(rs.getString("name"), rs.getLong("task_count"));
+                    }
+                }
+            }
+            conn.commit();
+            return new TaskStats(byStatusAndPriority, overdueByPriority, topTags);
+        } catch (SQLException e) {
+            rollback(conn);
+            LOGGER.log(Level.SEVERE, "Failed to read task statistics", e);
+            throw new DataAccessException("Failed to read task statistics", e);
+        } finally {
+            close(conn);
+        }
+    }
+
+    /**
+     * Recomputes both summary tables in one transaction.
+     *
+     * @throws DataAccessException if database access fails
+     */
+    @Override
+    public void rebuild() {
+        LOGGER.info("Rebuilding task statistics");
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getConnection();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : REBUILD_SQL) {
+                    stmt.execute(sql);
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            rollback(conn);
+            LOGGER.log(Level.SEVERE, "Failed to rebuild task statistics", e);
+            throw new DataAccessException("Failed to rebuild task statistics", e);
+        } finally {
+            close(conn);
+        }
+    }
+
+    private static void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Rollback failed", e);
+            }
+        }
+    }
+
+    private static void close(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                conn.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Failed to release connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package tms.exception;
+
+import tms.model.Task;
+
+/**
+ * Runtime exception for an update based on a task version that is no longer
+ * current, because the task was changed or deleted since it was read.
+ * Carries the task as it is now stored, so callers can show it and let the
+ * user reapply their changes.
+ */
+public class ConflictException extends RuntimeException {
+    private final transient Task current;
+
+    /**
+     * Constructs a new conflict exception.
+     *
+     * @param message the detail message
+     * @param current the stored task, or null if it has been deleted
+     */
+    public ConflictException(String message, Task current) {
+        super(message);
+        this.current = current;
+    }
+
+    /**
+     * Gets the task as currently stored.
+     * @return the stored task, or null if it has been deleted
+     */
+    public Task getCurrent() {
+        return current;
+    }
+}
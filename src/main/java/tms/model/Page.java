@@ -0,0 +1,51 @@
+package tms.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result.
+ * Carries the items of the page plus an opaque cursor that resumes the
+ * listing right after the last item, or null when there are no more items.
+ *
+ * @param <T> the item type
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructs a page.
+     *
+     * @param items the items of this page
+     * @param nextCursor cursor for the following page, or null if this is the last page
+     */
+    public Page(List<T> items, String nextCursor) {
+        this.items = items == null ? Collections.emptyList() : Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the items of this page.
+     * @return an unmodifiable list of items
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the cursor for the following page.
+     * @return the next cursor, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Indicates whether another page follows this one.
+     * @return true if {@link #getNextCursor()} is not null
+     */
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,162 @@
+package tms.model;
+
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared dictionary from tag id to tag name.
+ * <p>
+ * Tasks loaded from the database keep their tags as an array of tag ids and
+ * resolve the names here, so every task carrying a tag shares one name
+ * instance instead of holding its own copy. Tags are few and long-lived while
+ * task rows are many, so this removes most of the strings a large listing
+ * would otherwise allocate.
+ * <p>
+ * Lookups read an immutable open-addressing table without locking. Adding
+ * tags copies the table under a lock, which is rare once the vocabulary has
+ * been seen. Tags are never renamed, so an entry never goes stale; the entry
+ * of a deleted tag simply stops being referenced.
+ */
+public final class TagDictionary {
+    private static final TagDictionary INSTANCE = new TagDictionary();
+
+    private static final class Table {
+        final int[] ids;
+        final String[] names;
+        final int mask;
+        final int size;
+
+        Table(int capacity, int size) {
+            this.ids = new int[capacity];
+            this.names = new String[capacity];
+            this.mask = capacity - 1;
+            this.size = size;
+        }
+
+        String get(int id) {
+            for (int slot = mix(id) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+                if (ids[slot] == id) {
+                    return names[slot];
+                }
+            }
+            return null;
+        }
+
+        void put(int id, String name) {
+            int slot = mix(id) & mask;
+            while (names[slot] != null && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            ids[slot] = id;
+            names[slot] = name;
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Table table = new Table(16, 0);
+
+    private TagDictionary() {}
+
+    /**
+     * Gets the dictionary shared by the application.
+     * @return the shared instance
+     */
+    public static TagDictionary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the name of a tag.
+     *
+     * @param id the tag id
+     * @return the shared name instance, or null if the id is not known
+     */
+    public String nameOf(int id) {
+        return table.get(id);
+    }
+
+    /**
+     * Checks whether every id is known.
+     *
+     * @param ids the tag ids
+     * @return true if all names can be resolved
+     */
+    public boolean containsAll(int[] ids) {
+        Table current = table;
+        for (int id : ids) {
+            if (current.get(id) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds tags to the dictionary. Ids already present keep their name instance.
+     *
+     * @param names tag names keyed by tag id
+     */
+    public void putAll(Map<Integer, String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Table current = table;
+            int size = current.size;
+            for (Integer id : names.keySet()) {
+                if (current.get(id) == null) {
+                    size++;
+                }
+            }
+            if (size == current.size) {
+                return;
+            }
+            int capacity = current.ids.length;
+            while (size * 2 > capacity) {
+                capacity <<= 1;
+            }
+            Table next = new Table(capacity, size);
+            for (int slot = 0; slot < current.names.length; slot++) {
+                if (current.names[slot] != null) {
+                    next.put(current.ids[slot], current.names[slot]);
+                }
+            }
+            names.forEach((id, name) -> {
+                if (current.get(id) == null) {
+                    next.put(id, name);
+                }
+            });
+            table = next;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forgets every tag. Only needed when tag ids are reused, as after
+     * truncating {@code tags} with a restarted sequence.
+     */
+    public void clear() {
+        writeLock.lock();
+        try {
+            table = new Table(16, 0);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of known tags.
+     * @return the dictionary size
+     */
+    public int size() {
+        return table.size;
+    }
+
+    /** Spreads sequential ids across the table. */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,12 +1,19 @@
 package tms.model;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 import java.sql.Date;
 
 /**
  * Represents a task in the Task Management System.
  * Contains task details including title, description, priority, due date,
  * status, and associated tags.
+ * <p>
+ * Tags are held either as names, for tasks built from user input, or as an
+ * array of tag ids, for tasks loaded from the database. Ids are resolved to
+ * names through the shared {@link TagDictionary} when the tags are read.
  */
 public class Task {
     private Long id;
@@ -16,6 +23,8 @@ public class Task {
     private Date dueDate;
     private Status status;
     private List<String> tags;
+    private int[] tagIds;
+    private Long version;
 
     /**
      * Enumeration of possible task statuses.
@@ -53,6 +62,25 @@ public class Task {
         this.tags = tags;
     }
 
+    /**
+     * Constructs a copy of another task. The tag list is copied too, so the
+     * copy can be modified without affecting the original. Tag ids are
+     * shared, as they are never modified in place.
+     *
+     * @param other the task to copy
+     */
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.priority = other.priority;
+        this.dueDate = other.dueDate;
+        this.status = other.status;
+        this.tags = other.tags == null ? null : new ArrayList<>(other.tags);
+        this.tagIds = other.tagIds;
+        this.version = other.version;
+    }
+
     /**
      * Gets the task ID.
      * @return the task's unique identifier
@@ -150,18 +178,79 @@ public class Task {
     }
 
     /**
-     * Gets the task tags.
+     * Gets the task version, incremented by every update.
+     * @return the version read with the task, or null for a new task
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the task version. An update only succeeds if this is still the stored version.
+     * @param version the version the changes are based on, or null to update unconditionally
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Gets the task tags. For a task loaded from the database this is an
+     * unmodifiable view resolving the tag ids through the {@link TagDictionary}.
      * @return list of associated tags
      */
     public List<String> getTags() {
+        if (tags == null && tagIds != null) {
+            return new TagNames(tagIds);
+        }
         return tags;
     }
 
     /**
-     * Sets the task tags.
+     * Sets the task tags by name, replacing any tag ids.
      * @param tags list of tags to associate with the task
      */
     public void setTags(List<String> tags) {
         this.tags = tags;
+        this.tagIds = null;
+    }
+
+    /**
+     * Gets the ids of the task tags.
+     * @return the tag ids, or null if the tags were set by name
+     */
+    public int[] getTagIds() {
+        return tagIds;
+    }
+
+    /**
+     * Sets the task tags by id, replacing any tag names. The array is kept
+     * as given and must not be modified afterwards; every id must be known
+     * to the {@link TagDictionary}.
+     * @param tagIds the ids of the tags, in display order
+     */
+    public void setTagIds(int[] tagIds) {
+        this.tagIds = tagIds;
+        this.tags = null;
+    }
+
+    /**
+     * Read-only list of tag names backed by an id array.
+     */
+    private static final class TagNames extends AbstractList<String> implements RandomAccess {
+        private final int[] ids;
+
+        TagNames(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public String get(int index) {
+            return TagDictionary.getInstance().nameOf(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package tms.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of tasks per status, per priority and per tag.
+ * Every status and priority is present, with zero if no task has it, so
+ * views can look counts up without null checks. Tag counts hold the most
+ * used tags only, in descending order of use. Instances are immutable.
+ */
+public class TaskCounts {
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final Map<String, Long> byPriority;
+    private final Map<String, Long> byTag;
+
+    /**
+     * Constructs the counts. Missing statuses and priorities are filled in with zero.
+     *
+     * @param byStatus task counts keyed by status name
+     * @param byPriority task counts keyed by priority
+     * @param byTag task counts keyed by tag name, most used first
+     */
+    public TaskCounts(Map<String, Long> byStatus, Map<String, Long> byPriority, Map<String, Long> byTag) {
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        long sum = 0;
+        for (Task.Status status : Task.Status.values()) {
+            long count = byStatus.getOrDefault(status.name(), 0L);
+            statuses.put(status.name(), count);
+            sum += count;
+        }
+        Map<String, Long> priorities = new LinkedHashMap<>();
+        for (String priority : PRIORITIES) {
+            priorities.put(priority, byPriority.getOrDefault(priority, 0L));
+        }
+        this.total = sum;
+        this.byStatus = Collections.unmodifiableMap(statuses);
+        this.byPriority = Collections.unmodifiableMap(priorities);
+        this.byTag = Collections.unmodifiableMap(new LinkedHashMap<>(byTag));
+    }
+
+    /**
+     * Gets the number of tasks counted.
+     * @return the total
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the task counts per status, in {@link Task.Status} order.
+     * @return an unmodifiable map from status name to count
+     */
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    /**
+     * Gets the task counts per priority, from LOW to CRITICAL.
+     * @return an unmodifiable map from priority to count
+     */
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    /**
+     * Gets the task counts of the most used tags.
+     * @return an unmodifiable map from tag name to count, most used first
+     */
+    public Map<String, Long> getByTag() {
+        return byTag;
+    }
+}
@@ -0,0 +1,127 @@
+package tms.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dashboard statistics over all tasks: counts by status and priority,
+ * overdue counts and tag popularity. Every status and priority is present,
+ * with zero if no task has it. Instances are immutable.
+ */
+public class TaskStats {
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+
+    private final Map<String, Map<String, Long>> byStatusAndPriority;
+    private final Map<String, Long> overdueByPriority;
+    private final Map<String, Long> topTags;
+
+    /**
+     * Constructs the statistics. Missing statuses and priorities are filled in with zero.
+     *
+     * @param byStatusAndPriority task counts keyed by status name, then priority
+     * @param overdueByPriority counts of open tasks past their due date, keyed by priority
+     * @param topTags task counts of the most used tags, most used first
+     */
+    public TaskStats(Map<String, Map<String, Long>> byStatusAndPriority,
+                     Map<String, Long> overdueByPriority, Map<String, Long> topTags) {
+        Map<String, Map<String, Long>> grid = new LinkedHashMap<>();
+        for (Task.Status status : Task.Status.values()) {
+            grid.put(status.name(), Collections.unmodifiableMap(
+                    fillPriorities(byStatusAndPriority.getOrDefault(status.name(), Map.of()))));
+        }
+        this.byStatusAndPriority = Collections.unmodifiableMap(grid);
+        this.overdueByPriority = Collections.unmodifiableMap(fillPriorities(overdueByPriority));
+        this.topTags = Collections.unmodifiableMap(new LinkedHashMap<>(topTags));
+    }
+
+    private static Map<String, Long> fillPriorities(Map<String, Long> counts) {
+        Map<String, Long> filled = new LinkedHashMap<>();
+        for (String priority : PRIORITIES) {
+            filled.put(priority, counts.getOrDefault(priority, 0L));
+        }
+        return filled;
+    }
+
+    /**
+     * Gets the task counts per status and priority.
+     * @return an unmodifiable map from status name to a map from priority to count
+     */
+    public Map<String, Map<String, Long>> getByStatusAndPriority() {
+        return byStatusAndPriority;
+    }
+
+    /**
+     * Gets the task counts per status, in {@link Task.Status} order.
+     * @return a map from status name to count
+     */
+    public Map<String, Long> getByStatus() {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        byStatusAndPriority.forEach((status, counts) -> byStatus.put(status, sum(counts)));
+        return byStatus;
+    }
+
+    /**
+     * Gets the task counts per priority, from LOW to CRITICAL.
+     * @return a map from priority to count
+     */
+    public Map<String, Long> getByPriority() {
+        Map<String, Long> byPriority = fillPriorities(Map.of());
+        for (Map<String, Long> counts : byStatusAndPriority.values()) {
+            counts.forEach((priority, count) -> byPriority.merge(priority, count, Long::sum));
+        }
+        return byPriority;
+    }
+
+    /**
+     * Gets the number of tasks.
+     * @return the total
+     */
+    public long getTotal() {
+        long total = 0;
+        for (Map<String, Long> counts : byStatusAndPriority.values()) {
+            total += sum(counts);
+        }
+        return total;
+    }
+
+    /**
+     * Gets the counts of pending and in-progress tasks whose due date has passed.
+     * @return an unmodifiable map from priority to count
+     */
+    public Map<String, Long> getOverdueByPriority() {
+        return overdueByPriority;
+    }
+
+    /**
+     * Gets the number of pending and in-progress tasks whose due date has passed.
+     * @return the overdue count
+     */
+    public long getOverdue() {
+        return sum(overdueByPriority);
+    }
+
+    /**
+     * Gets the task counts of the most used tags.
+     * @return an unmodifiable map from tag name to count, most used first
+     */
+    public Map<String, Long> getTopTags() {
+        return topTags;
+    }
+
+    /**
+     * Converts the statistics to board counts.
+     * @return the counts per status, priority and tag
+     */
+    public TaskCounts toCounts() {
+        return new TaskCounts(getByStatus(), getByPriority(), topTags);
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+}
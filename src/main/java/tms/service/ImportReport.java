@@ -0,0 +1,160 @@
+package tms.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a bulk task import.
+ * Counts accepted and rejected rows and lists row-level errors up to a
+ * configured limit, so a report stays small even for very large inputs.
+ */
+public class ImportReport {
+
+    /**
+     * A problem with a single input row, or with a whole chunk of rows.
+     */
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        /**
+         * Constructs a row error.
+         *
+         * @param row the 1-based data row number; for chunk failures, the first row of the chunk
+         * @param message what went wrong
+         */
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /**
+         * Gets the row number.
+         * @return the 1-based data row number
+         */
+        public long getRow() {
+            return row;
+        }
+
+        /**
+         * Gets the error message.
+         * @return the message
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final int maxErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private int chunksCommitted;
+    private int chunksFailed;
+    private long elapsedMillis;
+
+    /**
+     * Creates an empty report.
+     *
+     * @param maxErrors the number of row errors kept before further errors are only counted
+     */
+    public ImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowRejected(long row, String message) {
+        rejected++;
+        addError(row, message);
+    }
+
+    void chunkCommitted(int rows) {
+        chunksCommitted++;
+        imported += rows;
+    }
+
+    void chunkFailed(long firstRow, int rows, String message) {
+        chunksFailed++;
+        rejected += rows;
+        addError(firstRow, "Chunk of " + rows + " rows starting here was rolled back: " + message);
+    }
+
+    void finish(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    private void addError(long row, String message) {
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    /**
+     * Gets the number of data rows read from the input.
+     * @return the rows read
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Gets the number of tasks stored.
+     * @return the imported count
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Gets the number of rows not stored, whether rejected individually or in a failed chunk.
+     * @return the rejected count
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the number of chunks committed.
+     * @return the committed chunk count
+     */
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    /**
+     * Gets the number of chunks rolled back.
+     * @return the failed chunk count
+     */
+    public int getChunksFailed() {
+        return chunksFailed;
+    }
+
+    /**
+     * Gets the wall-clock duration of the import.
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the reported errors, in input order.
+     * @return an unmodifiable list of at most the configured number of errors
+     */
+    public List<RowError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Indicates whether more errors occurred than are listed.
+     * @return true if errors were dropped from the report
+     */
+    public boolean isErrorsTruncated() {
+        return errors.size() == maxErrors && rejected > errors.size();
+    }
+}
@@ -0,0 +1,213 @@
+package tms.service;
+
+import tms.config.DatabaseConfig;
+import tms.dao.TaskDAO;
+import tms.exception.DataAccessException;
+import tms.exception.ValidationException;
+import tms.model.Task;
+import tms.util.io.RecordReader;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Streams records from a {@link RecordReader} into the task store.
+ * <p>
+ * Each record is mapped to a {@link Task} and checked with
+ * {@link TaskServiceImpl#validateTask(Task)}; valid tasks are collected into
+ * chunks that are written with {@link TaskDAO#saveAll(List)} and committed
+ * independently. Only one chunk is held in memory at a time. A rejected
+ * record is reported and skipped; a chunk that fails to store is rolled back
+ * as a whole and reported against its first row, and the import continues
+ * with the next chunk.
+ * <p>
+ * Recognised fields are {@code title}, {@code description}, {@code priority},
+ * {@code due_date} (yyyy-MM-dd), {@code status} (defaults to PENDING) and
+ * {@code tags}, given either as a JSON array or as a comma separated string.
+ */
+public class TaskImporter {
+    private static final Logger LOGGER = Logger.getLogger(TaskImporter.class.getName());
+
+    private final TaskDAO taskDAO;
+    private final TaskServiceImpl validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    /**
+     * Creates an importer using the configured chunk size and error limit.
+     *
+     * @param taskDAO the DAO that stores each chunk
+     * @param validator the service whose rules every record must satisfy
+     */
+    public TaskImporter(TaskDAO taskDAO, TaskServiceImpl validator) {
+        this(taskDAO, validator, DatabaseConfig.getImportChunkSize(), DatabaseConfig.getImportMaxReportedErrors());
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param taskDAO the DAO that stores each chunk
+     * @param validator the service whose rules every record must satisfy
+     * @param chunkSize the number of tasks stored per transaction
+     * @param maxReportedErrors the number of row errors listed in the report
+     */
+    public TaskImporter(TaskDAO taskDAO, TaskServiceImpl validator, int chunkSize, int maxReportedErrors) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Import chunk size must be positive");
+        }
+        this.taskDAO = taskDAO;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+    }
+
+    /**
+     * Imports every record of the reader. The reader is not closed.
+     *
+     * @param reader the record source
+     * @return the import report
+     * @throws IOException if the input cannot be read any further; chunks
+     *                     committed before the failure remain stored
+     */
+    public ImportReport importFrom(RecordReader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        List<Task> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+        long chunkFirstRow = 0;
+
+        while (true) {
+            Map<String, Object> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                report.rowRead();
+                report.rowRejected(reader.getRecordNumber(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            report.rowRead();
+            long row = reader.getRecordNumber();
+
+            Task task;
+            try {
+                task = toTask(record);
+                validator.validateTask(task);
+            } catch (ValidationException | IllegalArgumentException e) {
+                report.rowRejected(row, e.getMessage());
+                continue;
+            }
+
+            if (chunk.isEmpty()) {
+                chunkFirstRow = row;
+            }
+            chunk.add(task);
+            if (chunk.size() == chunkSize) {
+                flush(chunk, chunkFirstRow, report);
+            }
+        }
+        flush(chunk, chunkFirstRow, report);
+
+        report.finish((System.nanoTime() - start) / 1_000_000);
+        LOGGER.info(() -> "Imported " + report.getImported() + " of " + report.getRowsRead()
+                + " rows in " + report.getElapsedMillis() + " ms (" + report.getRejected() + " rejected)");
+        return report;
+    }
+
+    /**
+     * Stores and commits a chunk, then clears it.
+     *
+     * @param chunk the validated tasks
+     * @param firstRow the row number of the chunk's first task
+     * @param report the report to update
+     */
+    private void flush(List<Task> chunk, long firstRow, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            report.chunkCommitted(taskDAO.saveAll(chunk));
+        } catch (DataAccessException e) {
+            LOGGER.log(Level.WARNING, "Import chunk starting at row " + firstRow + " failed", e);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            report.chunkFailed(firstRow, chunk.size(), cause.getMessage());
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Maps a record to a task.
+     *
+     * @param record the record fields
+     * @return the unvalidated task
+     * @throws IllegalArgumentException if a field cannot be converted
+     */
+    private static Task toTask(Map<String, Object> record) {
+        Task task = new Task();
+        task.setTitle(text(record.get("title")));
+        task.setDescription(text(record.get("description")));
+
+        String priority = text(record.get("priority"));
+        task.setPriority(priority == null ? null : priority.toUpperCase(Locale.ROOT));
+
+        String dueDate = text(record.get("due_date"));
+        if (dueDate != null) {
+            try {
+                task.setDueDate(Date.valueOf(dueDate));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid due_date '" + dueDate + "'; expected yyyy-MM-dd");
+            }
+        }
+
+        String status = text(record.get("status"));
+        if (status != null) {
+            try {
+                task.setStatus(Task.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid status '" + status + "'");
+            }
+        }
+
+        task.setTags(tags(record.get("tags")));
+        return task;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static List<String> tags(Object value) {
+        if (value == null) {
+            return Collections.emptyList();
+        }
+        List<String> tags = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                String tag = text(element);
+                if (tag != null && !tags.contains(tag)) {
+                    tags.add(tag);
+                }
+            }
+        } else {
+            for (String element : value.toString().split(",")) {
+                String tag = text(element);
+                if (tag != null && !tags.contains(tag)) {
+                    tags.add(tag);
+                }
+            }
+        }
+        return tags;
+    }
+}
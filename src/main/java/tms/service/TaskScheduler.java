@@ -0,0 +1,278 @@
+package tms.service;
+
+import tms.config.DatabaseConfig;
+import tms.dao.TaskQuery;
+import tms.model.Task;
+import tms.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the periodic task jobs: the overdue sweep, due-date reminders, the
+ * archival of closed tasks and the cleanup of old completed tasks.
+ * <p>
+ * Each node with {@code app.scheduler.enabled} runs the jobs on one daemon
+ * thread. Every run is delayed by a random jitter so the nodes do not all
+ * start at the same moment. Before a run, a node takes a PostgreSQL advisory
+ * lock named after the job with {@code pg_try_advisory_lock}, and skips the run
+ * if another node holds it. The lock belongs to the database session, so it is
+ * released even if the node dies mid-run. A node also skips a run if another
+ * node finished the same job less than half an interval ago, as recorded in
+ * {@code scheduled_job_runs}, so each job runs about once per interval across
+ * the cluster.
+ * <p>
+ * Sweeps change tasks in batches of {@code app.scheduler.batchSize}, walking
+ * the due date index, so no statement holds many row locks. The advisory lock
+ * keeps a pooled connection for the length of a run, so the pool needs at
+ * least two connections. A failed run is logged and retried at the next interval.
+ */
+public final class TaskScheduler {
+    private static final Logger LOGGER = Logger.getLogger(TaskScheduler.class.getName());
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+
+    /** First key of the advisory locks, so they do not collide with locks taken by other applications. */
+    private static final int LOCK_NAMESPACE = 0x746d73;
+
+    private static volatile TaskScheduler instance;
+
+    private static final class Job {
+        final String name;
+        final long intervalMs;
+        final Runnable body;
+
+        Job(String name, long intervalMinutes, Runnable body) {
+            this.name = name;
+            this.intervalMs = TimeUnit.MINUTES.toMillis(Math.max(1, intervalMinutes));
+            this.body = body;
+        }
+    }
+
+    private final ScheduledExecutorService executor;
+    private final long jitterMs;
+
+    private TaskScheduler(long jitterMs) {
+        this.jitterMs = jitterMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tms-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the scheduler with the jobs enabled in {@link DatabaseConfig}, unless it is already running.
+     *
+     * @throws IllegalArgumentException if the overdue transitions are malformed
+     */
+    public static void start() {
+        INIT_LOCK.lock();
+        try {
+            if (instance != null) {
+                return;
+            }
+            Map<Task.Status, Task.Status> transitions = parseTransitions(DatabaseConfig.getOverdueTransitions());
+            int batchSize = DatabaseConfig.getSchedulerBatchSize();
+            int daysAhead = DatabaseConfig.getReminderDaysAhead();
+            int archiveDays = DatabaseConfig.getArchiveAfterDays();
+            int retentionDays = DatabaseConfig.getCleanupDeleteCompletedAfterDays();
+            TaskService taskService = new TaskServiceImpl();
+
+            TaskScheduler scheduler = new TaskScheduler(
+                    TimeUnit.SECONDS.toMillis(Math.max(0, DatabaseConfig.getSchedulerJitterSeconds())));
+            if (!transitions.isEmpty()) {
+                scheduler.schedule(new Job("overdue-sweep", DatabaseConfig.getOverdueIntervalMinutes(),
+                        () -> moveOverdue(taskService, transitions, batchSize)));
+            }
+            if (daysAhead >= 0) {
+                scheduler.schedule(new Job("due-reminders", DatabaseConfig.getReminderIntervalMinutes(),
+                        () -> remindDue(taskService, daysAhead, batchSize)));
+            }
+            if (archiveDays > 0) {
+                scheduler.schedule(new Job("archival", DatabaseConfig.getArchiveIntervalMinutes(),
+                        () -> archiveClosed(taskService, archiveDays, batchSize)));
+            }
+            if (retentionDays > 0) {
+                scheduler.schedule(new Job("completed-cleanup", DatabaseConfig.getCleanupIntervalMinutes(),
+                        () -> deleteCompleted(taskService, retentionDays)));
+            }
+            instance = scheduler;
+            LOGGER.info(() -> "Task scheduler started with overdue transitions " + transitions
+                    + ", reminders " + (daysAhead >= 0 ? daysAhead + " days ahead" : "off")
+                    + ", archival " + (archiveDays > 0 ? "after " + archiveDays + " days" : "off")
+                    + ", cleanup " + (retentionDays > 0 ? "after " + retentionDays + " days" : "off"));
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Stops the scheduler if it was started, waiting briefly for a running job to finish.
+     */
+    public static void shutdown() {
+        INIT_LOCK.lock();
+        try {
+            if (instance == null) {
+                return;
+            }
+            instance.executor.shutdownNow();
+            try {
+                instance.executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            instance = null;
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Parses overdue transitions given as comma separated {@code FROM:TO} status pairs.
+     *
+     * @param spec the transitions, e.g. {@code PENDING:FAILED,IN_PROGRESS:FAILED}; blank for none
+     * @return the target status keyed by source status
+     * @throws IllegalArgumentException if a pair is malformed, names an unknown status,
+     *                                  moves a status to itself or repeats a source status
+     */
+    static Map<Task.Status, Task.Status> parseTransitions(String spec) {
+        Map<Task.Status, Task.Status> transitions = new EnumMap<>(Task.Status.class);
+        for (String pair : spec.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Overdue transition must be FROM:TO: " + pair.trim());
+            }
+            Task.Status from = Task.Status.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            Task.Status to = Task.Status.valueOf(parts[1].trim().toUpperCase(Locale.ROOT));
+            if (from == to || transitions.putIfAbsent(from, to) != null) {
+                throw new IllegalArgumentException("Invalid overdue transition: " + pair.trim());
+            }
+        }
+        return Collections.unmodifiableMap(transitions);
+    }
+
+    private static void moveOverdue(TaskService taskService, Map<Task.Status, Task.Status> transitions, int batchSize) {
+        transitions.forEach((from, to) -> {
+            int moved = taskService.moveOverdue(from, to, batchSize);
+            LOGGER.info(() -> "Moved " + moved + " overdue tasks from " + from + " to " + to);
+        });
+    }
+
+    private static void remindDue(TaskService taskService, int daysAhead, int batchSize) {
+        int reminded = taskService.remindDue(daysAhead, batchSize);
+        LOGGER.info(() -> "Sent " + reminded + " due date reminders");
+    }
+
+    private static void archiveClosed(TaskService taskService, int archiveDays, int batchSize) {
+        int archived = taskService.archiveClosed(archiveDays, batchSize);
+        LOGGER.info(() -> "Archived " + archived + " closed tasks due more than " + archiveDays + " days ago");
+    }
+
+    private static void deleteCompleted(TaskService taskService, int retentionDays) {
+        TaskQuery expired = TaskQuery.builder()
+                .status(Task.Status.COMPLETED)
+                .dueTo(Date.valueOf(LocalDate.now().minusDays(retentionDays + 1L)))
+                .includeArchived(true)
+                .build();
+        int deleted = taskService.deleteTasksWhere(expired);
+        LOGGER.info(() -> "Deleted " + deleted + " completed tasks due more than " + retentionDays + " days ago");
+    }
+
+    private void schedule(Job job) {
+        scheduleNext(job, 0);
+    }
+
+    /**
+     * Schedules the next run of a job after the delay plus a random jitter.
+     * Each run schedules its successor, so runs of one job never overlap.
+     */
+    private void scheduleNext(Job job, long delayMs) {
+        long jitter = jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0;
+        try {
+            executor.schedule(() -> {
+                runExclusively(job);
+                scheduleNext(job, job.intervalMs);
+            }, delayMs + jitter, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine(() -> "Not rescheduling " + job.name + "; the scheduler is shutting down");
+        }
+    }
+
+    /**
+     * Runs a job if this node wins its advisory lock and no other node ran it recently.
+     * Failures are logged so the job stays scheduled.
+     */
+    private void runExclusively(Job job) {
+        int key = job.name.hashCode();
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            if (!advisoryLock(conn, "SELECT pg_try_advisory_lock(?, ?)", key)) {
+                LOGGER.fine(() -> "Skipping " + job.name + "; another node is running it");
+                return;
+            }
+            try {
+                if (ranRecently(conn, job)) {
+                    LOGGER.fine(() -> "Skipping " + job.name + "; another node ran it recently");
+                    return;
+                }
+                long start = System.nanoTime();
+                job.body.run();
+                recordRun(conn, job);
+                LOGGER.fine(() -> "Ran " + job.name + " in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            } finally {
+                advisoryLock(conn, "SELECT pg_advisory_unlock(?, ?)", key);
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Scheduled job " + job.name + " failed", e);
+        }
+    }
+
+    private static boolean advisoryLock(Connection conn, String sql, int key) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, LOCK_NAMESPACE);
+            stmt.setInt(2, key);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static boolean ranRecently(Connection conn, Job job) throws SQLException {
+        String sql = "SELECT last_run_at > CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond' "
+                + "FROM scheduled_job_runs WHERE job = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, job.intervalMs / 2);
+            stmt.setString(2, job.name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void recordRun(Connection conn, Job job) throws SQLException {
+        String sql = "INSERT INTO scheduled_job_runs (job, last_run_at) VALUES (?, CURRENT_TIMESTAMP) "
+                + "ON CONFLICT (job) DO UPDATE SET last_run_at = EXCLUDED.last_run_at";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, job.name);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package tms.service;
 
+import tms.dao.TaskConsumer;
+import tms.dao.TaskPatch;
+import tms.dao.TaskQuery;
+import tms.exception.ConflictException;
+import tms.model.Page;
 import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.model.TaskStats;
+import tms.util.io.RecordReader;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing Task entities.
@@ -16,6 +27,28 @@ public interface TaskService {
      */
     void createTask(Task task);
 
+    /**
+     * Imports tasks in bulk from a stream of records.
+     * Every record is validated like a task created through {@link #createTask(Task)};
+     * valid tasks are stored in independently committed chunks.
+     *
+     * @param reader The record source, which is not closed.
+     * @return A report of imported and rejected rows.
+     * @throws IOException If the input cannot be read.
+     */
+    ImportReport importTasks(RecordReader reader) throws IOException;
+
+    /**
+     * Streams every task matching the criteria to a consumer without loading
+     * the result into memory.
+     *
+     * @param query The criteria and ordering to apply.
+     * @param consumer Receives each task in order.
+     * @return The number of tasks exported.
+     * @throws IOException If the consumer fails to write a task.
+     */
+    long exportTasks(TaskQuery query, TaskConsumer consumer) throws IOException;
+
     /**
      * Retrieves a task by its ID.
      * @param id The ID of the task to fetch.
@@ -23,6 +56,13 @@ public interface TaskService {
      */
     Task getTask(Long id);
 
+    /**
+     * Retrieves several tasks by their IDs.
+     * @param ids The IDs of the tasks to fetch.
+     * @return The tasks that exist, ordered by id.
+     */
+    List<Task> getTasks(Collection<Long> ids);
+
     /**
      * Retrieves all tasks in the system.
      * @return A list of all tasks.
@@ -45,12 +85,174 @@ public interface TaskService {
     List<Task> getAllTasksSortedByDueDate(boolean ascending);
 
     /**
-     * Updates an existing task.
+     * Retrieves one page of tasks ordered by creation (id), optionally filtered by status.
+     * @param status The status to filter by, or null for all tasks.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The requested page size; non-positive means the configured default,
+     *                 and values above the configured maximum are capped.
+     * @return The page of tasks.
+     */
+    Page<Task> getTaskPage(Task.Status status, String cursor, int pageSize);
+
+    /**
+     * Retrieves one page of tasks sorted by due date.
+     * @param ascending If true, sorts in ascending order (earliest first).
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The requested page size, bounded as for {@link #getTaskPage}.
+     * @return The page of tasks.
+     */
+    Page<Task> getTaskPageSortedByDueDate(boolean ascending, String cursor, int pageSize);
+
+    /**
+     * Retrieves tasks matching a combination of criteria.
+     * @param query The criteria, ordering and limit to apply.
+     * @return The matching tasks.
+     */
+    List<Task> findTasks(TaskQuery query);
+
+    /**
+     * Retrieves one page of tasks matching a combination of criteria.
+     * @param query The criteria and ordering; only seekable orderings have further pages.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The requested page size, bounded as for {@link #getTaskPage}.
+     * @return The page of tasks.
+     */
+    Page<Task> findTaskPage(TaskQuery query, String cursor, int pageSize);
+
+    /**
+     * Retrieves one page of tasks whose title or description matches the query's
+     * search text, most relevant first, restricted by any other criteria of the query.
+     * @param query The criteria, including search text.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The requested page size, bounded as for {@link #getTaskPage}.
+     * @return The page of tasks.
+     */
+    Page<Task> searchTasks(TaskQuery query, String cursor, int pageSize);
+
+    /**
+     * Gets a validator for the page {@link #findTaskPage} or, if ranked, {@link #searchTasks}
+     * would return, without loading it. Equal validators mean an unchanged page.
+     * @param query The criteria and ordering, including search text if ranked.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param pageSize The requested page size, bounded as for {@link #getTaskPage}.
+     * @param ranked True for a search page, false for a plain listing.
+     * @return An opaque validator of the page.
+     */
+    String getTaskPageVersion(TaskQuery query, String cursor, int pageSize, boolean ranked);
+
+    /**
+     * Counts tasks per status, priority and most used tags with a single aggregate query.
+     * @param query The criteria to count under, or null to count every task.
+     * @return The counts.
+     */
+    TaskCounts getTaskCounts(TaskQuery query);
+
+    /**
+     * Retrieves dashboard statistics over all tasks: counts by status and priority,
+     * overdue counts and the most used tags. The cost does not grow with the number of tasks.
+     * @return The statistics.
+     */
+    TaskStats getTaskStats();
+
+    /**
+     * Suggests existing tags for type-ahead, from memory without a database round trip.
+     * @param prefix The typed prefix, matched ignoring case; blank for the most used tags overall.
+     * @param limit The maximum number of suggestions, bounded to 50.
+     * @return Task counts keyed by tag name, most used first.
+     */
+    Map<String, Long> suggestTags(String prefix, int limit);
+
+    /**
+     * Splits tasks into one list per status, keeping their order, in a single pass.
+     * @param tasks The tasks to split.
+     * @return Lists keyed by status name; every status is present, possibly with an empty list.
+     */
+    Map<String, List<Task>> groupByStatus(List<Task> tasks);
+
+    /**
+     * Updates an existing task. If the task carries a version, the update is
+     * rejected when the stored task has moved on since that version was read.
      * @param task The task with updated fields.
-     * @return The updated task.
+     * @return The updated task, carrying its new version.
+     * @throws ConflictException If the task was changed or deleted in the meantime.
      */
     Task updateTask(Task task);
 
+    /**
+     * Changes only the fields set on a patch, without reading the task first.
+     * @param patch The changes, optionally conditional on a version.
+     * @return The task as stored after the change.
+     * @throws ConflictException If the task was changed since the patch's version or deleted.
+     */
+    Task patchTask(TaskPatch patch);
+
+    /**
+     * Changes only the status of a task.
+     * @param id The ID of the task.
+     * @param status The new status.
+     * @return The task as stored after the change.
+     * @throws ConflictException If the task does not exist.
+     */
+    Task updateStatus(Long id, Task.Status status);
+
+    /**
+     * Sets the status of many tasks at once.
+     * @param ids The IDs of the tasks.
+     * @param status The new status.
+     * @return The number of tasks whose status changed.
+     */
+    int updateStatus(Collection<Long> ids, Task.Status status);
+
+    /**
+     * Sets the status of every task matching the query's criteria at once.
+     * @param query The criteria; at least one must be set.
+     * @param status The new status.
+     * @return The number of tasks whose status changed.
+     */
+    int updateStatusWhere(TaskQuery query, Task.Status status);
+
+    /**
+     * Deletes many tasks at once.
+     * @param ids The IDs of the tasks.
+     * @return The number of deleted tasks.
+     */
+    int deleteTasks(Collection<Long> ids);
+
+    /**
+     * Deletes every task matching the query's criteria at once.
+     * @param query The criteria; at least one must be set.
+     * @return The number of deleted tasks.
+     */
+    int deleteTasksWhere(TaskQuery query);
+
+    /**
+     * Moves every task whose due date has passed from one status to another, in
+     * batches so no single statement changes or locks many rows.
+     * @param from The status overdue tasks are moved from.
+     * @param to The status they are moved to.
+     * @param batchSize The maximum number of tasks changed per statement.
+     * @return The number of tasks moved.
+     */
+    int moveOverdue(Task.Status from, Task.Status to, int batchSize);
+
+    /**
+     * Sends a reminder for every pending or in-progress task due within the next days,
+     * once per task and due date. Reminders are announced to every node as they are recorded.
+     * @param daysAhead How many days after today to look ahead; 0 reminds of tasks due today.
+     * @param batchSize The maximum number of tasks visited per statement.
+     * @return The number of reminders sent.
+     */
+    int remindDue(int daysAhead, int batchSize);
+
+    /**
+     * Moves completed and failed tasks due more than the given days ago into the archive partition.
+     * Archived tasks are still found by id and by queries that include archived tasks.
+     * @param afterDays How many days after their due date closed tasks are archived.
+     * @param batchSize The maximum number of tasks moved per statement.
+     * @return The number of tasks archived.
+     */
+    int archiveClosed(int afterDays, int batchSize);
+
     /**
      * Deletes a task by its ID.
      * @param id The ID of the task to delete.
@@ -1,12 +1,33 @@
 package tms.service;
 
+import tms.config.DatabaseConfig;
+import tms.dao.PageCursor;
+import tms.dao.SweepBatch;
+import tms.dao.TagIndex;
+import tms.dao.TaskConsumer;
 import tms.dao.TaskDAO;
-import tms.dao.TaskDAOImpl;
+import tms.dao.TaskDAOFactory;
+import tms.dao.TaskPatch;
+import tms.dao.TaskQuery;
+import tms.dao.TaskStatsDAO;
+import tms.dao.TaskStatsDAOImpl;
+import tms.exception.ConflictException;
 import tms.exception.ValidationException;
+import tms.model.Page;
 import tms.model.Task;
+import tms.model.TaskCounts;
+import tms.model.TaskStats;
+import tms.util.io.RecordReader;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of the {@link TaskService} interface.
@@ -14,13 +35,25 @@ import java.util.List;
  * delegating data persistence to the {@link TaskDAO}.
  */
 public class TaskServiceImpl implements TaskService {
+    /** Priorities accepted by the tasks table's CHECK constraint. */
+    private static final Set<String> PRIORITIES = Set.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+    private static final int MAX_TITLE_LENGTH = 100;
+    private static final int MAX_TAG_LENGTH = 50;
+    private static final int TAG_COUNT_LIMIT = 20;
+    private static final int MAX_TAG_SUGGESTIONS = 50;
+    private static final Set<Task.Status> OPEN_STATUSES = Set.of(Task.Status.PENDING, Task.Status.IN_PROGRESS);
+    private static final Set<Task.Status> CLOSED_STATUSES = Set.of(Task.Status.COMPLETED, Task.Status.FAILED);
+
     private final TaskDAO taskDAO;
+    private final TaskStatsDAO taskStatsDAO;
+    private final TagIndex tagIndex;
 
     /**
-     * Constructs a new TaskServiceImpl with default DAO implementation.
+     * Constructs a new TaskServiceImpl backed by the shared DAO and tag index from
+     * {@link TaskDAOFactory}; the DAO is cached when {@code db.cache.enabled} is set.
      */
     public TaskServiceImpl() {
-        this.taskDAO = new TaskDAOImpl();
+        this(TaskDAOFactory.getTaskDAO(), new TaskStatsDAOImpl(), TaskDAOFactory.getTagIndex());
     }
 
     /**
@@ -30,7 +63,20 @@ public class TaskServiceImpl implements TaskService {
      * @param taskDAO the TaskDAO implementation to use
      */
     public TaskServiceImpl(TaskDAO taskDAO) {
+        this(taskDAO, new TaskStatsDAOImpl(), new TagIndex());
+    }
+
+    /**
+     * Constructs a new TaskServiceImpl with specified DAO implementations.
+     *
+     * @param taskDAO the TaskDAO implementation to use
+     * @param taskStatsDAO the TaskStatsDAO implementation to use
+     * @param tagIndex the index to suggest tags from
+     */
+    public TaskServiceImpl(TaskDAO taskDAO, TaskStatsDAO taskStatsDAO, TagIndex tagIndex) {
         this.taskDAO = taskDAO;
+        this.taskStatsDAO = taskStatsDAO;
+        this.tagIndex = tagIndex;
     }
 
     /**
@@ -45,6 +91,31 @@ public class TaskServiceImpl implements TaskService {
         taskDAO.save(task);
     }
 
+    /**
+     * Imports tasks in bulk, validating each record with {@link #validateTask(Task)}.
+     *
+     * @param reader the record source
+     * @return the import report
+     * @throws IOException if the input cannot be read
+     */
+    @Override
+    public ImportReport importTasks(RecordReader reader) throws IOException {
+        return new TaskImporter(taskDAO, this).importFrom(reader);
+    }
+
+    /**
+     * Streams matching tasks using the configured export fetch size.
+     *
+     * @param query the criteria to apply
+     * @param consumer receives each task
+     * @return the number of tasks exported
+     * @throws IOException if the consumer fails
+     */
+    @Override
+    public long exportTasks(TaskQuery query, TaskConsumer consumer) throws IOException {
+        return taskDAO.streamByQuery(query, DatabaseConfig.getExportFetchSize(), consumer);
+    }
+
     /**
      * Retrieves a task by its ID.
      *
@@ -56,6 +127,17 @@ public class TaskServiceImpl implements TaskService {
         return taskDAO.findById(id);
     }
 
+    /**
+     * Retrieves several tasks by their IDs.
+     *
+     * @param ids the IDs of the tasks to retrieve
+     * @return the tasks found, ordered by id
+     */
+    @Override
+    public List<Task> getTasks(Collection<Long> ids) {
+        return taskDAO.findByIds(ids);
+    }
+
     /**
      * Retrieves all tasks in the system.
      *
@@ -88,12 +170,180 @@ public class TaskServiceImpl implements TaskService {
         return taskDAO.findAllSortedByDueDate(ascending);
     }
 
+    /**
+     * Retrieves one page of tasks, optionally filtered by status.
+     *
+     * @param status the status to filter by, or null for all tasks
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the requested page size
+     * @return the page of tasks
+     * @throws ValidationException if the cursor is malformed
+     */
+    @Override
+    public Page<Task> getTaskPage(Task.Status status, String cursor, int pageSize) {
+        try {
+            return taskDAO.findPage(status, blankToNull(cursor), boundPageSize(pageSize));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Retrieves one page of tasks sorted by due date.
+     *
+     * @param ascending true for ascending order, false for descending
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the requested page size
+     * @return the page of tasks
+     * @throws ValidationException if the cursor is malformed
+     */
+    @Override
+    public Page<Task> getTaskPageSortedByDueDate(boolean ascending, String cursor, int pageSize) {
+        try {
+            return taskDAO.findPageSortedByDueDate(ascending, blankToNull(cursor), boundPageSize(pageSize));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+
+    /**
+     * Retrieves tasks matching a combination of criteria.
+     *
+     * @param query the criteria to apply
+     * @return the matching tasks
+     */
+    @Override
+    public List<Task> findTasks(TaskQuery query) {
+        return taskDAO.findByQuery(query);
+    }
+
+    /**
+     * Retrieves one page of tasks matching a combination of criteria.
+     *
+     * @param query the criteria to apply
+     * @param cursor the cursor of the previous page, or null for the first page
+     * @param pageSize the requested page size
+     * @return the page of tasks
+     * @throws ValidationException if the cursor is malformed or the ordering cannot be paginated
+     */
+    @Override
+    public Page<Task> findTaskPage(TaskQuery query, String cursor, int pageSize) {
+        try {
+            return taskDAO.findPageByQuery(query, blankToNull(cursor), boundPageSize(pageSize));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Searches task titles and descriptions, most relevant first.
+     *
+     * @param query the criteria, including search text
+     * @param cursor the cursor of the previous page, or null/blank for the first page
+     * @param pageSize the requested page size, bounded to the configured maximum
+     * @return the page of tasks
+     * @throws ValidationException if the query has no search text or the cursor is malformed
+     */
+    @Override
+    public Page<Task> searchTasks(TaskQuery query, String cursor, int pageSize) {
+        if (query.getSearchText() == null) {
+            throw new ValidationException("Search text is required");
+        }
+        try {
+            return taskDAO.search(query, blankToNull(cursor), boundPageSize(pageSize));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fingerprints a page through a key-only query over the same criteria.
+     *
+     * @param query the criteria, including search text if ranked
+     * @param cursor the cursor of the previous page, or null/blank for the first page
+     * @param pageSize the requested page size, bounded to the configured maximum
+     * @param ranked true for a search page, false for a plain listing
+     * @return the validator
+     * @throws ValidationException if a ranked query has no search text, or the cursor is malformed
+     *                             or does not fit the ordering
+     */
+    @Override
+    public String getTaskPageVersion(TaskQuery query, String cursor, int pageSize, boolean ranked) {
+        if (ranked && query.getSearchText() == null) {
+            throw new ValidationException("Search text is required");
+        }
+        try {
+            return taskDAO.fingerprintPage(query, blankToNull(cursor), boundPageSize(pageSize), ranked);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Counts tasks per status, priority and the most used tags.
+     * Counts over all active tasks are read from the summary tables; filtered
+     * counts, and counts that include archived tasks, aggregate the matching tasks.
+     *
+     * @param query the criteria to count under, or null for all tasks
+     * @return the counts
+     */
+    @Override
+    public TaskCounts getTaskCounts(TaskQuery query) {
+        if (query == null || query.isUnfiltered()) {
+            return taskStatsDAO.getStats(TAG_COUNT_LIMIT).toCounts();
+        }
+        return taskDAO.countByQuery(query, TAG_COUNT_LIMIT);
+    }
+
+    /**
+     * Reads dashboard statistics from the summary tables.
+     *
+     * @return the statistics
+     */
+    @Override
+    public TaskStats getTaskStats() {
+        return taskStatsDAO.getStats(TAG_COUNT_LIMIT);
+    }
+
+    /**
+     * Suggests the most used tags starting with a prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit the requested number of suggestions
+     * @return task counts keyed by tag name, most used first
+     */
+    @Override
+    public Map<String, Long> suggestTags(String prefix, int limit) {
+        return tagIndex.suggest(prefix, Math.min(limit, MAX_TAG_SUGGESTIONS));
+    }
+
+    /**
+     * Splits tasks into per-status lists in one pass.
+     *
+     * @param tasks the tasks to split
+     * @return lists keyed by status name, in {@link Task.Status} order
+     */
+    @Override
+    public Map<String, List<Task>> groupByStatus(List<Task> tasks) {
+        Map<String, List<Task>> groups = new LinkedHashMap<>();
+        for (Task.Status status : Task.Status.values()) {
+            groups.put(status.name(), new ArrayList<>());
+        }
+        for (Task task : tasks) {
+            if (task.getStatus() != null) {
+                groups.get(task.getStatus().name()).add(task);
+            }
+        }
+        return groups;
+    }
+
     /**
      * Updates an existing task after validating its fields.
      *
      * @param task the task with updated information
      * @return the updated task
      * @throws ValidationException if task validation fails or ID is null
+     * @throws ConflictException if the task was changed or deleted since its version was read
      */
     @Override
     public Task updateTask(Task task) {
@@ -101,10 +351,215 @@ public class TaskServiceImpl implements TaskService {
         if (task.getId() == null) {
             throw new ValidationException("Task ID can't be null for update");
         }
-        taskDAO.update(task);
+        if (!taskDAO.update(task)) {
+            // Only a failed update pays for the read that tells a conflict from a deletion
+            Task current = taskDAO.findById(task.getId());
+            throw new ConflictException(current == null
+                    ? "Task " + task.getId() + " has been deleted"
+                    : "Task " + task.getId() + " was changed by someone else", current);
+        }
         return task;
     }
 
+    /**
+     * Applies a patch after validating the fields it sets. Fields the patch
+     * leaves out are neither validated nor written.
+     *
+     * @param patch the changes
+     * @return the task as stored after the change
+     * @throws ValidationException if a set field is invalid, the ID is null or nothing is set
+     * @throws ConflictException if the task was changed since the patch's version or deleted
+     */
+    @Override
+    public Task patchTask(TaskPatch patch) {
+        validatePatch(patch);
+        Task task = taskDAO.patch(patch);
+        if (task == null) {
+            // Only a failed patch pays for the read that tells a conflict from a deletion
+            Task current = taskDAO.findById(patch.getId());
+            throw new ConflictException(current == null
+                    ? "Task " + patch.getId() + " has been deleted"
+                    : "Task " + patch.getId() + " was changed by someone else", current);
+        }
+        return task;
+    }
+
+    /**
+     * Changes only the status of a task, unconditionally.
+     *
+     * @param id the ID of the task
+     * @param status the new status
+     * @return the task as stored after the change
+     * @throws ValidationException if the ID or status is null
+     * @throws ConflictException if the task does not exist
+     */
+    @Override
+    public Task updateStatus(Long id, Task.Status status) {
+        if (status == null) {
+            throw new ValidationException("Task status is required");
+        }
+        return patchTask(TaskPatch.builder(id).status(status).build());
+    }
+
+    /**
+     * Sets the status of many tasks with one statement.
+     *
+     * @param ids the IDs of the tasks
+     * @param status the new status
+     * @return the number of tasks whose status changed
+     * @throws ValidationException if the status is null
+     */
+    @Override
+    public int updateStatus(Collection<Long> ids, Task.Status status) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return updateStatusWhere(TaskQuery.builder().ids(ids).build(), status);
+    }
+
+    /**
+     * Sets the status of every matching task with one statement.
+     *
+     * @param query the criteria
+     * @param status the new status
+     * @return the number of tasks whose status changed
+     * @throws ValidationException if the status is null or the query has no criteria
+     */
+    @Override
+    public int updateStatusWhere(TaskQuery query, Task.Status status) {
+        if (status == null) {
+            throw new ValidationException("Task status is required");
+        }
+        requireCriteria(query);
+        return taskDAO.updateStatusByQuery(query, status);
+    }
+
+    /**
+     * Deletes many tasks with one statement.
+     *
+     * @param ids the IDs of the tasks
+     * @return the number of deleted tasks
+     */
+    @Override
+    public int deleteTasks(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return deleteTasksWhere(TaskQuery.builder().ids(ids).build());
+    }
+
+    /**
+     * Deletes every matching task with one statement.
+     *
+     * @param query the criteria
+     * @return the number of deleted tasks
+     * @throws ValidationException if the query has no criteria
+     */
+    @Override
+    public int deleteTasksWhere(TaskQuery query) {
+        requireCriteria(query);
+        return taskDAO.deleteByQuery(query);
+    }
+
+    /**
+     * Moves overdue tasks batch by batch, each batch continuing along the due
+     * date index where the previous one ended.
+     *
+     * @param from the status overdue tasks are moved from
+     * @param to the status they are moved to
+     * @param batchSize the maximum number of tasks changed per statement
+     * @return the number of tasks moved
+     * @throws ValidationException if a status is missing, both are the same or the batch size is not positive
+     */
+    @Override
+    public int moveOverdue(Task.Status from, Task.Status to, int batchSize) {
+        if (from == null || to == null || from == to) {
+            throw new ValidationException("Overdue tasks need two different statuses to move between");
+        }
+        requireBatchSize(batchSize);
+        java.sql.Date today = java.sql.Date.valueOf(LocalDate.now());
+        int moved = 0;
+        PageCursor after = null;
+        do {
+            SweepBatch batch = taskDAO.moveOverdue(from, to, today, after, batchSize);
+            moved += batch.getTaskIds().size();
+            after = batch.getNext();
+        } while (after != null);
+        return moved;
+    }
+
+    /**
+     * Records reminders batch by batch for open tasks due between today and
+     * {@code daysAhead} days from now.
+     *
+     * @param daysAhead how many days after today to look ahead
+     * @param batchSize the maximum number of tasks visited per statement
+     * @return the number of reminders sent
+     * @throws ValidationException if daysAhead is negative or the batch size is not positive
+     */
+    @Override
+    public int remindDue(int daysAhead, int batchSize) {
+        if (daysAhead < 0) {
+            throw new ValidationException("Reminder look-ahead cannot be negative");
+        }
+        requireBatchSize(batchSize);
+        LocalDate today = LocalDate.now();
+        java.sql.Date from = java.sql.Date.valueOf(today);
+        java.sql.Date to = java.sql.Date.valueOf(today.plusDays(daysAhead));
+        int reminded = 0;
+        PageCursor after = null;
+        do {
+            SweepBatch batch = taskDAO.remindDue(OPEN_STATUSES, from, to, after, batchSize);
+            reminded += batch.getTaskIds().size();
+            after = batch.getNext();
+        } while (after != null);
+        return reminded;
+    }
+
+    /**
+     * Archives closed tasks batch by batch, oldest due date first.
+     *
+     * @param afterDays how many days after their due date closed tasks are archived
+     * @param batchSize the maximum number of tasks moved per statement
+     * @return the number of tasks archived
+     * @throws ValidationException if afterDays is negative or the batch size is not positive
+     */
+    @Override
+    public int archiveClosed(int afterDays, int batchSize) {
+        if (afterDays < 0) {
+            throw new ValidationException("Archive age cannot be negative");
+        }
+        requireBatchSize(batchSize);
+        java.sql.Date before = java.sql.Date.valueOf(LocalDate.now().minusDays(afterDays));
+        int archived = 0;
+        PageCursor after = null;
+        do {
+            SweepBatch batch = taskDAO.archive(CLOSED_STATUSES, before, after, batchSize);
+            archived += batch.getTaskIds().size();
+            after = batch.getNext();
+        } while (after != null);
+        return archived;
+    }
+
+    private static void requireBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new ValidationException("Batch size must be positive");
+        }
+    }
+
+    /**
+     * Guards bulk changes against a query that would match every task,
+     * which is almost certainly a missing parameter rather than intent.
+     *
+     * @param query the criteria
+     * @throws ValidationException if the query has no criteria
+     */
+    private static void requireCriteria(TaskQuery query) {
+        if (!query.hasCriteria()) {
+            throw new ValidationException("Bulk changes need at least one criterion");
+        }
+    }
+
     /**
      * Deletes a task by its ID.
      *
@@ -115,6 +570,29 @@ public class TaskServiceImpl implements TaskService {
         taskDAO.delete(id);
     }
 
+    /**
+     * Clamps a requested page size to the configured bounds.
+     *
+     * @param pageSize the requested size; non-positive selects the default
+     * @return the effective page size
+     */
+    private int boundPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            return DatabaseConfig.getPageDefaultSize();
+        }
+        return Math.min(pageSize, DatabaseConfig.getPageMaxSize());
+    }
+
+    /**
+     * Normalises an absent cursor parameter.
+     *
+     * @param cursor the raw cursor
+     * @return the cursor, or null if it was null or blank
+     */
+    private static String blankToNull(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : cursor;
+    }
+
     /**
      * Validates a task's fields according to business rules.
      *
@@ -122,28 +600,88 @@ public class TaskServiceImpl implements TaskService {
      * @throws ValidationException if any validation rule is violated
      */
     public void validateTask(Task task) {
-        if (task.getTitle() == null || task.getTitle().trim().isEmpty()) {
-            throw new ValidationException("Task title is required");
-        }
-
-        if (task.getDescription() == null || task.getDescription().trim().isEmpty()) {
-            throw new ValidationException("Task description is required");
-        }
+        validateTitle(task.getTitle());
+        validateDescription(task.getDescription());
 
         if (task.getPriority() == null || task.getPriority().trim().isEmpty()) {
             throw new ValidationException("Task priority is required");
         }
+        validatePriority(task.getPriority());
 
         if (task.getDueDate() == null) {
             throw new ValidationException("Due date is required");
         }
+        validateDueDate(task.getDueDate());
+
+        if (task.getStatus() == null) {
+            task.setStatus(Task.Status.PENDING);
+        }
+
+        validateTags(task.getTags());
+    }
+
+    /**
+     * Validates the fields a patch sets, by the same rules as {@link #validateTask(Task)}.
+     *
+     * @param patch the patch to validate
+     * @throws ValidationException if any validation rule is violated
+     */
+    private static void validatePatch(TaskPatch patch) {
+        if (patch.getId() == null) {
+            throw new ValidationException("Task ID can't be null for update");
+        }
+        if (patch.isEmpty()) {
+            throw new ValidationException("No fields to update");
+        }
+        if (patch.getTitle() != null) {
+            validateTitle(patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            validateDescription(patch.getDescription());
+        }
+        if (patch.getPriority() != null) {
+            validatePriority(patch.getPriority());
+        }
+        if (patch.getDueDate() != null) {
+            validateDueDate(patch.getDueDate());
+        }
+        validateTags(patch.getTags());
+    }
 
-        if (task.getDueDate().before(new Date())) {
+    private static void validateTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new ValidationException("Task title is required");
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new ValidationException("Task title cannot exceed " + MAX_TITLE_LENGTH + " characters");
+        }
+    }
+
+    private static void validateDescription(String description) {
+        if (description == null || description.trim().isEmpty()) {
+            throw new ValidationException("Task description is required");
+        }
+    }
+
+    private static void validatePriority(String priority) {
+        if (!PRIORITIES.contains(priority)) {
+            throw new ValidationException("Task priority must be one of " + PRIORITIES);
+        }
+    }
+
+    private static void validateDueDate(Date dueDate) {
+        if (dueDate.before(new Date())) {
             throw new ValidationException("Due date cannot be in the past");
         }
+    }
 
-        if (task.getStatus() == null) {
-            task.setStatus(Task.Status.PENDING);
+    private static void validateTags(List<String> tags) {
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && tag.trim().length() > MAX_TAG_LENGTH) {
+                    throw new ValidationException("Tag names cannot exceed " + MAX_TAG_LENGTH + " characters");
+                }
+            }
         }
     }
 }
\ No newline at end of file
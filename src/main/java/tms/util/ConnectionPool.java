@@ -0,0 +1,644 @@
+package tms.util;
+
+import tms.util.metrics.LatencyHistogram;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool.
+ * <p>
+ * Connections are handed out as proxies whose {@code close()} returns the
+ * physical connection to the pool, so callers keep using try-with-resources
+ * exactly as they would with an unpooled connection. The pool provides:
+ * <ul>
+ *   <li>a minimum and maximum size, with physical connections opened outside the pool lock</li>
+ *   <li>an acquire timeout for callers waiting on an exhausted pool</li>
+ *   <li>validation on borrow for connections idle longer than the validation interval</li>
+ *   <li>idle eviction of connections above the minimum size</li>
+ *   <li>leak detection for connections borrowed longer than a threshold</li>
+ *   <li>live counters and an acquire-latency histogram for sizing</li>
+ * </ul>
+ * Connection state (auto-commit, read-only, isolation) is reset when a
+ * connection is returned, so one borrower's transaction settings never leak
+ * into the next. Locking uses {@link ReentrantLock} rather than monitors so
+ * waiting callers never pin a carrier thread.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final long leakThresholdNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowed = new HashSet<>();
+    private final ScheduledExecutorService housekeeper;
+
+    private int totalConnections;
+    private int waiters;
+    private boolean closed;
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * Creates a pool and opens the minimum number of connections.
+     *
+     * @param url the JDBC connection URL
+     * @param username the database username
+     * @param password the database password
+     * @param minSize connections kept open while idle
+     * @param maxSize upper bound on open connections
+     * @param acquireTimeoutMs how long a caller waits for a free connection
+     * @param idleTimeoutMs idle time after which surplus connections are closed
+     * @param validationIntervalMs idle time after which a connection is validated on borrow
+     * @param validationTimeoutSeconds timeout for a single validation check
+     * @param leakThresholdMs borrow duration reported as a possible leak, 0 to disable
+     * @param housekeepingIntervalMs period of the eviction and leak detection sweep
+     * @throws SQLException if the initial connections cannot be opened
+     * @throws IllegalArgumentException if the sizes are inconsistent
+     */
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize,
+                          long acquireTimeoutMs, long idleTimeoutMs,
+                          long validationIntervalMs, int validationTimeoutSeconds,
+                          long leakThresholdMs, long housekeepingIntervalMs) throws SQLException {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(validationIntervalMs);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMs);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tms-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            fillToMinimum();
+        } catch (SQLException ex) {
+            close();
+            throw ex;
+        }
+
+        long period = Math.max(1_000L, housekeepingIntervalMs);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+        LOGGER.info(() -> "Connection pool started (min=" + minSize + ", max=" + maxSize + ")");
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout if the pool is exhausted.
+     * The returned connection must be closed to hand it back to the pool.
+     *
+     * @return a validated connection
+     * @throws SQLTimeoutException if no connection became available in time
+     * @throws SQLException if the pool is closed or a new connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeoutNanos;
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+                    pooled = idle.pollFirst();
+                    if (pooled != null) {
+                        break;
+                    }
+                    if (totalConnections < maxSize) {
+                        totalConnections++;
+                        create = true;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTimeoutException("Timed out after "
+                                + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)
+                                + " ms waiting for a database connection (active=" + borrowed.size()
+                                + ", max=" + maxSize + ", waiters=" + waiters + ")");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", ex);
+                    } finally {
+                        waiters--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    pooled = openConnection();
+                } catch (SQLException ex) {
+                    releaseSlot();
+                    throw ex;
+                }
+            } else if (!isUsable(pooled)) {
+                destroy(pooled);
+                continue;
+            }
+
+            lock.lock();
+            try {
+                if (closed) {
+                    totalConnections--;
+                    closeQuietly(pooled.physical);
+                    throw new SQLException("Connection pool is closed");
+                }
+                pooled.markBorrowed(leakThresholdNanos > 0);
+                borrowed.add(pooled);
+            } finally {
+                lock.unlock();
+            }
+
+            acquireLatency.record(System.nanoTime() - start);
+            return pooled.newProxy();
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     * @return the active connection count
+     */
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return borrowed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     * @return the idle connection count
+     */
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of open connections, borrowed or idle.
+     * @return the total connection count
+     */
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of callers currently blocked waiting for a connection.
+     * @return the waiter count
+     */
+    public int getWaiterCount() {
+        lock.lock();
+        try {
+            return waiters;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the configured maximum pool size.
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the configured minimum pool size.
+     * @return the minimum size
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Gets the live histogram of time spent acquiring a connection, including waits.
+     * @return the acquire-latency histogram
+     */
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * Gets the number of physical connections opened since the pool started.
+     * @return the created connection count
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Gets the number of physical connections closed since the pool started.
+     * @return the destroyed connection count
+     */
+    public long getDestroyedCount() {
+        return destroyedCount.get();
+    }
+
+    /**
+     * Gets the number of acquire attempts that timed out.
+     * @return the timeout count
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Gets the number of borrows reported as possible leaks.
+     * @return the leak count
+     */
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    /**
+     * Closes the pool. Idle connections are closed immediately; borrowed
+     * connections are closed when their borrowers return them.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            totalConnections -= toClose.size();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            closeQuietly(pooled.physical);
+            destroyedCount.incrementAndGet();
+        }
+        LOGGER.info("Connection pool closed");
+    }
+
+    /**
+     * Opens a new physical connection wrapped for pooling.
+     *
+     * @return the pooled wrapper
+     * @throws SQLException if the connection cannot be opened
+     */
+    private PooledConnection openConnection() throws SQLException {
+        LOGGER.fine("Opening new pooled database connection");
+        Connection physical = DriverManager.getConnection(url, username, password);
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Checks whether an idle connection can be handed out.
+     * Connections used within the validation interval skip the round-trip.
+     *
+     * @param pooled the candidate connection
+     * @return true if the connection is usable
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.lastReturnedAt < validationIntervalNanos) {
+            return true;
+        }
+        try {
+            boolean valid = pooled.physical.isValid(validationTimeoutSeconds);
+            if (!valid) {
+                LOGGER.warning("Discarding pooled connection that failed validation");
+            }
+            return valid;
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Discarding pooled connection after validation error", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool after resetting its state.
+     *
+     * @param pooled the connection being returned
+     */
+    private void release(PooledConnection pooled) {
+        boolean healthy = reset(pooled);
+
+        lock.lock();
+        try {
+            borrowed.remove(pooled);
+            if (healthy && !closed) {
+                pooled.lastReturnedAt = System.nanoTime();
+                idle.addFirst(pooled);
+                available.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        destroy(pooled);
+    }
+
+    /**
+     * Restores a connection to its pristine state, rolling back any open transaction.
+     *
+     * @param pooled the connection to reset
+     * @return false if the connection is broken and must be discarded
+     */
+    private boolean reset(PooledConnection pooled) {
+        Connection physical = pooled.physical;
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                LOGGER.fine("Rolling back uncommitted work on returned connection");
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly() != pooled.initialReadOnly) {
+                physical.setReadOnly(pooled.initialReadOnly);
+            }
+            if (physical.getTransactionIsolation() != pooled.initialIsolation) {
+                physical.setTransactionIsolation(pooled.initialIsolation);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Failed to reset returned connection; discarding it", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Closes a physical connection and frees its slot.
+     *
+     * @param pooled the connection to destroy
+     */
+    private void destroy(PooledConnection pooled) {
+        closeQuietly(pooled.physical);
+        destroyedCount.incrementAndGet();
+        releaseSlot();
+    }
+
+    /**
+     * Frees a connection slot and wakes one waiter so it can open a replacement.
+     */
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens connections until the pool holds at least its minimum size.
+     *
+     * @throws SQLException if a connection cannot be opened
+     */
+    private void fillToMinimum() throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            PooledConnection pooled;
+            try {
+                pooled = openConnection();
+            } catch (SQLException ex) {
+                releaseSlot();
+                throw ex;
+            }
+
+            lock.lock();
+            try {
+                pooled.lastReturnedAt = System.nanoTime();
+                idle.addLast(pooled);
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Periodic sweep: evicts surplus idle connections, reports possible leaks
+     * and tops the pool back up to its minimum size.
+     */
+    private void housekeep() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        List<PooledConnection> leaked = new ArrayList<>();
+        long now = System.nanoTime();
+
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalConnections - evicted.size() > minSize) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt > idleTimeoutNanos) {
+                    it.remove();
+                    evicted.add(pooled);
+                }
+            }
+            if (leakThresholdNanos > 0) {
+                for (PooledConnection pooled : borrowed) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdNanos) {
+                        pooled.leakReported = true;
+                        leaked.add(pooled);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            LOGGER.fine("Evicting idle pooled connection");
+            destroy(pooled);
+        }
+        for (PooledConnection pooled : leaked) {
+            leakCount.incrementAndGet();
+            long heldMs = TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt);
+            LOGGER.log(Level.WARNING, "Possible connection leak: connection held for " + heldMs
+                    + " ms by thread " + pooled.borrowerThread, pooled.borrowSite);
+        }
+
+        try {
+            fillToMinimum();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Failed to replenish connection pool to its minimum size", ex);
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.SEVERE, "Unexpected error during pool housekeeping", ex);
+        }
+    }
+
+    /**
+     * Closes a connection, logging instead of propagating failures.
+     *
+     * @param connection the connection to close
+     */
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.FINE, "Error closing physical connection", ex);
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping the pool keeps about it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final boolean initialReadOnly;
+        private final int initialIsolation;
+        private long lastReturnedAt;
+        private long borrowedAt;
+        private String borrowerThread;
+        private Throwable borrowSite;
+        private boolean leakReported;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.initialReadOnly = physical.isReadOnly();
+            this.initialIsolation = physical.getTransactionIsolation();
+        }
+
+        void markBorrowed(boolean captureSite) {
+            borrowedAt = System.nanoTime();
+            borrowerThread = Thread.currentThread().getName();
+            borrowSite = captureSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Per-borrow proxy handler. Closing it returns the connection to the pool
+     * exactly once; any later use fails as it would on a closed connection.
+     */
+    private final class Handle implements InvocationHandler {
+        private volatile PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        release(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    if (pooled == null) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,100 +1,153 @@
 package tms.util;
 
 import tms.config.DatabaseConfig;
+import tms.util.metrics.MetricsRegistry;
+import tms.util.metrics.Timer;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 
 /**
- * Singleton class for managing database connections.
- * Provides thread-safe access to a single database connection instance
- * with lazy initialisation and automatic reconnection when closed.
+ * Singleton entry point for obtaining database connections.
+ * Backs every caller with a shared {@link ConnectionPool} configured from
+ * {@link DatabaseConfig}, so concurrent requests each work on their own
+ * connection. Connections returned by {@link #getConnection()} must be closed
+ * by the caller, which hands them back to the pool. With metrics enabled,
+ * the pool's acquire latency and occupancy are published through
+ * {@link MetricsRegistry}.
  */
 public class DatabaseConnection {
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
 
-    private static DatabaseConnection instance;
-    private final Connection connection;
+    private static volatile DatabaseConnection instance;
+    private final ConnectionPool pool;
 
     /**
      * Private constructor to enforce singleton pattern.
-     * Initialises database connection using configuration from DatabaseConfig.
+     * Loads the JDBC driver and starts the connection pool using configuration from DatabaseConfig.
      *
-     * @throws SQLException if database connection fails or driver not found
+     * @throws SQLException if the pool cannot be started or driver not found
      */
     private DatabaseConnection() throws SQLException {
         try {
-            LOGGER.fine("Initializing new database connection");
+            LOGGER.fine("Initializing database connection pool");
 
             Class.forName(DatabaseConfig.getDbDriver());
-            this.connection = DriverManager.getConnection(
+            this.pool = new ConnectionPool(
                     DatabaseConfig.getDbUrl(),
                     DatabaseConfig.getDbUsername(),
-                    DatabaseConfig.getDbPassword()
+                    DatabaseConfig.getDbPassword(),
+                    DatabaseConfig.getPoolMinSize(),
+                    DatabaseConfig.getPoolMaxSize(),
+                    DatabaseConfig.getPoolAcquireTimeoutMs(),
+                    DatabaseConfig.getPoolIdleTimeoutMs(),
+                    DatabaseConfig.getPoolValidationIntervalMs(),
+                    DatabaseConfig.getPoolValidationTimeoutSeconds(),
+                    DatabaseConfig.getPoolLeakDetectionThresholdMs(),
+                    DatabaseConfig.getPoolHousekeepingIntervalMs()
             );
+            if (DatabaseConfig.isMetricsEnabled()) {
+                registerMetrics(pool);
+            }
         } catch (ClassNotFoundException ex) {
             LOGGER.log(Level.SEVERE, "Database driver not found: " + DatabaseConfig.getDbDriver(), ex);
             throw new SQLException("Database driver not found", ex);
         } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to establish database connection", ex);
+            LOGGER.log(Level.SEVERE, "Failed to start database connection pool", ex);
             throw new SQLException("Failed to establish database connection", ex);
         }
     }
 
+    /**
+     * Publishes the pool's acquire latency, which is where requests queue when
+     * the pool is exhausted, together with its occupancy and lifetime counters.
+     * A restarted pool replaces the metrics of the previous one.
+     *
+     * @param pool the pool to publish
+     */
+    private static void registerMetrics(ConnectionPool pool) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.register("tms_db_pool_acquire", "Time to borrow a pooled connection, including waits",
+                new Timer(pool.getAcquireLatency()));
+        metrics.gauge("tms_db_pool_connections", "Open pooled connections by state",
+                pool::getActiveCount, "state", "active");
+        metrics.gauge("tms_db_pool_connections", "Open pooled connections by state",
+                pool::getIdleCount, "state", "idle");
+        metrics.gauge("tms_db_pool_waiters", "Callers blocked waiting for a connection", pool::getWaiterCount);
+        metrics.gauge("tms_db_pool_max_connections", "Configured maximum pool size", pool::getMaxSize);
+        metrics.counter("tms_db_pool_timeouts_total", "Borrow attempts that timed out", pool::getTimeoutCount);
+        metrics.counter("tms_db_pool_created_total", "Connections opened", pool::getCreatedCount);
+        metrics.counter("tms_db_pool_destroyed_total", "Connections closed", pool::getDestroyedCount);
+        metrics.counter("tms_db_pool_leaks_total", "Connections reported as possible leaks", pool::getLeakCount);
+    }
+
     /**
      * Gets the singleton instance of DatabaseConnection.
-     * Creates new connection if none exists or previous connection was closed.
+     * Starts the connection pool on first use; a failed start is retried on the next call.
      *
      * @return DatabaseConnection instance
-     * @throws SQLException if database connection fails
+     * @throws SQLException if the connection pool cannot be started
      */
     public static DatabaseConnection getInstance() throws SQLException {
+        DatabaseConnection current = instance;
+        if (current != null) {
+            return current;
+        }
+
+        INIT_LOCK.lock();
         try {
             if (instance == null) {
                 LOGGER.fine("Creating new DatabaseConnection instance");
                 instance = new DatabaseConnection();
-            } else if (instance.getConnection().isClosed()) {
-                LOGGER.fine("Existing connection closed - creating new instance");
-                instance = new DatabaseConnection();
             }
             return instance;
-        } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to establish database connection", ex);
-            throw new SQLException("Failed to establish database connection", ex);
+        } finally {
+            INIT_LOCK.unlock();
         }
     }
 
     /**
-     * Gets the active database connection.
+     * Borrows a connection from the pool.
+     * The caller owns the connection until it is closed, which returns it to the pool.
      *
-     * @return current Connection object
+     * @return a pooled Connection
+     * @throws SQLException if no connection becomes available within the acquire timeout
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            LOGGER.warning("Attempted to get closed/invalid connection");
-        }
+        LOGGER.finest("Borrowing database connection from pool");
+        return pool.getConnection();
+    }
 
-        LOGGER.finest("Returning active database connection");
-        return connection;
+    /**
+     * Gets the underlying pool, primarily to read its live counters.
+     *
+     * @return the connection pool
+     */
+    public ConnectionPool getPool() {
+        return pool;
     }
 
     /**
-     * Closes the database connection if it's open.
+     * Shuts down the connection pool if it was started.
      * Silently handles any errors that occur during closing.
      */
-    public void closeConnection() {
+    public static void shutdown() {
+        INIT_LOCK.lock();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed successfully");
+            if (instance != null) {
+                instance.pool.close();
+                instance = null;
+                LOGGER.info("Database connection pool shut down");
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+        } catch (RuntimeException ex) {
+            LOGGER.log(Level.WARNING, "Error shutting down connection pool", ex);
+        } finally {
+            INIT_LOCK.unlock();
         }
     }
 }
-
@@ -0,0 +1,274 @@
+package tms.util;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import tms.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives PostgreSQL {@code NOTIFY} messages and fans them out to in-JVM subscribers.
+ * <p>
+ * A single background thread owns a dedicated connection, opened outside the
+ * connection pool because it stays checked out for the lifetime of the
+ * application. It issues {@code LISTEN} for every channel that has subscribers
+ * and waits for notifications, delivering each to that channel's subscribers
+ * on the listener thread; subscribers should therefore return quickly.
+ * <p>
+ * Notifications sent while the connection is down are lost. After the
+ * listener reconnects it calls {@link Subscriber#onReconnect(String)} so
+ * subscribers can discard whatever state the missed messages would have
+ * corrected.
+ */
+public class DatabaseNotificationListener {
+    private static final Logger LOGGER = Logger.getLogger(DatabaseNotificationListener.class.getName());
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private static volatile DatabaseNotificationListener instance;
+
+    /**
+     * Receives the notifications of one channel.
+     */
+    public interface Subscriber {
+        /**
+         * Handles a notification.
+         *
+         * @param channel the channel it was sent on
+         * @param payload the payload, empty if none was given
+         */
+        void onNotification(String channel, String payload);
+
+        /**
+         * Called after the listener connection was re-established; notifications
+         * sent in the meantime were lost. The default does nothing.
+         *
+         * @param channel the channel that is being listened to again
+         */
+        default void onReconnect(String channel) {
+        }
+    }
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition stopped = lock.newCondition();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long notificationCount;
+
+    private DatabaseNotificationListener(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.thread = new Thread(this::run, "tms-db-listener");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Gets the shared listener, starting its thread on first use.
+     *
+     * @return the listener
+     */
+    public static DatabaseNotificationListener getInstance() {
+        DatabaseNotificationListener current = instance;
+        if (current != null) {
+            return current;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (instance == null) {
+                instance = new DatabaseNotificationListener(DatabaseConfig.getDbUrl(),
+                        DatabaseConfig.getDbUsername(), DatabaseConfig.getDbPassword());
+            }
+            return instance;
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Stops the shared listener if it was started.
+     */
+    public static void shutdown() {
+        INIT_LOCK.lock();
+        try {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+        } finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Registers a subscriber for a channel. The listener starts listening to a
+     * new channel within one poll interval.
+     *
+     * @param channel the channel name, which must be a plain SQL identifier
+     * @param subscriber the subscriber
+     * @throws IllegalArgumentException if the channel name is not a plain identifier
+     */
+    public void subscribe(String channel, Subscriber subscriber) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+        subscribers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(subscriber);
+    }
+
+    /**
+     * Removes a subscriber. The channel stays listened to.
+     *
+     * @param channel the channel name
+     * @param subscriber the subscriber to remove
+     */
+    public void unsubscribe(String channel, Subscriber subscriber) {
+        List<Subscriber> list = subscribers.get(channel);
+        if (list != null) {
+            list.remove(subscriber);
+        }
+    }
+
+    /**
+     * Gets the number of notifications received since start.
+     * @return the notification count
+     */
+    public long getNotificationCount() {
+        return notificationCount;
+    }
+
+    /**
+     * Stops the listener thread and closes its connection.
+     */
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            stopped.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join(POLL_TIMEOUT_MS * 4L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Database notification listener stopped");
+    }
+
+    private void run() {
+        long backoff = 1_000;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(url, username, password)) {
+                PGConnection pg = conn.unwrap(PGConnection.class);
+                Set<String> listening = new HashSet<>();
+                listen(conn, listening);
+                LOGGER.info(() -> "Listening for database notifications on " + listening);
+                if (reconnecting) {
+                    for (String channel : listening) {
+                        for (Subscriber subscriber : subscribers.get(channel)) {
+                            deliverReconnect(subscriber, channel);
+                        }
+                    }
+                }
+                reconnecting = true;
+                backoff = 1_000;
+
+                while (running) {
+                    listen(conn, listening);
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        notificationCount++;
+                        dispatch(notification.getName(), notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                long wait = backoff;
+                LOGGER.log(Level.WARNING, "Notification listener connection failed; retrying in " + wait + " ms", e);
+                sleep(wait);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    /**
+     * Issues LISTEN for channels that gained subscribers since the last call.
+     */
+    private void listen(Connection conn, Set<String> listening) throws SQLException {
+        if (listening.size() == subscribers.size()) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String channel : subscribers.keySet()) {
+                if (listening.add(channel)) {
+                    stmt.execute("LISTEN " + channel);
+                    LOGGER.fine(() -> "Listening on channel " + channel);
+                }
+            }
+        }
+    }
+
+    private void dispatch(String channel, String payload) {
+        List<Subscriber> list = subscribers.get(channel);
+        if (list == null) {
+            return;
+        }
+        LOGGER.finest(() -> "Notification on " + channel + ": " + payload);
+        for (Subscriber subscriber : list) {
+            try {
+                subscriber.onNotification(channel, payload == null ? "" : payload);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Notification subscriber failed on channel " + channel, e);
+            }
+        }
+    }
+
+    private void deliverReconnect(Subscriber subscriber, String channel) {
+        try {
+            subscriber.onReconnect(channel);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Notification subscriber failed to handle reconnect on " + channel, e);
+        }
+    }
+
+    private void sleep(long millis) {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(millis);
+            while (running && remaining > 0) {
+                remaining = stopped.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,5 +1,254 @@
 package tms.util;
 
+import tms.dao.TaskDAO;
+import tms.dao.TaskDAOImpl;
+import tms.exception.DataAccessException;
+import tms.model.Task;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Generates realistic task data and loads it in bulk.
+ * <p>
+ * Statuses and priorities follow fixed weights resembling a working team's
+ * board: most tasks are pending or in progress and few are critical. Due
+ * dates cluster in the coming weeks with a long tail up to a year out; the
+ * {@code due_date_future} trigger rules out overdue tasks. Tags are drawn
+ * from a Zipf distribution over a fixed vocabulary, so a handful of tags
+ * appear on a large share of tasks while most are rare, which is what makes
+ * tag filters and the tag indexes behave as they do in production.
+ * <p>
+ * Tasks are written through {@link TaskDAO#saveAll(List)}, which streams
+ * each chunk with {@code COPY}. Output is deterministic for a given seed.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -cp target/classes:... tms.util.DatabaseSeeder [count=100000] [seed=42] [tags=1000] [zipf=1.1]
+ * </pre>
+ * The database is taken from {@code application.properties}, overridable
+ * with {@code -Ddb.url=...} and friends.
+ */
 public class DatabaseSeeder {
-    ;
+    private static final Logger LOGGER = Logger.getLogger(DatabaseSeeder.class.getName());
+
+    private static final int DEFAULT_CHUNK_SIZE = 10_000;
+
+    private static final Task.Status[] STATUSES = {
+            Task.Status.PENDING, Task.Status.IN_PROGRESS, Task.Status.COMPLETED, Task.Status.FAILED};
+    private static final double[] STATUS_WEIGHTS = {0.45, 0.25, 0.25, 0.05};
+
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "CRITICAL"};
+    private static final double[] PRIORITY_WEIGHTS = {0.30, 0.40, 0.22, 0.08};
+
+    /** Probability of a task carrying 0, 1, 2, 3, 4 and 5 tags. */
+    private static final double[] TAG_COUNT_WEIGHTS = {0.15, 0.35, 0.28, 0.14, 0.06, 0.02};
+
+    private static final String[] VERBS = {
+            "Fix", "Review", "Update", "Prepare", "Design", "Implement", "Test", "Document",
+            "Migrate", "Investigate", "Refactor", "Deploy", "Plan", "Draft", "Audit", "Optimise"};
+    private static final String[] SUBJECTS = {
+            "login flow", "billing report", "API gateway", "release notes", "client presentation",
+            "search index", "onboarding guide", "database backups", "dashboard widgets", "payment retries",
+            "email templates", "mobile layout", "access controls", "quarterly budget", "error handling",
+            "build pipeline", "user feedback", "invoice export", "session timeout", "monitoring alerts"};
+    private static final String[] BASE_TAGS = {
+            "development", "bugfix", "urgent", "documentation", "meeting", "backend", "frontend",
+            "testing", "review", "design", "devops", "security", "performance", "client", "research",
+            "database", "ux", "infra", "billing", "mobile", "api", "release", "support", "analytics"};
+
+    private final Random random;
+    private final LocalDate today;
+    private final String[] vocabulary;
+    private final double[] tagCdf;
+    private final double[] statusCdf = cumulative(STATUS_WEIGHTS);
+    private final double[] priorityCdf = cumulative(PRIORITY_WEIGHTS);
+    private final double[] tagCountCdf = cumulative(TAG_COUNT_WEIGHTS);
+    private int generated;
+
+    /**
+     * Creates a seeder with a vocabulary of 1000 tags and a Zipf exponent of 1.1.
+     * @param seed the random seed
+     */
+    public DatabaseSeeder(long seed) {
+        this(seed, 1000, 1.1);
+    }
+
+    /**
+     * Creates a seeder.
+     *
+     * @param seed the random seed
+     * @param tagVocabulary the number of distinct tags to draw from
+     * @param zipfExponent the skew of tag popularity; 0 is uniform, larger is more skewed
+     */
+    public DatabaseSeeder(long seed, int tagVocabulary, double zipfExponent) {
+        if (tagVocabulary < 1) {
+            throw new IllegalArgumentException("Tag vocabulary must not be empty");
+        }
+        if (zipfExponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent cannot be negative");
+        }
+        this.random = new Random(seed);
+        this.today = LocalDate.now();
+        this.vocabulary = buildVocabulary(tagVocabulary);
+        double[] weights = new double[tagVocabulary];
+        for (int rank = 0; rank < tagVocabulary; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, zipfExponent);
+        }
+        this.tagCdf = cumulative(weights);
+    }
+
+    /**
+     * Generates the next task. Tasks are valid for
+     * {@link tms.service.TaskServiceImpl#validateTask(Task)} and have no id.
+     * @return the task
+     */
+    public Task nextTask() {
+        int index = ++generated;
+        Task task = new Task();
+        String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+        task.setTitle(VERBS[random.nextInt(VERBS.length)] + " " + subject + " #" + index);
+        task.setDescription("Follow-up on " + subject + " raised in sprint " + (1 + random.nextInt(40)));
+        task.setPriority(PRIORITIES[pick(priorityCdf)]);
+        task.setStatus(STATUSES[pick(statusCdf)]);
+        task.setDueDate(Date.valueOf(today.plusDays(nextDueOffset())));
+        task.setTags(nextTags());
+        return task;
+    }
+
+    /**
+     * Generates tasks and inserts them in chunks through the bulk path.
+     *
+     * @param dao the DAO to insert through
+     * @param count the number of tasks
+     * @param chunkSize tasks per {@link TaskDAO#saveAll(List)} call
+     * @return the number of tasks inserted
+     */
+    public int seed(TaskDAO dao, int count, int chunkSize) {
+        List<Task> chunk = new ArrayList<>(Math.min(count, chunkSize));
+        int inserted = 0;
+        for (int i = 0; i < count; i++) {
+            chunk.add(nextTask());
+            if (chunk.size() == chunkSize) {
+                inserted += dao.saveAll(chunk);
+                chunk.clear();
+                int done = inserted;
+                LOGGER.fine(() -> "Seeded " + done + " of " + count + " tasks");
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inserted += dao.saveAll(chunk);
+        }
+        return inserted;
+    }
+
+    /**
+     * Refreshes planner statistics for the task tables. Run after a bulk load:
+     * until autovacuum catches up, the planner would otherwise cost the new
+     * rows from the statistics of a nearly empty table.
+     *
+     * @throws DataAccessException if the statement fails
+     */
+    public static void analyze() {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE tasks, tags, task_tags");
+        } catch (SQLException e) {
+            throw new DataAccessException("Failed to analyze task tables", e);
+        }
+    }
+
+    /**
+     * Gets the tag names in order of decreasing popularity.
+     * @return a copy of the vocabulary
+     */
+    public String[] getVocabulary() {
+        return Arrays.copyOf(vocabulary, vocabulary.length);
+    }
+
+    /**
+     * Draws a due date offset: mostly within the next few weeks, exponentially
+     * thinning out, capped at a year.
+     */
+    private int nextDueOffset() {
+        double days = -Math.log(1 - random.nextDouble()) * 21;
+        return (int) Math.min(365, days);
+    }
+
+    private List<String> nextTags() {
+        int count = pick(tagCountCdf);
+        List<String> tags = new ArrayList<>(count);
+        // Popular tags collide often; a bounded number of redraws keeps the set distinct
+        for (int attempt = 0; tags.size() < count && attempt < count * 4; attempt++) {
+            String tag = vocabulary[pick(tagCdf)];
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    /**
+     * Draws an index from a cumulative distribution by binary search.
+     */
+    private int pick(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        index = index < 0 ? -index - 1 : index;
+        return Math.min(index, cdf.length - 1);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double[] cdf = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cdf[i] = sum / total;
+        }
+        return cdf;
+    }
+
+    private static String[] buildVocabulary(int size) {
+        String[] vocabulary = new String[size];
+        for (int i = 0; i < size; i++) {
+            vocabulary[i] = i < BASE_TAGS.length
+                    ? BASE_TAGS[i]
+                    : BASE_TAGS[i % BASE_TAGS.length] + "-" + (i / BASE_TAGS.length);
+        }
+        return vocabulary;
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args [count] [seed] [tags] [zipf]
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        int tags = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        double zipf = args.length > 3 ? Double.parseDouble(args[3]) : 1.1;
+
+        DatabaseSeeder seeder = new DatabaseSeeder(seed, tags, zipf);
+        long start = System.nanoTime();
+        try {
+            int inserted = seeder.seed(new TaskDAOImpl(), count, DEFAULT_CHUNK_SIZE);
+            analyze();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("inserted=%d elapsed=%.1fs rate=%.0f tasks/s%n", inserted, elapsed, inserted / elapsed);
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+    }
 }
@@ -0,0 +1,235 @@
+package tms.util;
+
+import tms.model.Task;
+import tms.util.metrics.LatencyHistogram;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Closed-loop HTTP load driver.
+ * <p>
+ * Simulates a fixed number of clients, each of which sends a request, waits
+ * for the complete response, optionally pauses for a think time and then
+ * sends the next one. Clients are driven by the asynchronous
+ * {@link HttpClient}, so thousands of concurrent clients need only a few
+ * threads on the load side and the measurement reflects the server.
+ * <p>
+ * Each request is a read with probability {@code 1 - writePercent/100}: a GET
+ * of the target URL. Otherwise it is a write: a form POST to the target that
+ * creates a task generated by {@link DatabaseSeeder}, so written data follows
+ * the same distributions as seeded data. Reads and writes are timed separately.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -cp target/classes tms.util.LoadGenerator &lt;url&gt; [clients=1000] [seconds=60] [thinkMs=0] [writePercent=0]
+ * </pre>
+ * Prints throughput, error count and latency percentiles when done.
+ */
+public class LoadGenerator {
+
+    private final URI target;
+    private final int clients;
+    private final long durationNanos;
+    private final long thinkMs;
+    private final int writePercent;
+    private final HttpClient http;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "load-think-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram readLatency = new LatencyHistogram();
+    private final LatencyHistogram writeLatency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final DatabaseSeeder seeder = new DatabaseSeeder(System.nanoTime());
+    private final ReentrantLock seederLock = new ReentrantLock();
+    private volatile long deadline;
+
+    /**
+     * Creates a read-only driver.
+     *
+     * @param target the URL every client requests
+     * @param clients the number of concurrent clients
+     * @param durationSeconds how long to run
+     * @param thinkMs pause between a response and the client's next request
+     */
+    public LoadGenerator(URI target, int clients, int durationSeconds, long thinkMs) {
+        this(target, clients, durationSeconds, thinkMs, 0);
+    }
+
+    /**
+     * Creates a driver with a read/write mix.
+     *
+     * @param target the URL every client reads from and posts new tasks to
+     * @param clients the number of concurrent clients
+     * @param durationSeconds how long to run
+     * @param thinkMs pause between a response and the client's next request
+     * @param writePercent the share of requests, 0 to 100, that create a task
+     */
+    public LoadGenerator(URI target, int clients, int durationSeconds, long thinkMs, int writePercent) {
+        if (writePercent < 0 || writePercent > 100) {
+            throw new IllegalArgumentException("Write percentage must be between 0 and 100");
+        }
+        this.target = target;
+        this.clients = clients;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.thinkMs = thinkMs;
+        this.writePercent = writePercent;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors())))
+                .build();
+    }
+
+    /**
+     * Runs the load and blocks until every client has finished its last request.
+     *
+     * @return the latency of every completed request
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public LatencyHistogram run() throws InterruptedException {
+        deadline = System.nanoTime() + durationNanos;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            next(done);
+        }
+        done.await();
+        timer.shutdownNow();
+        return latency;
+    }
+
+    /**
+     * Gets the latency of completed reads.
+     * @return the read latency histogram
+     */
+    public LatencyHistogram getReadLatency() {
+        return readLatency;
+    }
+
+    /**
+     * Gets the latency of completed writes.
+     * @return the write latency histogram
+     */
+    public LatencyHistogram getWriteLatency() {
+        return writeLatency;
+    }
+
+    /**
+     * Gets the number of failed requests, including non-2xx/3xx responses.
+     * @return the error count
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    private void next(CountDownLatch done) {
+        if (System.nanoTime() - deadline >= 0) {
+            done.countDown();
+            return;
+        }
+        boolean write = writePercent > 0 && ThreadLocalRandom.current().nextInt(100) < writePercent;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(120));
+        HttpRequest request = write
+                ? builder.header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(createForm())).build()
+                : builder.GET().build();
+        LatencyHistogram kind = write ? writeLatency : readLatency;
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response = http.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        response.whenComplete((r, e) -> {
+            if (e != null || r.statusCode() >= 400) {
+                errors.increment();
+            } else {
+                long elapsed = System.nanoTime() - start;
+                latency.record(elapsed);
+                kind.record(elapsed);
+            }
+            if (thinkMs > 0) {
+                timer.schedule(() -> next(done), thinkMs, TimeUnit.MILLISECONDS);
+            } else {
+                next(done);
+            }
+        });
+    }
+
+    /**
+     * Encodes a generated task as the form the task servlet's create action reads.
+     */
+    private String createForm() {
+        Task task;
+        seederLock.lock();
+        try {
+            task = seeder.nextTask();
+        } finally {
+            seederLock.unlock();
+        }
+        return "action=create"
+                + "&title=" + encode(task.getTitle())
+                + "&description=" + encode(task.getDescription())
+                + "&priority=" + task.getPriority()
+                + "&status=" + task.getStatus().name()
+                + "&dueDate=" + task.getDueDate()
+                + "&tags=" + encode(String.join(",", task.getTags()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static void printLatency(String label, LatencyHistogram histogram) {
+        System.out.printf("%s latency ms (n=%d): mean=%.1f p50=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                label, histogram.getCount(),
+                histogram.getMeanMicros() / 1000.0,
+                histogram.getPercentileMicros(50) / 1000.0,
+                histogram.getPercentileMicros(99) / 1000.0,
+                histogram.getPercentileMicros(99.9) / 1000.0,
+                histogram.getMaxMicros() / 1000.0);
+    }
+
+    /**
+     * Command-line entry point.
+     *
+     * @param args url [clients] [seconds] [thinkMs] [writePercent]
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadGenerator <url> [clients=1000] [seconds=60] [thinkMs=0] [writePercent=0]");
+            System.exit(2);
+        }
+        URI target = URI.create(args[0]);
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        long thinkMs = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        int writePercent = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        LoadGenerator generator = new LoadGenerator(target, clients, seconds, thinkMs, writePercent);
+        long start = System.nanoTime();
+        LatencyHistogram latency = generator.run();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("clients=%d writes=%d%% duration=%.1fs requests=%d errors=%d throughput=%.1f req/s%n",
+                clients, writePercent, elapsed, latency.getCount(), generator.getErrors(), latency.getCount() / elapsed);
+        printLatency("all", latency);
+        if (writePercent > 0) {
+            printLatency("read", generator.getReadLatency());
+            printLatency("write", generator.getWriteLatency());
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,169 @@
+package tms.util.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Size- and age-bounded in-process cache with least-recently-used eviction.
+ * <p>
+ * Entries expire a fixed time after they are stored; once the cache holds
+ * {@code maxEntries} entries, storing another evicts the least recently read.
+ * A single {@link ReentrantLock} guards the map; loads run outside the lock,
+ * so a slow database call never blocks readers of other keys.
+ * <p>
+ * Loads are protected against racing invalidations with a generation counter:
+ * {@link #invalidateAll()} advances the generation, and a value loaded under an
+ * older generation is returned to its caller but not stored.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name a label used in statistics
+     * @param maxEntries the maximum number of entries held
+     * @param ttlMillis how long an entry stays valid after it is stored
+     */
+    public BoundedCache(String name, int maxEntries, long ttlMillis) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (ttlMillis < 1) {
+            throw new IllegalArgumentException("ttlMillis must be positive");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value for a key, loading and storing it on a miss.
+     * A null result from the loader is returned but not cached.
+     *
+     * @param key the key
+     * @param loader computes the value on a miss
+     * @return the cached or freshly loaded value
+     */
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        long startGeneration;
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.expiresAt < 0) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+            startGeneration = generation.get();
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        V value = loader.get();
+        if (value != null) {
+            put(key, value, startGeneration);
+        }
+        return value;
+    }
+
+    /**
+     * Removes one entry.
+     *
+     * @param key the key to drop
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            if (entries.remove(key) != null) {
+                invalidations.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry and discards loads that are still in flight.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a snapshot of this cache's statistics.
+     * @return the current statistics
+     */
+    public CacheStats getStats() {
+        int size;
+        lock.lock();
+        try {
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(name, size, maxEntries, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    private void put(K key, V value, long startGeneration) {
+        lock.lock();
+        try {
+            if (generation.get() != startGeneration) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            if (entries.size() > maxEntries) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
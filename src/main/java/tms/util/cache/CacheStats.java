@@ -0,0 +1,107 @@
+package tms.util.cache;
+
+/**
+ * Point-in-time statistics of a {@link BoundedCache}.
+ * Counters are cumulative since the cache was created.
+ */
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxEntries;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    CacheStats(String name, int size, int maxEntries, long hits, long misses,
+               long evictions, long expirations, long invalidations) {
+        this.name = name;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Gets the cache's label.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of entries held when the snapshot was taken.
+     * @return the entry count
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the configured capacity.
+     * @return the maximum number of entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the number of reads served from the cache.
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of reads that had to load the value.
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries dropped to stay within capacity.
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries dropped because they outlived the TTL.
+     * @return the expiration count
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Gets the number of entries dropped by writes.
+     * @return the invalidation count
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the fraction of reads served from the cache.
+     * @return the hit rate between 0 and 1, or 0 before the first read
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d/%d hits=%d misses=%d hitRate=%.3f evictions=%d expirations=%d invalidations=%d",
+                name, size, maxEntries, hits, misses, getHitRate(), evictions, expirations, invalidations);
+    }
+}
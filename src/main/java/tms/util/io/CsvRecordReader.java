@@ -0,0 +1,152 @@
+package tms.util.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ * The first record is taken as the header and names the fields of every
+ * following record. Quoted fields may contain separators, doubled quotes and
+ * line breaks. Input is consumed through a small buffer, one record at a time.
+ */
+public class CsvRecordReader implements RecordReader {
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int length;
+    private int pos;
+    private boolean eof;
+    private final String[] header;
+    private long recordNumber;
+
+    /**
+     * Creates a reader and consumes the header record.
+     *
+     * @param in the CSV source
+     * @throws IOException if the header cannot be read or is missing
+     */
+    public CsvRecordReader(Reader in) throws IOException {
+        this.in = in;
+        List<String> names = readRecord();
+        if (names == null) {
+            throw new IOException("CSV input is empty; a header row is required");
+        }
+        header = new String[names.size()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = names.get(i).trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Override
+    public Map<String, Object> next() throws IOException {
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        recordNumber++;
+        if (values.size() > header.length) {
+            throw new IllegalArgumentException("Record has " + values.size()
+                    + " fields but the header has " + header.length);
+        }
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            record.put(header[i], values.get(i));
+        }
+        return record;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads one physical record, which may span lines inside quoted fields.
+     *
+     * @return the field values, or null at end of input
+     * @throws IOException if reading fails or a quoted field is unterminated
+     */
+    private List<String> readRecord() throws IOException {
+        if (!fill()) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (fill()) {
+            char c = buffer[pos++];
+            if (quoted) {
+                if (c == '"') {
+                    if (fill() && buffer[pos] == '"') {
+                        field.append('"');
+                        pos++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && fill() && buffer[pos] == '\n') {
+                    pos++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(c);
+                fieldStart = false;
+            }
+        }
+
+        if (quoted) {
+            throw new IOException("Unterminated quoted field at end of input");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Ensures at least one unread character is buffered.
+     *
+     * @return false at end of input
+     * @throws IOException if reading fails
+     */
+    private boolean fill() throws IOException {
+        if (pos < length) {
+            return true;
+        }
+        if (eof) {
+            return false;
+        }
+        length = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        if (length <= 0) {
+            length = 0;
+            eof = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package tms.util.io;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal streaming RFC 4180 CSV writer.
+ * Fields are written straight to the underlying {@link Writer}; a field is
+ * quoted only when it contains a separator, quote or line break.
+ */
+public class CsvWriter {
+    private final Writer out;
+    private boolean lineStarted;
+
+    /**
+     * Creates a writer emitting to the given output.
+     *
+     * @param out the destination; callers should buffer it
+     */
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one field of the current record. A null value is written as an empty field.
+     *
+     * @param value the field value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public CsvWriter field(String value) throws IOException {
+        if (lineStarted) {
+            out.write(',');
+        }
+        lineStarted = true;
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            out.write(value);
+            return this;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i - start + 1);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+        return this;
+    }
+
+    /**
+     * Writes one field of the current record.
+     *
+     * @param value the field value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public CsvWriter field(long value) throws IOException {
+        return field(Long.toString(value));
+    }
+
+    /**
+     * Ends the current record.
+     *
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public CsvWriter endRecord() throws IOException {
+        out.write("\r\n");
+        lineStarted = false;
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package tms.util.io;
+
+import java.io.Writer;
+
+/**
+ * Writer that discards its output and keeps a 64-bit FNV-1a hash of it.
+ * Serializing a document into this writer yields a fingerprint of the
+ * document without building it in memory, e.g. for use as an HTTP ETag.
+ */
+public class HashingWriter extends Writer {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    @Override
+    public void write(int c) {
+        hash = (hash ^ (c & 0xffff)) * PRIME;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        long h = hash;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ buffer[i]) * PRIME;
+        }
+        hash = h;
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        long h = hash;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ text.charAt(i)) * PRIME;
+        }
+        hash = h;
+    }
+
+    /**
+     * Gets the hash of everything written so far.
+     * @return the hash as 16 hexadecimal digits
+     */
+    public String getHash() {
+        return String.format("%016x", hash);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
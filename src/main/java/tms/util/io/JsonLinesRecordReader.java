@@ -0,0 +1,56 @@
+package tms.util.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming reader for JSON lines input: one JSON object per line.
+ * Blank lines are skipped. A malformed line is reported on its own and does
+ * not prevent the following lines from being read.
+ */
+public class JsonLinesRecordReader implements RecordReader {
+    private final BufferedReader in;
+    private long recordNumber;
+
+    /**
+     * Creates a reader over the given source.
+     *
+     * @param in the JSON lines source
+     */
+    public JsonLinesRecordReader(Reader in) {
+        this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 8192);
+    }
+
+    @Override
+    public Map<String, Object> next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        recordNumber++;
+        Map<String, Object> parsed = JsonReader.parseObject(line);
+        Map<String, Object> record = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> member : parsed.entrySet()) {
+            record.put(member.getKey().toLowerCase(Locale.ROOT), member.getValue());
+        }
+        return record;
+    }
+
+    @Override
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
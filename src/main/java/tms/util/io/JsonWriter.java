@@ -0,0 +1,231 @@
+package tms.util.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Minimal streaming JSON writer.
+ * Tokens are written straight to the underlying {@link Writer} as they are
+ * produced, so documents of any size can be emitted without building an
+ * intermediate String or tree. The writer only tracks the nesting depth and
+ * whether a separator is due; it does not validate document structure beyond that.
+ */
+public class JsonWriter {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private boolean[] hasElement = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * Creates a writer emitting to the given output.
+     *
+     * @param out the destination; callers should buffer it
+     */
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Opens an object.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        push();
+        return this;
+    }
+
+    /**
+     * Closes the current object.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endObject() throws IOException {
+        depth--;
+        out.write('}');
+        return this;
+    }
+
+    /**
+     * Opens an array.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        push();
+        return this;
+    }
+
+    /**
+     * Closes the current array.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter endArray() throws IOException {
+        depth--;
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * Writes an object member name; the next call must write its value.
+     *
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            out.write("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a numeric value.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes a numeric value, or null.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(Long value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.longValue());
+    }
+
+    /**
+     * Writes a boolean value.
+     *
+     * @param value the value
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a null value.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    /**
+     * Writes a raw line separator between top-level documents, as used by JSON lines.
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    public JsonWriter newline() throws IOException {
+        out.write('\n');
+        return this;
+    }
+
+    /**
+     * Flushes the underlying writer.
+     * @throws IOException if flushing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void push() {
+        if (depth == hasElement.length) {
+            hasElement = Arrays.copyOf(hasElement, depth * 2);
+        }
+        hasElement[depth++] = false;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        separate();
+    }
+
+    private void separate() throws IOException {
+        if (depth > 0) {
+            if (hasElement[depth - 1]) {
+                out.write(',');
+            }
+            hasElement[depth - 1] = true;
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String escape = null;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                escape = "\\u" + HEX[(c >> 12) & 0xF] + HEX[(c >> 8) & 0xF] + HEX[(c >> 4) & 0xF] + HEX[c & 0xF];
+            }
+            if (escape != null) {
+                out.write(value, start, i - start);
+                out.write(escape);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, length - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,27 @@
+package tms.util.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Pull-based reader of flat records from a streamed source.
+ * Only the current record is held in memory, so arbitrarily large inputs
+ * can be processed in constant space.
+ */
+public interface RecordReader extends Closeable {
+    /**
+     * Reads the next record.
+     * @return the record's fields keyed by lower-case name, or null at end of input
+     * @throws IOException if reading fails or the input cannot be parsed any further
+     * @throws IllegalArgumentException if this record is malformed but later records can still be read
+     */
+    Map<String, Object> next() throws IOException;
+
+    /**
+     * Gets the 1-based number of the record most recently returned or rejected,
+     * not counting any header.
+     * @return the current record number
+     */
+    long getRecordNumber();
+}
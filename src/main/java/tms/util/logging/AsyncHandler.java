@@ -0,0 +1,206 @@
+package tms.util.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * {@link Handler} that hands records to other handlers on a background thread.
+ * <p>
+ * Logging threads only put the record into a bounded ring buffer; a single
+ * writer thread takes records off in batches, publishes each batch to the
+ * target handlers and flushes them once per batch. Request threads therefore
+ * never wait for console or file I/O unless the buffer is full, in which case
+ * the {@link OverflowPolicy} decides between waiting for space and dropping
+ * the record. Dropped records are counted and reported in a warning once the
+ * writer catches up.
+ * <p>
+ * Records are formatted on the writer thread. The logger name is used as the
+ * source, because the caller's class and method cannot be inferred there.
+ * Formatting parameters must therefore not be mutated after logging.
+ */
+public class AsyncHandler extends Handler {
+
+    /**
+     * What a logging thread does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait until the writer has made room. No record is lost. */
+        BLOCK,
+        /** Discard the record and count it. Warnings and errors still wait, so they are never lost. */
+        DROP
+    }
+
+    private static final LogRecord SHUTDOWN = new LogRecord(Level.OFF, "shutdown");
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final Handler[] targets;
+    private final BlockingQueue<LogRecord> buffer;
+    private final OverflowPolicy policy;
+    private final int batchSize;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private long droppedReported;
+    private volatile boolean closed;
+
+    /**
+     * Creates the handler and starts its writer thread.
+     *
+     * @param capacity the number of records the buffer holds
+     * @param policy what to do when the buffer is full
+     * @param batchSize the most records published between two flushes
+     * @param targets the handlers that do the actual output
+     */
+    public AsyncHandler(int capacity, OverflowPolicy policy, int batchSize, Handler... targets) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Buffer capacity and batch size must be positive");
+        }
+        this.targets = targets.clone();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.writer = new Thread(this::drain, "tms-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a record for the writer thread.
+     * @param record the record; ignored if not loggable or after {@link #close()}
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (policy == OverflowPolicy.DROP && record.getLevel().intValue() < Level.WARNING.intValue()) {
+            if (!buffer.offer(record)) {
+                dropped.increment();
+            }
+            return;
+        }
+        try {
+            buffer.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Does nothing: the writer flushes its targets after every batch.
+     */
+    @Override
+    public void flush() {
+    }
+
+    /**
+     * Stops accepting records, waits for the writer to publish everything
+     * already queued and closes the targets.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!buffer.offer(SHUTDOWN, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                writer.interrupt();
+            }
+            writer.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Handler target : targets) {
+            target.close();
+        }
+    }
+
+    /**
+     * Gets the number of records discarded because the buffer was full.
+     * @return the drop count since the handler was created
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the number of records waiting for the writer.
+     * @return the buffer occupancy
+     */
+    public int getQueuedCount() {
+        return buffer.size();
+    }
+
+    private void drain() {
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, batchSize - 1);
+                boolean shutdown = publishBatch(batch);
+                batch.clear();
+                if (shutdown) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() gave up waiting; publish what is left and exit
+            buffer.drainTo(batch);
+            publishBatch(batch);
+        }
+    }
+
+    /**
+     * Publishes a batch and flushes the targets once.
+     * @return true if the batch ended with the shutdown marker
+     */
+    private boolean publishBatch(List<LogRecord> batch) {
+        boolean shutdown = false;
+        for (LogRecord record : batch) {
+            if (record == SHUTDOWN) {
+                shutdown = true;
+                continue;
+            }
+            publishToTargets(record);
+        }
+        reportDropped();
+        for (Handler target : targets) {
+            try {
+                target.flush();
+            } catch (RuntimeException e) {
+                reportError("Log handler flush failed", e, ErrorManager.FLUSH_FAILURE);
+            }
+        }
+        return shutdown;
+    }
+
+    private void publishToTargets(LogRecord record) {
+        for (Handler target : targets) {
+            try {
+                target.publish(record);
+            } catch (RuntimeException e) {
+                reportError("Log handler publish failed", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    private void reportDropped() {
+        long total = dropped.sum();
+        if (total > droppedReported) {
+            LogRecord warning = new LogRecord(Level.WARNING,
+                    "Log buffer full: dropped " + (total - droppedReported) + " records");
+            warning.setLoggerName(AsyncHandler.class.getName());
+            droppedReported = total;
+            publishToTargets(warning);
+        }
+    }
+}
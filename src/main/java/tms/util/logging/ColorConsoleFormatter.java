@@ -1,11 +1,10 @@
 package tms.util.logging;
 
-import java.util.logging.Formatter;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 
 /**
- * A custom {@link Formatter} implementation that adds color coding to console log output.
+ * A custom {@link java.util.logging.Formatter} implementation that adds color coding to console log output.
  * This formatter enhances log readability by applying different colors based on log levels:
  * <ul>
  *   <li><span style="color:red">RED</span> for SEVERE level messages</li>
@@ -20,9 +19,9 @@ import java.util.logging.LogRecord;
  *   <li>Logger name</li>
  *   <li>Actual log message</li>
  * </ol>
- *
+ * followed by the stack trace of an attached exception, laid out by {@link LineFormatter}.
  */
-public class ColorConsoleFormatter extends Formatter {
+public class ColorConsoleFormatter extends LineFormatter {
 
     /**
      * ANSI escape code to reset text formatting
@@ -63,14 +62,10 @@ public class ColorConsoleFormatter extends Formatter {
             color = GREEN;
         }
 
-        return String.format("%s%s %s [%s] %s%s%n",
-                color,
-                new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS")
-                        .format(new java.util.Date(record.getMillis())),
-                record.getLevel().getName(),
-                record.getLoggerName(),
-                formatMessage(record),
-                RESET
-        );
+        StringBuilder line = new StringBuilder(128).append(color);
+        appendLine(line, record);
+        line.append(RESET).append(System.lineSeparator());
+        appendThrown(line, record);
+        return line.toString();
     }
 }
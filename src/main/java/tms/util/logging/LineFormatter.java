@@ -0,0 +1,59 @@
+package tms.util.logging;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Plain single-line {@link Formatter} used for log files.
+ * <p>
+ * Each record is written as
+ * {@code yyyy-MM-dd HH:mm:ss.SSS LEVEL [logger] message}, followed by the
+ * stack trace of an attached exception. Lines are built in one
+ * {@link StringBuilder} with a shared, thread-safe timestamp formatter, so
+ * formatting allocates little beyond the resulting string.
+ */
+public class LineFormatter extends Formatter {
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    @Override
+    public String format(LogRecord record) {
+        StringBuilder line = new StringBuilder(128);
+        appendLine(line, record);
+        line.append(System.lineSeparator());
+        appendThrown(line, record);
+        return line.toString();
+    }
+
+    /**
+     * Appends the timestamp, level, logger name and message, without a line separator.
+     *
+     * @param line the buffer to append to
+     * @param record the record to format
+     */
+    protected void appendLine(StringBuilder line, LogRecord record) {
+        TIMESTAMP.formatTo(Instant.ofEpochMilli(record.getMillis()), line);
+        line.append(' ').append(record.getLevel().getName())
+                .append(" [").append(record.getLoggerName()).append("] ")
+                .append(formatMessage(record));
+    }
+
+    /**
+     * Appends the stack trace of the record's exception, if it has one.
+     *
+     * @param line the buffer to append to
+     * @param record the record to format
+     */
+    protected void appendThrown(StringBuilder line, LogRecord record) {
+        if (record.getThrown() != null) {
+            StringWriter trace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(trace));
+            line.append(trace);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package tms.util.logging;
+
+import tms.config.DatabaseConfig;
+import tms.util.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sets up the application's logging from {@link DatabaseConfig}.
+ * <p>
+ * Every logger below {@code tms} writes through one {@link AsyncHandler},
+ * which feeds a colored console handler and a rolling file handler on a
+ * background thread. Levels come from {@code log.level} and
+ * {@code log.level.<logger>}, so records below them are rejected by the
+ * logger before any message supplier runs.
+ */
+public final class LogConfigurator {
+    /** Parent of every application logger, matching the {@code tms.*} packages. */
+    public static final String APP_LOGGER = "tms";
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
+    // LogManager only holds loggers weakly; these references keep the configured levels and handlers alive
+    private static final List<Logger> configured = new ArrayList<>();
+    private static AsyncHandler handler;
+
+    private LogConfigurator() {}
+
+    /**
+     * Installs the handlers and levels. Does nothing if already configured.
+     */
+    public static void configure() {
+        LOCK.lock();
+        try {
+            if (handler != null) {
+                return;
+            }
+            List<Handler> targets = new ArrayList<>();
+            if (DatabaseConfig.isLogConsoleEnabled()) {
+                ConsoleHandler console = new ConsoleHandler();
+                console.setLevel(Level.ALL);
+                console.setFormatter(new ColorConsoleFormatter());
+                targets.add(console);
+            }
+            if (DatabaseConfig.isLogFileEnabled()) {
+                try {
+                    FileHandler file = new FileHandler(DatabaseConfig.getLogFilePattern(),
+                            DatabaseConfig.getLogFileLimitBytes(), DatabaseConfig.getLogFileCount(), true);
+                    file.setLevel(Level.ALL);
+                    file.setFormatter(new LineFormatter());
+                    file.setEncoding("UTF-8");
+                    targets.add(file);
+                } catch (IOException e) {
+                    System.err.println("Failed to open log file " + DatabaseConfig.getLogFilePattern()
+                            + ": " + e.getMessage());
+                }
+            }
+
+            handler = new AsyncHandler(DatabaseConfig.getLogBufferSize(), overflowPolicy(),
+                    DatabaseConfig.getLogBatchSize(), targets.toArray(new Handler[0]));
+            Logger appLogger = Logger.getLogger(APP_LOGGER);
+            appLogger.setUseParentHandlers(false);
+            appLogger.setLevel(parseLevel(APP_LOGGER, DatabaseConfig.getLogLevel(), Level.INFO));
+            appLogger.addHandler(handler);
+            configured.add(appLogger);
+
+            for (Map.Entry<String, String> override : DatabaseConfig.getLogLevelOverrides().entrySet()) {
+                Logger logger = Logger.getLogger(override.getKey());
+                logger.setLevel(parseLevel(override.getKey(), override.getValue(), null));
+                configured.add(logger);
+            }
+
+            if (DatabaseConfig.isMetricsEnabled()) {
+                AsyncHandler current = handler;
+                MetricsRegistry metrics = MetricsRegistry.getInstance();
+                metrics.counter("tms_log_dropped_total", "Log records dropped because the buffer was full",
+                        current::getDroppedCount);
+                metrics.gauge("tms_log_queued", "Log records waiting for the writer", current::getQueuedCount);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to configure logging: " + e.getMessage());
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Writes out every queued record, closes the handlers and detaches them
+     * from the application loggers, so a redeployed application starts clean.
+     */
+    public static void shutdown() {
+        LOCK.lock();
+        try {
+            if (handler == null) {
+                return;
+            }
+            Logger.getLogger(APP_LOGGER).removeHandler(handler);
+            handler.close();
+            handler = null;
+            configured.clear();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static AsyncHandler.OverflowPolicy overflowPolicy() {
+        String policy = DatabaseConfig.getLogOverflowPolicy();
+        try {
+            return AsyncHandler.OverflowPolicy.valueOf(policy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log.async.overflow '" + policy + "', using BLOCK");
+            return AsyncHandler.OverflowPolicy.BLOCK;
+        }
+    }
+
+    private static Level parseLevel(String logger, String level, Level fallback) {
+        try {
+            return Level.parse(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid log level '" + level + "' for " + logger + ", using " + fallback);
+            return fallback;
+        }
+    }
+}
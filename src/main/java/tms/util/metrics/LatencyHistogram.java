@@ -0,0 +1,152 @@
+package tms.util.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, fixed-footprint latency histogram.
+ * Durations are recorded in nanoseconds and bucketed at microsecond resolution
+ * using log-linear buckets: every power-of-two range is split into eight
+ * sub-buckets, which bounds the relative error of reported percentiles to
+ * roughly 12.5% while covering one microsecond up to several hours.
+ * <p>
+ * Recording is wait-free apart from a single atomic increment, so instances
+ * can safely sit on request hot paths and be read concurrently by reporters.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Records a single duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values are treated as zero
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        totalMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     * @return the sample count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the sum of all recorded durations.
+     * @return the total in microseconds
+     */
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     * @return the maximum in microseconds, or 0 if nothing was recorded
+     */
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Gets the mean of all recorded durations.
+     * @return the mean in microseconds, or 0 if nothing was recorded
+     */
+    public double getMeanMicros() {
+        long n = getCount();
+        return n == 0 ? 0.0 : (double) getTotalMicros() / n;
+    }
+
+    /**
+     * Estimates the value at the given percentile.
+     * The result is the upper bound of the bucket holding the requested rank,
+     * capped at the recorded maximum.
+     *
+     * @param percentile the percentile in the range [0, 100]
+     * @return the estimated duration in microseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] snapshot = getBucketCounts();
+        long total = 0;
+        for (long c : snapshot) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total);
+        rank = Math.max(1, rank);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBoundMicros(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * Takes a point-in-time copy of the per-bucket counts.
+     * @return an array indexed like {@link #bucketUpperBoundMicros(int)}
+     */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the inclusive upper bound of a bucket.
+     *
+     * @param index the bucket index
+     * @return the largest duration, in microseconds, that falls into the bucket
+     */
+    public static long bucketUpperBoundMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+
+    /**
+     * Maps a duration to its bucket index.
+     *
+     * @param micros the duration in microseconds
+     * @return the bucket index
+     */
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+}
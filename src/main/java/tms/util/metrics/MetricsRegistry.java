@@ -0,0 +1,417 @@
+package tms.util.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide registry of timers, gauges and counters.
+ * <p>
+ * Metrics are grouped into families sharing a name and help text, and told
+ * apart by label pairs, as in Prometheus. Callers look a timer up once and keep
+ * the reference, so recording never touches the registry. Everything registered
+ * is visible in two places:
+ * <ul>
+ *   <li>JMX: each timer as a {@link TimerMXBean} named
+ *       {@code tms:type=Timer,name=<family>,<label>=<value>...}, and all gauges
+ *       and counters as attributes of {@code tms:type=Gauges}</li>
+ *   <li>the Prometheus text format, through {@link #writePrometheus(Writer)}:
+ *       timers as summaries in seconds with p50/p99/p99.9 quantiles, followed by
+ *       {@code _errors_total} and, for row timers, {@code _rows_total} counters</li>
+ * </ul>
+ */
+public final class MetricsRegistry {
+    private static final Logger LOGGER = Logger.getLogger(MetricsRegistry.class.getName());
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+    private static final String[] QUANTILES = {"0.5", "0.99", "0.999"};
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+    private static final String DOMAIN = "tms";
+
+    private enum Type {
+        SUMMARY, GAUGE, COUNTER
+    }
+
+    /**
+     * Metrics of one name, keyed by their rendered label set.
+     */
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final boolean rows;
+        private final Map<String, Series> series = new ConcurrentSkipListMap<>();
+
+        private Family(String name, String help, Type type, boolean rows) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * One labelled metric: a timer, or a supplier for gauges and counters.
+     */
+    private static final class Series {
+        private final String[] labels;
+        private final Timer timer;
+        private final LongSupplier value;
+        private final ObjectName objectName;
+
+        private Series(String[] labels, Timer timer, LongSupplier value, ObjectName objectName) {
+            this.labels = labels;
+            this.timer = timer;
+            this.value = value;
+            this.objectName = objectName;
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+    private final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    private volatile ObjectName gaugesName;
+
+    private MetricsRegistry() {}
+
+    /**
+     * Gets the process-wide registry.
+     * @return the registry
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets or creates a timer.
+     *
+     * @param name the family name, without unit suffix, e.g. {@code tms_http_request}
+     * @param help the family description
+     * @param labels alternating label names and values
+     * @return the timer, the same instance for the same name and labels
+     */
+    public Timer timer(String name, String help, String... labels) {
+        return timer(name, help, false, labels);
+    }
+
+    /**
+     * Gets or creates a timer whose family also reports a row counter.
+     *
+     * @param name the family name, without unit suffix
+     * @param help the family description
+     * @param labels alternating label names and values
+     * @return the timer
+     */
+    public Timer rowTimer(String name, String help, String... labels) {
+        return timer(name, help, true, labels);
+    }
+
+    /**
+     * Registers a timer created elsewhere, replacing any timer with the same name and labels.
+     *
+     * @param name the family name, without unit suffix
+     * @param help the family description
+     * @param timer the timer
+     * @param labels alternating label names and values
+     */
+    public void register(String name, String help, Timer timer, String... labels) {
+        Family family = family(name, help, Type.SUMMARY, false);
+        // Same name and labels give the same object name, so registration replaces the old MBean
+        family.series.put(labelText(labels), new Series(labels, timer, null, registerTimer(name, labels, timer)));
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name and labels.
+     *
+     * @param name the metric name
+     * @param help the description
+     * @param value reads the current value; must be cheap and thread-safe
+     * @param labels alternating label names and values
+     */
+    public void gauge(String name, String help, LongSupplier value, String... labels) {
+        register(family(name, help, Type.GAUGE, false), value, labels);
+    }
+
+    /**
+     * Registers a monotonic counter, replacing any counter with the same name and labels.
+     *
+     * @param name the metric name, by convention ending in {@code _total}
+     * @param help the description
+     * @param value reads the current count; must be cheap and thread-safe
+     * @param labels alternating label names and values
+     */
+    public void counter(String name, String help, LongSupplier value, String... labels) {
+        register(family(name, help, Type.COUNTER, false), value, labels);
+    }
+
+    /**
+     * Writes every metric in the Prometheus text exposition format, version 0.0.4.
+     *
+     * @param out the destination; not flushed or closed
+     * @throws IOException if writing fails
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        for (Family family : families.values()) {
+            if (family.type == Type.SUMMARY) {
+                writeSummary(family, out);
+            } else {
+                writeHeader(out, family.name, family.help, family.type == Type.GAUGE ? "gauge" : "counter");
+                for (Series series : family.series.values()) {
+                    out.write(family.name + labelText(series.labels) + ' ' + series.value.getAsLong() + '\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every metric and its JMX registration. Called when the
+     * application is undeployed, so the platform MBean server does not keep
+     * the web application's classes reachable.
+     */
+    public void clear() {
+        for (Family family : families.values()) {
+            for (Series series : family.series.values()) {
+                unregister(series.objectName);
+            }
+        }
+        families.clear();
+        ObjectName name = gaugesName;
+        gaugesName = null;
+        unregister(name);
+    }
+
+    private Timer timer(String name, String help, boolean rows, String... labels) {
+        Family family = family(name, help, Type.SUMMARY, rows);
+        String key = labelText(labels);
+        Series series = family.series.get(key);
+        if (series == null) {
+            Timer timer = new Timer();
+            Series created = new Series(labels, timer, null, null);
+            series = family.series.putIfAbsent(key, created);
+            if (series == null) {
+                ObjectName objectName = registerTimer(name, labels, timer);
+                if (objectName != null) {
+                    family.series.replace(key, created, new Series(labels, timer, null, objectName));
+                }
+                return timer;
+            }
+        }
+        return series.timer;
+    }
+
+    private Family family(String name, String help, Type type, boolean rows) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type, rows));
+        if (family.type != type || family.rows != rows) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a different type");
+        }
+        return family;
+    }
+
+    private void register(Family family, LongSupplier value, String... labels) {
+        family.series.put(labelText(labels), new Series(labels, null, value, null));
+        if (gaugesName == null) {
+            registerGauges();
+        }
+    }
+
+    private void writeSummary(Family family, Writer out) throws IOException {
+        String seconds = family.name + "_seconds";
+        writeHeader(out, seconds, family.help, "summary");
+        for (Series series : family.series.values()) {
+            LatencyHistogram latency = series.timer.getLatency();
+            for (int i = 0; i < QUANTILES.length; i++) {
+                String labels = labelText(append(series.labels, "quantile", QUANTILES[i]));
+                out.write(seconds + labels + ' ' + toSeconds(latency.getPercentileMicros(PERCENTILES[i])) + '\n');
+            }
+            String labels = labelText(series.labels);
+            out.write(seconds + "_sum" + labels + ' ' + toSeconds(latency.getTotalMicros()) + '\n');
+            out.write(seconds + "_count" + labels + ' ' + latency.getCount() + '\n');
+        }
+
+        String errors = family.name + "_errors_total";
+        writeHeader(out, errors, "Failed calls of " + family.name, "counter");
+        for (Series series : family.series.values()) {
+            out.write(errors + labelText(series.labels) + ' ' + series.timer.getErrorCount() + '\n');
+        }
+
+        if (family.rows) {
+            String rows = family.name + "_rows_total";
+            writeHeader(out, rows, "Rows returned or written by " + family.name, "counter");
+            for (Series series : family.series.values()) {
+                out.write(rows + labelText(series.labels) + ' ' + series.timer.getRowCount() + '\n');
+            }
+        }
+    }
+
+    private static void writeHeader(Writer out, String name, String help, String type) throws IOException {
+        out.write("# HELP " + name + ' ' + help.replace("\\", "\\\\").replace("\n", "\\n") + '\n');
+        out.write("# TYPE " + name + ' ' + type + '\n');
+    }
+
+    private static String toSeconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    private static String[] append(String[] labels, String name, String value) {
+        String[] result = new String[labels.length + 2];
+        System.arraycopy(labels, 0, result, 0, labels.length);
+        result[labels.length] = name;
+        result[labels.length + 1] = value;
+        return result;
+    }
+
+    /**
+     * Renders label pairs as {@code {name="value",...}}, or an empty string for none.
+     */
+    private static String labelText(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        if (labels.length == 0) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return text.append('}').toString();
+    }
+
+    private ObjectName registerTimer(String name, String[] labels, Timer timer) {
+        StringBuilder objectName = new StringBuilder(DOMAIN).append(":type=Timer,name=").append(name);
+        for (int i = 0; i < labels.length; i += 2) {
+            objectName.append(',').append(labels[i]).append('=').append(ObjectName.quote(labels[i + 1]));
+        }
+        try {
+            ObjectName registered = new ObjectName(objectName.toString());
+            if (mbeanServer.isRegistered(registered)) {
+                mbeanServer.unregisterMBean(registered);
+            }
+            mbeanServer.registerMBean(timer, registered);
+            return registered;
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register timer " + objectName + " with JMX", e);
+            return null;
+        }
+    }
+
+    private void registerGauges() {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=Gauges");
+            if (!mbeanServer.isRegistered(name)) {
+                mbeanServer.registerMBean(new GaugesMBean(), name);
+            }
+            gaugesName = name;
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Could not register gauges with JMX", e);
+        }
+    }
+
+    private void unregister(ObjectName name) {
+        if (name == null) {
+            return;
+        }
+        try {
+            if (mbeanServer.isRegistered(name)) {
+                mbeanServer.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "Could not unregister " + name, e);
+        }
+    }
+
+    /**
+     * Exposes every gauge and counter as a read-only attribute named after the
+     * metric and its label values, e.g. {@code tms_cache_hits_total.byId}.
+     */
+    private final class GaugesMBean implements DynamicMBean {
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            for (Family family : families.values()) {
+                if (family.type == Type.SUMMARY) {
+                    continue;
+                }
+                for (Series series : family.series.values()) {
+                    if (attributeName(family, series).equals(attribute)) {
+                        return series.value.getAsLong();
+                    }
+                }
+            }
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Gauges are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Omitted from the result, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Family family : families.values()) {
+                if (family.type == Type.SUMMARY) {
+                    continue;
+                }
+                for (Series series : family.series.values()) {
+                    attributes.add(new MBeanAttributeInfo(attributeName(family, series), "long", family.help,
+                            true, false, false));
+                }
+            }
+            return new MBeanInfo(getClass().getName(), "Task management gauges and counters",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+
+        private String attributeName(Family family, Series series) {
+            StringBuilder name = new StringBuilder(family.name);
+            for (int i = 1; i < series.labels.length; i += 2) {
+                name.append('.').append(series.labels[i]);
+            }
+            return name.toString();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tms.util.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency recorder for one operation, with error and row counters.
+ * Recording costs one histogram update and at most two adder increments,
+ * none of which block, so timers can wrap every request and every DAO call.
+ * Instances are obtained from {@link MetricsRegistry}.
+ */
+public class Timer implements TimerMXBean {
+    private final LatencyHistogram latency;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    /**
+     * Creates a timer with its own histogram.
+     */
+    public Timer() {
+        this(new LatencyHistogram());
+    }
+
+    /**
+     * Creates a timer reporting an existing histogram, such as the
+     * connection pool's acquire latency.
+     *
+     * @param latency the histogram to record into and report from
+     */
+    public Timer(LatencyHistogram latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Records a successful call.
+     * @param nanos the call duration in nanoseconds
+     */
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+
+    /**
+     * Records a successful call that returned or wrote rows.
+     *
+     * @param nanos the call duration in nanoseconds
+     * @param rowCount the number of rows
+     */
+    public void record(long nanos, long rowCount) {
+        latency.record(nanos);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Records a failed call. Its duration still counts towards the latency.
+     * @param nanos the call duration in nanoseconds
+     */
+    public void recordError(long nanos) {
+        latency.record(nanos);
+        errors.increment();
+    }
+
+    /**
+     * Gets the underlying histogram.
+     * @return the latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanMicros() / 1000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getPercentileMicros(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getPercentileMicros(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.getPercentileMicros(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxMicros() / 1000.0;
+    }
+}
@@ -0,0 +1,55 @@
+package tms.util.metrics;
+
+/**
+ * JMX view of a {@link Timer}. Durations are reported in milliseconds.
+ */
+public interface TimerMXBean {
+
+    /**
+     * Gets the number of recorded calls, failed ones included.
+     * @return the call count
+     */
+    long getCount();
+
+    /**
+     * Gets the number of calls that failed.
+     * @return the error count
+     */
+    long getErrorCount();
+
+    /**
+     * Gets the total number of rows the calls returned or wrote.
+     * @return the row count, 0 for timers that do not count rows
+     */
+    long getRowCount();
+
+    /**
+     * Gets the mean call duration.
+     * @return the mean in milliseconds
+     */
+    double getMeanMillis();
+
+    /**
+     * Gets the median call duration.
+     * @return the 50th percentile in milliseconds
+     */
+    double getP50Millis();
+
+    /**
+     * Gets the 99th percentile call duration.
+     * @return the 99th percentile in milliseconds
+     */
+    double getP99Millis();
+
+    /**
+     * Gets the 99.9th percentile call duration.
+     * @return the 99.9th percentile in milliseconds
+     */
+    double getP999Millis();
+
+    /**
+     * Gets the longest call duration.
+     * @return the maximum in milliseconds
+     */
+    double getMaxMillis();
+}
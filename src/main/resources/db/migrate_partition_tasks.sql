@@ -0,0 +1,436 @@
+-- Migrates a database created from an earlier tms_schema.sql, where tasks is a
+-- plain table, to the current layout with tasks partitioned on its archived
+-- flag. Earlier schemas may also lack the version and search_vector columns,
+-- the reminder, job and summary tables, and the triggers; all are brought up
+-- to date. Every task starts out active; the archival job moves old closed
+-- tasks into tasks_archive on its next run.
+--
+-- Stop the application, then run once in psql:
+--   \c tms
+--   \i src/main/resources/db/migrate_partition_tasks.sql
+-- The script runs in one transaction and holds an exclusive lock on tasks
+-- while the rows are copied, so it either completes or leaves the old table as it was.
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = 'tasks'::regclass) THEN
+        RAISE EXCEPTION 'tasks is already partitioned; nothing to migrate';
+    END IF;
+END;
+$$;
+
+-- Columns the copy reads that the oldest schemas do not have
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 1;
+
+-- Move the old table, its primary key and its sequence out of the way; the
+-- indexes are recreated on the partitions under the same names
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+ALTER TABLE tasks_unpartitioned RENAME CONSTRAINT tasks_pkey TO tasks_unpartitioned_pkey;
+ALTER SEQUENCE tasks_id_seq RENAME TO tasks_unpartitioned_id_seq;
+DROP INDEX IF EXISTS idx_task_status, idx_task_priority, idx_task_due_date, idx_task_title_prefix, idx_task_search;
+
+-- A partitioned table cannot be referenced by id alone, so the foreign keys
+-- to tasks go; trigger_tasks_delete_links removes the links of deleted tasks instead
+ALTER TABLE task_tags DROP CONSTRAINT IF EXISTS task_tags_task_id_fkey;
+ALTER TABLE IF EXISTS task_reminders DROP CONSTRAINT IF EXISTS task_reminders_task_id_fkey;
+
+CREATE TABLE tasks (
+                                     id BIGSERIAL,
+                                     title VARCHAR(100) NOT NULL,
+                                     description TEXT,
+                                     priority VARCHAR(20) NOT NULL
+                                         CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH', 'CRITICAL')),
+                                     due_date DATE NOT NULL,
+                                     status VARCHAR(20) NOT NULL
+                                         CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED', 'IN_PROGRESS'))
+                                                                         DEFAULT 'PENDING',
+                                     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+                                     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+                                     -- Incremented by every update; updates naming a stale version are rejected
+                                     version BIGINT NOT NULL DEFAULT 1,
+                                     -- Set by the archival job on old completed and failed tasks, moving them to tasks_archive
+                                     archived BOOLEAN NOT NULL DEFAULT FALSE,
+                                     -- Full-text search document; title words rank above description words
+                                     search_vector TSVECTOR GENERATED ALWAYS AS (
+                                         setweight(to_tsvector('english', title), 'A') ||
+                                         setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                                         ) STORED,
+                                     PRIMARY KEY (id, archived)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE tasks_active PARTITION OF tasks FOR VALUES IN (FALSE);
+CREATE TABLE tasks_archive PARTITION OF tasks FOR VALUES IN (TRUE);
+
+-- Tables added to the schema over time, created if this database predates them.
+-- Rows of deleted tasks are removed by trigger_tasks_delete_links.
+CREATE TABLE IF NOT EXISTS task_reminders (
+                                              task_id BIGINT PRIMARY KEY,
+                                              due_date DATE NOT NULL,
+                                              sent_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Last completed run of each scheduled job, shared by the nodes running the scheduler
+CREATE TABLE IF NOT EXISTS scheduled_job_runs (
+                                                  job VARCHAR(50) PRIMARY KEY,
+                                                  last_run_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Summary tables, filled at the end of this script
+CREATE TABLE IF NOT EXISTS task_stats (
+                                          status VARCHAR(20) NOT NULL,
+                                          priority VARCHAR(20) NOT NULL,
+                                          due_date DATE NOT NULL,
+                                          task_count BIGINT NOT NULL,
+                                          PRIMARY KEY (status, priority, due_date)
+);
+
+CREATE TABLE IF NOT EXISTS tag_stats (
+                                         tag_id BIGINT PRIMARY KEY REFERENCES tags(id) ON DELETE CASCADE,
+                                         task_count BIGINT NOT NULL
+);
+
+-- Indexes on tasks are created on each partition
+CREATE INDEX idx_task_status ON tasks(status, id);
+CREATE INDEX idx_task_priority ON tasks(priority);
+-- The scheduler's overdue and reminder sweeps walk the due date index in (due_date, id) batches
+CREATE INDEX idx_task_due_date ON tasks(due_date, id);
+-- Supports case-insensitive title prefix filters as an index range scan
+CREATE INDEX idx_task_title_prefix ON tasks(lower(title) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_tag_name ON tags(name);
+-- Full-text search, including prefix matches for type-ahead
+CREATE INDEX idx_task_search ON tasks USING GIN (search_vector);
+
+-- Copy the tasks before any trigger exists on the new table, so past due
+-- dates are accepted and the summary tables are filled once at the end.
+-- search_vector is generated from the copied title and description.
+INSERT INTO tasks (id, title, description, priority, due_date, status, created_at, updated_at, version)
+SELECT id, title, description, priority, due_date, status, created_at, updated_at, version
+FROM tasks_unpartitioned;
+
+-- Continue numbering where the old sequence stopped, so no id is handed out twice
+SELECT setval('tasks_id_seq', last_value, is_called) FROM tasks_unpartitioned_id_seq;
+
+-- Also drops the old table's triggers and its sequence
+DROP TABLE tasks_unpartitioned;
+
+-- Create function for updating the updated_at timestamp
+CREATE OR REPLACE FUNCTION update_updated_at()
+    RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create trigger to automatically update updated_at
+CREATE TRIGGER trigger_update_tasks_updated_at
+    BEFORE UPDATE ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION update_updated_at();
+
+-- New and changed due dates must not be in the past. This is a trigger rather
+-- than a CHECK constraint, which would be re-evaluated on every update and so
+-- reject any change to a task once its due date has passed, such as marking
+-- it failed. Updates that leave the due date alone are not checked, and nor
+-- are rows the archival job moves into tasks_archive, which arrive as inserts.
+-- Reopened tasks moving back into tasks_active arrive as inserts too; they are
+-- told apart from new tasks by their version, which every update increments.
+CREATE OR REPLACE FUNCTION check_due_date_future()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.due_date < CURRENT_DATE AND NOT NEW.archived
+        AND ((TG_OP = 'INSERT' AND NEW.version = 1)
+            OR (TG_OP = 'UPDATE' AND NEW.due_date IS DISTINCT FROM OLD.due_date)) THEN
+        RAISE EXCEPTION 'due date % is in the past', NEW.due_date
+            USING ERRCODE = 'check_violation', CONSTRAINT = 'due_date_future';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_due_date_future
+    BEFORE INSERT OR UPDATE OF due_date ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION check_due_date_future();
+
+-- Removes the tag links and reminders of deleted tasks, in place of the
+-- ON DELETE CASCADE foreign keys the partitioned tasks table cannot have.
+-- Tasks moved into the archive partition are updated, not deleted, and keep them.
+-- tag_stats is adjusted here for the links of deleted active tasks, as
+-- maintain_tag_stats only sees links whose task still exists.
+CREATE OR REPLACE FUNCTION delete_task_links()
+    RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO tag_stats (tag_id, task_count)
+    SELECT tt.tag_id, -count(*)
+    FROM task_tags tt JOIN old_rows o ON o.id = tt.task_id
+    WHERE NOT o.archived
+    GROUP BY tt.tag_id
+    ORDER BY tt.tag_id
+    ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+    DELETE FROM tag_stats s
+    USING (SELECT DISTINCT tt.tag_id FROM task_tags tt JOIN old_rows o ON o.id = tt.task_id) d
+    WHERE s.tag_id = d.tag_id AND s.task_count = 0;
+
+    DELETE FROM task_tags WHERE task_id IN (SELECT id FROM old_rows);
+    DELETE FROM task_reminders WHERE task_id IN (SELECT id FROM old_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_delete_links
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION delete_task_links();
+
+-- Change notifications on the task_changes channel, used by application nodes
+-- to keep their caches coherent. Triggers are statement-level, so a bulk write
+-- sends one notification rather than one per row. The payload is
+-- '<OPERATION>:<id>,<id>,...' with the affected task ids, or '<OPERATION>:*'
+-- when more ids changed than fit comfortably in a payload (limit 8000 bytes).
+CREATE OR REPLACE FUNCTION notify_task_change(op TEXT, ids BIGINT[])
+    RETURNS VOID AS $$
+BEGIN
+    IF ids IS NULL OR cardinality(ids) = 0 THEN
+        RETURN;
+    END IF;
+    IF cardinality(ids) > 500 THEN
+        PERFORM pg_notify('task_changes', op || ':*');
+    ELSE
+        PERFORM pg_notify('task_changes', op || ':' || array_to_string(ids, ','));
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_tasks_changed()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM notify_task_change(TG_OP, (SELECT array_agg(DISTINCT id) FROM old_rows));
+    ELSE
+        PERFORM notify_task_change(TG_OP, (SELECT array_agg(DISTINCT id) FROM new_rows));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_task_tags_changed()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM notify_task_change('TAGS', (SELECT array_agg(DISTINCT task_id) FROM old_rows));
+    ELSE
+        PERFORM notify_task_change('TAGS', (SELECT array_agg(DISTINCT task_id) FROM new_rows));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables require one trigger per event
+CREATE TRIGGER trigger_tasks_notify_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+CREATE TRIGGER trigger_tasks_notify_update
+    AFTER UPDATE ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+CREATE TRIGGER trigger_tasks_notify_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+DROP TRIGGER IF EXISTS trigger_task_tags_notify_insert ON task_tags;
+CREATE TRIGGER trigger_task_tags_notify_insert
+    AFTER INSERT ON task_tags
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_task_tags_changed();
+
+DROP TRIGGER IF EXISTS trigger_task_tags_notify_delete ON task_tags;
+CREATE TRIGGER trigger_task_tags_notify_delete
+    AFTER DELETE ON task_tags
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_task_tags_changed();
+
+-- Summary tables maintained incrementally by the triggers below, so dashboards
+-- read a number of rows bounded by the number of buckets rather than the number
+-- of tasks. task_stats holds one row per (status, priority, due_date) bucket:
+-- status x priority totals sum over due dates, and overdue counts sum the
+-- buckets whose due date has passed. tag_stats holds the task count per tag.
+-- Archived tasks are not counted, as the board does not show them: moving a
+-- task into tasks_archive counts as removing it, and reopening it as adding it.
+-- Triggers are statement-level and aggregate their transition tables first, so
+-- a bulk write touches each bucket once; buckets are upserted in key order so
+-- concurrent writers lock them in the same order. Empty buckets are removed.
+CREATE OR REPLACE FUNCTION maintain_task_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, count(*)
+        FROM new_rows
+        WHERE NOT archived
+        GROUP BY status, priority, due_date
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, -count(*)
+        FROM old_rows
+        WHERE NOT archived
+        GROUP BY status, priority, due_date
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+    ELSE
+        -- Updates that leave the bucket unchanged cancel out and write nothing
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, sum(delta)
+        FROM (SELECT status, priority, due_date, 1 AS delta FROM new_rows WHERE NOT archived
+              UNION ALL
+              SELECT status, priority, due_date, -1 FROM old_rows WHERE NOT archived) changes
+        GROUP BY status, priority, due_date
+        HAVING sum(delta) <> 0
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+
+        -- Archiving or reopening a task removes or adds back its tags' counts
+        IF EXISTS (SELECT 1 FROM new_rows WHERE archived) OR EXISTS (SELECT 1 FROM old_rows WHERE archived) THEN
+            INSERT INTO tag_stats (tag_id, task_count)
+            SELECT tt.tag_id, sum(CASE WHEN n.archived THEN -1 ELSE 1 END)
+            FROM new_rows n
+                JOIN old_rows o ON o.id = n.id AND o.archived <> n.archived
+                JOIN task_tags tt ON tt.task_id = n.id
+            GROUP BY tt.tag_id
+            ORDER BY tt.tag_id
+            ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+
+            DELETE FROM tag_stats s
+            USING (SELECT DISTINCT tt.tag_id FROM new_rows n JOIN task_tags tt ON tt.task_id = n.id WHERE n.archived) d
+            WHERE s.tag_id = d.tag_id AND s.task_count = 0;
+        END IF;
+    END IF;
+
+    DELETE FROM task_stats s
+    USING (SELECT DISTINCT status, priority, due_date FROM old_rows) o
+    WHERE s.status = o.status AND s.priority = o.priority AND s.due_date = o.due_date
+      AND s.task_count = 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rows of tags deleted by the same statement are skipped; tag_stats loses
+-- them through its foreign key. Only links of active tasks are counted; links
+-- of a task deleted by the same statement are accounted for by delete_task_links.
+CREATE OR REPLACE FUNCTION maintain_tag_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tag_stats (tag_id, task_count)
+        SELECT r.tag_id, count(*)
+        FROM new_rows r
+            JOIN tags t ON t.id = r.tag_id
+            JOIN tasks k ON k.id = r.task_id AND k.archived = FALSE
+        GROUP BY r.tag_id
+        ORDER BY r.tag_id
+        ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+    ELSE
+        INSERT INTO tag_stats (tag_id, task_count)
+        SELECT r.tag_id, -count(*)
+        FROM old_rows r
+            JOIN tags t ON t.id = r.tag_id
+            JOIN tasks k ON k.id = r.task_id AND k.archived = FALSE
+        GROUP BY r.tag_id
+        ORDER BY r.tag_id
+        ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+
+        DELETE FROM tag_stats s
+        USING (SELECT DISTINCT tag_id FROM old_rows) o
+        WHERE s.tag_id = o.tag_id AND s.task_count = 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TRUNCATE fires no row or statement DML triggers; clear the summaries with it
+CREATE OR REPLACE FUNCTION clear_task_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'tasks' THEN
+        DELETE FROM task_stats;
+    END IF;
+    DELETE FROM tag_stats;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_stats_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+CREATE TRIGGER trigger_tasks_stats_update
+    AFTER UPDATE ON tasks
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+CREATE TRIGGER trigger_tasks_stats_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+DROP TRIGGER IF EXISTS trigger_task_tags_stats_insert ON task_tags;
+CREATE TRIGGER trigger_task_tags_stats_insert
+    AFTER INSERT ON task_tags
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_tag_stats();
+
+DROP TRIGGER IF EXISTS trigger_task_tags_stats_delete ON task_tags;
+CREATE TRIGGER trigger_task_tags_stats_delete
+    AFTER DELETE ON task_tags
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_tag_stats();
+
+CREATE TRIGGER trigger_tasks_stats_truncate
+    AFTER TRUNCATE ON tasks
+    FOR EACH STATEMENT
+EXECUTE FUNCTION clear_task_stats();
+
+DROP TRIGGER IF EXISTS trigger_task_tags_stats_truncate ON task_tags;
+CREATE TRIGGER trigger_task_tags_stats_truncate
+    AFTER TRUNCATE ON task_tags
+    FOR EACH STATEMENT
+EXECUTE FUNCTION clear_task_stats();
+
+-- Fill the summary tables, which count active tasks only
+DELETE FROM task_stats;
+DELETE FROM tag_stats;
+INSERT INTO task_stats (status, priority, due_date, task_count)
+SELECT status, priority, due_date, count(*) FROM tasks WHERE archived = FALSE
+GROUP BY status, priority, due_date;
+INSERT INTO tag_stats (tag_id, task_count)
+SELECT tt.tag_id, count(*) FROM task_tags tt
+    JOIN tasks t ON t.id = tt.task_id AND t.archived = FALSE
+GROUP BY tt.tag_id;
+
+COMMIT;
@@ -1,9 +1,12 @@
 -- Enable UUID extension if you want to use UUIDs instead of BIGINT for IDs
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
--- Main tasks table
+-- Main tasks table, partitioned into active and archived tasks. The board
+-- reads only tasks_active, whose indexes stay small however much history
+-- accumulates in tasks_archive. The partition key is part of the primary key,
+-- as PostgreSQL requires; ids are still unique as they all come from tasks_id_seq.
 CREATE TABLE IF NOT EXISTS tasks (
-                                     id BIGSERIAL PRIMARY KEY,
+                                     id BIGSERIAL,
                                      title VARCHAR(100) NOT NULL,
                                      description TEXT,
                                      priority VARCHAR(20) NOT NULL
@@ -14,8 +17,20 @@ CREATE TABLE IF NOT EXISTS tasks (
                                                                          DEFAULT 'PENDING',
                                      created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
                                      updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
-                                     CONSTRAINT due_date_future CHECK (due_date >= CURRENT_DATE)
-);
+                                     -- Incremented by every update; updates naming a stale version are rejected
+                                     version BIGINT NOT NULL DEFAULT 1,
+                                     -- Set by the archival job on old completed and failed tasks, moving them to tasks_archive
+                                     archived BOOLEAN NOT NULL DEFAULT FALSE,
+                                     -- Full-text search document; title words rank above description words
+                                     search_vector TSVECTOR GENERATED ALWAYS AS (
+                                         setweight(to_tsvector('english', title), 'A') ||
+                                         setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                                         ) STORED,
+                                     PRIMARY KEY (id, archived)
+) PARTITION BY LIST (archived);
+
+CREATE TABLE IF NOT EXISTS tasks_active PARTITION OF tasks FOR VALUES IN (FALSE);
+CREATE TABLE IF NOT EXISTS tasks_archive PARTITION OF tasks FOR VALUES IN (TRUE);
 
 -- Tags table (many-to-many relationship with tasks)
 CREATE TABLE IF NOT EXISTS tags (
@@ -25,20 +40,44 @@ CREATE TABLE IF NOT EXISTS tags (
                                     CONSTRAINT unique_tag_name UNIQUE (name)
 );
 
--- Junction table for task-tag relationships
+-- Junction table for task-tag relationships. A foreign key cannot reference
+-- tasks(id) alone on the partitioned table, so links of deleted tasks are
+-- removed by trigger_tasks_delete_links instead of ON DELETE CASCADE.
 CREATE TABLE IF NOT EXISTS task_tags (
                                          task_id BIGINT NOT NULL,
                                          tag_id BIGINT NOT NULL,
                                          PRIMARY KEY (task_id, tag_id),
-                                         FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE,
                                          FOREIGN KEY (tag_id) REFERENCES tags(id) ON DELETE CASCADE
 );
 
--- Create indexes for better performance
-CREATE INDEX idx_task_status ON tasks(status);
+-- Due-date reminders already sent, one row per task with the due date it was
+-- reminded of, so each reminder is sent once and a postponed task is reminded again.
+-- Rows of deleted tasks are removed by trigger_tasks_delete_links.
+CREATE TABLE IF NOT EXISTS task_reminders (
+                                              task_id BIGINT PRIMARY KEY,
+                                              due_date DATE NOT NULL,
+                                              sent_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Last completed run of each scheduled job, shared by the nodes running the scheduler
+CREATE TABLE IF NOT EXISTS scheduled_job_runs (
+                                                  job VARCHAR(50) PRIMARY KEY,
+                                                  last_run_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Create indexes for better performance. Indexes on tasks are created on
+-- each partition, so the active partition's indexes only cover active tasks
+-- status and due_date indexes carry id as a tie-breaker so keyset pagination
+-- can seek on (status, id) and (due_date, id) and read rows already in order
+CREATE INDEX idx_task_status ON tasks(status, id);
 CREATE INDEX idx_task_priority ON tasks(priority);
-CREATE INDEX idx_task_due_date ON tasks(due_date);
+-- The scheduler's overdue and reminder sweeps walk the due date index in (due_date, id) batches
+CREATE INDEX idx_task_due_date ON tasks(due_date, id);
+-- Supports case-insensitive title prefix filters as an index range scan
+CREATE INDEX idx_task_title_prefix ON tasks(lower(title) text_pattern_ops);
 CREATE INDEX idx_tag_name ON tags(name);
+-- Full-text search, including prefix matches for type-ahead
+CREATE INDEX idx_task_search ON tasks USING GIN (search_vector);
 
 -- Create function for updating the updated_at timestamp
 CREATE OR REPLACE FUNCTION update_updated_at()
@@ -55,6 +94,306 @@ CREATE TRIGGER trigger_update_tasks_updated_at
     FOR EACH ROW
 EXECUTE FUNCTION update_updated_at();
 
+-- New and changed due dates must not be in the past. This is a trigger rather
+-- than a CHECK constraint, which would be re-evaluated on every update and so
+-- reject any change to a task once its due date has passed, such as marking
+-- it failed. Updates that leave the due date alone are not checked, and nor
+-- are rows the archival job moves into tasks_archive, which arrive as inserts.
+-- Reopened tasks moving back into tasks_active arrive as inserts too; they are
+-- told apart from new tasks by their version, which every update increments.
+CREATE OR REPLACE FUNCTION check_due_date_future()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.due_date < CURRENT_DATE AND NOT NEW.archived
+        AND ((TG_OP = 'INSERT' AND NEW.version = 1)
+            OR (TG_OP = 'UPDATE' AND NEW.due_date IS DISTINCT FROM OLD.due_date)) THEN
+        RAISE EXCEPTION 'due date % is in the past', NEW.due_date
+            USING ERRCODE = 'check_violation', CONSTRAINT = 'due_date_future';
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_due_date_future
+    BEFORE INSERT OR UPDATE OF due_date ON tasks
+    FOR EACH ROW
+EXECUTE FUNCTION check_due_date_future();
+
+-- Removes the tag links and reminders of deleted tasks, in place of the
+-- ON DELETE CASCADE foreign keys the partitioned tasks table cannot have.
+-- Tasks moved into the archive partition are updated, not deleted, and keep them.
+-- tag_stats is adjusted here for the links of deleted active tasks, as
+-- maintain_tag_stats only sees links whose task still exists.
+CREATE OR REPLACE FUNCTION delete_task_links()
+    RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO tag_stats (tag_id, task_count)
+    SELECT tt.tag_id, -count(*)
+    FROM task_tags tt JOIN old_rows o ON o.id = tt.task_id
+    WHERE NOT o.archived
+    GROUP BY tt.tag_id
+    ORDER BY tt.tag_id
+    ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+    DELETE FROM tag_stats s
+    USING (SELECT DISTINCT tt.tag_id FROM task_tags tt JOIN old_rows o ON o.id = tt.task_id) d
+    WHERE s.tag_id = d.tag_id AND s.task_count = 0;
+
+    DELETE FROM task_tags WHERE task_id IN (SELECT id FROM old_rows);
+    DELETE FROM task_reminders WHERE task_id IN (SELECT id FROM old_rows);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_delete_links
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION delete_task_links();
+
+-- Change notifications on the task_changes channel, used by application nodes
+-- to keep their caches coherent. Triggers are statement-level, so a bulk write
+-- sends one notification rather than one per row. The payload is
+-- '<OPERATION>:<id>,<id>,...' with the affected task ids, or '<OPERATION>:*'
+-- when more ids changed than fit comfortably in a payload (limit 8000 bytes).
+CREATE OR REPLACE FUNCTION notify_task_change(op TEXT, ids BIGINT[])
+    RETURNS VOID AS $$
+BEGIN
+    IF ids IS NULL OR cardinality(ids) = 0 THEN
+        RETURN;
+    END IF;
+    IF cardinality(ids) > 500 THEN
+        PERFORM pg_notify('task_changes', op || ':*');
+    ELSE
+        PERFORM pg_notify('task_changes', op || ':' || array_to_string(ids, ','));
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_tasks_changed()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM notify_task_change(TG_OP, (SELECT array_agg(DISTINCT id) FROM old_rows));
+    ELSE
+        PERFORM notify_task_change(TG_OP, (SELECT array_agg(DISTINCT id) FROM new_rows));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_task_tags_changed()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM notify_task_change('TAGS', (SELECT array_agg(DISTINCT task_id) FROM old_rows));
+    ELSE
+        PERFORM notify_task_change('TAGS', (SELECT array_agg(DISTINCT task_id) FROM new_rows));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables require one trigger per event
+CREATE TRIGGER trigger_tasks_notify_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+CREATE TRIGGER trigger_tasks_notify_update
+    AFTER UPDATE ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+CREATE TRIGGER trigger_tasks_notify_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_tasks_changed();
+
+CREATE TRIGGER trigger_task_tags_notify_insert
+    AFTER INSERT ON task_tags
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_task_tags_changed();
+
+CREATE TRIGGER trigger_task_tags_notify_delete
+    AFTER DELETE ON task_tags
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_task_tags_changed();
+
+-- Summary tables maintained incrementally by the triggers below, so dashboards
+-- read a number of rows bounded by the number of buckets rather than the number
+-- of tasks. task_stats holds one row per (status, priority, due_date) bucket:
+-- status x priority totals sum over due dates, and overdue counts sum the
+-- buckets whose due date has passed. tag_stats holds the task count per tag.
+-- Archived tasks are not counted, as the board does not show them: moving a
+-- task into tasks_archive counts as removing it, and reopening it as adding it.
+-- Triggers are statement-level and aggregate their transition tables first, so
+-- a bulk write touches each bucket once; buckets are upserted in key order so
+-- concurrent writers lock them in the same order. Empty buckets are removed.
+CREATE TABLE IF NOT EXISTS task_stats (
+                                          status VARCHAR(20) NOT NULL,
+                                          priority VARCHAR(20) NOT NULL,
+                                          due_date DATE NOT NULL,
+                                          task_count BIGINT NOT NULL,
+                                          PRIMARY KEY (status, priority, due_date)
+);
+
+CREATE TABLE IF NOT EXISTS tag_stats (
+                                         tag_id BIGINT PRIMARY KEY REFERENCES tags(id) ON DELETE CASCADE,
+                                         task_count BIGINT NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION maintain_task_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, count(*)
+        FROM new_rows
+        WHERE NOT archived
+        GROUP BY status, priority, due_date
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, -count(*)
+        FROM old_rows
+        WHERE NOT archived
+        GROUP BY status, priority, due_date
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+    ELSE
+        -- Updates that leave the bucket unchanged cancel out and write nothing
+        INSERT INTO task_stats (status, priority, due_date, task_count)
+        SELECT status, priority, due_date, sum(delta)
+        FROM (SELECT status, priority, due_date, 1 AS delta FROM new_rows WHERE NOT archived
+              UNION ALL
+              SELECT status, priority, due_date, -1 FROM old_rows WHERE NOT archived) changes
+        GROUP BY status, priority, due_date
+        HAVING sum(delta) <> 0
+        ORDER BY status, priority, due_date
+        ON CONFLICT (status, priority, due_date)
+            DO UPDATE SET task_count = task_stats.task_count + EXCLUDED.task_count;
+
+        -- Archiving or reopening a task removes or adds back its tags' counts
+        IF EXISTS (SELECT 1 FROM new_rows WHERE archived) OR EXISTS (SELECT 1 FROM old_rows WHERE archived) THEN
+            INSERT INTO tag_stats (tag_id, task_count)
+            SELECT tt.tag_id, sum(CASE WHEN n.archived THEN -1 ELSE 1 END)
+            FROM new_rows n
+                JOIN old_rows o ON o.id = n.id AND o.archived <> n.archived
+                JOIN task_tags tt ON tt.task_id = n.id
+            GROUP BY tt.tag_id
+            ORDER BY tt.tag_id
+            ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+
+            DELETE FROM tag_stats s
+            USING (SELECT DISTINCT tt.tag_id FROM new_rows n JOIN task_tags tt ON tt.task_id = n.id WHERE n.archived) d
+            WHERE s.tag_id = d.tag_id AND s.task_count = 0;
+        END IF;
+    END IF;
+
+    DELETE FROM task_stats s
+    USING (SELECT DISTINCT status, priority, due_date FROM old_rows) o
+    WHERE s.status = o.status AND s.priority = o.priority AND s.due_date = o.due_date
+      AND s.task_count = 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rows of tags deleted by the same statement are skipped; tag_stats loses
+-- them through its foreign key. Only links of active tasks are counted; links
+-- of a task deleted by the same statement are accounted for by delete_task_links.
+CREATE OR REPLACE FUNCTION maintain_tag_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO tag_stats (tag_id, task_count)
+        SELECT r.tag_id, count(*)
+        FROM new_rows r
+            JOIN tags t ON t.id = r.tag_id
+            JOIN tasks k ON k.id = r.task_id AND k.archived = FALSE
+        GROUP BY r.tag_id
+        ORDER BY r.tag_id
+        ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+    ELSE
+        INSERT INTO tag_stats (tag_id, task_count)
+        SELECT r.tag_id, -count(*)
+        FROM old_rows r
+            JOIN tags t ON t.id = r.tag_id
+            JOIN tasks k ON k.id = r.task_id AND k.archived = FALSE
+        GROUP BY r.tag_id
+        ORDER BY r.tag_id
+        ON CONFLICT (tag_id) DO UPDATE SET task_count = tag_stats.task_count + EXCLUDED.task_count;
+
+        DELETE FROM tag_stats s
+        USING (SELECT DISTINCT tag_id FROM old_rows) o
+        WHERE s.tag_id = o.tag_id AND s.task_count = 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TRUNCATE fires no row or statement DML triggers; clear the summaries with it
+CREATE OR REPLACE FUNCTION clear_task_stats()
+    RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_TABLE_NAME = 'tasks' THEN
+        DELETE FROM task_stats;
+    END IF;
+    DELETE FROM tag_stats;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_tasks_stats_insert
+    AFTER INSERT ON tasks
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+CREATE TRIGGER trigger_tasks_stats_update
+    AFTER UPDATE ON tasks
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+CREATE TRIGGER trigger_tasks_stats_delete
+    AFTER DELETE ON tasks
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_task_stats();
+
+CREATE TRIGGER trigger_task_tags_stats_insert
+    AFTER INSERT ON task_tags
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_tag_stats();
+
+CREATE TRIGGER trigger_task_tags_stats_delete
+    AFTER DELETE ON task_tags
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION maintain_tag_stats();
+
+CREATE TRIGGER trigger_tasks_stats_truncate
+    AFTER TRUNCATE ON tasks
+    FOR EACH STATEMENT
+EXECUTE FUNCTION clear_task_stats();
+
+CREATE TRIGGER trigger_task_tags_stats_truncate
+    AFTER TRUNCATE ON task_tags
+    FOR EACH STATEMENT
+EXECUTE FUNCTION clear_task_stats();
+
 -- Sample data insertion
 INSERT INTO tasks (title, description, priority, due_date, status) VALUES
                                                                        ('Complete project proposal', 'Draft and submit the project proposal document', 'HIGH', CURRENT_DATE + 7, 'PENDING'),
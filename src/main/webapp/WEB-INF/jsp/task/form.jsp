@@ -12,6 +12,7 @@
 
 <form action="${pageContext.request.contextPath}/tasks" method="post" class="needs-validation" novalidate>
   <input type="hidden" name="id" value="${task.id}">
+  <input type="hidden" name="version" value="${task.version}">
   <input type="hidden" name="action" value="${empty task.id ? 'create' : 'update'}">
 
   <div class="mb-3">
@@ -71,9 +72,11 @@
 
   <div class="mb-3">
     <label for="tags" class="form-label">Tags (comma separated)</label>
-    <input type="text" class="form-control" id="tags" name="tags"
-           value="${not empty tagsString ? tagsString : fn:join(task.tags, ',')}">
-    <div class="form-text">Enter tags separated by commas (e.g., "urgent, client, project")</div>
+    <input type="text" class="form-control" id="tags" name="tags" autocomplete="off"
+           value="${not empty tagsString ? tagsString : fn:join(task.tags, ',')}"
+           list="tag-suggestions" data-suggest-url="${pageContext.request.contextPath}/api/tags">
+    <datalist id="tag-suggestions"></datalist>
+    <div class="form-text">Enter tags separated by commas (e.g., "urgent, client, project"); existing tags are suggested as you type</div>
   </div>
 
   <button type="submit" class="btn btn-primary">Save</button>
@@ -5,6 +5,7 @@
 <link rel="stylesheet" href="${pageContext.request.contextPath}/css/styles.css">
 <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/5.15.4/css/all.min.css">
 <script src="${pageContext.request.contextPath}/js/script.js" defer></script>
+<c:set var="statusLabels" value="${{'PENDING': 'To do', 'IN_PROGRESS': 'In Progress', 'COMPLETED': 'Done'}}"/>
 
 <div class="container-fluid dashboard-container">
   <div class="row mb-4">
@@ -34,6 +35,15 @@
           <i class="fas fa-sort-amount-down me-2"></i>Sort by Due Date (Desc)
         </a>
       </div>
+
+      <form class="d-inline-block ms-4 task-search" action="tasks" method="get" role="search">
+        <input type="hidden" name="action" value="search">
+        <input type="search" name="search" class="form-control" value="${fn:escapeXml(param.search)}"
+               placeholder="Search tasks" aria-label="Search tasks" autocomplete="off"
+               list="task-search-suggestions"
+               data-suggest-url="${pageContext.request.contextPath}/api/tasks">
+        <datalist id="task-search-suggestions"></datalist>
+      </form>
     </div>
   </div>
 
@@ -41,99 +51,94 @@
     <div class="alert alert-success">${message}</div>
   </c:if>
 
-  <div class="task-board">
+  <%-- Live updates may add new cards only to the unfiltered first page --%>
+  <div class="task-board"
+       data-events-url="${pageContext.request.contextPath}/tasks/events"
+       data-counts-url="${pageContext.request.contextPath}/api/tasks/counts${empty pageContext.request.queryString ? '' : '?'}${fn:escapeXml(pageContext.request.queryString)}"
+       data-live-insert="${(empty param.action or param.action == 'list') and empty param.cursor}">
     <div class="task-column pending-column">
       <div class="column-header">
         <div class="status-indicator pending"></div>
-        <h3>To do <span class="task-count">
-          <c:set var="pendingCount" value="0"/>
-          <c:forEach var="task" items="${tasks}">
-            <c:if test="${task.status == 'PENDING'}">
-              <c:set var="pendingCount" value="${pendingCount + 1}"/>
-            </c:if>
-          </c:forEach>
-          ${pendingCount}
-        </span></h3>
+        <h3>To do <span class="task-count">${counts.byStatus['PENDING']}</span></h3>
         <div class="column-actions">
           <button class="btn-add" aria-label="Add task to this column"><i class="fas fa-plus"></i></button>
           <button class="btn-more" aria-label="More options"><i class="fas fa-ellipsis-h"></i></button>
         </div>
       </div>
 
-      <div class="tasks-container">
-        <c:forEach var="task" items="${tasks}">
-          <c:if test="${task.status == 'PENDING'}">
-            <div class="task-card" aria-label="Task: ${task.title}">
-              <div class="task-header">
-                <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
-                  <c:set var="statusDisplay" value="Not Started"/>
-                  <c:set var="statusClass" value="not-started"/>
-                  <c:if test="${not empty task.tags && fn:length(task.tags) > 0}">
-                    <c:choose>
-                      <c:when test="${task.tags[0] == 'Research'}">
-                        <c:set var="statusDisplay" value="In Research"/>
-                        <c:set var="statusClass" value="research"/>
-                      </c:when>
-                      <c:when test="${task.tags[0] == 'On Track'}">
-                        <c:set var="statusDisplay" value="On Track"/>
-                        <c:set var="statusClass" value="on-track"/>
-                      </c:when>
-                    </c:choose>
-                  </c:if>
-                  <div class="status-dot ${statusClass}"></div>
-                  <span>${statusDisplay}</span>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit Task
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete Task
-                    </a>
-                  </div>
+      <div class="tasks-container" data-status="PENDING">
+        <c:forEach var="task" items="${tasksByStatus['PENDING']}">
+          <div class="task-card" data-task-id="${task.id}" aria-label="Task: ${task.title}">
+            <div class="task-header">
+              <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
+                <c:set var="statusDisplay" value="Not Started"/>
+                <c:set var="statusClass" value="not-started"/>
+                <c:if test="${not empty task.tags && fn:length(task.tags) > 0}">
+                  <c:choose>
+                    <c:when test="${task.tags[0] == 'Research'}">
+                      <c:set var="statusDisplay" value="In Research"/>
+                      <c:set var="statusClass" value="research"/>
+                    </c:when>
+                    <c:when test="${task.tags[0] == 'On Track'}">
+                      <c:set var="statusDisplay" value="On Track"/>
+                      <c:set var="statusClass" value="on-track"/>
+                    </c:when>
+                  </c:choose>
+                </c:if>
+                <div class="status-dot ${statusClass}"></div>
+                <span>${statusDisplay}</span>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit Task
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete Task
+                  </a>
+                  <%@ include file="status-moves.jspf" %>
                 </div>
-                <div class="task-actions">
-                  <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
-                    <i class="fas fa-ellipsis-h"></i>
-                  </button>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete
-                    </a>
-                  </div>
+              </div>
+              <div class="task-actions">
+                <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
+                  <i class="fas fa-ellipsis-h"></i>
+                </button>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete
+                  </a>
                 </div>
               </div>
+            </div>
 
-              <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
-              <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
+            <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
+            <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
 
-              <div class="due-date">
-                <i class="far fa-calendar-alt" aria-hidden="true"></i>
-                <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
-              </div>
+            <div class="due-date">
+              <i class="far fa-calendar-alt" aria-hidden="true"></i>
+              <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
+            </div>
 
-              <div class="priority-badge ${fn:toLowerCase(task.priority)}">
-                  ${task.priority}
-              </div>
+            <div class="priority-badge ${fn:toLowerCase(task.priority)}">
+                ${task.priority}
+            </div>
 
-              <div class="task-footer">
-                <div class="task-tags">
-                  <c:forEach var="tag" items="${task.tags}">
-                    <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
-                  </c:forEach>
-                  <c:if test="${empty task.tags}">
-                    <span class="no-tags">No tags</span>
-                  </c:if>
-                </div>
+            <div class="task-footer">
+              <div class="task-tags">
+                <c:forEach var="tag" items="${task.tags}">
+                  <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
+                </c:forEach>
+                <c:if test="${empty task.tags}">
+                  <span class="no-tags">No tags</span>
+                </c:if>
               </div>
             </div>
-          </c:if>
+          </div>
         </c:forEach>
       </div>
     </div>
@@ -141,95 +146,86 @@
     <div class="task-column progress-column">
       <div class="column-header">
         <div class="status-indicator progress"></div>
-        <h3>In Progress <span class="task-count">
-          <c:set var="progressCount" value="0"/>
-          <c:forEach var="task" items="${tasks}">
-            <c:if test="${task.status == 'IN_PROGRESS'}">
-              <c:set var="progressCount" value="${progressCount + 1}"/>
-            </c:if>
-          </c:forEach>
-          ${progressCount}
-        </span></h3>
+        <h3>In Progress <span class="task-count">${counts.byStatus['IN_PROGRESS']}</span></h3>
         <div class="column-actions">
           <button class="btn-add" aria-label="Add task to this column"><i class="fas fa-plus"></i></button>
           <button class="btn-more" aria-label="More options"><i class="fas fa-ellipsis-h"></i></button>
         </div>
       </div>
 
-      <div class="tasks-container">
-        <c:forEach var="task" items="${tasks}">
-          <c:if test="${task.status == 'IN_PROGRESS'}">
-            <div class="task-card" aria-label="Task: ${task.title}">
-              <div class="task-header">
-                <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
-                  <c:set var="statusDisplay" value="In Progress"/>
-                  <c:set var="statusClass" value="in-progress"/>
-                  <c:if test="${not empty task.tags && fn:length(task.tags) > 0}">
-                    <c:choose>
-                      <c:when test="${task.tags[0] == 'Research'}">
-                        <c:set var="statusDisplay" value="In Research"/>
-                        <c:set var="statusClass" value="research"/>
-                      </c:when>
-                      <c:when test="${task.tags[0] == 'On Track'}">
-                        <c:set var="statusDisplay" value="On Track"/>
-                        <c:set var="statusClass" value="on-track"/>
-                      </c:when>
-                    </c:choose>
-                  </c:if>
-                  <div class="status-dot ${statusClass}"></div>
-                  <span>${statusDisplay}</span>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit Task
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete Task
-                    </a>
-                  </div>
+      <div class="tasks-container" data-status="IN_PROGRESS">
+        <c:forEach var="task" items="${tasksByStatus['IN_PROGRESS']}">
+          <div class="task-card" data-task-id="${task.id}" aria-label="Task: ${task.title}">
+            <div class="task-header">
+              <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
+                <c:set var="statusDisplay" value="In Progress"/>
+                <c:set var="statusClass" value="in-progress"/>
+                <c:if test="${not empty task.tags && fn:length(task.tags) > 0}">
+                  <c:choose>
+                    <c:when test="${task.tags[0] == 'Research'}">
+                      <c:set var="statusDisplay" value="In Research"/>
+                      <c:set var="statusClass" value="research"/>
+                    </c:when>
+                    <c:when test="${task.tags[0] == 'On Track'}">
+                      <c:set var="statusDisplay" value="On Track"/>
+                      <c:set var="statusClass" value="on-track"/>
+                    </c:when>
+                  </c:choose>
+                </c:if>
+                <div class="status-dot ${statusClass}"></div>
+                <span>${statusDisplay}</span>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit Task
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete Task
+                  </a>
+                  <%@ include file="status-moves.jspf" %>
                 </div>
-                <div class="task-actions">
-                  <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
-                    <i class="fas fa-ellipsis-h"></i>
-                  </button>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete
-                    </a>
-                  </div>
+              </div>
+              <div class="task-actions">
+                <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
+                  <i class="fas fa-ellipsis-h"></i>
+                </button>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete
+                  </a>
                 </div>
               </div>
+            </div>
 
-              <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
-              <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
+            <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
+            <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
 
-              <div class="due-date">
-                <i class="far fa-calendar-alt" aria-hidden="true"></i>
-                <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
-              </div>
+            <div class="due-date">
+              <i class="far fa-calendar-alt" aria-hidden="true"></i>
+              <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
+            </div>
 
-              <div class="priority-badge ${fn:toLowerCase(task.priority)}">
-                  ${task.priority}
-              </div>
+            <div class="priority-badge ${fn:toLowerCase(task.priority)}">
+                ${task.priority}
+            </div>
 
-              <div class="task-footer">
-                <div class="task-tags">
-                  <c:forEach var="tag" items="${task.tags}">
-                    <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
-                  </c:forEach>
-                  <c:if test="${empty task.tags}">
-                    <span class="no-tags">No tags</span>
-                  </c:if>
-                </div>
+            <div class="task-footer">
+              <div class="task-tags">
+                <c:forEach var="tag" items="${task.tags}">
+                  <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
+                </c:forEach>
+                <c:if test="${empty task.tags}">
+                  <span class="no-tags">No tags</span>
+                </c:if>
               </div>
             </div>
-          </c:if>
+          </div>
         </c:forEach>
       </div>
     </div>
@@ -237,81 +233,72 @@
     <div class="task-column completed-column">
       <div class="column-header">
         <div class="status-indicator completed"></div>
-        <h3>Done <span class="task-count">
-          <c:set var="completedCount" value="0"/>
-          <c:forEach var="task" items="${tasks}">
-            <c:if test="${task.status == 'COMPLETED'}">
-              <c:set var="completedCount" value="${completedCount + 1}"/>
-            </c:if>
-          </c:forEach>
-          ${completedCount}
-        </span></h3>
+        <h3>Done <span class="task-count">${counts.byStatus['COMPLETED']}</span></h3>
         <div class="column-actions">
           <button class="btn-add" aria-label="Add task to this column"><i class="fas fa-plus"></i></button>
           <button class="btn-more" aria-label="More options"><i class="fas fa-ellipsis-h"></i></button>
         </div>
       </div>
 
-      <div class="tasks-container">
-        <c:forEach var="task" items="${tasks}">
-          <c:if test="${task.status == 'COMPLETED'}">
-            <div class="task-card" aria-label="Task: ${task.title}">
-              <div class="task-header">
-                <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
-                  <div class="status-dot complete"></div>
-                  <span>Complete</span>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit Task
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete Task
-                    </a>
-                  </div>
+      <div class="tasks-container" data-status="COMPLETED">
+        <c:forEach var="task" items="${tasksByStatus['COMPLETED']}">
+          <div class="task-card" data-task-id="${task.id}" aria-label="Task: ${task.title}">
+            <div class="task-header">
+              <div class="task-status ${fn:toLowerCase(task.status)}" onclick="toggleDropdown(this)">
+                <div class="status-dot complete"></div>
+                <span>Complete</span>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit Task
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete Task
+                  </a>
+                  <%@ include file="status-moves.jspf" %>
                 </div>
-                <div class="task-actions">
-                  <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
-                    <i class="fas fa-ellipsis-h"></i>
-                  </button>
-                  <div class="dropdown-menu">
-                    <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
-                      <i class="fas fa-edit"></i> Edit
-                    </a>
-                    <a href="#" class="dropdown-item delete"
-                       data-task-id="${task.id}"
-                       data-task-title="${fn:escapeXml(task.title)}">
-                      <i class="fas fa-trash"></i> Delete
-                    </a>
-                  </div>
+              </div>
+              <div class="task-actions">
+                <button class="btn-more" aria-label="More options" onclick="toggleDropdown(this)">
+                  <i class="fas fa-ellipsis-h"></i>
+                </button>
+                <div class="dropdown-menu">
+                  <a href="tasks?action=edit&id=${task.id}" class="dropdown-item">
+                    <i class="fas fa-edit"></i> Edit
+                  </a>
+                  <a href="#" class="dropdown-item delete"
+                     data-task-id="${task.id}"
+                     data-task-title="${fn:escapeXml(task.title)}">
+                    <i class="fas fa-trash"></i> Delete
+                  </a>
                 </div>
               </div>
+            </div>
 
-              <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
-              <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
+            <h4 class="task-title">${not empty task.title ? task.title : 'Untitled Task'}</h4>
+            <p class="task-description">${not empty task.description ? task.description : 'No description available'}</p>
 
-              <div class="due-date">
-                <i class="far fa-calendar-alt" aria-hidden="true"></i>
-                <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
-              </div>
+            <div class="due-date">
+              <i class="far fa-calendar-alt" aria-hidden="true"></i>
+              <fmt:formatDate value="${task.dueDate}" pattern="dd MMM yyyy" />
+            </div>
 
-              <div class="priority-badge ${fn:toLowerCase(task.priority)}">
-                  ${task.priority}
-              </div>
+            <div class="priority-badge ${fn:toLowerCase(task.priority)}">
+                ${task.priority}
+            </div>
 
-              <div class="task-footer">
-                <div class="task-tags">
-                  <c:forEach var="tag" items="${task.tags}">
-                    <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
-                  </c:forEach>
-                  <c:if test="${empty task.tags}">
-                    <span class="no-tags">No tags</span>
-                  </c:if>
-                </div>
+            <div class="task-footer">
+              <div class="task-tags">
+                <c:forEach var="tag" items="${task.tags}">
+                  <span class="task-tag" data-tag="${fn:toLowerCase(tag)}">${tag}</span>
+                </c:forEach>
+                <c:if test="${empty task.tags}">
+                  <span class="no-tags">No tags</span>
+                </c:if>
               </div>
             </div>
-          </c:if>
+          </div>
         </c:forEach>
       </div>
     </div>
@@ -322,6 +309,36 @@
       </button>
     </div>
   </div>
+
+  <div class="row mt-4 mb-4">
+    <div class="col pagination-controls">
+      <c:if test="${not empty param.cursor}">
+        <c:url var="firstPageUrl" value="tasks">
+          <c:forEach var="p" items="${paramValues}">
+            <c:if test="${p.key != 'cursor'}">
+              <c:forEach var="v" items="${p.value}"><c:param name="${p.key}" value="${v}"/></c:forEach>
+            </c:if>
+          </c:forEach>
+        </c:url>
+        <a href="${firstPageUrl}" class="btn btn-outline-secondary" aria-label="First page">
+          <i class="fas fa-angle-double-left me-2"></i>First page
+        </a>
+      </c:if>
+      <c:if test="${not empty nextCursor}">
+        <c:url var="nextPageUrl" value="tasks">
+          <c:forEach var="p" items="${paramValues}">
+            <c:if test="${p.key != 'cursor'}">
+              <c:forEach var="v" items="${p.value}"><c:param name="${p.key}" value="${v}"/></c:forEach>
+            </c:if>
+          </c:forEach>
+          <c:param name="cursor" value="${nextCursor}"/>
+        </c:url>
+        <a href="${nextPageUrl}" class="btn btn-outline-secondary ms-2" aria-label="Next page">
+          Next page<i class="fas fa-angle-right ms-2"></i>
+        </a>
+      </c:if>
+    </div>
+  </div>
 </div>
 
 <%@ include file="../common/footer.jsp" %>
\ No newline at end of file
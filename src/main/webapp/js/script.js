@@ -6,6 +6,9 @@ document.addEventListener('DOMContentLoaded', function() {
     initializeDateRestrictions();
     initializeDropdowns();
     initializeFormValidation();
+    initializeLiveUpdates();
+    initializeSearchSuggestions();
+    initializeTagSuggestions();
 });
 
 /**
@@ -266,4 +269,331 @@ function confirmDelete(taskId, taskTitle) {
     }, 2000);
 
     return false;
+}
+
+/**
+ * Subscribe to the server's task event stream and patch the board in place
+ * when tasks are created, updated or deleted, by this user or anyone else.
+ * New tasks are only inserted on the unfiltered first page, where they belong.
+ * Tasks the scheduler sends a due-date reminder for are highlighted.
+ */
+function initializeLiveUpdates() {
+    const board = document.querySelector('.task-board[data-events-url]');
+    if (!board || !window.EventSource) {
+        return;
+    }
+
+    const allowInsert = board.dataset.liveInsert === 'true';
+    const source = new EventSource(board.dataset.eventsUrl);
+
+    source.addEventListener('created', function(e) {
+        const task = JSON.parse(e.data);
+        if (allowInsert) {
+            placeTaskCard(board, task);
+        }
+    });
+
+    source.addEventListener('updated', function(e) {
+        const task = JSON.parse(e.data);
+        if (allowInsert || board.querySelector(`.task-card[data-task-id="${task.id}"]`)) {
+            placeTaskCard(board, task);
+        }
+    });
+
+    source.addEventListener('deleted', function(e) {
+        removeTaskCard(board, JSON.parse(e.data).id);
+        updateColumnCounts(board);
+    });
+
+    source.addEventListener('reminder', function(e) {
+        const task = JSON.parse(e.data);
+        const card = board.querySelector(`.task-card[data-task-id="${task.id}"]`);
+        if (card) {
+            card.classList.add('due-soon');
+            card.title = `Due ${task.dueDate}`;
+        }
+    });
+
+    source.addEventListener('reload', function() {
+        window.location.reload();
+    });
+}
+
+/**
+ * Replace or insert the card of a task in the column matching its status.
+ * Tasks whose status has no column are removed from the board.
+ */
+function placeTaskCard(board, task) {
+    const existing = board.querySelector(`.task-card[data-task-id="${task.id}"]`);
+    const container = board.querySelector(`.tasks-container[data-status="${task.status}"]`);
+    const card = container ? buildTaskCard(task) : null;
+
+    if (existing && card && existing.parentElement === container) {
+        existing.replaceWith(card);
+    } else {
+        if (existing) {
+            existing.remove();
+        }
+        if (card) {
+            container.prepend(card);
+        }
+    }
+    updateColumnCounts(board);
+}
+
+function removeTaskCard(board, taskId) {
+    const card = board.querySelector(`.task-card[data-task-id="${taskId}"]`);
+    if (card) {
+        card.remove();
+    }
+}
+
+/**
+ * Suggest matching task titles while typing in the search box. The last word
+ * is matched as a prefix by the server; requests are debounced and a newer
+ * request cancels the one still in flight.
+ */
+function initializeSearchSuggestions() {
+    const input = document.querySelector('.task-search input[type="search"]');
+    if (!input || !window.fetch) {
+        return;
+    }
+    const list = document.getElementById(input.getAttribute('list'));
+    let timer = null;
+    let pending = null;
+
+    input.addEventListener('input', function() {
+        clearTimeout(timer);
+        const text = input.value.trim();
+        if (text.length < 2) {
+            list.replaceChildren();
+            return;
+        }
+        timer = setTimeout(function() {
+            if (pending) {
+                pending.abort();
+            }
+            pending = new AbortController();
+            const url = `${input.dataset.suggestUrl}?search=${encodeURIComponent(text)}&size=8`;
+            fetch(url, { headers: { 'Accept': 'application/json' }, signal: pending.signal })
+                .then(response => response.ok ? response.json() : { items: [] })
+                .then(page => {
+                    list.replaceChildren(...page.items.map(task => {
+                        const option = document.createElement('option');
+                        option.value = task.title;
+                        return option;
+                    }));
+                })
+                .catch(() => {});
+        }, 200);
+    });
+}
+
+/**
+ * Suggest existing tags for the tag being typed, the text after the last comma.
+ * Each suggestion keeps the tags already entered, since a datalist option
+ * replaces the whole field. Reusing existing names keeps the vocabulary from drifting.
+ */
+function initializeTagSuggestions() {
+    const input = document.querySelector('input[name="tags"][data-suggest-url]');
+    if (!input || !window.fetch) {
+        return;
+    }
+    const list = document.getElementById(input.getAttribute('list'));
+    let timer = null;
+
+    input.addEventListener('input', function() {
+        clearTimeout(timer);
+        const value = input.value;
+        const cut = value.lastIndexOf(',') + 1;
+        const head = value.substring(0, cut);
+        const entered = head.split(',').map(tag => tag.trim().toLowerCase()).filter(Boolean);
+        const prefix = value.substring(cut).trim();
+        if (!prefix) {
+            list.replaceChildren();
+            return;
+        }
+        timer = setTimeout(function() {
+            const url = `${input.dataset.suggestUrl}?prefix=${encodeURIComponent(prefix)}&limit=8`;
+            fetch(url, { headers: { 'Accept': 'application/json' } })
+                .then(response => response.ok ? response.json() : [])
+                .then(tags => {
+                    if (input.value !== value) {
+                        return;
+                    }
+                    list.replaceChildren(...tags
+                        .filter(tag => !entered.includes(tag.name.toLowerCase()))
+                        .map(tag => {
+                            const option = document.createElement('option');
+                            option.value = head + (head ? ' ' : '') + tag.name;
+                            option.label = `${tag.name} (${tag.count})`;
+                            return option;
+                        }));
+                })
+                .catch(() => {});
+        }, 100);
+    });
+}
+
+/**
+ * Refresh the column counts from the server. Columns show only one page of
+ * cards, so counting cards would under-report; bursts of events are
+ * coalesced into a single request.
+ */
+function updateColumnCounts(board) {
+    if (!board.dataset.countsUrl) {
+        return;
+    }
+    clearTimeout(board.countsTimer);
+    board.countsTimer = setTimeout(function() {
+        fetch(board.dataset.countsUrl, { headers: { 'Accept': 'application/json' } })
+            .then(response => response.ok ? response.json() : null)
+            .then(counts => {
+                if (!counts) {
+                    return;
+                }
+                board.querySelectorAll('.tasks-container').forEach(container => {
+                    const count = container.closest('.task-column').querySelector('.task-count');
+                    if (count) {
+                        count.textContent = counts.status[container.dataset.status] || 0;
+                    }
+                });
+            })
+            .catch(() => {});
+    }, 250);
+}
+
+/**
+ * Build a task card matching the markup rendered by list.jsp.
+ * All task text is assigned through textContent, never parsed as HTML.
+ */
+function buildTaskCard(task) {
+    const statusLabels = {
+        PENDING: ['Not Started', 'not-started'],
+        IN_PROGRESS: ['In Progress', 'in-progress'],
+        COMPLETED: ['Complete', 'complete']
+    };
+    let [statusDisplay, statusClass] = statusLabels[task.status] || [task.status, ''];
+    if (task.status !== 'COMPLETED' && task.tags.length > 0) {
+        if (task.tags[0] === 'Research') {
+            [statusDisplay, statusClass] = ['In Research', 'research'];
+        } else if (task.tags[0] === 'On Track') {
+            [statusDisplay, statusClass] = ['On Track', 'on-track'];
+        }
+    }
+
+    const card = element('div', 'task-card');
+    card.dataset.taskId = task.id;
+    card.setAttribute('aria-label', `Task: ${task.title}`);
+
+    const header = element('div', 'task-header');
+    const status = element('div', `task-status ${task.status.toLowerCase()}`);
+    status.setAttribute('onclick', 'toggleDropdown(this)');
+    status.append(element('div', `status-dot ${statusClass}`), element('span', null, statusDisplay),
+        buildTaskMenu(task, 'Edit Task', 'Delete Task', true));
+
+    const actions = element('div', 'task-actions');
+    const more = element('button', 'btn-more');
+    more.setAttribute('aria-label', 'More options');
+    more.setAttribute('onclick', 'toggleDropdown(this)');
+    more.append(element('i', 'fas fa-ellipsis-h'));
+    actions.append(more, buildTaskMenu(task, 'Edit', 'Delete'));
+    header.append(status, actions);
+
+    const dueDate = element('div', 'due-date');
+    const calendar = element('i', 'far fa-calendar-alt');
+    calendar.setAttribute('aria-hidden', 'true');
+    dueDate.append(calendar, ' ' + formatDueDate(task.dueDate));
+
+    const tags = element('div', 'task-tags');
+    if (task.tags.length === 0) {
+        tags.append(element('span', 'no-tags', 'No tags'));
+    }
+    task.tags.forEach(tag => {
+        const span = element('span', 'task-tag', tag);
+        span.dataset.tag = tag.toLowerCase();
+        tags.append(span);
+    });
+    const footer = element('div', 'task-footer');
+    footer.append(tags);
+
+    card.append(header,
+        element('h4', 'task-title', task.title || 'Untitled Task'),
+        element('p', 'task-description', task.description || 'No description available'),
+        dueDate,
+        element('div', `priority-badge ${task.priority.toLowerCase()}`, task.priority),
+        footer);
+    return card;
+}
+
+function buildTaskMenu(task, editLabel, deleteLabel, withMoves) {
+    const menu = element('div', 'dropdown-menu');
+
+    const edit = element('a', 'dropdown-item');
+    edit.href = `tasks?action=edit&id=${task.id}`;
+    edit.append(element('i', 'fas fa-edit'), ' ' + editLabel);
+
+    const del = element('a', 'dropdown-item delete');
+    del.href = '#';
+    del.dataset.taskId = task.id;
+    del.dataset.taskTitle = task.title;
+    del.append(element('i', 'fas fa-trash'), ' ' + deleteLabel);
+
+    menu.append(edit, del);
+    if (withMoves) {
+        menu.append(buildStatusMoves(task));
+    }
+    return menu;
+}
+
+/**
+ * Build the "Move to" form of status-moves.jspf, which posts only the new status.
+ */
+function buildStatusMoves(task) {
+    const columns = { PENDING: 'To do', IN_PROGRESS: 'In Progress', COMPLETED: 'Done' };
+    const form = element('form', 'status-moves');
+    form.action = 'tasks';
+    form.method = 'post';
+    [['action', 'status'], ['id', task.id]].forEach(([name, value]) => {
+        const input = element('input');
+        input.type = 'hidden';
+        input.name = name;
+        input.value = value;
+        form.append(input);
+    });
+    Object.entries(columns).forEach(([status, label]) => {
+        if (status === task.status) {
+            return;
+        }
+        const button = element('button', 'dropdown-item');
+        button.type = 'submit';
+        button.name = 'status';
+        button.value = status;
+        button.append(element('i', 'fas fa-arrow-right'), ' Move to ' + label);
+        form.append(button);
+    });
+    return form;
+}
+
+function element(tag, className, text) {
+    const el = document.createElement(tag);
+    if (className) {
+        el.className = className;
+    }
+    if (text !== undefined) {
+        el.textContent = text;
+    }
+    return el;
+}
+
+/**
+ * Format an ISO date (yyyy-MM-dd) like the board's "dd MMM yyyy".
+ */
+function formatDueDate(isoDate) {
+    if (!isoDate) {
+        return '';
+    }
+    const [year, month, day] = isoDate.split('-').map(Number);
+    const months = ['Jan', 'Feb', 'Mar', 'Apr', 'May', 'Jun', 'Jul', 'Aug', 'Sep', 'Oct', 'Nov', 'Dec'];
+    return `${String(day).padStart(2, '0')} ${months[month - 1]} ${year}`;
 }
\ No newline at end of file
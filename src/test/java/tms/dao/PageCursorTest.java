@@ -0,0 +1,62 @@
+package tms.dao;
+
+import junit.framework.TestCase;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Base64;
+
+public class PageCursorTest extends TestCase {
+
+    public void testIdCursorRoundTrips() {
+        PageCursor cursor = PageCursor.decode(PageCursor.afterId(123456789012L).encode());
+
+        assertEquals(123456789012L, cursor.getId());
+        assertNull(cursor.getDueDate());
+        assertNull(cursor.getRank());
+    }
+
+    public void testDueDateCursorRoundTrips() {
+        PageCursor cursor = PageCursor.decode(PageCursor.afterDueDate(Date.valueOf("2026-12-31"), 7).encode());
+
+        assertEquals(Date.valueOf("2026-12-31"), cursor.getDueDate());
+        assertEquals(7, cursor.getId());
+        assertNull(cursor.getRank());
+    }
+
+    public void testRankCursorRoundTrips() {
+        PageCursor cursor = PageCursor.decode(PageCursor.afterRank(0.0607927f, 3).encode());
+
+        assertEquals(0.0607927f, cursor.getRank(), 0f);
+        assertEquals(3, cursor.getId());
+        assertNull(cursor.getDueDate());
+    }
+
+    public void testTokensAreUrlSafe() {
+        String token = PageCursor.afterDueDate(Date.valueOf("2026-01-01"), Long.MAX_VALUE).encode();
+
+        assertTrue(token, token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    public void testMalformedTokensAreRejected() {
+        assertMalformed("not base64!");
+        assertMalformed(encode("x:1"));
+        assertMalformed(encode("i:abc"));
+        assertMalformed(encode("d:2026-13-45:1"));
+        assertMalformed(encode("r:0.5"));
+        assertMalformed("");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertMalformed(String token) {
+        try {
+            PageCursor.decode(token);
+            fail("Expected IllegalArgumentException for " + token);
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package tms.dao;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TagIndexTest extends TestCase {
+
+    private TagIndex index;
+
+    @Override
+    protected void setUp() {
+        index = new TagIndex();
+        Map<String, Long> usage = new HashMap<>();
+        usage.put("backend", 5L);
+        usage.put("Bug", 9L);
+        usage.put("build", 2L);
+        usage.put("bugfix", 9L);
+        usage.put("docs", 7L);
+        usage.put("BUG", 1L);
+        index.replace(usage);
+    }
+
+    public void testSuggestsMostUsedFirstThenAlphabetically() {
+        Map<String, Long> suggestions = index.suggest("b", 3);
+
+        assertEquals(Arrays.asList("Bug", "bugfix", "backend"), new ArrayList<>(suggestions.keySet()));
+        assertEquals(Long.valueOf(9L), suggestions.get("Bug"));
+        assertEquals(Long.valueOf(5L), suggestions.get("backend"));
+    }
+
+    public void testTopKKeepsLaterHigherCounts() {
+        Map<String, Long> suggestions = index.suggest("", 2);
+
+        assertEquals(Arrays.asList("Bug", "bugfix"), new ArrayList<>(suggestions.keySet()));
+    }
+
+    public void testPrefixMatchIgnoresCase() {
+        Map<String, Long> suggestions = index.suggest(" BU ", 10);
+
+        assertEquals(Arrays.asList("Bug", "bugfix", "build", "BUG"), new ArrayList<>(suggestions.keySet()));
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest("docsx", 10).isEmpty());
+        assertEquals(Long.valueOf(7L), index.suggest("DOCS", 10).get("docs"));
+    }
+
+    public void testBlankPrefixMatchesEverythingAndNonPositiveLimitNothing() {
+        assertEquals(6, index.suggest(null, 10).size());
+        assertTrue(index.suggest("b", 0).isEmpty());
+    }
+
+    public void testUsageChangesUpdateCountsInPlace() {
+        Map<String, Integer> deltas = new HashMap<>();
+        deltas.put("build", 10);
+        deltas.put("Bug", -9);
+        index.onTagUsageChanged(deltas);
+
+        Map<String, Long> suggestions = index.suggest("bu", 10);
+        assertEquals(Arrays.asList("build", "bugfix", "BUG"), new ArrayList<>(suggestions.keySet()));
+        assertEquals(Long.valueOf(12L), suggestions.get("build"));
+        assertEquals(6, index.size());
+    }
+
+    public void testNewNamesAreMergedInOrder() {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        deltas.put("zeta", 1);
+        deltas.put("Alpha", 3);
+        deltas.put("bugs", 4);
+        deltas.put("unused", -1);
+        deltas.put("docs", 1);
+        index.onTagUsageChanged(deltas);
+
+        assertEquals(9, index.size());
+        assertEquals(Long.valueOf(3L), index.suggest("a", 10).get("Alpha"));
+        assertEquals(Long.valueOf(1L), index.suggest("Z", 10).get("zeta"));
+        assertEquals(Long.valueOf(8L), index.suggest("d", 10).get("docs"));
+        assertEquals(Arrays.asList("Bug", "bugfix", "bugs", "BUG"),
+                new ArrayList<>(index.suggest("bug", 10).keySet()));
+        assertTrue(index.suggest("un", 10).isEmpty());
+    }
+
+    public void testReplaceDropsPreviousNames() {
+        Map<String, Long> usage = new HashMap<>();
+        usage.put("ops", 1L);
+        index.replace(usage);
+
+        assertEquals(1, index.size());
+        assertTrue(index.suggest("b", 10).isEmpty());
+        assertEquals(1, index.suggest("", 10).size());
+    }
+}
@@ -0,0 +1,27 @@
+package tms.dao;
+
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TaskDAOImplTest extends TestCase {
+
+    private static final Map<String, Integer> RETAGGED = Map.of("ops", -1, "docs", 1);
+
+    public void testActiveTaskKeepsItsTagChanges() {
+        assertEquals(RETAGGED, TaskDAOImpl.activeTagDeltas(false, false, List.of("ops", "bug"), RETAGGED));
+    }
+
+    public void testArchivedTaskChangesNoTagUsage() {
+        assertEquals(Collections.emptyMap(), TaskDAOImpl.activeTagDeltas(true, true, List.of("ops", "bug"), RETAGGED));
+    }
+
+    public void testReopenedTaskCountsItsResultingTagsAgain() {
+        Map<String, Integer> deltas = TaskDAOImpl.activeTagDeltas(false, true, List.of("ops", "bug"), RETAGGED);
+
+        assertEquals(Map.of("ops", 0, "bug", 1, "docs", 1), deltas);
+        assertEquals(Map.of("bug", 1), TaskDAOImpl.activeTagDeltas(false, true, List.of("bug"), Map.of()));
+    }
+}
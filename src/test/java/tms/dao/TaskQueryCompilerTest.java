@@ -0,0 +1,348 @@
+package tms.dao;
+
+import junit.framework.TestCase;
+import tms.model.Task;
+
+import java.lang.reflect.Proxy;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks the SQL text and bind order produced by {@link TaskQueryCompiler}.
+ * Parameters are bound to a recording statement, so the order the placeholders
+ * appear in and the order the values are bound in can be compared without a database.
+ */
+public class TaskQueryCompilerTest extends TestCase {
+    private static final String WHERE_ACTIVE = TaskQueryCompiler.TASK_SELECT + " WHERE t.archived = FALSE";
+
+    public void testUnfilteredSelectOnlyReadsActiveTasks() throws Exception {
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(TaskQuery.builder().build(), null, 0);
+
+        assertEquals(WHERE_ACTIVE + " ORDER BY t.id ASC", compiled.getSql());
+        assertEquals(List.of(), bind(compiled));
+    }
+
+    public void testIncludeArchivedDropsThePartitionFilter() throws Exception {
+        TaskQuery query = TaskQuery.builder().includeArchived(true).build();
+
+        assertEquals(TaskQueryCompiler.TASK_SELECT + " ORDER BY t.id ASC",
+                TaskQueryCompiler.compileSelect(query, null, 0).getSql());
+    }
+
+    public void testCriteriaAreBoundInPlaceholderOrder() throws Exception {
+        TaskQuery query = TaskQuery.builder()
+                .allTags(List.of("ops", "urgent"))
+                .anyTags(List.of("home"))
+                .titlePrefix("Fix")
+                .dueTo(Date.valueOf("2026-02-01"))
+                .dueFrom(Date.valueOf("2026-01-01"))
+                .priority("high")
+                .status(Task.Status.IN_PROGRESS, Task.Status.PENDING)
+                .ids(List.of(7L, 3L))
+                .build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(query, null, 25);
+
+        assertEquals(WHERE_ACTIVE
+                + " AND t.id = ANY(?) AND t.status = ANY(?) AND t.priority = ANY(?)"
+                + " AND t.due_date >= ? AND t.due_date <= ?"
+                + " AND lower(t.title) ~>=~ ? AND lower(t.title) ~<~ ?"
+                + " AND EXISTS (SELECT 1 FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id"
+                + " WHERE tt.task_id = t.id AND tg.name = ANY(?))"
+                + " AND (SELECT count(*) FROM task_tags tt JOIN tags tg ON tt.tag_id = tg.id"
+                + " WHERE tt.task_id = t.id AND tg.name = ANY(?)) = ?"
+                + " ORDER BY t.id ASC LIMIT ?", compiled.getSql());
+        assertEquals(List.of(
+                "bigint[7, 3]",
+                "varchar[PENDING, IN_PROGRESS]",
+                "varchar[HIGH]",
+                "date 2026-01-01",
+                "date 2026-02-01",
+                "string fix",
+                "string fiy",
+                "varchar[home]",
+                "varchar[ops, urgent]",
+                "int 2",
+                "int 25"), bind(compiled));
+    }
+
+    public void testQueriesOfTheSameShapeShareTheSqlText() {
+        TaskQuery first = TaskQuery.builder().status(Task.Status.PENDING).priority("LOW").build();
+        TaskQuery second = TaskQuery.builder().status(Task.Status.COMPLETED, Task.Status.FAILED).priority("HIGH").build();
+        TaskQuery other = TaskQuery.builder().status(Task.Status.PENDING).build();
+
+        String sql = TaskQueryCompiler.compileSelect(first, null, 10).getSql();
+
+        assertSame(sql, TaskQueryCompiler.compileSelect(second, null, 50).getSql());
+        assertNotSame(sql, TaskQueryCompiler.compileSelect(first, null, 0).getSql());
+        assertFalse(sql.equals(TaskQueryCompiler.compileSelect(other, null, 10).getSql()));
+    }
+
+    public void testOrderingIsPartOfTheShape() {
+        TaskQuery ascending = TaskQuery.builder().sortBy(TaskQuery.SortField.DUE_DATE, true).build();
+        TaskQuery descending = TaskQuery.builder().sortBy(TaskQuery.SortField.DUE_DATE, false).build();
+
+        assertEquals(WHERE_ACTIVE + " ORDER BY t.due_date ASC, t.id ASC",
+                TaskQueryCompiler.compileSelect(ascending, null, 0).getSql());
+        assertEquals(WHERE_ACTIVE + " ORDER BY t.due_date DESC, t.id DESC",
+                TaskQueryCompiler.compileSelect(descending, null, 0).getSql());
+    }
+
+    public void testDueDateSeekBindsTheKeyAfterTheCriteria() throws Exception {
+        TaskQuery query = TaskQuery.builder()
+                .status(Task.Status.PENDING)
+                .sortBy(TaskQuery.SortField.DUE_DATE, false)
+                .build();
+        PageCursor after = PageCursor.afterDueDate(Date.valueOf("2026-03-04"), 42);
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileSelect(query, after, 20);
+
+        assertEquals(WHERE_ACTIVE + " AND t.status = ANY(?) AND (t.due_date, t.id) < (?, ?)"
+                + " ORDER BY t.due_date DESC, t.id DESC LIMIT ?", compiled.getSql());
+        assertEquals(List.of("varchar[PENDING]", "date 2026-03-04", "long 42", "int 20"), bind(compiled));
+    }
+
+    public void testIdSeek() throws Exception {
+        TaskQueryCompiler.CompiledQuery compiled =
+                TaskQueryCompiler.compileSelect(TaskQuery.builder().build(), PageCursor.afterId(9), 5);
+
+        assertEquals(WHERE_ACTIVE + " AND t.id > ? ORDER BY t.id ASC LIMIT ?", compiled.getSql());
+        assertEquals(List.of("long 9", "int 5"), bind(compiled));
+    }
+
+    public void testCursorMustMatchTheOrdering() {
+        TaskQuery byDueDate = TaskQuery.builder().sortBy(TaskQuery.SortField.DUE_DATE, true).build();
+        TaskQuery byTitle = TaskQuery.builder().sortBy(TaskQuery.SortField.TITLE, true).build();
+
+        assertRejected(byDueDate, PageCursor.afterId(1));
+        assertRejected(byTitle, PageCursor.afterId(1));
+        assertRejected(TaskQuery.builder().build(), PageCursor.afterRank(0.5f, 1));
+    }
+
+    public void testSearchBindsTheRankQueryFirst() throws Exception {
+        TaskQuery query = TaskQuery.builder().search("deploy fi").priority("LOW").build();
+
+        TaskQueryCompiler.CompiledQuery compiled =
+                TaskQueryCompiler.compileSearch(query, PageCursor.afterRank(0.25f, 11), 10);
+
+        assertTrue(compiled.getSql(), compiled.getSql().contains(
+                "FROM tasks t WHERE t.archived = FALSE AND t.priority = ANY(?)"
+                        + " AND t.search_vector @@ to_tsquery('english', ?)) m"
+                        + " WHERE m.rank < ? OR (m.rank = ? AND m.id > ?)"
+                        + " ORDER BY m.rank DESC, m.id ASC LIMIT ?"));
+        assertEquals(List.of("string deploy & fi:*", "varchar[LOW]", "string deploy & fi:*",
+                "float 0.25", "float 0.25", "long 11", "int 10"), bind(compiled));
+    }
+
+    public void testFingerprintMirrorsThePageQueryWithKeysOnly() throws Exception {
+        TaskQuery query = TaskQuery.builder()
+                .status(Task.Status.PENDING)
+                .sortBy(TaskQuery.SortField.DUE_DATE, false)
+                .build();
+        PageCursor after = PageCursor.afterDueDate(Date.valueOf("2026-03-04"), 42);
+
+        TaskQueryCompiler.CompiledQuery page = TaskQueryCompiler.compileSelect(query, after, 21);
+        TaskQueryCompiler.CompiledQuery keys = TaskQueryCompiler.compileFingerprint(query, after, 21, false);
+
+        assertEquals("SELECT t.id, t.version FROM tasks t WHERE t.archived = FALSE AND t.status = ANY(?)"
+                + " AND (t.due_date, t.id) < (?, ?) ORDER BY t.due_date DESC, t.id DESC LIMIT ?", keys.getSql());
+        assertEquals(bind(page), bind(keys));
+        assertSame(keys.getSql(), TaskQueryCompiler.compileFingerprint(query, after, 5, false).getSql());
+    }
+
+    public void testRankedFingerprintReturnsTheRank() throws Exception {
+        TaskQuery query = TaskQuery.builder().search("deploy").build();
+
+        TaskQueryCompiler.CompiledQuery page = TaskQueryCompiler.compileSearch(query, null, 11);
+        TaskQueryCompiler.CompiledQuery keys = TaskQueryCompiler.compileFingerprint(query, null, 11, true);
+
+        assertTrue(keys.getSql(), keys.getSql().startsWith("SELECT m.id, m.version, m.rank FROM (SELECT t.id, t.version, "
+                + "ts_rank(t.search_vector, to_tsquery('english', ?)) AS rank FROM tasks t WHERE"));
+        assertFalse(keys.getSql(), keys.getSql().contains("task_tags"));
+        assertEquals(bind(page), bind(keys));
+    }
+
+    public void testSearchRequiresText() {
+        try {
+            TaskQueryCompiler.compileSearch(TaskQuery.builder().build(), null, 10);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    public void testShortLastWordIsNotAPrefix() {
+        assertEquals("write & report:*", TaskQueryCompiler.toTsQuery(List.of("write", "report")));
+        assertEquals("plan & a", TaskQueryCompiler.toTsQuery(List.of("plan", "a")));
+        assertEquals("go:*", TaskQueryCompiler.toTsQuery(List.of("go")));
+    }
+
+    public void testPatchWritesOnlyTheGivenColumns() throws Exception {
+        TaskPatch patch = TaskPatch.builder(5L).version(3L).status(Task.Status.COMPLETED).title("Done").build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compilePatch(patch);
+
+        assertTrue(compiled.getSql(), compiled.getSql().startsWith(
+                "UPDATE tasks t SET title = ?, status = ?, version = t.version + 1 WHERE t.id = ? AND t.version = ?"
+                        + " RETURNING " + TaskQueryCompiler.TASK_COLUMNS + ", "));
+        assertTrue(compiled.getSql().contains(" t.archived, t.archived AS was_archived"));
+        assertFalse(compiled.getSql().contains("current_tags"));
+        assertEquals(List.of("string Done", "string COMPLETED", "long 5", "long 3"), bind(compiled));
+    }
+
+    public void testPatchToAnOpenStatusReopensTheTask() throws Exception {
+        TaskPatch patch = TaskPatch.builder(5L).status(Task.Status.IN_PROGRESS).build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compilePatch(patch);
+
+        assertTrue(compiled.getSql(), compiled.getSql().startsWith(
+                "UPDATE tasks t SET status = ?, archived = FALSE, version = t.version + 1"
+                        + " FROM tasks o WHERE o.id = t.id AND o.archived = t.archived AND t.id = ? RETURNING "));
+        // The tags a reopened task carried count towards tag usage again
+        assertTrue(compiled.getSql().contains(" t.archived, o.archived AS was_archived"));
+        assertTrue(compiled.getSql().endsWith(" AS current_tags"));
+        assertEquals(List.of("string IN_PROGRESS", "long 5"), bind(compiled));
+    }
+
+    public void testPatchReplacingTagsReturnsTheCurrentTags() {
+        TaskPatch patch = TaskPatch.builder(5L).tags(List.of("ops")).build();
+
+        assertTrue(TaskQueryCompiler.compilePatch(patch).getSql().endsWith(" AS current_tags"));
+    }
+
+    public void testBulkStatusSkipsTasksAlreadyInTheStatus() throws Exception {
+        TaskQuery query = TaskQuery.builder().dueTo(Date.valueOf("2026-01-31")).build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileBulkStatus(query, Task.Status.FAILED);
+
+        assertEquals("WITH changed AS (UPDATE tasks t SET status = ?, version = t.version + 1"
+                + " WHERE t.archived = FALSE AND t.due_date <= ? AND t.status <> ? RETURNING t.id) "
+                + "SELECT NULL AS tag, count(*) AS n FROM changed", compiled.getSql());
+        assertEquals(List.of("string FAILED", "date 2026-01-31", "string FAILED"), bind(compiled));
+    }
+
+    public void testBulkStatusReopensArchivedTasksOnlyWhenTheyAreIncluded() {
+        TaskQuery active = TaskQuery.builder().status(Task.Status.COMPLETED).build();
+        TaskQuery all = TaskQuery.builder().status(Task.Status.COMPLETED).includeArchived(true).build();
+
+        assertEquals("WITH changed AS (UPDATE tasks t SET status = ?, version = t.version + 1"
+                        + " WHERE t.archived = FALSE AND t.status = ANY(?) AND t.status <> ? RETURNING t.id) "
+                        + "SELECT NULL AS tag, count(*) AS n FROM changed",
+                TaskQueryCompiler.compileBulkStatus(active, Task.Status.PENDING).getSql());
+        assertEquals("WITH changed AS (UPDATE tasks t SET status = ?, archived = FALSE, version = t.version + 1"
+                        + " FROM tasks o WHERE o.id = t.id AND o.archived = t.archived"
+                        + " AND t.status = ANY(?) AND t.status <> ? RETURNING t.id, o.archived AS reopened) "
+                        + "SELECT NULL AS tag, count(*) AS n FROM changed UNION ALL SELECT tg.name, count(*) FROM changed c "
+                        + "JOIN task_tags tt ON tt.task_id = c.id JOIN tags tg ON tg.id = tt.tag_id "
+                        + "WHERE c.reopened GROUP BY tg.name",
+                TaskQueryCompiler.compileBulkStatus(all, Task.Status.PENDING).getSql());
+        assertEquals("WITH changed AS (UPDATE tasks t SET status = ?, version = t.version + 1"
+                        + " WHERE t.status = ANY(?) AND t.status <> ? RETURNING t.id) "
+                        + "SELECT NULL AS tag, count(*) AS n FROM changed",
+                TaskQueryCompiler.compileBulkStatus(all, Task.Status.FAILED).getSql());
+    }
+
+    public void testBulkDeleteAppliesTheCriteria() throws Exception {
+        TaskQuery query = TaskQuery.builder().status(Task.Status.COMPLETED).build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileBulkDelete(query);
+
+        assertTrue(compiled.getSql(), compiled.getSql().startsWith(
+                "WITH deleted AS (DELETE FROM tasks t WHERE t.archived = FALSE AND t.status = ANY(?)"
+                        + " RETURNING t.id, t.archived) "));
+        // Archived tasks no longer count towards tag usage, so their tags are not reported
+        assertTrue(compiled.getSql().endsWith(" WHERE NOT d.archived GROUP BY tg.name"));
+        assertEquals(List.of("varchar[COMPLETED]"), bind(compiled));
+    }
+
+    public void testCountsBindTheTagLimitLast() throws Exception {
+        TaskQuery query = TaskQuery.builder().anyTags(List.of("ops")).build();
+
+        TaskQueryCompiler.CompiledQuery compiled = TaskQueryCompiler.compileCounts(query, 8);
+
+        assertTrue(compiled.getSql(), compiled.getSql().startsWith("WITH matched AS (SELECT t.id, t.status, t.priority"
+                + " FROM tasks t WHERE t.archived = FALSE AND EXISTS ("));
+        assertEquals(List.of("varchar[ops]", "int 8"), bind(compiled));
+    }
+
+    private static void assertRejected(TaskQuery query, PageCursor after) {
+        try {
+            TaskQueryCompiler.compileSelect(query, after, 10);
+            fail("Expected IllegalArgumentException for " + after.encode());
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Binds a compiled query to a statement that records each value as
+     * {@code "<type> <value>"}, or {@code "<element type>[<elements>]"} for arrays.
+     */
+    private static List<String> bind(TaskQueryCompiler.CompiledQuery compiled) throws Exception {
+        List<String> bound = new ArrayList<>();
+        PreparedStatement stmt = (PreparedStatement) Proxy.newProxyInstance(
+                TaskQueryCompilerTest.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setArray":
+                            Array array = (Array) args[1];
+                            bound.add(array.getBaseTypeName() + Arrays.toString((Object[]) array.getArray()));
+                            break;
+                        case "setDate":
+                            bound.add("date " + args[1]);
+                            break;
+                        case "setLong":
+                            bound.add("long " + args[1]);
+                            break;
+                        case "setInt":
+                            bound.add("int " + args[1]);
+                            break;
+                        case "setFloat":
+                            bound.add("float " + args[1]);
+                            break;
+                        case "setString":
+                            bound.add("string " + args[1]);
+                            break;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                    assertEquals("parameter index", bound.size(), args[0]);
+                    return null;
+                });
+        Connection conn = (Connection) Proxy.newProxyInstance(
+                TaskQueryCompilerTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (!"createArrayOf".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return array((String) args[0], (Object[]) args[1]);
+                });
+        compiled.bind(stmt, conn);
+        assertEquals("placeholders", count(compiled.getSql(), '?'), bound.size());
+        return bound;
+    }
+
+    private static Array array(String type, Object[] elements) {
+        return (Array) Proxy.newProxyInstance(
+                TaskQueryCompilerTest.class.getClassLoader(), new Class<?>[]{Array.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getBaseTypeName":
+                            return type;
+                        case "getArray":
+                            return elements;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static int count(String text, char c) {
+        return (int) text.chars().filter(ch -> ch == c).count();
+    }
+}
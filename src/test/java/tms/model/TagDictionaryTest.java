@@ -0,0 +1,84 @@
+package tms.model;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class TagDictionaryTest extends TestCase {
+
+    private final TagDictionary dictionary = TagDictionary.getInstance();
+
+    @Override
+    protected void setUp() {
+        dictionary.clear();
+    }
+
+    @Override
+    protected void tearDown() {
+        dictionary.clear();
+    }
+
+    public void testResolvesAddedNames() {
+        Map<Integer, String> names = new HashMap<>();
+        names.put(1, "bug");
+        names.put(2, "docs");
+        dictionary.putAll(names);
+
+        assertEquals(2, dictionary.size());
+        assertEquals("bug", dictionary.nameOf(1));
+        assertEquals("docs", dictionary.nameOf(2));
+        assertNull(dictionary.nameOf(3));
+    }
+
+    public void testGrowsPastInitialCapacity() {
+        Map<Integer, String> names = new HashMap<>();
+        for (int id = 1; id <= 1_000; id++) {
+            names.put(id, "tag-" + id);
+            if (id % 100 == 0) {
+                dictionary.putAll(names);
+                names.clear();
+            }
+        }
+
+        assertEquals(1_000, dictionary.size());
+        for (int id = 1; id <= 1_000; id++) {
+            assertEquals("tag-" + id, dictionary.nameOf(id));
+        }
+        assertNull(dictionary.nameOf(0));
+        assertNull(dictionary.nameOf(1_001));
+    }
+
+    public void testExistingIdsKeepTheirNameInstance() {
+        String original = new String("bug");
+        dictionary.putAll(Map.of(7, original));
+
+        Map<Integer, String> names = new HashMap<>();
+        names.put(7, new String("bug"));
+        names.put(8, "docs");
+        dictionary.putAll(names);
+
+        assertSame(original, dictionary.nameOf(7));
+        assertEquals(2, dictionary.size());
+
+        dictionary.putAll(Map.of(7, new String("bug")));
+        assertSame(original, dictionary.nameOf(7));
+        assertEquals(2, dictionary.size());
+    }
+
+    public void testContainsAll() {
+        dictionary.putAll(Map.of(1, "bug", 2, "docs"));
+
+        assertTrue(dictionary.containsAll(new int[0]));
+        assertTrue(dictionary.containsAll(new int[] {2, 1}));
+        assertFalse(dictionary.containsAll(new int[] {1, 3}));
+    }
+
+    public void testClearForgetsEveryTag() {
+        dictionary.putAll(Map.of(1, "bug"));
+        dictionary.clear();
+
+        assertEquals(0, dictionary.size());
+        assertNull(dictionary.nameOf(1));
+    }
+}
@@ -0,0 +1,40 @@
+package tms.service;
+
+import junit.framework.TestCase;
+import tms.model.Task;
+
+import java.util.Map;
+
+public class TaskSchedulerTest extends TestCase {
+
+    public void testParsesTransitionsIgnoringCaseAndBlanks() {
+        Map<Task.Status, Task.Status> transitions =
+                TaskScheduler.parseTransitions(" pending:FAILED , ,In_Progress : failed");
+
+        assertEquals(2, transitions.size());
+        assertEquals(Task.Status.FAILED, transitions.get(Task.Status.PENDING));
+        assertEquals(Task.Status.FAILED, transitions.get(Task.Status.IN_PROGRESS));
+    }
+
+    public void testBlankSpecHasNoTransitions() {
+        assertTrue(TaskScheduler.parseTransitions("").isEmpty());
+        assertTrue(TaskScheduler.parseTransitions(" , ").isEmpty());
+    }
+
+    public void testRejectsMalformedTransitions() {
+        assertRejected("PENDING");
+        assertRejected("PENDING:FAILED:COMPLETED");
+        assertRejected("PENDING:DONE");
+        assertRejected("PENDING:PENDING");
+        assertRejected("PENDING:FAILED,PENDING:COMPLETED");
+    }
+
+    private static void assertRejected(String spec) {
+        try {
+            TaskScheduler.parseTransitions(spec);
+            fail("Expected IllegalArgumentException for " + spec);
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
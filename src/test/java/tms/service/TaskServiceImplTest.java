@@ -0,0 +1,59 @@
+package tms.service;
+
+import junit.framework.TestCase;
+import tms.dao.TagIndex;
+import tms.dao.TaskDAO;
+import tms.dao.TaskQuery;
+import tms.exception.ValidationException;
+import tms.model.Task;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TaskServiceImplTest extends TestCase {
+
+    private final List<String> calls = new ArrayList<>();
+    private TaskService service;
+
+    @Override
+    protected void setUp() {
+        TaskDAO dao = (TaskDAO) Proxy.newProxyInstance(TaskDAO.class.getClassLoader(),
+                new Class<?>[] {TaskDAO.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+                    return method.getReturnType() == int.class ? 1 : null;
+                });
+        service = new TaskServiceImpl(dao, null, new TagIndex());
+    }
+
+    public void testBulkChangesWithoutCriteriaAreRejected() {
+        assertRejected(TaskQuery.builder().build());
+        assertRejected(TaskQuery.builder().includeArchived(true).build());
+        assertTrue(calls.isEmpty());
+    }
+
+    public void testBulkChangesWithACriterionMayIncludeArchivedTasks() {
+        TaskQuery query = TaskQuery.builder().includeArchived(true)
+                .status(Task.Status.COMPLETED).build();
+
+        assertEquals(1, service.deleteTasksWhere(query));
+        assertEquals(1, service.updateStatusWhere(query, Task.Status.FAILED));
+        assertEquals(Arrays.asList("deleteByQuery", "updateStatusByQuery"), calls);
+    }
+
+    private void assertRejected(TaskQuery query) {
+        try {
+            service.deleteTasksWhere(query);
+            fail("Expected ValidationException for bulk delete of " + query);
+        } catch (ValidationException expected) {
+            // expected
+        }
+        try {
+            service.updateStatusWhere(query, Task.Status.FAILED);
+            fail("Expected ValidationException for bulk status change of " + query);
+        } catch (ValidationException expected) {
+            // expected
+        }
+    }
+}
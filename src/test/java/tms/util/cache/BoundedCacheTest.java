@@ -0,0 +1,105 @@
+package tms.util.cache;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class BoundedCacheTest extends TestCase {
+
+    private static final long LONG_TTL = 60_000L;
+
+    public void testServesStoredValueUntilInvalidated() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 4, LONG_TTL);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a1", cache.get("a", counting(loads, "a")));
+        assertEquals("a1", cache.get("a", counting(loads, "a")));
+        assertEquals(1, loads.get());
+
+        cache.invalidate("a");
+        assertEquals("a2", cache.get("a", counting(loads, "a")));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getInvalidations());
+    }
+
+    public void testLoadRacingAnInvalidationIsNotStored() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 4, LONG_TTL);
+
+        String stale = cache.get("a", () -> {
+            cache.invalidate("a");
+            return "stale";
+        });
+        assertEquals("stale", stale);
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals("fresh", cache.get("a", () -> "fresh"));
+        assertEquals("fresh", cache.get("a", () -> "unused"));
+    }
+
+    public void testLoadRacingInvalidateAllIsNotStored() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 4, LONG_TTL);
+        cache.get("b", () -> "b");
+
+        cache.get("a", () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals("fresh", cache.get("a", () -> "fresh"));
+    }
+
+    public void testNullIsReturnedButNotCached() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 4, LONG_TTL);
+
+        assertNull(cache.get("a", () -> null));
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals("a", cache.get("a", () -> "a"));
+    }
+
+    public void testEntriesExpireAfterTtl() throws InterruptedException {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 4, 1L);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", counting(loads, "a"));
+        Thread.sleep(20);
+        assertEquals("a2", cache.get("a", counting(loads, "a")));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    public void testEvictsLeastRecentlyRead() {
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 2, LONG_TTL);
+        cache.get("a", () -> "a");
+        cache.get("b", () -> "b");
+        cache.get("a", () -> "unused");
+
+        cache.get("c", () -> "c");
+
+        assertEquals(2, cache.getStats().getSize());
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals("a", cache.get("a", () -> "reloaded"));
+        assertEquals("c", cache.get("c", () -> "reloaded"));
+        assertEquals("b-reloaded", cache.get("b", () -> "b-reloaded"));
+    }
+
+    public void testRejectsNonPositiveBounds() {
+        try {
+            new BoundedCache<String, String>("test", 0, LONG_TTL);
+            fail("Expected IllegalArgumentException for maxEntries 0");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+        try {
+            new BoundedCache<String, String>("test", 1, 0L);
+            fail("Expected IllegalArgumentException for ttlMillis 0");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static Supplier<String> counting(AtomicInteger loads, String prefix) {
+        return () -> prefix + loads.incrementAndGet();
+    }
+}
@@ -0,0 +1,81 @@
+package tms.util.io;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+public class CsvRecordReaderTest extends TestCase {
+
+    public void testReadsRecordsByLowerCasedHeader() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(" Title ,Priority\r\nShip,HIGH\r\nTest,LOW\n"));
+
+        assertEquals(Map.of("title", "Ship", "priority", "HIGH"), reader.next());
+        assertEquals(1, reader.getRecordNumber());
+        assertEquals(Map.of("title", "Test", "priority", "LOW"), reader.next());
+        assertNull(reader.next());
+        assertEquals(2, reader.getRecordNumber());
+    }
+
+    public void testQuotedFieldsKeepSeparatorsQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "title,description\n\"a, b\",\"say \"\"hi\"\"\nthen leave\"\n"));
+
+        Map<String, Object> record = reader.next();
+
+        assertEquals("a, b", record.get("title"));
+        assertEquals("say \"hi\"\nthen leave", record.get("description"));
+        assertNull(reader.next());
+    }
+
+    public void testBlankLinesAreSkippedAndShortRecordsAllowed() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("title,tags\n\nOnly title\n\n"));
+
+        assertEquals(Map.of("title", "Only title"), reader.next());
+        assertNull(reader.next());
+    }
+
+    public void testLastRecordWithoutLineBreak() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("title\nlast"));
+
+        assertEquals(Map.of("title", "last"), reader.next());
+        assertNull(reader.next());
+    }
+
+    public void testRecordWithTooManyFieldsIsRejectedButReadingContinues() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("title\na,b\nc\n"));
+
+        try {
+            reader.next();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, reader.getRecordNumber());
+        }
+        assertEquals(Map.of("title", "c"), reader.next());
+        assertEquals(2, reader.getRecordNumber());
+    }
+
+    public void testEmptyInputAndUnterminatedQuotesFail() throws IOException {
+        try {
+            new CsvRecordReader(new StringReader(""));
+            fail("Expected IOException for missing header");
+        } catch (IOException expected) {
+            // expected
+        }
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("title\n\"open"));
+        try {
+            reader.next();
+            fail("Expected IOException for unterminated quote");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    public void testRecordsLongerThanTheBuffer() throws IOException {
+        String description = "x".repeat(20000);
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("title,description\nbig,\"" + description + "\"\n"));
+
+        assertEquals(description, reader.next().get("description"));
+    }
+}
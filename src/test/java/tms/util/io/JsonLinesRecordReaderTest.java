@@ -0,0 +1,53 @@
+package tms.util.io;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+public class JsonLinesRecordReaderTest extends TestCase {
+
+    public void testReadsOneObjectPerLineWithLowerCasedNames() throws IOException {
+        JsonLinesRecordReader reader = new JsonLinesRecordReader(new StringReader(
+                "{\"Title\":\"Ship\",\"tags\":[\"ops\",\"urgent\"],\"estimate\":3}\n"
+                        + "\n"
+                        + "  {\"title\":\"Caf\\u00e9 \\\"run\\\"\",\"due_date\":null}\n"));
+
+        Map<String, Object> first = reader.next();
+        assertEquals("Ship", first.get("title"));
+        assertEquals(List.of("ops", "urgent"), first.get("tags"));
+        assertEquals(3L, first.get("estimate"));
+        assertEquals(1, reader.getRecordNumber());
+
+        Map<String, Object> second = reader.next();
+        assertEquals("Caf\u00e9 \"run\"", second.get("title"));
+        assertTrue(second.containsKey("due_date"));
+        assertNull(second.get("due_date"));
+        assertEquals(2, reader.getRecordNumber());
+
+        assertNull(reader.next());
+    }
+
+    public void testMalformedLineIsRejectedButReadingContinues() throws IOException {
+        JsonLinesRecordReader reader = new JsonLinesRecordReader(new StringReader(
+                "{\"title\":\"a\"\n[1,2]\n{\"title\":\"b\"}\n"));
+
+        assertMalformed(reader);
+        assertEquals(1, reader.getRecordNumber());
+        assertMalformed(reader);
+        assertEquals(2, reader.getRecordNumber());
+        assertEquals("b", reader.next().get("title"));
+        assertEquals(3, reader.getRecordNumber());
+    }
+
+    private static void assertMalformed(JsonLinesRecordReader reader) throws IOException {
+        try {
+            reader.next();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package tms.util.metrics;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest extends TestCase {
+
+    public void testSmallValuesHaveTheirOwnBuckets() {
+        for (int micros = 0; micros < 8; micros++) {
+            assertEquals(micros, LatencyHistogram.bucketIndex(micros));
+            assertEquals(micros, LatencyHistogram.bucketUpperBoundMicros(micros));
+        }
+    }
+
+    public void testBucketBoundariesAroundPowersOfTwo() {
+        assertEquals(7, LatencyHistogram.bucketIndex(7));
+        assertEquals(8, LatencyHistogram.bucketIndex(8));
+        assertEquals(15, LatencyHistogram.bucketIndex(15));
+        assertEquals(16, LatencyHistogram.bucketIndex(16));
+        assertEquals(16, LatencyHistogram.bucketIndex(17));
+        assertEquals(17, LatencyHistogram.bucketIndex(18));
+
+        assertEquals(8, LatencyHistogram.bucketUpperBoundMicros(8));
+        assertEquals(15, LatencyHistogram.bucketUpperBoundMicros(15));
+        assertEquals(17, LatencyHistogram.bucketUpperBoundMicros(16));
+    }
+
+    public void testEveryValueFallsWithinItsBucketBound() {
+        for (long micros = 0; micros < 5_000; micros++) {
+            int index = LatencyHistogram.bucketIndex(micros);
+            assertTrue(micros <= LatencyHistogram.bucketUpperBoundMicros(index));
+            if (index > 0) {
+                assertTrue(micros > LatencyHistogram.bucketUpperBoundMicros(index - 1));
+            }
+        }
+    }
+
+    public void testSaturatesAboveTheLargestExponent() {
+        int last = LatencyHistogram.bucketIndex((1L << 41) - 1);
+        assertEquals(last, LatencyHistogram.bucketIndex(1L << 41));
+        assertEquals(last, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        assertEquals(last + 1, new LatencyHistogram().getBucketCounts().length);
+        assertEquals((1L << 41) - 1, LatencyHistogram.bucketUpperBoundMicros(last));
+        assertTrue(LatencyHistogram.bucketIndex(1L << 40) < last);
+    }
+
+    public void testPercentilesOnKnownInputs() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getTotalMicros());
+        assertEquals(100, histogram.getMaxMicros());
+        assertEquals(50.5, histogram.getMeanMicros(), 1e-9);
+        assertEquals(1, histogram.getPercentileMicros(0));
+        // 50 falls into the 48..51 bucket and is reported as its upper bound.
+        assertEquals(51, histogram.getPercentileMicros(50));
+        // 99 falls into the 96..103 bucket, capped at the recorded maximum.
+        assertEquals(100, histogram.getPercentileMicros(99));
+        assertEquals(100, histogram.getPercentileMicros(100));
+    }
+
+    public void testEmptyHistogramAndNegativeDurations() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(50));
+        assertEquals(0.0, histogram.getMeanMicros(), 0.0);
+
+        histogram.record(-5_000L);
+        assertEquals(1, histogram.getCount());
+        assertEquals(1, histogram.getBucketCounts()[0]);
+        assertEquals(0, histogram.getPercentileMicros(99));
+    }
+}